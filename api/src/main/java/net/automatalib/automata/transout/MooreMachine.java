@@ -16,24 +16,8 @@
 package net.automatalib.automata.transout;
 
 import net.automatalib.automata.UniversalDeterministicAutomaton;
-import net.automatalib.automata.concepts.StateOutput;
+import net.automatalib.ts.transout.MooreTransitionSystem;
 
 public interface MooreMachine<S, I, T, O> extends UniversalDeterministicAutomaton<S, I, T, O, Void>,
-                                                  StateOutput<S, O>,
-                                                  TransitionOutputAutomaton<S, I, T, O> {
-
-    @Override
-    default O getStateProperty(S state) {
-        return getStateOutput(state);
-    }
-
-    @Override
-    default Void getTransitionProperty(T transition) {
-        return null;
-    }
-
-    @Override
-    default O getTransitionOutput(T transition) {
-        return getStateOutput(getSuccessor(transition));
-    }
-}
+                                                  TransitionOutputAutomaton<S, I, T, O>,
+                                                  MooreTransitionSystem<S, I, T, O> {}
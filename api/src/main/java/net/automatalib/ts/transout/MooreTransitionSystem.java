@@ -0,0 +1,51 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.ts.transout;
+
+import net.automatalib.automata.concepts.StateOutput;
+import net.automatalib.ts.UniversalDTS;
+
+/**
+ * A deterministic transition system with outputs in its states. The output of a transition is the output of its
+ * successor state.
+ *
+ * @param <S>
+ *         state class
+ * @param <I>
+ *         input symbol class
+ * @param <T>
+ *         transition class
+ * @param <O>
+ *         output symbol class
+ */
+public interface MooreTransitionSystem<S, I, T, O>
+        extends DeterministicTransitionOutputTS<S, I, T, O>, UniversalDTS<S, I, T, O, Void>, StateOutput<S, O> {
+
+    @Override
+    default O getStateProperty(S state) {
+        return getStateOutput(state);
+    }
+
+    @Override
+    default Void getTransitionProperty(T transition) {
+        return null;
+    }
+
+    @Override
+    default O getTransitionOutput(T transition) {
+        return getStateOutput(getSuccessor(transition));
+    }
+}
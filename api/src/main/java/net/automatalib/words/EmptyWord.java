@@ -58,6 +58,17 @@ final class EmptyWord extends Word<Object> {
     public void writeToArray(int offset, Object[] array, int tgtOffset, int length) {
     }
 
+    @Override
+    public int hashCode() {
+        // consistent with Word#hashCode() for a word without any symbols
+        return 5;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Word && ((Word<?>) other).isEmpty();
+    }
+
     @Override
     public Object getSymbol(int index) {
         throw new IndexOutOfBoundsException(Integer.toString(index));
@@ -0,0 +1,273 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.words;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A word that stores its symbols as indices of a fixed {@link Alphabet}. Symbols are only materialized (via {@link
+ * Alphabet#getSymbol(int)}) upon request, which allows automata that are defined over the same alphabet to process
+ * such words without any index lookups or boxing (see e.g. {@link #getSymbolIndex(int)}).
+ * <p>
+ * Instances are immutable: all factory methods copy the provided data, and sub-words share the underlying index
+ * array.
+ *
+ * @param <I>
+ *         input symbol class
+ */
+public final class IntWord<I> extends Word<I> {
+
+    private final Alphabet<I> alphabet;
+    private final int[] indices;
+    private final int offset;
+    private final int length;
+
+    // lazily computed, 0 means "not yet computed"
+    private transient int hash;
+
+    private IntWord(Alphabet<I> alphabet, int[] indices, int offset, int length) {
+        this.alphabet = alphabet;
+        this.indices = indices;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Creates a word from the given symbol indices.
+     *
+     * @param alphabet
+     *         the alphabet the indices refer to
+     * @param indices
+     *         the symbol indices (are copied)
+     *
+     * @return the word represented by the given indices
+     *
+     * @throws IllegalArgumentException
+     *         if any of the indices is not a valid index of the given alphabet
+     */
+    @Nonnull
+    public static <I> IntWord<I> fromIndices(Alphabet<I> alphabet, int... indices) {
+        return fromIndices(alphabet, indices, 0, indices.length);
+    }
+
+    /**
+     * Creates a word from a subrange of the given symbol indices.
+     *
+     * @param alphabet
+     *         the alphabet the indices refer to
+     * @param indices
+     *         the symbol indices (are copied)
+     * @param offset
+     *         the start index of the subrange
+     * @param length
+     *         the length of the subrange
+     *
+     * @return the word represented by the given indices
+     *
+     * @throws IllegalArgumentException
+     *         if any of the indices is not a valid index of the given alphabet
+     */
+    @Nonnull
+    public static <I> IntWord<I> fromIndices(Alphabet<I> alphabet, int[] indices, int offset, int length) {
+        final int[] copy = Arrays.copyOfRange(indices, offset, offset + length);
+        final int size = alphabet.size();
+
+        for (int idx : copy) {
+            if (idx < 0 || idx >= size) {
+                throw new IllegalArgumentException("Invalid symbol index " + idx + " for alphabet of size " + size);
+            }
+        }
+
+        return new IntWord<>(alphabet, copy, 0, length);
+    }
+
+    /**
+     * Converts the given word to an {@link IntWord} over the given alphabet. If the given word already is an {@link
+     * IntWord} over the same alphabet, it is returned as-is.
+     *
+     * @param alphabet
+     *         the alphabet used for encoding the symbols
+     * @param word
+     *         the word to convert
+     *
+     * @return the encoded word
+     *
+     * @throws IllegalArgumentException
+     *         if the word contains a symbol that is not contained in the given alphabet
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public static <I> IntWord<I> fromWord(Alphabet<I> alphabet, Word<? extends I> word) {
+        if (word instanceof IntWord && ((IntWord<?>) word).alphabet == alphabet) {
+            return (IntWord<I>) word;
+        }
+
+        final int len = word.length();
+        final int[] indices = new int[len];
+        int i = 0;
+        for (I sym : word) {
+            indices[i++] = alphabet.getSymbolIndex(sym);
+        }
+
+        return new IntWord<>(alphabet, indices, 0, len);
+    }
+
+    /**
+     * Retrieves the alphabet whose indices this word stores.
+     *
+     * @return the alphabet of this word
+     */
+    @Nonnull
+    public Alphabet<I> getAlphabet() {
+        return alphabet;
+    }
+
+    /**
+     * Retrieves the index (wrt. {@link #getAlphabet()}) of the symbol at the given position.
+     *
+     * @param index
+     *         the position
+     *
+     * @return the symbol index at the given position
+     */
+    public int getSymbolIndex(int index) {
+        return indices[offset + index];
+    }
+
+    /**
+     * Writes the symbol indices of a subrange of this word to the given array.
+     *
+     * @param offset
+     *         the start position (in this word)
+     * @param array
+     *         the target array
+     * @param tgtOfs
+     *         the start position in the target array
+     * @param num
+     *         the number of indices to write
+     */
+    public void writeIndicesToArray(int offset, int[] array, int tgtOfs, int num) {
+        System.arraycopy(indices, this.offset + offset, array, tgtOfs, num);
+    }
+
+    /**
+     * Retrieves the symbol indices of this word as a (newly allocated) array.
+     *
+     * @return the symbol indices of this word
+     */
+    @Nonnull
+    public int[] toIndexArray() {
+        return Arrays.copyOfRange(indices, offset, offset + length);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public I getSymbol(int index) {
+        return alphabet.getSymbol(indices[offset + index]);
+    }
+
+    @Override
+    public Word<I> subWordInternal(int fromIndex, int toIndex) {
+        final int newLen = toIndex - fromIndex;
+        if (newLen <= 0) {
+            return Word.epsilon();
+        }
+        return new IntWord<>(alphabet, indices, offset + fromIndex, newLen);
+    }
+
+    @Override
+    public Word<I> flatten() {
+        return this;
+    }
+
+    @Override
+    public Word<I> trimmed() {
+        if (offset == 0 && length == indices.length) {
+            return this;
+        }
+        return new IntWord<>(alphabet, toIndexArray(), 0, length);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = this.hash;
+        if (h == 0) {
+            h = 5;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                final I sym = alphabet.getSymbol(indices[i]);
+                h *= 89;
+                h += (sym != null) ? sym.hashCode() : 0;
+            }
+            this.hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof IntWord) || ((IntWord<?>) other).alphabet != alphabet) {
+            return super.equals(other);
+        }
+
+        final IntWord<?> that = (IntWord<?>) other;
+        if (length != that.length) {
+            return false;
+        }
+
+        final int[] thatIndices = that.indices;
+        for (int i = offset, j = that.offset, end = offset + length; i < end; i++, j++) {
+            if (indices[i] != thatIndices[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isPrefixOf(Word<?> other) {
+        if (!(other instanceof IntWord) || ((IntWord<?>) other).alphabet != alphabet) {
+            return super.isPrefixOf(other);
+        }
+
+        final IntWord<?> that = (IntWord<?>) other;
+        if (length > that.length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (indices[offset + i] != that.indices[that.offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void writeToArray(int offset, Object[] array, int tgtOffset, int length) {
+        for (int i = this.offset + offset, end = i + length; i < end; i++) {
+            array[tgtOffset++] = alphabet.getSymbol(indices[i]);
+        }
+    }
+}
@@ -140,6 +140,23 @@ final class LetterWord<I> extends Word<I> implements Serializable {
         return this;
     }
 
+    @Override
+    public int hashCode() {
+        return 5 * 89 + ((letter != null) ? letter.hashCode() : 0);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Word)) {
+            return false;
+        }
+        final Word<?> otherWord = (Word<?>) other;
+        return otherWord.length() == 1 && Objects.equals(letter, otherWord.getSymbol(0));
+    }
+
     @Override
     public Word<I> trimmed() {
         return this;
@@ -18,6 +18,7 @@ package net.automatalib.words;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Spliterator;
 
 /**
@@ -35,6 +36,9 @@ final class SharedWord<I> extends Word<I> {
     private final int offset;
     private final int length;
 
+    // lazily computed, 0 means "not yet computed". Transient, so deserialized words simply re-compute it
+    private transient int hash;
+
     /**
      * Constructor.
      */
@@ -117,6 +121,50 @@ final class SharedWord<I> extends Word<I> {
         return this;
     }
 
+    @Override
+    public int hashCode() {
+        int h = this.hash;
+        if (h == 0) {
+            h = 5;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                final Object sym = storage[i];
+                h *= 89;
+                h += (sym != null) ? sym.hashCode() : 0;
+            }
+            this.hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SharedWord)) {
+            return super.equals(other);
+        }
+
+        final SharedWord<?> that = (SharedWord<?>) other;
+        if (length != that.length) {
+            return false;
+        }
+        if (hash != 0 && that.hash != 0 && hash != that.hash) {
+            return false;
+        }
+        if (storage == that.storage && offset == that.offset) {
+            return true;
+        }
+
+        final Object[] thatStorage = that.storage;
+        for (int i = offset, j = that.offset, end = offset + length; i < end; i++, j++) {
+            if (!Objects.equals(storage[i], thatStorage[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public Word<I> trimmed() {
         if (offset == 0 && length == storage.length) {
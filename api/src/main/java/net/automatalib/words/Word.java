@@ -109,7 +109,7 @@ public abstract class Word<I> extends AbstractPrintable implements ArrayWritable
         }
         Object[] array = new Object[symbols.length];
         System.arraycopy(symbols, 0, array, 0, symbols.length);
-        return new SharedWord<>(symbols);
+        return new SharedWord<>(array);
     }
 
     /**
@@ -161,7 +161,7 @@ public abstract class Word<I> extends AbstractPrintable implements ArrayWritable
         }
         Object[] array = new Object[length];
         System.arraycopy(symbols, offset, array, 0, length);
-        return new SharedWord<>(symbols);
+        return new SharedWord<>(array);
     }
 
     /**
@@ -0,0 +1,128 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.words;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class IntWordTest extends AbstractNonemptyWordTest {
+
+    // symbol i is stored at index i
+    private static final Alphabet<Object> ALPHABET = new ListAlphabet(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+
+    @Override
+    protected Word<Object> testWord() {
+        return IntWord.fromIndices(ALPHABET, new int[] {2, 1, 3, 3, 7, 9}, 1, 4);
+    }
+
+    @Override
+    protected List<Word<Object>> equalWords() {
+        return Arrays.asList(IntWord.fromIndices(ALPHABET, 1, 3, 3, 7),
+                             IntWord.fromIndices(ALPHABET, 0, 1, 3, 3, 7).subWord(1),
+                             IntWord.fromWord(ALPHABET, Word.fromSymbols(1, 3, 3, 7)),
+                             new SharedWord<>(new Object[] {1, 3, 3, 7}));
+    }
+
+    @Override
+    protected List<Word<Object>> unequalWords() {
+        return Arrays.asList(IntWord.fromIndices(ALPHABET, 1, 3, 3),
+                             IntWord.fromIndices(ALPHABET, 1, 3, 3, 8),
+                             new SharedWord<>(new Object[] {1, 3, 3, 8}),
+                             new EmptyWord());
+    }
+
+    @Override
+    protected List<Word<Object>> realPrefixes() {
+        return Arrays.asList(new EmptyWord(),
+                             IntWord.fromIndices(ALPHABET, 1, 3),
+                             new SharedWord<>(new Object[] {1, 3, 3}),
+                             new LetterWord<Object>(1));
+    }
+
+    @Override
+    protected List<Word<Object>> realSuffixes() {
+        return Arrays.asList(new EmptyWord(),
+                             IntWord.fromIndices(ALPHABET, 3, 7),
+                             new SharedWord<>(new Object[] {3, 3, 7}),
+                             new LetterWord<>(7));
+    }
+
+    @Test
+    public void testIndices() {
+        final IntWord<Object> word = (IntWord<Object>) testWord;
+
+        Assert.assertSame(ALPHABET, word.getAlphabet());
+        Assert.assertEquals(word.toIndexArray(), new int[] {1, 3, 3, 7});
+        Assert.assertEquals(word.getSymbolIndex(3), 7);
+
+        final int[] target = new int[3];
+        word.writeIndicesToArray(1, target, 1, 2);
+        Assert.assertEquals(target, new int[] {0, 3, 3});
+
+        Assert.assertSame(IntWord.fromWord(ALPHABET, word), word);
+    }
+
+    @Test
+    public void testCopies() {
+        final int[] indices = new int[] {1, 2};
+        final IntWord<Object> word = IntWord.fromIndices(ALPHABET, indices);
+        final int hash = word.hashCode();
+
+        indices[0] = 5;
+
+        Assert.assertEquals(word, Word.fromSymbols(1, 2));
+        Assert.assertEquals(word.hashCode(), hash);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidIndex() {
+        IntWord.fromIndices(ALPHABET, 1, 10);
+    }
+
+    private static final class ListAlphabet extends AbstractList<Object> implements Alphabet<Object> {
+
+        private final List<Object> symbols;
+
+        ListAlphabet(List<Object> symbols) {
+            this.symbols = symbols;
+        }
+
+        @Override
+        public Object getSymbol(int index) {
+            return symbols.get(index);
+        }
+
+        @Override
+        public int getSymbolIndex(Object symbol) {
+            return symbols.indexOf(symbol);
+        }
+
+        @Override
+        public Object get(int index) {
+            return getSymbol(index);
+        }
+
+        @Override
+        public int size() {
+            return symbols.size();
+        }
+    }
+}
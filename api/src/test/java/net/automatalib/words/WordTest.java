@@ -49,7 +49,9 @@ public class WordTest {
         Assert.assertEquals(reference, Word.fromWords(Arrays.asList(a, b, c)));
 
         Assert.assertEquals(Word.epsilon(), Word.fromArray(referenceAsArray, 0, 0));
-        Assert.assertEquals(reference, Word.fromArray(referenceAsArray, 0, 2));
+        Assert.assertEquals(reference, Word.fromArray(referenceAsArray, 0, 3));
+        Assert.assertEquals(reference.prefix(2), Word.fromArray(referenceAsArray, 0, 2));
+        Assert.assertEquals(reference.suffix(2), Word.fromArray(referenceAsArray, 1, 2));
     }
 
     @Test
@@ -101,4 +103,65 @@ public class WordTest {
         Assert.assertEquals(abc, abc.subWord(0));
         Assert.assertEquals(b, abc.subWord(1, 2));
     }
+
+    @Test
+    public void equalsHashCodeTest() {
+        final Object[] storage = new Object[] {'x', 'a', 'b', 'c', 'y'};
+
+        final Word<Character> listWord = Word.fromList(Arrays.asList('a', 'b', 'c'));
+        final Word<Character> sharedWord = new SharedWord<>(storage, 1, 3);
+        final Word<Character> builtWord = new WordBuilder<Character>().append('a', 'b').append('c').toWord();
+        final Word<Character> concatWord = Word.fromLetter('a').concat(Word.fromSymbols('b', 'c'));
+
+        for (Word<Character> w : Arrays.asList(listWord, sharedWord, builtWord, concatWord)) {
+            Assert.assertEquals(w, listWord);
+            Assert.assertEquals(listWord, w);
+            Assert.assertEquals(w.hashCode(), listWord.hashCode());
+            // cached hash code must be stable
+            Assert.assertEquals(w.hashCode(), listWord.hashCode());
+        }
+
+        Assert.assertNotEquals(sharedWord, new SharedWord<>(storage, 0, 3));
+        Assert.assertNotEquals(sharedWord, new SharedWord<>(storage, 1, 2));
+        Assert.assertNotEquals(sharedWord, Word.fromSymbols('a', null, 'c'));
+        Assert.assertEquals(Word.fromSymbols('a', null, 'c'), Word.fromList(Arrays.asList('a', null, 'c')));
+        Assert.assertEquals(Word.fromSymbols('a', null, 'c').hashCode(),
+                            Word.fromList(Arrays.asList('a', null, 'c')).hashCode());
+
+        Assert.assertEquals(Word.fromLetter('a'), sharedWord.subWord(0, 1));
+        Assert.assertEquals(sharedWord.subWord(0, 1), Word.fromLetter('a'));
+        Assert.assertEquals(Word.fromLetter('a').hashCode(), sharedWord.subWord(0, 1).hashCode());
+        Assert.assertEquals(Word.fromLetter(null), Word.fromList(Collections.singletonList(null)));
+        Assert.assertEquals(Word.fromLetter(null).hashCode(), Word.fromList(Collections.singletonList(null)).hashCode());
+
+        final Word<Character> epsilon = Word.epsilon();
+        Assert.assertEquals(epsilon, sharedWord.subWord(1, 1));
+        Assert.assertEquals(epsilon, new SharedWord<>(new Object[0]));
+        Assert.assertEquals(epsilon.hashCode(), new SharedWord<>(new Object[0]).hashCode());
+        Assert.assertNotEquals(epsilon, Word.fromLetter('a'));
+    }
+
+    @Test
+    public void fromSymbolsCopiesTest() {
+        final Character[] symbols = new Character[] {'a', 'b', 'c'};
+        final Word<Character> word = Word.fromSymbols(symbols);
+        final int hash = word.hashCode();
+
+        symbols[1] = 'x';
+
+        Assert.assertEquals(word, Word.fromCharSequence("abc"));
+        Assert.assertEquals(word.hashCode(), hash);
+    }
+
+    @Test
+    public void fromArrayCopiesTest() {
+        final Character[] symbols = new Character[] {'x', 'a', 'b', 'c', 'y'};
+        final Word<Character> word = Word.fromArray(symbols, 1, 3);
+        final int hash = word.hashCode();
+
+        symbols[2] = 'x';
+
+        Assert.assertEquals(word, Word.fromCharSequence("abc"));
+        Assert.assertEquals(word.hashCode(), hash);
+    }
 }
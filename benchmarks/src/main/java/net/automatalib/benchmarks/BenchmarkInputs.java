@@ -0,0 +1,162 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+
+/**
+ * Shared (deterministic) input generation for the benchmarks of this module. All random structures are derived from
+ * fixed seeds, so that consecutive runs operate on identical inputs.
+ */
+public final class BenchmarkInputs {
+
+    /**
+     * The default seed used for generating random automata and words.
+     */
+    public static final long SEED = 42L;
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * Returns the input alphabet consisting of the integers {@code 0, ..., size - 1}.
+     *
+     * @param size
+     *         the size of the alphabet
+     *
+     * @return the input alphabet
+     */
+    public static Alphabet<Integer> inputs(int size) {
+        return Alphabets.integers(0, size - 1);
+    }
+
+    /**
+     * Returns the output alphabet consisting of the characters {@code 'a', ..., 'a' + size - 1}.
+     *
+     * @param size
+     *         the size of the alphabet
+     *
+     * @return the output alphabet
+     */
+    public static Alphabet<Character> outputs(int size) {
+        return Alphabets.characters('a', (char) ('a' + size - 1));
+    }
+
+    /**
+     * Generates a random NFA in which every state has (on average) {@code degree} successors per input symbol, and a
+     * third of all states is accepting.
+     *
+     * @param random
+     *         the randomness source
+     * @param numStates
+     *         the number of states
+     * @param alphabet
+     *         the input alphabet
+     * @param degree
+     *         the maximum number of successors per state and input symbol
+     *
+     * @return the random NFA
+     */
+    public static <I> CompactNFA<I> randomNFA(Random random, int numStates, Alphabet<I> alphabet, int degree) {
+        final CompactNFA<I> result = new CompactNFA<>(alphabet, numStates);
+        final int alphabetSize = alphabet.size();
+
+        result.addIntInitialState(Boolean.TRUE);
+        for (int i = 1; i < numStates; i++) {
+            result.addIntState(random.nextInt(3) == 0);
+        }
+
+        for (int s = 0; s < numStates; s++) {
+            for (int i = 0; i < alphabetSize; i++) {
+                final int numSuccs = random.nextInt(degree + 1);
+                for (int j = 0; j < numSuccs; j++) {
+                    result.addTransition(s, i, random.nextInt(numStates));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Generates a random sequence of symbol indices.
+     *
+     * @param random
+     *         the randomness source
+     * @param length
+     *         the length of the sequence
+     * @param alphabetSize
+     *         the (exclusive) upper bound of the indices
+     *
+     * @return the random sequence
+     */
+    public static int[] randomIndices(Random random, int length, int alphabetSize) {
+        final int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = random.nextInt(alphabetSize);
+        }
+        return result;
+    }
+
+    /**
+     * Generates a list of random words over the given alphabet.
+     *
+     * @param random
+     *         the randomness source
+     * @param alphabet
+     *         the alphabet
+     * @param numWords
+     *         the number of words
+     * @param maxLength
+     *         the (inclusive) maximum length of each word
+     *
+     * @return the list of random words
+     */
+    public static <I> List<Word<I>> randomWords(Random random, Alphabet<I> alphabet, int numWords, int maxLength) {
+        final List<Word<I>> result = new ArrayList<>(numWords);
+        for (int i = 0; i < numWords; i++) {
+            result.add(randomWord(random, alphabet, random.nextInt(maxLength + 1)));
+        }
+        return result;
+    }
+
+    /**
+     * Generates a random word over the given alphabet.
+     *
+     * @param random
+     *         the randomness source
+     * @param alphabet
+     *         the alphabet
+     * @param length
+     *         the length of the word
+     *
+     * @return the random word
+     */
+    public static <I> Word<I> randomWord(Random random, Alphabet<I> alphabet, int length) {
+        final List<I> symbols = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            symbols.add(alphabet.getSymbol(random.nextInt(alphabet.size())));
+        }
+        return Word.fromList(symbols);
+    }
+}
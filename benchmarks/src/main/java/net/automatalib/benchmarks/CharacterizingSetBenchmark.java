@@ -0,0 +1,83 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.equivalence.CharacterizingSets;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the computation of characterizing sets of random Mealy machines by {@link CharacterizingSets}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class CharacterizingSetBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    @Param({"2", "10"})
+    private int alphabetSize;
+
+    private Alphabet<Integer> alphabet;
+    private CompactMealy<Integer, Character> mealy;
+
+    @Setup
+    public void setUp() {
+        this.alphabet = BenchmarkInputs.inputs(alphabetSize);
+        this.mealy = RandomAutomata.randomMealy(new Random(BenchmarkInputs.SEED),
+                                                size,
+                                                alphabet,
+                                                BenchmarkInputs.outputs(2),
+                                                false);
+    }
+
+    @Benchmark
+    public List<Word<Integer>> pairwise() {
+        final List<Word<Integer>> result = new ArrayList<>();
+        CharacterizingSets.findCharacterizingSet(mealy, alphabet, result);
+        return result;
+    }
+
+    @Benchmark
+    public List<Word<Integer>> splittingTree() {
+        final List<Word<Integer>> result = new ArrayList<>();
+        CharacterizingSets.findCharacterizingSetFromSplittingTree(mealy, alphabet, result);
+        return result;
+    }
+}
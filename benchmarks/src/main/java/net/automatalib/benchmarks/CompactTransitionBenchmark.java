@@ -0,0 +1,146 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.automata.transout.impl.compact.CompactMealyTransition;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.IntWord;
+import net.automatalib.words.Word;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for successor lookups in {@link CompactDFA}s and {@link CompactMealy}s. Each invocation runs a fixed
+ * sequence of {@value #RUN_LENGTH} random input symbols through the automaton.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class CompactTransitionBenchmark {
+
+    private static final int RUN_LENGTH = 4096;
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"2", "10"})
+    private int alphabetSize;
+
+    private CompactDFA<Integer> dfa;
+    private CompactMealy<Integer, Character> mealy;
+    private int[] inputIndices;
+    private Integer[] inputSymbols;
+    private Word<Integer> inputWord;
+    private IntWord<Integer> inputIntWord;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkInputs.SEED);
+        final Alphabet<Integer> alphabet = BenchmarkInputs.inputs(alphabetSize);
+
+        this.dfa = RandomAutomata.randomDFA(random, size, alphabet, false);
+        this.mealy = RandomAutomata.randomMealy(random, size, alphabet, BenchmarkInputs.outputs(4), false);
+        this.inputIndices = BenchmarkInputs.randomIndices(random, RUN_LENGTH, alphabetSize);
+        this.inputSymbols = new Integer[RUN_LENGTH];
+
+        for (int i = 0; i < RUN_LENGTH; i++) {
+            inputSymbols[i] = alphabet.getSymbol(inputIndices[i]);
+        }
+
+        this.inputWord = Word.fromSymbols(inputSymbols);
+        this.inputIntWord = IntWord.fromIndices(alphabet, inputIndices);
+    }
+
+    @Benchmark
+    public int dfaIntTransitionByIndex() {
+        int state = dfa.getIntInitialState();
+        for (final int input : inputIndices) {
+            state = dfa.getIntTransition(state, input);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public int dfaIntTransitionBySymbol() {
+        int state = dfa.getIntInitialState();
+        for (final Integer input : inputSymbols) {
+            state = dfa.getIntTransition(state, input);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public int dfaIntSuccessorWord() {
+        return dfa.getIntSuccessor(dfa.getIntInitialState(), inputWord);
+    }
+
+    @Benchmark
+    public int dfaIntSuccessorIntWord() {
+        return dfa.getIntSuccessor(dfa.getIntInitialState(), inputIntWord);
+    }
+
+    @Benchmark
+    public int mealyIntSuccessorIntWord() {
+        return mealy.getIntSuccessor(mealy.getIntInitialState(), inputIntWord);
+    }
+
+    @Benchmark
+    public int mealyTransitionByIndex() {
+        int state = mealy.getIntInitialState();
+        for (final int input : inputIndices) {
+            final CompactMealyTransition<Character> trans = mealy.getTransition(state, input);
+            state = mealy.getIntSuccessor(trans);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public int mealySuccessorByIndex() {
+        int state = mealy.getIntInitialState();
+        for (final int input : inputIndices) {
+            state = mealy.getSuccessor(state, input);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public int mealyTransitionBySymbol() {
+        int state = mealy.getIntInitialState();
+        for (final Integer input : inputSymbols) {
+            final CompactMealyTransition<Character> trans = mealy.getTransition(state, input);
+            state = mealy.getIntSuccessor(trans);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,146 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.incremental.mealy.IncrementalMealyBuilder;
+import net.automatalib.incremental.mealy.tree.ConcurrentIncrementalMealyTreeBuilder;
+import net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for a query cache that is shared by multiple threads: an {@link IncrementalMealyTreeBuilder} guarded by a
+ * global lock vs. a {@link ConcurrentIncrementalMealyTreeBuilder}. Each operation looks up a word and, every {@link
+ * #INSERT_RATIO}-th time, inserts a word.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentIncrementalMealyBenchmark {
+
+    private static final int MODEL_SIZE = 1000;
+    private static final int ALPHABET_SIZE = 5;
+    private static final int NUM_WORDS = 100000;
+    private static final int INSERT_RATIO = 4;
+
+    @Param({"10", "50"})
+    private int maxLength;
+
+    private List<Word<Integer>> inputs;
+    private List<Word<Character>> outputs;
+    private IncrementalMealyBuilder<Integer, Character> lockedBuilder;
+    private IncrementalMealyBuilder<Integer, Character> concurrentBuilder;
+    private Alphabet<Integer> alphabet;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkInputs.SEED);
+
+        this.alphabet = BenchmarkInputs.inputs(ALPHABET_SIZE);
+
+        final CompactMealy<Integer, Character> model =
+                RandomAutomata.randomMealy(random, MODEL_SIZE, alphabet, BenchmarkInputs.outputs(2));
+
+        this.inputs = BenchmarkInputs.randomWords(random, alphabet, NUM_WORDS, maxLength);
+        this.outputs = new ArrayList<>(NUM_WORDS);
+
+        for (final Word<Integer> input : inputs) {
+            outputs.add(model.computeOutput(input));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpBuilders() {
+        this.lockedBuilder = new IncrementalMealyTreeBuilder<>(alphabet);
+        this.concurrentBuilder = new ConcurrentIncrementalMealyTreeBuilder<>(alphabet);
+    }
+
+    @Benchmark
+    public boolean locked(Cursor cursor) {
+        final int idx = cursor.next();
+        final Word<Integer> input = inputs.get(idx);
+
+        synchronized (lockedBuilder) {
+            if (idx % INSERT_RATIO == 0) {
+                lockedBuilder.insert(input, outputs.get(idx));
+            }
+        }
+        synchronized (lockedBuilder) {
+            return cursor.lookup(lockedBuilder, input);
+        }
+    }
+
+    @Benchmark
+    public boolean concurrent(Cursor cursor) {
+        final int idx = cursor.next();
+        final Word<Integer> input = inputs.get(idx);
+
+        if (idx % INSERT_RATIO == 0) {
+            concurrentBuilder.insert(input, outputs.get(idx));
+        }
+        return cursor.lookup(concurrentBuilder, input);
+    }
+
+    /**
+     * The per-thread position in the list of words.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private final WordBuilder<Character> output = new WordBuilder<>();
+        private int position;
+
+        @Setup
+        public void setUp() {
+            this.position = (int) (Thread.currentThread().getId() * 7919 % NUM_WORDS);
+        }
+
+        int next() {
+            position = (position + 1) % NUM_WORDS;
+            return position;
+        }
+
+        boolean lookup(IncrementalMealyBuilder<Integer, Character> builder, Word<Integer> input) {
+            output.clear();
+            return builder.lookup(input, output);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.util.automata.fsa.NFAs;
+import net.automatalib.words.Alphabet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the subset construction of {@link NFAs}. Note that the subset construction may produce exponentially
+ * many states, hence the NFA sizes are kept small.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class DeterminizationBenchmark {
+
+    @Param({"10", "14"})
+    private int size;
+
+    @Param({"2", "10"})
+    private int alphabetSize;
+
+    private Alphabet<Integer> alphabet;
+    private CompactNFA<Integer> nfa;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkInputs.SEED);
+
+        this.alphabet = BenchmarkInputs.inputs(alphabetSize);
+        this.nfa = BenchmarkInputs.randomNFA(random, size, alphabet, 3);
+    }
+
+    @Benchmark
+    public CompactDFA<Integer> determinize() {
+        return NFAs.determinize(nfa, alphabet, false, false);
+    }
+
+    @Benchmark
+    public CompactDFA<Integer> determinizeParallel() {
+        return NFAs.determinizeParallel(nfa, alphabet, false, false);
+    }
+
+    @Benchmark
+    public CompactDFA<Integer> determinizeAndMinimize() {
+        return NFAs.determinize(nfa, alphabet, false, true);
+    }
+
+    @Benchmark
+    public CompactDFA<Integer> determinizeMinimal() {
+        return NFAs.determinizeMinimal(nfa, alphabet, false);
+    }
+
+    /**
+     * Checks the inclusion of the NFA in itself, which (as it holds) requires a complete exploration of the antichain.
+     */
+    @Benchmark
+    public boolean selfInclusion() {
+        return NFAs.isIncluded(nfa, nfa, alphabet);
+    }
+}
@@ -0,0 +1,99 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.equivalence.DeterministicEquivalenceTest;
+import net.automatalib.util.automata.equivalence.NearLinearEquivalenceTest;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link NearLinearEquivalenceTest#findSeparatingWord(net.automatalib.automata.UniversalDeterministicAutomaton,
+ * net.automatalib.automata.UniversalDeterministicAutomaton, Alphabet) separating word searches}. The equivalent case
+ * (which requires a full exploration of the product) is benchmarked by comparing an automaton with a copy of itself.
+ * The {@code ...Shortest} benchmarks measure the (sequential or parallel) breadth-first search of {@link
+ * DeterministicEquivalenceTest} instead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class EquivalenceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"2", "10"})
+    private int alphabetSize;
+
+    private Alphabet<Integer> alphabet;
+    private CompactMealy<Integer, Character> mealy1;
+    private CompactMealy<Integer, Character> mealy1Copy;
+    private CompactMealy<Integer, Character> mealy2;
+
+    @Setup
+    public void setUp() {
+        final Alphabet<Character> outputs = BenchmarkInputs.outputs(2);
+        this.alphabet = BenchmarkInputs.inputs(alphabetSize);
+
+        this.mealy1 = RandomAutomata.randomMealy(new Random(BenchmarkInputs.SEED), size, alphabet, outputs, false);
+        this.mealy1Copy = RandomAutomata.randomMealy(new Random(BenchmarkInputs.SEED), size, alphabet, outputs, false);
+        this.mealy2 = RandomAutomata.randomMealy(new Random(BenchmarkInputs.SEED + 1), size, alphabet, outputs, false);
+    }
+
+    @Benchmark
+    public Word<Integer> equivalent() {
+        return NearLinearEquivalenceTest.findSeparatingWord(mealy1, mealy1Copy, alphabet);
+    }
+
+    @Benchmark
+    public Word<Integer> inequivalent() {
+        return NearLinearEquivalenceTest.findSeparatingWord(mealy1, mealy2, alphabet);
+    }
+
+    @Benchmark
+    public Word<Integer> equivalentShortest() {
+        return DeterministicEquivalenceTest.findSeparatingWord(mealy1, mealy1Copy, alphabet);
+    }
+
+    @Benchmark
+    public Word<Integer> inequivalentShortest() {
+        return DeterministicEquivalenceTest.findSeparatingWord(mealy1, mealy2, alphabet);
+    }
+
+    @Benchmark
+    public Word<Integer> equivalentShortestParallel() {
+        return DeterministicEquivalenceTest.findSeparatingWordParallel(mealy1, mealy1Copy, alphabet);
+    }
+}
@@ -0,0 +1,161 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.incremental.mealy.IncrementalMealyBuilder;
+import net.automatalib.incremental.mealy.dag.CompactIncrementalMealyDAGBuilder;
+import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for inserting into and looking up from an {@link IncrementalMealyDAGBuilder} and a {@link
+ * CompactIncrementalMealyDAGBuilder}. The queries are answered by a random Mealy machine, so that all inserted words
+ * are consistent with each other. Moreover, the consistency check of a filled {@link IncrementalMealyDAGBuilder}
+ * against this machine is benchmarked, which explores the complete product as no separating word exists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class IncrementalMealyBenchmark {
+
+    private static final int MODEL_SIZE = 1000;
+    private static final int ALPHABET_SIZE = 5;
+
+    @Param({"1000", "10000", "100000"})
+    private int numWords;
+
+    @Param({"10", "50"})
+    private int maxLength;
+
+    private Alphabet<Integer> alphabet;
+    private CompactMealy<Integer, Character> model;
+    private List<Word<Integer>> inputs;
+    private List<Word<Character>> outputs;
+    private IncrementalMealyBuilder<Integer, Character> filledBuilder;
+    private IncrementalMealyBuilder<Integer, Character> filledCompactBuilder;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkInputs.SEED);
+
+        this.alphabet = BenchmarkInputs.inputs(ALPHABET_SIZE);
+
+        this.model = RandomAutomata.randomMealy(random, MODEL_SIZE, alphabet, BenchmarkInputs.outputs(2));
+
+        this.inputs = BenchmarkInputs.randomWords(random, alphabet, numWords, maxLength);
+        this.outputs = new ArrayList<>(numWords);
+
+        for (final Word<Integer> input : inputs) {
+            outputs.add(model.computeOutput(input));
+        }
+
+        this.filledBuilder = insertAll(IncrementalMealyDAGBuilder::new);
+        this.filledCompactBuilder = insertAll(CompactIncrementalMealyDAGBuilder::new);
+    }
+
+    @Benchmark
+    public IncrementalMealyBuilder<Integer, Character> insert() {
+        return insertAll(IncrementalMealyDAGBuilder::new);
+    }
+
+    @Benchmark
+    public IncrementalMealyBuilder<Integer, Character> insertCompact() {
+        return insertAll(CompactIncrementalMealyDAGBuilder::new);
+    }
+
+    @Benchmark
+    public IncrementalMealyBuilder<Integer, Character> insertBatch() {
+        final IncrementalMealyBuilder<Integer, Character> builder = new IncrementalMealyDAGBuilder<>(alphabet);
+        builder.insertAll(inputs, outputs);
+        return builder;
+    }
+
+    @Benchmark
+    public IncrementalMealyBuilder<Integer, Character> insertBatchCompact() {
+        final IncrementalMealyBuilder<Integer, Character> builder = new CompactIncrementalMealyDAGBuilder<>(alphabet);
+        builder.insertAll(inputs, outputs);
+        return builder;
+    }
+
+    @Benchmark
+    public int lookup() {
+        return lookupAll(filledBuilder);
+    }
+
+    @Benchmark
+    public int lookupCompact() {
+        return lookupAll(filledCompactBuilder);
+    }
+
+    @Benchmark
+    public List<Word<Character>> lookupBatchCompact() {
+        return filledCompactBuilder.lookupAll(inputs);
+    }
+
+    @Benchmark
+    public Word<Integer> findSeparatingWord() {
+        return filledBuilder.findSeparatingWord(model, alphabet, false);
+    }
+
+    private int lookupAll(IncrementalMealyBuilder<Integer, Character> builder) {
+        final WordBuilder<Character> wb = new WordBuilder<>(maxLength);
+        int found = 0;
+
+        for (final Word<Integer> input : inputs) {
+            if (builder.lookup(input, wb)) {
+                found++;
+            }
+            wb.clear();
+        }
+
+        return found;
+    }
+
+    private IncrementalMealyBuilder<Integer, Character> insertAll(
+            Function<Alphabet<Integer>, IncrementalMealyBuilder<Integer, Character>> constructor) {
+        final IncrementalMealyBuilder<Integer, Character> builder = constructor.apply(alphabet);
+
+        for (int i = 0; i < numWords; i++) {
+            builder.insert(inputs.get(i), outputs.get(i));
+        }
+
+        return builder;
+    }
+}
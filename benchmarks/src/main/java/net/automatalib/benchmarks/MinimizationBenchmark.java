@@ -0,0 +1,88 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization.PruningMode;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link HopcroftMinimization} of (non-minimal) random DFAs and Mealy machines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class MinimizationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"2", "10"})
+    private int alphabetSize;
+
+    private Alphabet<Integer> alphabet;
+    private CompactDFA<Integer> dfa;
+    private CompactMealy<Integer, Character> mealy;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkInputs.SEED);
+
+        this.alphabet = BenchmarkInputs.inputs(alphabetSize);
+        this.dfa = RandomAutomata.randomDFA(random, size, alphabet, false);
+        this.mealy = RandomAutomata.randomMealy(random, size, alphabet, BenchmarkInputs.outputs(2), false);
+    }
+
+    @Benchmark
+    public CompactDFA<Integer> minimizeDFA() {
+        return HopcroftMinimization.minimizeDFA(dfa, alphabet);
+    }
+
+    @Benchmark
+    public CompactMealy<Integer, Character> minimizeMealy() {
+        return HopcroftMinimization.minimizeMealy(mealy, alphabet);
+    }
+
+    @Benchmark
+    public CompactDFA<Integer> minimizeDFAParallel() {
+        return HopcroftMinimization.minimizeDFAParallel(dfa, alphabet, PruningMode.PRUNE_AFTER);
+    }
+
+    @Benchmark
+    public CompactMealy<Integer, Character> minimizeMealyParallel() {
+        return HopcroftMinimization.minimizeMealyParallel(mealy, alphabet, PruningMode.PRUNE_AFTER);
+    }
+}
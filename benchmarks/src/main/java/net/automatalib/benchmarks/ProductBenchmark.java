@@ -0,0 +1,73 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.fsa.DFAs;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.util.ts.acceptors.AcceptanceCombiner;
+import net.automatalib.words.Alphabet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the product construction of {@link DFAs#combine(net.automatalib.automata.fsa.DFA,
+ * net.automatalib.automata.fsa.DFA, Alphabet, AcceptanceCombiner)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ProductBenchmark {
+
+    @Param({"100", "500"})
+    private int size;
+
+    @Param({"2", "10"})
+    private int alphabetSize;
+
+    private Alphabet<Integer> alphabet;
+    private CompactDFA<Integer> dfa1;
+    private CompactDFA<Integer> dfa2;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkInputs.SEED);
+
+        this.alphabet = BenchmarkInputs.inputs(alphabetSize);
+        this.dfa1 = RandomAutomata.randomDFA(random, size, alphabet, false);
+        this.dfa2 = RandomAutomata.randomDFA(random, size, alphabet, false);
+    }
+
+    @Benchmark
+    public CompactDFA<Integer> combine() {
+        return DFAs.combine(dfa1, dfa2, alphabet, AcceptanceCombiner.AND);
+    }
+}
@@ -0,0 +1,98 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the construction, concatenation, hashing and comparison of {@link Word}s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class WordBenchmark {
+
+    @Param({"10", "1000"})
+    private int length;
+
+    private List<Integer> symbols;
+    private Word<Integer> word;
+    private Word<Integer> equalWord;
+    private Word<Integer> prefix;
+    private Word<Integer> suffix;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkInputs.SEED);
+        final Alphabet<Integer> alphabet = BenchmarkInputs.inputs(10);
+
+        this.word = BenchmarkInputs.randomWord(random, alphabet, length);
+        this.symbols = word.asList();
+        // distinct instance with identical content
+        this.equalWord = Word.fromList(symbols);
+        this.prefix = word.prefix(length / 2);
+        this.suffix = word.subWord(length / 2);
+    }
+
+    @Benchmark
+    public Word<Integer> fromList() {
+        return Word.fromList(symbols);
+    }
+
+    @Benchmark
+    public Word<Integer> concat() {
+        return prefix.concat(suffix);
+    }
+
+    @Benchmark
+    public Word<Integer> append() {
+        return word.append(0);
+    }
+
+    @Benchmark
+    public int hashCodeOfWord() {
+        return word.hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeOfSubWord() {
+        return suffix.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsOfWord() {
+        return word.equals(equalWord);
+    }
+}
@@ -0,0 +1,486 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.util.collections;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A store for interning (hash-consing) sets of non-negative integers, as they arise e.g. in powerset constructions.
+ * Each distinct subset is stored exactly once and identified by a dense id, assigned in the order in which the subsets
+ * are interned. Hence, two subsets of the same store are equal if and only if their ids are equal.
+ * <p>
+ * Subsets are passed as sorted arrays of distinct elements. Internally, all subsets are packed into a single {@code
+ * int[]} pool, each either in <i>sparse</i> form (the sorted elements) or in <i>dense</i> form (a bitmap up to its
+ * largest element), whichever is smaller. The hash of each subset is computed once and stored alongside it, and ids
+ * are located via an open-addressing hash table, so neither wrapper objects nor boxed values are allocated per
+ * subset.
+ * <p>
+ * This class is not thread-safe. However, as {@link #lookup(int[], int)} and the other query methods do not modify the
+ * store, they may be called concurrently as long as no subsets are interned at the same time.
+ */
+public final class IntSubsetStore {
+
+    public static final int NO_SUBSET = -1;
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final int[] EMPTY = new int[0];
+
+    // per-subset data, indexed by id
+    private int[] offsets;
+    private int[] storedLengths;
+    private int[] sizes;
+    private int[] hashes;
+    private int numSubsets;
+
+    // packed representation of all subsets
+    private int[] pool;
+    private int poolSize;
+
+    // open-addressing table of subset ids (NO_SUBSET marks empty slots), capacity is a power of two
+    private int[] table;
+
+    public IntSubsetStore() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSubsets
+     *         the expected number of subsets, used for pre-allocation
+     */
+    public IntSubsetStore(int expectedSubsets) {
+        final int capacity = Math.max(expectedSubsets, DEFAULT_INITIAL_CAPACITY);
+        this.offsets = new int[capacity];
+        this.storedLengths = new int[capacity];
+        this.sizes = new int[capacity];
+        this.hashes = new int[capacity];
+        this.pool = new int[capacity];
+        this.table = new int[Integer.highestOneBit(capacity - 1) << 2];
+        Arrays.fill(table, NO_SUBSET);
+    }
+
+    /**
+     * Computes the hash of a subset, as it is used by this class. Clients that perform both a {@link #lookup(int[],
+     * int, int) lookup} and an {@link #intern(int[], int, int) intern} operation for the same subset may compute the
+     * hash once using this method.
+     *
+     * @param elements
+     *         the (sorted, distinct) elements of the subset
+     * @param length
+     *         the number of elements
+     *
+     * @return the hash of the subset
+     */
+    public static int hash(int[] elements, int length) {
+        int h = length;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + mix(elements[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Sorts the first {@code length} elements of the given buffer and removes duplicates, such that the buffer can
+     * subsequently be passed to {@link #intern(int[], int)} or {@link #lookup(int[], int)}.
+     *
+     * @param buffer
+     *         the buffer
+     * @param length
+     *         the number of elements in the buffer
+     *
+     * @return the number of distinct elements, which now occupy the beginning of the buffer
+     */
+    public static int sortDistinct(int[] buffer, int length) {
+        Arrays.sort(buffer, 0, length);
+
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            if (size == 0 || buffer[size - 1] != buffer[i]) {
+                buffer[size++] = buffer[i];
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Retrieves the id of the given subset, without adding it to the store.
+     *
+     * @param elements
+     *         the (sorted, distinct) elements of the subset
+     * @param length
+     *         the number of elements
+     *
+     * @return the id of the subset, or {@link #NO_SUBSET} if it has not been interned
+     */
+    public int lookup(int[] elements, int length) {
+        return lookup(elements, length, hash(elements, length));
+    }
+
+    /**
+     * Retrieves the id of the given subset, without adding it to the store.
+     *
+     * @param elements
+     *         the (sorted, distinct) elements of the subset
+     * @param length
+     *         the number of elements
+     * @param hash
+     *         the hash of the subset, as computed by {@link #hash(int[], int)}
+     *
+     * @return the id of the subset, or {@link #NO_SUBSET} if it has not been interned
+     */
+    public int lookup(int[] elements, int length, int hash) {
+        final int[] table = this.table;
+        final int mask = table.length - 1;
+
+        int slot = spread(hash) & mask;
+        int id;
+        while ((id = table[slot]) != NO_SUBSET) {
+            if (hashes[id] == hash && matches(id, elements, length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return NO_SUBSET;
+    }
+
+    /**
+     * Retrieves the id of the given subset, adding it to the store if necessary. Newly added subsets receive the id
+     * {@link #size()} (before the call).
+     *
+     * @param elements
+     *         the (sorted, distinct) elements of the subset
+     * @param length
+     *         the number of elements
+     *
+     * @return the id of the subset
+     *
+     * @throws IllegalArgumentException
+     *         if a new subset would be added whose elements are not sorted, distinct, and non-negative
+     */
+    public int intern(int[] elements, int length) {
+        return intern(elements, length, hash(elements, length));
+    }
+
+    /**
+     * Retrieves the id of the given subset, adding it to the store if necessary. Newly added subsets receive the id
+     * {@link #size()} (before the call).
+     *
+     * @param elements
+     *         the (sorted, distinct) elements of the subset
+     * @param length
+     *         the number of elements
+     * @param hash
+     *         the hash of the subset, as computed by {@link #hash(int[], int)}
+     *
+     * @return the id of the subset
+     *
+     * @throws IllegalArgumentException
+     *         if a new subset would be added whose elements are not sorted, distinct, and non-negative
+     */
+    public int intern(int[] elements, int length, int hash) {
+        final int mask = table.length - 1;
+
+        int slot = spread(hash) & mask;
+        int id;
+        while ((id = table[slot]) != NO_SUBSET) {
+            if (hashes[id] == hash && matches(id, elements, length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        id = add(elements, length, hash);
+        table[slot] = id;
+
+        if (2 * numSubsets > table.length) {
+            rehash(table.length << 1);
+        }
+
+        return id;
+    }
+
+    /**
+     * Returns the number of subsets in this store.
+     *
+     * @return the number of subsets
+     */
+    public int size() {
+        return numSubsets;
+    }
+
+    /**
+     * Returns the number of elements of the given subset.
+     *
+     * @param id
+     *         the subset id
+     *
+     * @return the cardinality of the subset
+     */
+    public int getSubsetSize(int id) {
+        return sizes[id];
+    }
+
+    /**
+     * Returns the (stored) hash of the given subset.
+     *
+     * @param id
+     *         the subset id
+     *
+     * @return the hash of the subset
+     *
+     * @see #hash(int[], int)
+     */
+    public int getHash(int id) {
+        return hashes[id];
+    }
+
+    /**
+     * Returns whether the given subset is stored in dense (bitmap) form.
+     *
+     * @param id
+     *         the subset id
+     *
+     * @return {@code true} if the subset is stored as a bitmap, {@code false} if it is stored as a sorted array
+     */
+    public boolean isDense(int id) {
+        return storedLengths[id] < sizes[id];
+    }
+
+    /**
+     * Checks whether the given subset contains the given element.
+     *
+     * @param id
+     *         the subset id
+     * @param element
+     *         the element
+     *
+     * @return {@code true} if the element is contained in the subset, {@code false} otherwise
+     */
+    public boolean contains(int id, int element) {
+        if (element < 0) {
+            return false;
+        }
+
+        final int offset = offsets[id];
+        final int len = storedLengths[id];
+
+        if (isDense(id)) {
+            final int word = element >>> 5;
+            return word < len && (pool[offset + word] & (1 << element)) != 0;
+        }
+
+        return Arrays.binarySearch(pool, offset, offset + len, element) >= 0;
+    }
+
+    /**
+     * Returns the elements of the given subset in ascending order.
+     *
+     * @param id
+     *         the subset id
+     *
+     * @return a (newly allocated) array containing the elements of the subset
+     */
+    public int[] getElements(int id) {
+        final int size = sizes[id];
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        final int[] result = new int[size];
+        writeElements(id, result, 0);
+        return result;
+    }
+
+    /**
+     * Writes the elements of the given subset in ascending order to the given array.
+     *
+     * @param id
+     *         the subset id
+     * @param target
+     *         the target array
+     * @param offset
+     *         the position in the target array at which the first element is written
+     */
+    public void writeElements(int id, int[] target, int offset) {
+        int pos = offset;
+        final int start = offsets[id];
+        final int len = storedLengths[id];
+
+        if (isDense(id)) {
+            for (int w = 0; w < len; w++) {
+                int bits = pool[start + w];
+                while (bits != 0) {
+                    target[pos++] = (w << 5) + Integer.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                }
+            }
+        } else {
+            System.arraycopy(pool, start, target, pos, len);
+        }
+    }
+
+    /**
+     * Invokes the given action for each element of the given subset, in ascending order.
+     *
+     * @param id
+     *         the subset id
+     * @param action
+     *         the action to perform
+     */
+    public void forEachElement(int id, IntConsumer action) {
+        final int start = offsets[id];
+        final int len = storedLengths[id];
+
+        if (isDense(id)) {
+            for (int w = 0; w < len; w++) {
+                int bits = pool[start + w];
+                while (bits != 0) {
+                    action.accept((w << 5) + Integer.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        } else {
+            for (int i = start, end = start + len; i < end; i++) {
+                action.accept(pool[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of {@code int}s used for storing the subsets of this store, which may serve as an indicator of
+     * its memory consumption.
+     *
+     * @return the size of the packed subset pool
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    private boolean matches(int id, int[] elements, int length) {
+        if (sizes[id] != length) {
+            return false;
+        }
+
+        final int[] pool = this.pool;
+        final int start = offsets[id];
+        final int len = storedLengths[id];
+
+        if (len < length) {
+            // dense form: equal cardinality, so all elements being contained implies equality
+            for (int i = 0; i < length; i++) {
+                final int e = elements[i];
+                final int word = e >>> 5;
+                if (e < 0 || word >= len || (pool[start + word] & (1 << e)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (pool[start + i] != elements[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int add(int[] elements, int length, int hash) {
+        int prev = -1;
+        for (int i = 0; i < length; i++) {
+            final int e = elements[i];
+            if (e <= prev) {
+                throw new IllegalArgumentException("Subset elements must be sorted, distinct, and non-negative");
+            }
+            prev = e;
+        }
+
+        // the dense form covers all elements up to the largest one
+        final int denseLength = (length == 0) ? 0 : (elements[length - 1] >>> 5) + 1;
+        final boolean dense = denseLength < length;
+        final int storedLength = dense ? denseLength : length;
+
+        ensurePoolCapacity(poolSize + storedLength);
+        if (dense) {
+            for (int i = 0; i < length; i++) {
+                final int e = elements[i];
+                pool[poolSize + (e >>> 5)] |= 1 << e;
+            }
+        } else {
+            System.arraycopy(elements, 0, pool, poolSize, length);
+        }
+
+        final int id = numSubsets;
+        ensureSubsetCapacity(id + 1);
+        offsets[id] = poolSize;
+        storedLengths[id] = storedLength;
+        sizes[id] = length;
+        hashes[id] = hash;
+
+        poolSize += storedLength;
+        numSubsets++;
+
+        return id;
+    }
+
+    private void rehash(int newCapacity) {
+        final int[] newTable = new int[newCapacity];
+        Arrays.fill(newTable, NO_SUBSET);
+        final int mask = newCapacity - 1;
+
+        for (int id = 0; id < numSubsets; id++) {
+            int slot = spread(hashes[id]) & mask;
+            while (newTable[slot] != NO_SUBSET) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = id;
+        }
+
+        this.table = newTable;
+    }
+
+    private void ensurePoolCapacity(int minCapacity) {
+        if (minCapacity > pool.length) {
+            // freshly allocated space must be zeroed, which Arrays.copyOf guarantees
+            pool = Arrays.copyOf(pool, Math.max(minCapacity, pool.length * 3 / 2 + 1));
+        }
+    }
+
+    private void ensureSubsetCapacity(int minCapacity) {
+        if (minCapacity > offsets.length) {
+            final int newCapacity = Math.max(minCapacity, offsets.length * 3 / 2 + 1);
+            offsets = Arrays.copyOf(offsets, newCapacity);
+            storedLengths = Arrays.copyOf(storedLengths, newCapacity);
+            sizes = Arrays.copyOf(sizes, newCapacity);
+            hashes = Arrays.copyOf(hashes, newCapacity);
+        }
+    }
+
+    private static int mix(int element) {
+        // scramble the (typically small and clustered) elements, such that the low bits of the hash are well-distributed
+        final int h = element * 0x9E3779B9;
+        return h ^ (h >>> 15);
+    }
+
+    private static int spread(int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
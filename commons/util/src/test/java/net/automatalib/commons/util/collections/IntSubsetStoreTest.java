@@ -0,0 +1,103 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.util.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class IntSubsetStoreTest {
+
+    @Test
+    public void testInterning() {
+        final IntSubsetStore store = new IntSubsetStore(2);
+
+        final int empty = store.intern(new int[0], 0);
+        final int sparse = store.intern(new int[] {3, 70, 1000}, 3);
+        final int dense = store.intern(new int[] {0, 1, 2, 5, 31, 32, 40, 9}, 7);
+
+        Assert.assertEquals(empty, 0);
+        Assert.assertEquals(sparse, 1);
+        Assert.assertEquals(dense, 2);
+        Assert.assertEquals(store.size(), 3);
+
+        Assert.assertFalse(store.isDense(sparse));
+        Assert.assertTrue(store.isDense(dense));
+
+        Assert.assertEquals(store.intern(new int[] {3, 70, 1000, 7}, 3), sparse);
+        Assert.assertEquals(store.lookup(new int[] {0, 1, 2, 5, 31, 32, 40}, 7), dense);
+        Assert.assertEquals(store.lookup(new int[0], 0), empty);
+        Assert.assertEquals(store.lookup(new int[] {0, 1, 2, 5, 31, 32, 41}, 7), IntSubsetStore.NO_SUBSET);
+        Assert.assertEquals(store.lookup(new int[] {3, 70}, 2), IntSubsetStore.NO_SUBSET);
+        Assert.assertEquals(store.size(), 3);
+
+        Assert.assertEquals(store.getElements(dense), new int[] {0, 1, 2, 5, 31, 32, 40});
+        Assert.assertEquals(store.getElements(sparse), new int[] {3, 70, 1000});
+        Assert.assertEquals(store.getSubsetSize(dense), 7);
+        Assert.assertEquals(store.getHash(sparse), IntSubsetStore.hash(new int[] {3, 70, 1000}, 3));
+
+        Assert.assertTrue(store.contains(dense, 31));
+        Assert.assertTrue(store.contains(dense, 32));
+        Assert.assertFalse(store.contains(dense, 33));
+        Assert.assertFalse(store.contains(dense, 1000));
+        Assert.assertTrue(store.contains(sparse, 70));
+        Assert.assertFalse(store.contains(sparse, 71));
+        Assert.assertFalse(store.contains(empty, 0));
+
+        final List<Integer> elements = new ArrayList<>();
+        store.forEachElement(dense, elements::add);
+        Assert.assertEquals(elements.size(), 7);
+        Assert.assertEquals(elements.get(6).intValue(), 40);
+    }
+
+    @Test
+    public void testManySubsets() {
+        final IntSubsetStore store = new IntSubsetStore();
+        final Random random = new Random(42);
+        final List<int[]> subsets = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            final int[] buffer = new int[random.nextInt(20)];
+            for (int j = 0; j < buffer.length; j++) {
+                buffer[j] = random.nextInt(64);
+            }
+            final int len = IntSubsetStore.sortDistinct(buffer, buffer.length);
+            final int numSubsets = store.size();
+            final int id = store.intern(buffer, len);
+
+            if (id == numSubsets) {
+                final int[] subset = new int[len];
+                System.arraycopy(buffer, 0, subset, 0, len);
+                subsets.add(subset);
+            }
+        }
+
+        Assert.assertEquals(store.size(), subsets.size());
+        for (int id = 0; id < subsets.size(); id++) {
+            final int[] subset = subsets.get(id);
+            Assert.assertEquals(store.getElements(id), subset);
+            Assert.assertEquals(store.lookup(subset, subset.length), id);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnsorted() {
+        new IntSubsetStore().intern(new int[] {2, 1}, 2);
+    }
+}
@@ -16,7 +16,10 @@
 package net.automatalib.automata.base.compact;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
 
 import net.automatalib.automata.GrowableAlphabetAutomaton;
 import net.automatalib.automata.MutableDeterministic;
@@ -24,8 +27,28 @@ import net.automatalib.automata.UniversalFiniteAlphabetAutomaton;
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.commons.util.collections.CollectionsUtil;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.IntWord;
 import net.automatalib.words.impl.Alphabets;
 
+/**
+ * Abstract base class for compact, deterministic automata with integer states and arbitrary transition objects.
+ * <p>
+ * Transitions are not stored as objects. Instead, the successor of each transition is stored in a primitive {@code
+ * int[]} array, and its property in a parallel {@code Object[]} array. Transition objects are only materialized on
+ * demand (see {@link #materializeTransition(int, int, Object)}), so that the memory footprint and lookup costs of
+ * successors are on par with those of {@link AbstractCompactSimpleDet}. Performance-critical code should prefer the
+ * methods that operate on integers directly, such as {@link #getSuccessor(int, int)} or {@link
+ * #getTransitionProperty(int, int)}.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <T>
+ *         transition type
+ * @param <SP>
+ *         state property type
+ * @param <TP>
+ *         transition property type
+ */
 public abstract class AbstractCompactDeterministic<I, T, SP, TP> implements MutableDeterministic<Integer, I, T, SP, TP>,
                                                                             StateIDs<Integer>,
                                                                             UniversalFiniteAlphabetAutomaton<Integer, I, T, SP, TP>,
@@ -40,7 +63,8 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP> implements Muta
     protected Alphabet<I> alphabet;
     protected final float resizeFactor;
     protected int alphabetSize;
-    protected Object[] transitions;
+    protected int[] transitions;
+    protected Object[] transitionProperties;
     protected int stateCapacity;
     protected int numStates;
     protected int initial = INVALID_STATE;
@@ -52,7 +76,9 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP> implements Muta
     public AbstractCompactDeterministic(Alphabet<I> alphabet, int stateCapacity, float resizeFactor) {
         this.alphabet = alphabet;
         this.alphabetSize = alphabet.size();
-        this.transitions = new Object[stateCapacity * alphabetSize];
+        this.transitions = new int[stateCapacity * alphabetSize];
+        this.transitionProperties = new Object[stateCapacity * alphabetSize];
+        Arrays.fill(this.transitions, INVALID_STATE);
         this.resizeFactor = resizeFactor;
         this.stateCapacity = stateCapacity;
     }
@@ -70,11 +96,20 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP> implements Muta
     }
 
     public void setTransition(int state, int inputIdx, T trans) {
-        transitions[state * alphabetSize + inputIdx] = trans;
+        final int transId = state * alphabetSize + inputIdx;
+        if (trans == null) {
+            transitions[transId] = INVALID_STATE;
+            transitionProperties[transId] = null;
+        } else {
+            transitions[transId] = getIntSuccessor(trans);
+            transitionProperties[transId] = getTransitionProperty(trans);
+        }
     }
 
     public void setTransition(int stateId, int inputIdx, int succId, TP property) {
-        setTransition(stateId, inputIdx, createTransition(succId, property));
+        final int transId = stateId * alphabetSize + inputIdx;
+        transitions[transId] = succId;
+        transitionProperties[transId] = (succId == INVALID_STATE) ? null : property;
     }
 
     @Override
@@ -87,7 +122,24 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP> implements Muta
     }
 
     public void setTransition(int stateId, I input, int succId, TP property) {
-        setTransition(stateId, input, createTransition(succId, property));
+        setTransition(stateId, alphabet.getSymbolIndex(input), succId, property);
+    }
+
+    /**
+     * Updates the property of the given transition without materializing the corresponding transition object.
+     *
+     * @param stateId
+     *         the source state (id)
+     * @param inputIdx
+     *         the index of the input symbol
+     * @param property
+     *         the new transition property
+     */
+    public void setTransitionProperty(int stateId, int inputIdx, TP property) {
+        final int transId = stateId * alphabetSize + inputIdx;
+        if (transitions[transId] != INVALID_STATE) {
+            transitionProperties[transId] = property;
+        }
     }
 
     protected static int getId(Integer id) {
@@ -207,9 +259,13 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP> implements Muta
             newCap = newCapacity;
         }
 
-        Object[] newTrans = new Object[newCap * alphabetSize];
+        int[] newTrans = new int[newCap * alphabetSize];
+        Object[] newProps = new Object[newCap * alphabetSize];
         System.arraycopy(transitions, 0, newTrans, 0, stateCapacity * alphabetSize);
+        System.arraycopy(transitionProperties, 0, newProps, 0, stateCapacity * alphabetSize);
+        Arrays.fill(newTrans, stateCapacity * alphabetSize, newTrans.length, INVALID_STATE);
         this.transitions = newTrans;
+        this.transitionProperties = newProps;
         this.stateCapacity = newCap;
         ensureCapacity();
     }
@@ -223,7 +279,143 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP> implements Muta
 
     @SuppressWarnings("unchecked")
     public T getTransition(int stateId, int inputIdx) {
-        return (T) transitions[stateId * alphabetSize + inputIdx];
+        final int transId = stateId * alphabetSize + inputIdx;
+        final int succId = transitions[transId];
+        if (succId == INVALID_STATE) {
+            return null;
+        }
+        return materializeTransition(transId, succId, (TP) transitionProperties[transId]);
+    }
+
+    @Override
+    public int getSuccessor(int state, int input) {
+        return transitions[state * alphabetSize + input];
+    }
+
+    @Override
+    public int getSuccessor(int state, I input) {
+        return getSuccessor(state, alphabet.getSymbolIndex(input));
+    }
+
+    @Override
+    public Integer getState(Iterable<? extends I> input) {
+        return makeId(getIntState(input));
+    }
+
+    @Override
+    public Integer getSuccessor(Integer state, Iterable<? extends I> input) {
+        return makeId(getIntSuccessor(state.intValue(), input));
+    }
+
+    public int getIntState(Iterable<? extends I> input) {
+        return getIntSuccessor(initial, input);
+    }
+
+    /**
+     * Fast path of {@link #getIntState(Iterable)} for words that are already encoded wrt. an alphabet.
+     *
+     * @param input
+     *         the input word
+     *
+     * @return the id of the reached state, or {@link #INVALID_STATE} if the word leads into an undefined transition
+     */
+    public int getIntState(IntWord<? extends I> input) {
+        return getIntSuccessor(initial, input);
+    }
+
+    public int getIntSuccessor(int state, Iterable<? extends I> input) {
+        if (input instanceof IntWord && ((IntWord<?>) input).getAlphabet() == alphabet) {
+            return getIntSuccessor(state, (IntWord<? extends I>) input);
+        }
+
+        int current = state;
+        final Iterator<? extends I> inputIt = input.iterator();
+
+        while (current >= 0 && inputIt.hasNext()) {
+            current = getSuccessor(current, alphabet.getSymbolIndex(inputIt.next()));
+        }
+
+        return current;
+    }
+
+    /**
+     * Fast path of {@link #getIntSuccessor(int, Iterable)} for words that are already encoded wrt. an alphabet. If the
+     * word is encoded wrt. the input alphabet of this automaton, its symbol indices are used directly for the transition
+     * table lookups, i.e. neither index lookups nor transition objects are required.
+     *
+     * @param state
+     *         the id of the source state
+     * @param input
+     *         the input word
+     *
+     * @return the id of the reached state, or {@link #INVALID_STATE} if the word leads into an undefined transition
+     */
+    public int getIntSuccessor(int state, IntWord<? extends I> input) {
+        if (input.getAlphabet() != alphabet) {
+            return getIntSuccessor(state, (Iterable<? extends I>) input);
+        }
+
+        final int[] transitions = this.transitions;
+        final int alphabetSize = this.alphabetSize;
+        int current = state;
+
+        for (int i = 0, len = input.length(); current >= 0 && i < len; i++) {
+            current = transitions[current * alphabetSize + input.getSymbolIndex(i)];
+        }
+
+        return current;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public TP getTransitionProperty(int state, int input) {
+        return (TP) transitionProperties[state * alphabetSize + input];
+    }
+
+    @Override
+    public TP getTransitionProperty(int state, I input) {
+        return getTransitionProperty(state, alphabet.getSymbolIndex(input));
+    }
+
+    /**
+     * Creates a transition object for the transition with the given (internal) id. The returned object may write back
+     * changes to its property via {@link #updateTransitionProperty(int, int, int, Object)}.
+     *
+     * @param transId
+     *         the internal id of the transition, i.e. {@code state * alphabetSize + inputIdx}
+     * @param succId
+     *         the (id of the) successor state
+     * @param property
+     *         the transition property
+     *
+     * @return the transition object
+     */
+    protected abstract T materializeTransition(int transId, int succId, TP property);
+
+    /**
+     * Updates the property of the given transition, provided that it still leads to the given successor. This allows
+     * materialized transition objects to write back changes without overwriting a transition that has been removed or
+     * redirected in the meantime.
+     *
+     * @param stateId
+     *         the source state (id)
+     * @param inputIdx
+     *         the index of the input symbol
+     * @param succId
+     *         the (id of the) successor state the transition is expected to lead to
+     * @param property
+     *         the new property
+     *
+     * @return {@code true} if the property has been updated, {@code false} if the transition no longer leads to {@code
+     * succId}
+     */
+    protected boolean updateTransitionProperty(int stateId, int inputIdx, int succId, TP property) {
+        final int transId = stateId * alphabetSize + inputIdx;
+        if (stateId >= numStates || inputIdx >= alphabetSize || transitions[transId] != succId) {
+            return false;
+        }
+        transitionProperties[transId] = property;
+        return true;
     }
 
     @Override
@@ -242,9 +434,8 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP> implements Muta
     public void clear() {
         int endIdx = numStates * alphabetSize;
         numStates = 0;
-        for (int i = 0; i < endIdx; i++) {
-            transitions[i] = null;
-        }
+        Arrays.fill(transitions, 0, endIdx, INVALID_STATE);
+        Arrays.fill(transitionProperties, 0, endIdx, null);
         this.initial = INVALID_STATE;
     }
 
@@ -253,12 +444,29 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP> implements Muta
         return addIntState(property);
     }
 
+    /**
+     * Removes the given transition, if the automaton currently contains a transition from the given state for the given
+     * input with the same successor and property. Since transition objects are materialized on demand, they are not
+     * compared by identity.
+     */
+    @Override
+    public void removeTransition(Integer state, I input, T transition) {
+        if (transition == null) {
+            return;
+        }
+        final int transId = getId(state) * alphabetSize + alphabet.getSymbolIndex(input);
+        if (transitions[transId] == getIntSuccessor(transition) &&
+            Objects.equals(transitionProperties[transId], getTransitionProperty(transition))) {
+            transitions[transId] = INVALID_STATE;
+            transitionProperties[transId] = null;
+        }
+    }
+
     @Override
     public void removeAllTransitions(Integer state) {
         int base = state.intValue() * alphabetSize;
-        for (int i = 0; i < alphabetSize; i++) {
-            transitions[base++] = null;
-        }
+        Arrays.fill(transitions, base, base + alphabetSize, INVALID_STATE);
+        Arrays.fill(transitionProperties, base, base + alphabetSize, null);
     }
 
     @Override
@@ -295,13 +503,22 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP> implements Muta
         final int oldAlphabetSize = this.alphabetSize;
         final int newAlphabetSize = oldAlphabetSize + 1;
         final int newArraySize = this.transitions.length + this.stateCapacity;
-        final Object[] newTransitions = new Object[newArraySize];
+        final int[] newTransitions = new int[newArraySize];
+        final Object[] newProperties = new Object[newArraySize];
+
+        Arrays.fill(newTransitions, INVALID_STATE);
 
         for (int i = 0; i < this.numStates; i++) {
             System.arraycopy(transitions, i * oldAlphabetSize, newTransitions, i * newAlphabetSize, oldAlphabetSize);
+            System.arraycopy(transitionProperties,
+                             i * oldAlphabetSize,
+                             newProperties,
+                             i * newAlphabetSize,
+                             oldAlphabetSize);
         }
 
         this.transitions = newTransitions;
+        this.transitionProperties = newProperties;
         this.alphabet = Alphabets.withNewSymbol(this.alphabet, symbol);
         this.alphabetSize = newAlphabetSize;
     }
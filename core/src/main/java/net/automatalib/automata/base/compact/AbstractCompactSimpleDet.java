@@ -26,6 +26,7 @@ import net.automatalib.automata.UniversalFiniteAlphabetAutomaton;
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.commons.util.collections.CollectionsUtil;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.IntWord;
 import net.automatalib.words.impl.Alphabets;
 import net.automatalib.words.impl.SimpleAlphabet;
 
@@ -229,7 +230,51 @@ public abstract class AbstractCompactSimpleDet<I, SP> implements MutableDetermin
         return getIntSuccessor(initial, input);
     }
 
+    /**
+     * Fast path of {@link #getIntState(Iterable)} for words that are already encoded wrt. an alphabet.
+     *
+     * @param input
+     *         the input word
+     *
+     * @return the id of the reached state, or {@link #INVALID_STATE} if the word leads into an undefined transition
+     */
+    public int getIntState(IntWord<? extends I> input) {
+        return getIntSuccessor(initial, input);
+    }
+
+    /**
+     * Fast path of {@link #getIntSuccessor(int, Iterable)} for words that are already encoded wrt. an alphabet. If the
+     * word is encoded wrt. the input alphabet of this automaton, its symbol indices are used directly for the transition
+     * table lookups, i.e. neither index lookups nor boxing is required.
+     *
+     * @param state
+     *         the id of the source state
+     * @param input
+     *         the input word
+     *
+     * @return the id of the reached state, or {@link #INVALID_STATE} if the word leads into an undefined transition
+     */
+    public int getIntSuccessor(int state, IntWord<? extends I> input) {
+        if (input.getAlphabet() != alphabet) {
+            return getIntSuccessor(state, (Iterable<? extends I>) input);
+        }
+
+        final int[] transitions = this.transitions;
+        final int alphabetSize = this.alphabetSize;
+        int current = state;
+
+        for (int i = 0, len = input.length(); current >= 0 && i < len; i++) {
+            current = transitions[current * alphabetSize + input.getSymbolIndex(i)];
+        }
+
+        return current;
+    }
+
     public int getIntSuccessor(int state, Iterable<? extends I> input) {
+        if (input instanceof IntWord && ((IntWord<?>) input).getAlphabet() == alphabet) {
+            return getIntSuccessor(state, (IntWord<? extends I>) input);
+        }
+
         int current = state;
 
         Iterator<? extends I> inputIt = input.iterator();
@@ -349,6 +394,11 @@ public abstract class AbstractCompactSimpleDet<I, SP> implements MutableDetermin
         return null;
     }
 
+    @Override
+    public Void getTransitionProperty(int state, int input) {
+        return null;
+    }
+
     protected static int unwrapState(Integer state) {
         if (state == null) {
             return INVALID_STATE;
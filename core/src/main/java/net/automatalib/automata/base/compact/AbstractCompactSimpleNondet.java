@@ -15,23 +15,41 @@
  */
 package net.automatalib.automata.base.compact;
 
-import java.util.ArrayList;
+import java.util.AbstractSet;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 import net.automatalib.automata.GrowableAlphabetAutomaton;
 import net.automatalib.automata.MutableAutomaton;
 import net.automatalib.automata.UniversalFiniteAlphabetAutomaton;
 import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.commons.util.BitSetIterator;
 import net.automatalib.commons.util.collections.CollectionsUtil;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.impl.Alphabets;
 import net.automatalib.words.impl.SimpleAlphabet;
 
+/**
+ * Abstract base class for compact, non-deterministic automata with integer states.
+ * <p>
+ * The successors of each transition are stored in a primitive, sorted {@code int[]} array, whose first element denotes
+ * the number of successors (i.e., an entry {@code [n, s_1, ..., s_n, ...]} encodes the successors {@code s_1 < ... <
+ * s_n}). Undefined transitions are represented by {@code null} entries. The initial states are stored in a {@link
+ * BitSet}. All methods that expose states or transitions as {@link Set}s return live, modifiable views on this
+ * primitive storage. Performance-critical code should prefer the primitive accessors (e.g. {@link
+ * #forEachIntSuccessor(int, int, IntConsumer)} or {@link #getIntSuccessor(int, int, int)}), which do not require
+ * boxing.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <SP>
+ *         state property type
+ */
 public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutomaton<Integer, I, Integer, SP, Void>,
                                                                     UniversalFiniteAlphabetAutomaton<Integer, I, Integer, SP, Void>,
                                                                     StateIDs<Integer>,
@@ -40,13 +58,13 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
     public static final float DEFAULT_RESIZE_FACTOR = 1.5f;
     public static final int DEFAULT_INIT_CAPACITY = 11;
 
+    private static final int INITIAL_SUCCESSORS_CAPACITY = 2;
+
     protected Alphabet<I> alphabet;
-    //protected final TIntSet initial;
-    protected final Set<Integer> initial; // TODO: replace by primitive specialization
+    protected final BitSet initial;
     private final float resizeFactor;
     protected int alphabetSize;
-    //protected TIntSet[] transitions;
-    protected Set<Integer>[] transitions; // TODO: replace by primitive specialization
+    protected int[][] transitions;
     protected int stateCapacity;
     protected int numStates;
 
@@ -54,18 +72,15 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
         this(alphabet, DEFAULT_INIT_CAPACITY, DEFAULT_RESIZE_FACTOR);
     }
 
-    @SuppressWarnings("unchecked")
     public AbstractCompactSimpleNondet(Alphabet<I> alphabet, int stateCapacity, float resizeFactor) {
         this.alphabet = new SimpleAlphabet<>(alphabet);
         this.alphabetSize = alphabet.size();
-        //this.transitions = new TIntSet[stateCapacity * alphabetSize];
-        this.transitions = new Set[stateCapacity * alphabetSize]; // TODO: replace by primitive specialization
+        this.transitions = new int[stateCapacity * alphabetSize][];
 
         this.resizeFactor = resizeFactor;
         this.stateCapacity = stateCapacity;
 
-        //this.initial = new TIntHashSet();
-        this.initial = new HashSet<>(); // TODO: replace by primitive specialization
+        this.initial = new BitSet();
     }
 
     public AbstractCompactSimpleNondet(Alphabet<I> alphabet, int stateCapacity) {
@@ -81,19 +96,16 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
         this.alphabetSize = alphabet.size();
         this.transitions = other.transitions.clone();
         for (int i = 0; i < transitions.length; i++) {
-            //TIntSet tgts = transitions[i];
-            Set<Integer> tgts = transitions[i]; // TODO: replace by primitive specialization
+            int[] tgts = transitions[i];
             if (tgts != null) {
-                //transitions[i] = new TIntHashSet(tgts);
-                transitions[i] = new HashSet<>(tgts); // TODO: replace by primitive specialization
+                transitions[i] = Arrays.copyOf(tgts, tgts[0] + 1);
             }
         }
         this.numStates = other.numStates;
         this.resizeFactor = other.resizeFactor;
         this.stateCapacity = other.stateCapacity;
 
-        //this.initial = new TIntHashSet(other.initial);
-        this.initial = new HashSet<>(); // TODO: replace by primitive specialization
+        this.initial = (BitSet) other.initial.clone();
     }
 
     protected static Integer wrapState(int id) {
@@ -133,26 +145,132 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
         return id;
     }
 
-    //public TIntCollection getIntInitialStates() {
-    public Set<Integer> getIntInitialStates() { // TODO: replace by primitive specialization
-        return initial;
+    public Set<Integer> getIntInitialStates() {
+        return new InitialStatesView();
     }
 
-    //public TIntCollection getIntTransitions(int state, I input) {
-    public Set<Integer> getIntTransitions(int state, I input) { // TODO: replace by primitive specialization
+    /**
+     * Checks whether the given state is initial.
+     *
+     * @param state
+     *         the state (id)
+     *
+     * @return {@code true} if the state is initial, {@code false} otherwise
+     */
+    public boolean isIntInitial(int state) {
+        return initial.get(state);
+    }
+
+    /**
+     * Applies the given action to each initial state (id), in ascending order.
+     *
+     * @param action
+     *         the action to apply
+     */
+    public void forEachIntInitialState(IntConsumer action) {
+        for (int i = initial.nextSetBit(0); i >= 0; i = initial.nextSetBit(i + 1)) {
+            action.accept(i);
+        }
+    }
+
+    public Set<Integer> getIntTransitions(int state, I input) {
         int transId = state * alphabetSize + alphabet.getSymbolIndex(input);
         return successors(transId);
     }
 
-    //protected TIntSet successors(int transId) {
-    protected Set<Integer> successors(int transId) { // TODO: replace by primitive specialization
-        //TIntSet successors = transitions[transId];
-        Set<Integer> successors = transitions[transId]; // TODO: replace by primitive specialization
-        if (successors == null) {
-            //return EMPTY_SET;
-            return Collections.emptySet(); // TODO: replace by primitive specialization
+    protected Set<Integer> successors(int transId) {
+        return new SuccessorsView(transId);
+    }
+
+    /**
+     * Returns the number of successors of the given state for the given input.
+     *
+     * @param state
+     *         the source state (id)
+     * @param inputIdx
+     *         the index of the input symbol
+     *
+     * @return the number of successors
+     */
+    public int getNumIntSuccessors(int state, int inputIdx) {
+        final int[] succs = transitions[state * alphabetSize + inputIdx];
+        return (succs == null) ? 0 : succs[0];
+    }
+
+    /**
+     * Returns the {@code pos}-th successor (in ascending order) of the given state for the given input. Together with
+     * {@link #getNumIntSuccessors(int, int)}, this allows to iterate over all successors without any allocation.
+     *
+     * @param state
+     *         the source state (id)
+     * @param inputIdx
+     *         the index of the input symbol
+     * @param pos
+     *         the position of the successor, must be less than {@link #getNumIntSuccessors(int, int)}
+     *
+     * @return the (id of the) {@code pos}-th successor
+     */
+    public int getIntSuccessor(int state, int inputIdx, int pos) {
+        final int[] succs = transitions[state * alphabetSize + inputIdx];
+        if (succs == null || pos < 0 || pos >= succs[0]) {
+            throw new IndexOutOfBoundsException(Integer.toString(pos));
+        }
+        return succs[pos + 1];
+    }
+
+    /**
+     * Returns the successors of the given state for the given input as a sorted array. The returned array is a copy
+     * and may be modified freely.
+     *
+     * @param state
+     *         the source state (id)
+     * @param inputIdx
+     *         the index of the input symbol
+     *
+     * @return the sorted array of successor (ids)
+     */
+    public int[] getIntSuccessors(int state, int inputIdx) {
+        final int[] succs = transitions[state * alphabetSize + inputIdx];
+        if (succs == null) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(succs, 1, succs[0] + 1);
+    }
+
+    /**
+     * Applies the given action to each successor of the given state for the given input, in ascending order.
+     *
+     * @param state
+     *         the source state (id)
+     * @param inputIdx
+     *         the index of the input symbol
+     * @param action
+     *         the action to apply
+     */
+    public void forEachIntSuccessor(int state, int inputIdx, IntConsumer action) {
+        final int[] succs = transitions[state * alphabetSize + inputIdx];
+        if (succs != null) {
+            for (int i = 1, end = succs[0]; i <= end; i++) {
+                action.accept(succs[i]);
+            }
         }
-        return successors;
+    }
+
+    /**
+     * Checks whether the given transition exists.
+     *
+     * @param state
+     *         the source state (id)
+     * @param inputIdx
+     *         the index of the input symbol
+     * @param successor
+     *         the successor state (id)
+     *
+     * @return {@code true} if the given state has a transition to {@code successor} for the given input, {@code
+     * false} otherwise
+     */
+    public boolean hasIntTransition(int state, int inputIdx, int successor) {
+        return indexOf(transitions[state * alphabetSize + inputIdx], successor) >= 0;
     }
 
     @Override
@@ -178,7 +296,6 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
         return stateId;
     }
 
-    @SuppressWarnings("unchecked")
     public void ensureCapacity(int newCapacity) {
         if (newCapacity <= stateCapacity) {
             return;
@@ -189,8 +306,7 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
             newCap = newCapacity;
         }
 
-        //TIntSet[] newTrans = new TIntSet[newCap * alphabetSize];
-        Set<Integer>[] newTrans = new Set[newCap * alphabetSize]; // TODO: replace by primitive specialization
+        int[][] newTrans = new int[newCap * alphabetSize][];
         System.arraycopy(transitions, 0, newTrans, 0, stateCapacity * alphabetSize);
         this.transitions = newTrans;
         ensureCapacity(stateCapacity, newCap);
@@ -218,11 +334,7 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
     }
 
     public void setInitial(int state, boolean initial) {
-        if (initial) {
-            this.initial.add(state);
-        } else {
-            this.initial.remove(state);
-        }
+        this.initial.set(state, initial);
     }
 
     @Override
@@ -259,12 +371,7 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
     }
 
     public void removeTransition(int stateId, int inputIdx, int successorId) {
-        int transIdx = stateId * alphabetSize + inputIdx;
-        //TIntCollection successors = transitions[transIdx];
-        Collection<Integer> successors = transitions[transIdx]; // TODO: replace by primitive specialization
-        if (successors != null) {
-            successors.remove(successorId);
-        }
+        removeSuccessor(stateId * alphabetSize + inputIdx, successorId);
     }
 
     @Override
@@ -307,15 +414,7 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
     }
 
     public void addTransition(int stateId, int inputIdx, int succId) {
-        int transIdx = stateId * alphabetSize + inputIdx;
-        //TIntSet successors = transitions[transIdx];
-        Set<Integer> successors = transitions[transIdx]; // TODO: replace by primitive specialization
-        if (successors == null) {
-            //successors = new TIntHashSet();
-            successors = new HashSet<>(); // TODO: replace by primitive specialization
-            transitions[transIdx] = successors;
-        }
-        successors.add(succId);
+        addSuccessor(stateId * alphabetSize + inputIdx, succId);
     }
 
     @Override
@@ -325,34 +424,54 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
 
     @Override
     public void setTransitions(Integer state, I input, Collection<? extends Integer> transitions) {
-        //TIntList successors = new TIntArrayList(transitions.size());
-        List<Integer> successors = new ArrayList<>(transitions.size()); // TODO: replace by primitive specialization
-        successors.addAll(transitions);
-        setTransitions(state.intValue(), input, successors);
+        setTransitions(state.intValue(), input, transitions);
     }
 
-    //public void setTransitions(int state, I input, TIntCollection successors) {
-    public void setTransitions(int state,
-                               I input,
-                               Collection<? extends Integer> successors) { // TODO: replace by primitive specialization
+    public void setTransitions(int state, I input, Collection<? extends Integer> successors) {
         setTransitions(state, alphabet.getSymbolIndex(input), successors);
     }
 
-    //public void setTransitions(int state, int inputIdx, TIntCollection successors) {
-    public void setTransitions(int state,
-                               int inputIdx,
-                               Collection<? extends Integer> successors) { // TODO: replace by primitive specialization
-        int transIdx = state * alphabetSize + inputIdx;
-        //TIntSet succs = transitions[transIdx];
-        Set<Integer> succs = transitions[transIdx]; // TODO: replace by primitive specialization
-        if (succs == null) {
-            //succs = new TIntHashSet(successors);
-            succs = new HashSet<>(); // TODO: replace by primitive specialization
-            transitions[transIdx] = succs;
-        } else {
-            succs.clear();
+    public void setTransitions(int state, int inputIdx, Collection<? extends Integer> successors) {
+        final int[] succs = new int[successors.size()];
+        int i = 0;
+        for (Integer succ : successors) {
+            succs[i++] = succ.intValue();
+        }
+        setTransitions(state, inputIdx, succs);
+    }
+
+    /**
+     * Sets the successors of the given state for the given input, replacing all existing ones. Duplicates in {@code
+     * successors} are ignored.
+     *
+     * @param state
+     *         the source state (id)
+     * @param inputIdx
+     *         the index of the input symbol
+     * @param successors
+     *         the successor (ids), in arbitrary order
+     */
+    public void setTransitions(int state, int inputIdx, int... successors) {
+        final int transIdx = state * alphabetSize + inputIdx;
+        if (successors.length == 0) {
+            transitions[transIdx] = null;
+            return;
         }
-        succs.addAll(successors);
+
+        final int[] succs = new int[successors.length + 1];
+        System.arraycopy(successors, 0, succs, 1, successors.length);
+        Arrays.sort(succs, 1, succs.length);
+
+        // remove duplicates
+        int size = 1;
+        for (int i = 2; i < succs.length; i++) {
+            if (succs[i] != succs[size]) {
+                succs[++size] = succs[i];
+            }
+        }
+        succs[0] = size;
+
+        transitions[transIdx] = succs;
     }
 
     @Override
@@ -362,24 +481,20 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
 
     @Override
     public Collection<Integer> getTransitions(Integer state, I input) {
-        //return new TIntSetDecorator(getTransitions(state.intValue(), input));
-        return getTransitions(state.intValue(), input); // TODO: replace by primitive specialization
+        return getTransitions(state.intValue(), input);
     }
 
-    //public TIntSet getTransitions(int state, I input) {
-    public Set<Integer> getTransitions(int state, I input) { // TODO: replace by primitive specialization
+    public Set<Integer> getTransitions(int state, I input) {
         return getTransitions(state, alphabet.getSymbolIndex(input));
     }
 
-    //public TIntSet getTransitions(int state, int inputIdx) {
-    public Set<Integer> getTransitions(int state, int inputIdx) { // TODO: replace by primitive specialization
+    public Set<Integer> getTransitions(int state, int inputIdx) {
         return successors(state * alphabetSize + inputIdx);
     }
 
     @Override
     public Set<Integer> getInitialStates() {
-        //return new TIntSetDecorator(initial);
-        return initial; // TODO: replace by primitive specialization
+        return getIntInitialStates();
     }
 
     @Override
@@ -392,8 +507,7 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
         final int oldAlphabetSize = this.alphabetSize;
         final int newAlphabetSize = oldAlphabetSize + 1;
         final int newArraySize = this.transitions.length + this.stateCapacity;
-        @SuppressWarnings("unchecked")
-        final Set<Integer>[] newTransitions = new Set[newArraySize];
+        final int[][] newTransitions = new int[newArraySize][];
 
         for (int i = 0; i < this.numStates; i++) {
             System.arraycopy(transitions, i * oldAlphabetSize, newTransitions, i * newAlphabetSize, oldAlphabetSize);
@@ -403,4 +517,181 @@ public abstract class AbstractCompactSimpleNondet<I, SP> implements MutableAutom
         this.alphabet = Alphabets.withNewSymbol(this.alphabet, symbol);
         this.alphabetSize = newAlphabetSize;
     }
+
+    private boolean addSuccessor(int transIdx, int succId) {
+        int[] succs = transitions[transIdx];
+        if (succs == null) {
+            succs = new int[INITIAL_SUCCESSORS_CAPACITY + 1];
+            succs[0] = 1;
+            succs[1] = succId;
+            transitions[transIdx] = succs;
+            return true;
+        }
+
+        final int size = succs[0];
+        final int idx = Arrays.binarySearch(succs, 1, size + 1, succId);
+        if (idx >= 0) {
+            return false;
+        }
+
+        final int insertIdx = -idx - 1;
+        if (size + 1 == succs.length) {
+            succs = Arrays.copyOf(succs, (succs.length * 3) / 2 + 1);
+            transitions[transIdx] = succs;
+        }
+        System.arraycopy(succs, insertIdx, succs, insertIdx + 1, size + 1 - insertIdx);
+        succs[insertIdx] = succId;
+        succs[0] = size + 1;
+        return true;
+    }
+
+    private boolean removeSuccessor(int transIdx, int succId) {
+        final int[] succs = transitions[transIdx];
+        final int idx = indexOf(succs, succId);
+        if (idx < 0) {
+            return false;
+        }
+
+        final int size = succs[0];
+        if (size == 1) {
+            transitions[transIdx] = null;
+        } else {
+            System.arraycopy(succs, idx + 1, succs, idx, size - idx);
+            succs[0] = size - 1;
+        }
+        return true;
+    }
+
+    private static int indexOf(int[] succs, int succId) {
+        if (succs == null) {
+            return -1;
+        }
+        return Arrays.binarySearch(succs, 1, succs[0] + 1, succId);
+    }
+
+    /**
+     * Live view of the successors of a single transition slot.
+     */
+    private final class SuccessorsView extends AbstractSet<Integer> {
+
+        private final int transIdx;
+
+        SuccessorsView(int transIdx) {
+            this.transIdx = transIdx;
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new SuccessorsIterator(transIdx);
+        }
+
+        @Override
+        public int size() {
+            final int[] succs = transitions[transIdx];
+            return (succs == null) ? 0 : succs[0];
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer && indexOf(transitions[transIdx], (Integer) o) >= 0;
+        }
+
+        @Override
+        public boolean add(Integer succ) {
+            return addSuccessor(transIdx, succ);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Integer && removeSuccessor(transIdx, (Integer) o);
+        }
+
+        @Override
+        public void clear() {
+            transitions[transIdx] = null;
+        }
+    }
+
+    private final class SuccessorsIterator implements Iterator<Integer> {
+
+        private final int transIdx;
+        private int pos;
+        private int last = -1;
+
+        SuccessorsIterator(int transIdx) {
+            this.transIdx = transIdx;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final int[] succs = transitions[transIdx];
+            return succs != null && pos < succs[0];
+        }
+
+        @Override
+        public Integer next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = transitions[transIdx][++pos];
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            removeSuccessor(transIdx, last);
+            last = -1;
+            pos--;
+        }
+    }
+
+    /**
+     * Live view of the initial states.
+     */
+    private final class InitialStatesView extends AbstractSet<Integer> {
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new BitSetIterator(initial);
+        }
+
+        @Override
+        public int size() {
+            return initial.cardinality();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return initial.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer && (Integer) o >= 0 && initial.get((Integer) o);
+        }
+
+        @Override
+        public boolean add(Integer state) {
+            final boolean wasInitial = initial.get(state);
+            initial.set(state);
+            return !wasInitial;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            initial.clear((Integer) o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            initial.clear();
+        }
+    }
 }
@@ -20,6 +20,17 @@ import net.automatalib.automata.base.compact.AbstractCompactDeterministic;
 import net.automatalib.automata.transout.MutableMealyMachine;
 import net.automatalib.words.Alphabet;
 
+/**
+ * A compact, array-based implementation of a Mealy machine. Successors are stored in a primitive {@code int[]} array
+ * and outputs in a parallel array, whereas {@link CompactMealyTransition transition objects} are only created on
+ * demand. Transition objects passed to {@link #setTransition(int, int, Object)} are copied, i.e. later changes to the
+ * passed object do not affect this automaton.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
 public class CompactMealy<I, O> extends AbstractCompactDeterministic<I, CompactMealyTransition<O>, Void, O>
         implements MutableMealyMachine<Integer, I, CompactMealyTransition<O>, O> {
 
@@ -51,7 +62,7 @@ public class CompactMealy<I, O> extends AbstractCompactDeterministic<I, CompactM
 
     @Override
     public void setTransitionProperty(CompactMealyTransition<O> transition, O property) {
-        transition.setOutput(property);
+        setTransitionOutput(transition, property);
     }
 
     @Override
@@ -59,6 +70,10 @@ public class CompactMealy<I, O> extends AbstractCompactDeterministic<I, CompactM
         transition.setOutput(output);
     }
 
+    boolean updateTransitionOutput(int stateId, int inputIdx, int succId, O output) {
+        return updateTransitionProperty(stateId, inputIdx, succId, output);
+    }
+
     @Override
     public int getIntSuccessor(CompactMealyTransition<O> transition) {
         return transition.getSuccId();
@@ -69,6 +84,11 @@ public class CompactMealy<I, O> extends AbstractCompactDeterministic<I, CompactM
         return new CompactMealyTransition<>(succId, property);
     }
 
+    @Override
+    protected CompactMealyTransition<O> materializeTransition(int transId, int succId, O property) {
+        return new CompactMealyTransition<>(this, transId / alphabetSize, transId % alphabetSize, succId, property);
+    }
+
     @Override
     public void setStateProperty(int state, Void property) {
     }
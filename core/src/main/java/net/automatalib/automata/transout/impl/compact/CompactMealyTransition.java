@@ -17,10 +17,26 @@ package net.automatalib.automata.transout.impl.compact;
 
 import java.io.Serializable;
 
+/**
+ * A transition of a {@link CompactMealy}.
+ * <p>
+ * Since {@link CompactMealy} does not store transition objects internally, instances of this class are either
+ * <i>detached</i> (e.g., freshly created via {@link CompactMealy#createTransition(int, Object)}) or <i>attached</i> to
+ * a specific transition of an automaton (if returned by {@link CompactMealy#getTransition(int, int)}). Changing the
+ * output of an attached transition also updates the automaton, as long as the transition still exists and leads to
+ * the same successor. Otherwise, the transition object becomes detached and no longer affects the automaton.
+ * Transition objects are compared by identity.
+ *
+ * @param <O>
+ *         output symbol type
+ */
 public class CompactMealyTransition<O> implements Serializable {
 
     private final int succId;
     private O output;
+    private int stateId;
+    private int inputIdx;
+    private transient CompactMealy<?, O> owner;
 
     public CompactMealyTransition(int succId) {
         this(succId, null);
@@ -31,6 +47,13 @@ public class CompactMealyTransition<O> implements Serializable {
         this.output = output;
     }
 
+    CompactMealyTransition(CompactMealy<?, O> owner, int stateId, int inputIdx, int succId, O output) {
+        this(succId, output);
+        this.owner = owner;
+        this.stateId = stateId;
+        this.inputIdx = inputIdx;
+    }
+
     public int getSuccId() {
         return succId;
     }
@@ -41,5 +64,8 @@ public class CompactMealyTransition<O> implements Serializable {
 
     public void setOutput(O output) {
         this.output = output;
+        if (owner != null && !owner.updateTransitionOutput(stateId, inputIdx, succId, output)) {
+            owner = null;
+        }
     }
 }
@@ -15,57 +15,94 @@
  */
 package net.automatalib.ts.powerset;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
+import net.automatalib.commons.util.collections.IntSubsetStore;
 import net.automatalib.commons.util.nid.NumericID;
 import net.automatalib.ts.DeterministicTransitionSystem;
 import net.automatalib.ts.PowersetViewTS;
 import net.automatalib.ts.TransitionSystem;
 
+/**
+ * A powerset view of a transition system whose states carry numeric ids. Each powerset state keeps the sorted ids of
+ * its original states and a precomputed hash code, so powerset states are cheap to hash and to compare. By default,
+ * the view itself is stateless and may be queried concurrently.
+ * <p>
+ * Optionally, an {@link IntSubsetStore} can be supplied on construction, in which case all constructed powerset
+ * states are interned in it and states of the same store are compared by their subset ids alone. The store is owned
+ * by the caller: it grows with every distinct subset constructed and is never cleared by the view, so it should be
+ * scoped to a single determinization (e.g., by creating a fresh view and store for each). As interning modifies the
+ * store, a view with a store must not be accessed concurrently.
+ *
+ * @param <S>
+ *         state type of the original transition system
+ * @param <I>
+ *         input symbol type
+ * @param <T>
+ *         transition type of the original transition system
+ */
 public class FastPowersetDTS<S extends NumericID, I, T>
         implements DeterministicTransitionSystem<FastPowersetState<S>, I, Set<? extends T>>,
                    PowersetViewTS<FastPowersetState<S>, I, Set<? extends T>, S, T> {
 
     private final TransitionSystem<S, I, T> ts;
+    private final IntSubsetStore subsets;
 
     public FastPowersetDTS(TransitionSystem<S, I, T> ts) {
+        this(ts, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param ts
+     *         the original transition system
+     * @param subsets
+     *         the store in which to intern the constructed powerset states, or {@code null} if states should not be
+     *         interned
+     */
+    public FastPowersetDTS(TransitionSystem<S, I, T> ts, @Nullable IntSubsetStore subsets) {
         this.ts = ts;
+        this.subsets = subsets;
     }
 
     @Override
     public FastPowersetState<S> getInitialState() {
-        FastPowersetState<S> result = new FastPowersetState<>();
+        SubsetBuilder builder = new SubsetBuilder();
         for (S init : ts.getInitialStates()) {
-            result.add(init, init.getId());
+            builder.add(init);
         }
-        return result;
+        return builder.build();
     }
 
     @Override
     public FastPowersetState<S> getSuccessor(Set<? extends T> transition) {
-        FastPowersetState<S> succ = new FastPowersetState<>();
+        SubsetBuilder builder = new SubsetBuilder();
         for (T t : transition) {
-            S succS = ts.getSuccessor(t);
-            succ.add(succS, succS.getId());
+            builder.add(ts.getSuccessor(t));
         }
-
-        return succ;
+        return builder.build();
     }
 
     @Override
     public FastPowersetState<S> getSuccessor(FastPowersetState<S> state, I input) {
-        FastPowersetState<S> succ = new FastPowersetState<>();
+        SubsetBuilder builder = new SubsetBuilder();
 
         for (S s : state) {
             Collection<S> succs = ts.getSuccessors(s, input);
             for (S succS : succs) {
-                succ.add(succS, succS.getId());
+                builder.add(succS);
             }
         }
 
-        return succ;
+        return builder.build();
     }
 
     @Override
@@ -89,4 +126,27 @@ public class FastPowersetDTS<S extends NumericID, I, T>
         return (Collection<T>) transition;
     }
 
+    private final class SubsetBuilder {
+
+        private final BitSet seen = new BitSet();
+        private final List<S> contents = new ArrayList<>();
+
+        void add(S state) {
+            int id = state.getId();
+            if (!seen.get(id)) {
+                seen.set(id);
+                contents.add(state);
+            }
+        }
+
+        FastPowersetState<S> build() {
+            int[] ids = seen.stream().toArray();
+            if (subsets == null) {
+                return new FastPowersetState<>(contents, ids);
+            }
+            int subsetId = subsets.intern(ids, ids.length);
+            return new FastPowersetState<>(contents, subsets, subsetId);
+        }
+    }
+
 }
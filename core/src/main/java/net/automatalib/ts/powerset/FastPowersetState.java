@@ -17,16 +17,64 @@ package net.automatalib.ts.powerset;
 
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 
+import net.automatalib.commons.util.collections.IntSubsetStore;
+
+/**
+ * A state of a {@link FastPowersetDTS}, i.e., a set of states of the original transition system.
+ * <p>
+ * States created by a {@link FastPowersetDTS} are immutable and keep the sorted ids of their original states together
+ * with a precomputed hash code. If the view was given an {@link IntSubsetStore}, the states are additionally interned
+ * in it, so that equality checks between states of the same store reduce to comparing their subset ids. States
+ * created via the public constructor can be populated via {@link #add(Object, int)}.
+ *
+ * @param <S>
+ *         state type of the original transition system
+ */
 public class FastPowersetState<S> extends AbstractSet<S> {
 
-    private final BitSet bs = new BitSet();
-    private final List<S> contents = new ArrayList<>();
+    private final BitSet bs;
+    private final List<S> contents;
+    private final int[] ids;
+    private final int hash;
+    private final IntSubsetStore store;
+    private final int subsetId;
+
+    public FastPowersetState() {
+        this.bs = new BitSet();
+        this.contents = new ArrayList<>();
+        this.ids = null;
+        this.hash = 0;
+        this.store = null;
+        this.subsetId = IntSubsetStore.NO_SUBSET;
+    }
+
+    FastPowersetState(List<S> contents, int[] ids) {
+        this.bs = null;
+        this.contents = contents;
+        this.ids = ids;
+        this.hash = IntSubsetStore.hash(ids, ids.length);
+        this.store = null;
+        this.subsetId = IntSubsetStore.NO_SUBSET;
+    }
+
+    FastPowersetState(List<S> contents, IntSubsetStore store, int subsetId) {
+        this.bs = null;
+        this.contents = contents;
+        this.ids = null;
+        this.hash = store.getHash(subsetId);
+        this.store = store;
+        this.subsetId = subsetId;
+    }
 
     public void add(S state, int id) {
+        if (bs == null) {
+            throw new UnsupportedOperationException("Powerset states created by a view cannot be modified");
+        }
         if (bs.get(id)) {
             return;
         }
@@ -49,6 +97,13 @@ public class FastPowersetState<S> extends AbstractSet<S> {
         throw new UnsupportedOperationException();
     }
 
+    private int[] getIds() {
+        if (store != null) {
+            return store.getElements(subsetId);
+        }
+        return (ids != null) ? ids : bs.stream().toArray();
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -62,12 +117,19 @@ public class FastPowersetState<S> extends AbstractSet<S> {
         }
 
         FastPowersetState<?> other = (FastPowersetState<?>) obj;
-        return bs.equals(other.bs);
+        if (store != null && store == other.store) {
+            return subsetId == other.subsetId;
+        }
+        return Arrays.equals(getIds(), other.getIds());
     }
 
     @Override
     public int hashCode() {
-        return bs.hashCode();
+        if (bs == null) {
+            return hash;
+        }
+        final int[] elements = bs.stream().toArray();
+        return IntSubsetStore.hash(elements, elements.length);
     }
 
 }
@@ -0,0 +1,112 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.fsa;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CompactNFATest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'b');
+
+    @Test
+    public void testPrimitiveSuccessors() {
+        final CompactNFA<Character> nfa = new CompactNFA<>(ALPHABET, 2);
+
+        final int q0 = nfa.addIntInitialState(false);
+        final int q1 = nfa.addIntState(false);
+        final int q2 = nfa.addIntState(true);
+        final int q3 = nfa.addIntState(false);
+
+        nfa.addTransition(q0, 0, q3);
+        nfa.addTransition(q0, 0, q1);
+        nfa.addTransition(q0, 0, q2);
+        nfa.addTransition(q0, 0, q1);
+
+        Assert.assertEquals(nfa.getNumIntSuccessors(q0, 0), 3);
+        Assert.assertEquals(nfa.getNumIntSuccessors(q0, 1), 0);
+        Assert.assertEquals(nfa.getIntSuccessors(q0, 0), new int[] {q1, q2, q3});
+        Assert.assertEquals(nfa.getIntSuccessor(q0, 0, 1), q2);
+        Assert.assertTrue(nfa.hasIntTransition(q0, 0, q3));
+        Assert.assertFalse(nfa.hasIntTransition(q0, 1, q3));
+
+        final int[] collected = new int[3];
+        final int[] idx = {0};
+        nfa.forEachIntSuccessor(q0, 0, s -> collected[idx[0]++] = s);
+        Assert.assertEquals(collected, new int[] {q1, q2, q3});
+
+        nfa.removeTransition(q0, 0, q2);
+        Assert.assertEquals(nfa.getIntSuccessors(q0, 0), new int[] {q1, q3});
+
+        nfa.setTransitions(q0, 1, q3, q0, q3);
+        Assert.assertEquals(nfa.getIntSuccessors(q0, 1), new int[] {q0, q3});
+        Assert.assertEquals(nfa.getTransitions(q0, (Character) 'b'), new HashSet<>(Arrays.asList(q0, q3)));
+
+        nfa.setTransitions(q0, (Character) 'b', Collections.emptySet());
+        Assert.assertTrue(nfa.getTransitions(q0, (Character) 'b').isEmpty());
+    }
+
+    @Test
+    public void testSetViews() {
+        final CompactNFA<Character> nfa = new CompactNFA<>(ALPHABET);
+
+        final int q0 = nfa.addIntInitialState(false);
+        final int q1 = nfa.addIntState(true);
+        final int q2 = nfa.addIntInitialState(false);
+
+        Assert.assertEquals(nfa.getInitialStates(), new HashSet<>(Arrays.asList(q0, q2)));
+        Assert.assertTrue(nfa.isIntInitial(q2));
+
+        nfa.setInitial(q2, false);
+        Assert.assertEquals(nfa.getInitialStates(), Collections.singleton(q0));
+
+        final Set<Integer> succs = nfa.getTransitions(q0, (Character) 'a');
+        Assert.assertTrue(succs.isEmpty());
+
+        // views are live and modifiable
+        Assert.assertTrue(succs.add(q2));
+        Assert.assertTrue(succs.add(q1));
+        Assert.assertFalse(succs.add(q1));
+        Assert.assertEquals(nfa.getIntSuccessors(q0, 0), new int[] {q1, q2});
+        Assert.assertEquals(succs.size(), 2);
+
+        final Iterator<Integer> iter = succs.iterator();
+        Assert.assertEquals(iter.next(), Integer.valueOf(q1));
+        iter.remove();
+        Assert.assertEquals(iter.next(), Integer.valueOf(q2));
+        Assert.assertFalse(iter.hasNext());
+        Assert.assertEquals(nfa.getIntSuccessors(q0, 0), new int[] {q2});
+
+        // growing the automaton preserves transitions
+        for (int i = 0; i < 100; i++) {
+            nfa.addTransition(nfa.addIntState(false), 1, q0);
+        }
+        nfa.addAlphabetSymbol('c');
+
+        Assert.assertEquals(nfa.getTransitions(q0, (Character) 'a'), Collections.singleton(q2));
+        Assert.assertEquals(nfa.getTransitions(100, (Character) 'b'), Collections.singleton(q0));
+        Assert.assertTrue(nfa.getTransitions(100, (Character) 'c').isEmpty());
+    }
+}
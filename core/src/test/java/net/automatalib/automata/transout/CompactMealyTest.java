@@ -0,0 +1,165 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.transout;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.automata.transout.impl.compact.CompactMealyTransition;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.IntWord;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CompactMealyTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'b');
+
+    private static final String OUT_OK = "ok";
+    private static final String OUT_ERROR = "error";
+
+    private static CompactMealy<Character, String> constructMachine() {
+        final CompactMealy<Character, String> mealy = new CompactMealy<>(ALPHABET, 1);
+
+        final int s0 = mealy.addIntInitialState(), s1 = mealy.addIntState(), s2 = mealy.addIntState();
+
+        mealy.setTransition(s0, 0, s1, OUT_OK);
+        mealy.setTransition(s0, 1, s0, OUT_ERROR);
+
+        mealy.setTransition(s1, 0, s2, OUT_OK);
+        mealy.setTransition(s1, 1, s0, OUT_OK);
+
+        mealy.setTransition(s2, 0, s2, OUT_ERROR);
+        mealy.setTransition(s2, 1, s1, OUT_OK);
+
+        return mealy;
+    }
+
+    @Test
+    public void testPrimitiveAccess() {
+        final CompactMealy<Character, String> mealy = constructMachine();
+
+        Assert.assertEquals(mealy.getSuccessor(0, 0), 1);
+        Assert.assertEquals(mealy.getSuccessor(2, (Character) 'b'), 1);
+        Assert.assertEquals(mealy.getTransitionProperty(2, 0), OUT_ERROR);
+        Assert.assertEquals(mealy.computeOutput(Word.fromString("aaa")), Word.fromSymbols(OUT_OK, OUT_OK, OUT_ERROR));
+
+        mealy.setTransitionProperty(2, 0, OUT_OK);
+        Assert.assertEquals(mealy.computeOutput(Word.fromString("aaa")), Word.fromSymbols(OUT_OK, OUT_OK, OUT_OK));
+
+        mealy.removeAllTransitions(2);
+        Assert.assertEquals(mealy.getSuccessor(2, 0), CompactMealy.INVALID_STATE);
+        Assert.assertNull(mealy.getTransition(2, 0));
+        Assert.assertNull(mealy.getTransitionProperty(2, 0));
+    }
+
+    @Test
+    public void testMaterializedTransitions() {
+        final CompactMealy<Character, String> mealy = constructMachine();
+
+        final CompactMealyTransition<String> t1 = mealy.getTransition(0, 0);
+        final CompactMealyTransition<String> t2 = mealy.getTransition(0, 0);
+
+        Assert.assertEquals(t1.getSuccId(), 1);
+        Assert.assertEquals(t1.getOutput(), OUT_OK);
+        Assert.assertNotEquals(t1, t2);
+
+        // changes to materialized transitions are written back
+        t1.setOutput(OUT_ERROR);
+        Assert.assertEquals(mealy.getOutput(0, (Character) 'a'), OUT_ERROR);
+
+        mealy.setTransitionOutput(mealy.getTransition(0, 0), OUT_OK);
+        Assert.assertEquals(mealy.getOutput(0, (Character) 'a'), OUT_OK);
+
+        // stored transitions are copied
+        final CompactMealyTransition<String> created = mealy.createTransition(2, OUT_ERROR);
+        mealy.setTransition(1, (Character) 'b', created);
+        mealy.setTransition(2, (Character) 'b', created);
+        created.setOutput(OUT_OK);
+        Assert.assertEquals(mealy.getOutput(1, (Character) 'b'), OUT_ERROR);
+        Assert.assertEquals(mealy.getOutput(2, (Character) 'b'), OUT_ERROR);
+        Assert.assertEquals(mealy.getSuccessor(1, 1), 2);
+
+        mealy.removeTransition(1, (Character) 'b', mealy.getTransition(1, (Character) 'b'));
+        Assert.assertNull(mealy.getTransition(1, (Character) 'b'));
+    }
+
+    @Test
+    public void testStaleTransitions() {
+        final CompactMealy<Character, String> mealy = constructMachine();
+
+        // redirected transitions are no longer affected
+        final CompactMealyTransition<String> redirected = mealy.getTransition(0, 0);
+        mealy.setTransition(0, 0, 2, OUT_ERROR);
+        redirected.setOutput(OUT_OK);
+        Assert.assertEquals(mealy.getTransitionProperty(0, 0), OUT_ERROR);
+
+        // neither are removed ones
+        final CompactMealyTransition<String> removed = mealy.getTransition(1, 0);
+        mealy.removeAllTransitions(1);
+        removed.setOutput(OUT_ERROR);
+        Assert.assertNull(mealy.getTransitionProperty(1, 0));
+        Assert.assertNull(mealy.getTransition(1, 0));
+
+        // once detached, a transition stays detached
+        mealy.setTransition(1, 0, 2, OUT_OK);
+        removed.setOutput(OUT_ERROR);
+        Assert.assertEquals(mealy.getTransitionProperty(1, 0), OUT_OK);
+
+        // transitions stay attached if the alphabet grows
+        final CompactMealyTransition<String> grown = mealy.getTransition(2, 1);
+        mealy.addAlphabetSymbol('c');
+        grown.setOutput(OUT_ERROR);
+        Assert.assertEquals(mealy.getTransitionProperty(2, 1), OUT_ERROR);
+        Assert.assertNull(mealy.getTransitionProperty(2, 2));
+    }
+
+    @Test
+    public void testGrowth() {
+        final CompactMealy<Character, String> mealy = constructMachine();
+
+        for (int i = 0; i < 100; i++) {
+            final int s = mealy.addIntState();
+            mealy.setTransition(s, 0, 0, OUT_OK);
+        }
+
+        mealy.addAlphabetSymbol('c');
+
+        Assert.assertEquals(mealy.computeOutput(Word.fromString("aaa")), Word.fromSymbols(OUT_OK, OUT_OK, OUT_ERROR));
+        Assert.assertEquals(mealy.getSuccessor(100, 0), 0);
+        Assert.assertEquals(mealy.getTransitionProperty(100, 0), OUT_OK);
+        Assert.assertNull(mealy.getTransition(100, (Character) 'c'));
+        Assert.assertNull(mealy.getTransitionProperty(2, 2));
+    }
+
+    @Test
+    public void testIntWordSuccessor() {
+        final CompactMealy<Character, String> mealy = constructMachine();
+
+        final IntWord<Character> aab = IntWord.fromWord(ALPHABET, Word.fromString("aab"));
+
+        Assert.assertEquals(mealy.getIntState(aab), 1);
+        Assert.assertEquals(mealy.getIntSuccessor(2, aab), 1);
+        Assert.assertEquals(mealy.getIntSuccessor(0, IntWord.fromIndices(ALPHABET)), 0);
+        Assert.assertEquals(mealy.getState(aab), Integer.valueOf(1));
+        Assert.assertEquals(mealy.getSuccessor(1, (Iterable<Character>) aab.subWord(1)), Integer.valueOf(1));
+        Assert.assertEquals(mealy.computeOutput(aab), Word.fromSymbols(OUT_OK, OUT_OK, OUT_OK));
+
+        mealy.removeAllTransitions(1);
+        Assert.assertEquals(mealy.getIntState(aab), CompactMealy.INVALID_STATE);
+        Assert.assertNull(mealy.getState(aab));
+    }
+}
@@ -18,6 +18,7 @@ package net.automatalib.automata.transout;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.IntWord;
 import net.automatalib.words.Word;
 import net.automatalib.words.impl.Alphabets;
 import org.testng.Assert;
@@ -46,4 +47,29 @@ public class DFATests {
         Assert.assertEquals(dfa.computeStateOutput(dfa.getInitialState(), word), expected);
         Assert.assertEquals(dfa.computeSuffixOutput(word.prefix(word.length()), word.suffix(word.length())), expected);
     }
+
+    @Test
+    public void testIntWordSuccessor() {
+        final Alphabet<Character> sigma = Alphabets.characters('a', 'b');
+        final CompactDFA<Character> dfa = new CompactDFA<>(sigma);
+
+        final int q0 = dfa.addInitialState(true);
+        final int q1 = dfa.addState(false);
+
+        dfa.setTransition(q0, (Character) 'a', q1);
+        dfa.setTransition(q1, (Character) 'b', q0);
+
+        final IntWord<Character> abab = IntWord.fromWord(sigma, Word.fromCharSequence("abab"));
+        final IntWord<Character> aa = IntWord.fromIndices(sigma, 0, 0);
+        final IntWord<Character> foreign = IntWord.fromWord(Alphabets.characters('a', 'b'), Word.fromString("aba"));
+
+        Assert.assertEquals(dfa.getIntState(abab), q0);
+        Assert.assertEquals(dfa.getIntSuccessor(q1, abab.subWord(1)), q0);
+        Assert.assertEquals(dfa.getIntState(aa), CompactDFA.INVALID_STATE);
+        Assert.assertEquals(dfa.getIntState(foreign), q1);
+        Assert.assertEquals(dfa.getState(abab), Integer.valueOf(q0));
+        Assert.assertNull(dfa.getState(aa));
+        checkOutput(dfa, abab, true);
+        checkOutput(dfa, aa, false);
+    }
 }
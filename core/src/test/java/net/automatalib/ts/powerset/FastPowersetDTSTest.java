@@ -0,0 +1,83 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.ts.powerset;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import net.automatalib.automata.fsa.impl.FastNFA;
+import net.automatalib.automata.fsa.impl.FastNFAState;
+import net.automatalib.commons.util.collections.IntSubsetStore;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class FastPowersetDTSTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'b');
+
+    @Test
+    public void testEquivalentStates() {
+        final FastNFA<Character> nfa = buildNFA();
+
+        final FastPowersetDTS<FastNFAState, Character, FastNFAState> plain = new FastPowersetDTS<>(nfa);
+        final IntSubsetStore store = new IntSubsetStore();
+        final FastPowersetDTS<FastNFAState, Character, FastNFAState> interned = new FastPowersetDTS<>(nfa, store);
+
+        final FastPowersetState<FastNFAState> p0 = plain.getInitialState();
+        final FastPowersetState<FastNFAState> i0 = interned.getInitialState();
+        final FastPowersetState<FastNFAState> p1 = plain.getSuccessor(p0, 'a');
+        final FastPowersetState<FastNFAState> i1 = interned.getSuccessor(i0, 'a');
+
+        Assert.assertEquals(p1.size(), 2);
+        Assert.assertEquals(p1, i1);
+        Assert.assertEquals(i1, p1);
+        Assert.assertEquals(p1.hashCode(), i1.hashCode());
+        Assert.assertEquals(plain.getSuccessor(p1, 'a'), p1);
+        Assert.assertEquals(interned.getSuccessor(i1, 'a'), i1);
+        Assert.assertNotEquals(p0, p1);
+
+        final FastPowersetState<FastNFAState> manual = new FastPowersetState<>();
+        for (FastNFAState s : p1) {
+            manual.add(s, s.getId());
+        }
+        Assert.assertEquals(manual, p1);
+        Assert.assertEquals(manual.hashCode(), p1.hashCode());
+
+        // only the view with a store interns its states
+        Assert.assertEquals(store.size(), 2);
+        Assert.assertThrows(UnsupportedOperationException.class, () -> p1.add(p1.iterator().next(), 0));
+    }
+
+    private static FastNFA<Character> buildNFA() {
+        final FastNFA<Character> nfa = new FastNFA<>(ALPHABET);
+
+        final FastNFAState q0 = nfa.addInitialState(false);
+        final FastNFAState q1 = nfa.addState(false);
+        final FastNFAState q2 = nfa.addState(true);
+
+        // fast states do not initialize their transition sets
+        nfa.setTransitions(q0, 'a', Arrays.asList(q1, q2));
+        nfa.setTransitions(q0, 'b', Collections.emptySet());
+        nfa.setTransitions(q1, 'a', Arrays.asList(q1, q2));
+        nfa.setTransitions(q1, 'b', Collections.emptySet());
+        nfa.setTransitions(q2, 'a', Collections.emptySet());
+        nfa.setTransitions(q2, 'b', Collections.singleton(q0));
+
+        return nfa;
+    }
+}
@@ -0,0 +1,77 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+/**
+ * An {@link IncrementalConstruction} with a bounded size. Whenever the number of nodes of the construction exceeds the
+ * configured maximum, the construction discards the information that has been least recently used, i.e., it behaves
+ * like a (lossy) cache of the inserted information. Discarded information is no longer {@link
+ * #hasDefinitiveInformation(net.automatalib.words.Word) definitively known}, and is not considered when checking
+ * insertions for conflicts or searching for separating words.
+ * <p>
+ * As each node occupies a roughly constant amount of memory, the maximum number of nodes allows to bound the memory
+ * consumption of the construction.
+ *
+ * @param <A>
+ *         the automaton model which is constructed
+ * @param <I>
+ *         input symbol class
+ */
+public interface BoundedIncrementalConstruction<A, I> extends IncrementalConstruction<A, I> {
+
+    /**
+     * Retrieves the maximum number of nodes (including the initial one) of this construction.
+     *
+     * @return the maximum number of nodes
+     */
+    int getMaxNodes();
+
+    /**
+     * Retrieves the current number of nodes (including the initial one) of this construction.
+     *
+     * @return the current number of nodes
+     */
+    int getNumNodes();
+
+    /**
+     * Retrieves the number of lookups for which definitive information was present.
+     *
+     * @return the number of cache hits
+     */
+    long getNumHits();
+
+    /**
+     * Retrieves the number of lookups for which no definitive information was present, either because the information
+     * has never been inserted or because it has been discarded.
+     *
+     * @return the number of cache misses
+     */
+    long getNumMisses();
+
+    /**
+     * Retrieves the number of times information had to be discarded because the maximum number of nodes was exceeded.
+     *
+     * @return the number of evictions
+     */
+    long getNumEvictions();
+
+    /**
+     * Retrieves the total number of nodes that have been discarded.
+     *
+     * @return the number of evicted nodes
+     */
+    long getNumEvictedNodes();
+}
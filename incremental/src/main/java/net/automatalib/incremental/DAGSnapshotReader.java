@@ -0,0 +1,274 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reader for binary snapshots of incremental DAG builders, see {@link DAGSnapshotWriter} for a description of the
+ * format.
+ * <p>
+ * The snapshot file is memory-mapped (in windows of at most 1 GiB), so that large transition tables can be copied to
+ * the arrays of a builder in bulk (see {@link #readInts(int[], int, int)}) without any intermediate buffering.
+ * <p>
+ * The output symbols of Mealy snapshots are restored via Java deserialization, restricted to a set of allowed
+ * classes (see {@link #readOutputSymbols(Collection)}). Nevertheless, snapshots should only be read from trusted
+ * sources.
+ */
+public final class DAGSnapshotReader implements Closeable {
+
+    /**
+     * The classes whose instances may always be deserialized as part of the output table, i.e. strings, boxed
+     * primitives and the list holding the output symbols.
+     */
+    public static final Set<Class<?>> DEFAULT_OUTPUT_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ArrayList.class,
+            String.class,
+            Number.class,
+            Boolean.class,
+            Byte.class,
+            Character.class,
+            Short.class,
+            Integer.class,
+            Long.class,
+            Float.class,
+            Double.class)));
+
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    public DAGSnapshotReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.window = channel.map(MapMode.READ_ONLY, 0, Math.min(WINDOW_SIZE, size));
+    }
+
+    /**
+     * Reads and validates the header of the snapshot.
+     *
+     * @param type
+     *         the expected type of the snapshot
+     * @param alphabetSize
+     *         the expected size of the input alphabet
+     *
+     * @return the number of states of the snapshot
+     *
+     * @throws IOException
+     *         if the header cannot be read, or does not match the expectations
+     */
+    public int readHeader(DAGSnapshotType type, int alphabetSize) throws IOException {
+        for (byte b : DAGSnapshotWriter.MAGIC) {
+            if (readByte() != b) {
+                throw new IOException("Not a DAG snapshot");
+            }
+        }
+
+        final int version = readByte();
+        if (version != DAGSnapshotWriter.VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+
+        final int typeOrdinal = readByte();
+        if (typeOrdinal != type.ordinal()) {
+            throw new IOException("Expected a snapshot of type " + type + ", but got " +
+                                  (typeOrdinal < DAGSnapshotType.values().length ?
+                                          DAGSnapshotType.values()[typeOrdinal] :
+                                          typeOrdinal));
+        }
+
+        final int snapshotAlphabetSize = readInt();
+        if (snapshotAlphabetSize != alphabetSize) {
+            throw new IOException("Expected an alphabet of size " + alphabetSize + ", but the snapshot uses " +
+                                  snapshotAlphabetSize + " input symbols");
+        }
+
+        final int numStates = readInt();
+        if (numStates < 1) {
+            throw new IOException("Invalid number of states: " + numStates);
+        }
+
+        return numStates;
+    }
+
+    /**
+     * Reads the table of output symbols. Only instances of {@link #DEFAULT_OUTPUT_CLASSES the default output classes}
+     * and enums may be deserialized.
+     *
+     * @return the list of output symbols
+     *
+     * @throws IOException
+     *         if the table cannot be read, or contains objects of other classes
+     *
+     * @see #readOutputSymbols(Collection)
+     */
+    public <O> List<O> readOutputSymbols() throws IOException {
+        return readOutputSymbols(Collections.emptySet());
+    }
+
+    /**
+     * Reads the table of output symbols. Only instances of {@link #DEFAULT_OUTPUT_CLASSES the default output classes},
+     * enums, and instances of the given classes may be deserialized. Note that the given classes need to include the
+     * classes of all objects that are referenced by (and hence serialized with) the output symbols.
+     * <p>
+     * Restricting the deserialized classes prevents malicious snapshots from instantiating arbitrary serializable
+     * classes. Still, the restored output symbols are only as trustworthy as the given classes, so snapshots should
+     * only be read from trusted sources.
+     *
+     * @param outputClasses
+     *         additional classes whose instances may be deserialized
+     *
+     * @return the list of output symbols
+     *
+     * @throws IOException
+     *         if the table cannot be read, or contains objects of other classes
+     */
+    @SuppressWarnings("unchecked")
+    public <O> List<O> readOutputSymbols(Collection<? extends Class<?>> outputClasses) throws IOException {
+        final int length = readInt();
+        if (length < 0 || length > remaining()) {
+            throw new IOException("Invalid length of output table: " + length);
+        }
+
+        final byte[] bytes = new byte[length];
+        readBytes(bytes, 0, length);
+
+        try (ObjectInputStream ois = new RestrictedObjectInputStream(new ByteArrayInputStream(bytes), outputClasses)) {
+            final Object result = ois.readObject();
+            if (!(result instanceof ArrayList)) {
+                throw new IOException("Invalid output table");
+            }
+            return (List<O>) result;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Invalid output table", e);
+        }
+    }
+
+    public int readByte() throws IOException {
+        ensureAvailable(Byte.BYTES);
+        return window.get() & 0xFF;
+    }
+
+    public int readInt() throws IOException {
+        ensureAvailable(Integer.BYTES);
+        return window.getInt();
+    }
+
+    public void readBytes(byte[] dst, int offset, int length) throws IOException {
+        int off = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            ensureAvailable(Byte.BYTES);
+            final int num = Math.min(remaining, window.remaining());
+            window.get(dst, off, num);
+            off += num;
+            remaining -= num;
+        }
+    }
+
+    public void readInts(int[] dst, int offset, int length) throws IOException {
+        int off = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            ensureAvailable(Integer.BYTES);
+            final int num = Math.min(remaining, window.remaining() / Integer.BYTES);
+            window.asIntBuffer().get(dst, off, num);
+            window.position(window.position() + num * Integer.BYTES);
+            off += num;
+            remaining -= num;
+        }
+    }
+
+    /**
+     * Checks that the snapshot has been read completely.
+     *
+     * @throws IOException
+     *         if the snapshot contains unread data
+     */
+    public void checkEnd() throws IOException {
+        if (windowStart + window.position() != size) {
+            throw new IOException("Unexpected data at the end of the snapshot");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void ensureAvailable(int numBytes) throws IOException {
+        if (window.remaining() >= numBytes) {
+            return;
+        }
+
+        final long position = windowStart + window.position();
+        if (remaining() < numBytes) {
+            throw new EOFException("Unexpected end of snapshot");
+        }
+
+        windowStart = position;
+        window = channel.map(MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+    }
+
+    private long remaining() {
+        return size - windowStart - window.position();
+    }
+
+    /**
+     * An {@link ObjectInputStream} that only resolves the classes of the output table.
+     */
+    private static final class RestrictedObjectInputStream extends ObjectInputStream {
+
+        private final Collection<? extends Class<?>> outputClasses;
+
+        RestrictedObjectInputStream(InputStream in, Collection<? extends Class<?>> outputClasses) throws IOException {
+            super(in);
+            this.outputClasses = outputClasses;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            final Class<?> clazz = super.resolveClass(desc);
+            if (DEFAULT_OUTPUT_CLASSES.contains(clazz) || outputClasses.contains(clazz) ||
+                clazz == Enum.class || Enum.class.isAssignableFrom(clazz)) {
+                return clazz;
+            }
+            throw new InvalidClassException(desc.getName(), "Class is not allowed in output tables");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer for binary snapshots of incremental DAG builders. A snapshot encodes the (minimal) DAG of a builder by means
+ * of integer state ids, where the initial state has id {@code 0}. It consists of the following parts, in this order
+ * (all integers are stored as 4 byte big-endian values):
+ * <ol>
+ * <li>the header: the magic bytes {@code IDAG}, a version byte, the ordinal of the {@link DAGSnapshotType} (as a
+ * byte), the size of the input alphabet {@code k}, and the number of states {@code n},</li>
+ * <li>for {@link DAGSnapshotType#MEALY Mealy} snapshots, the table of (distinct) output symbols, as the number of bytes
+ * followed by the Java serialization of the list of output symbols (hence, output symbols must be {@link
+ * java.io.Serializable serializable}, and their classes must be allowed by {@link
+ * DAGSnapshotReader#readOutputSymbols(java.util.Collection)}),</li>
+ * <li>for DFA snapshots, the ordinal of the {@link net.automatalib.incremental.dfa.Acceptance acceptance} of each
+ * state (as a byte), where the value {@link #SINK} marks the sink of prefix-closed DFAs,</li>
+ * <li>the transition table, as {@code n * k} successor ids, where the successor of state {@code s} for the input with
+ * index {@code i} is stored at position {@code s * k + i}, and {@link #UNDEFINED} denotes an undefined
+ * transition,</li>
+ * <li>for Mealy snapshots, the output table, as {@code n * k} indices into the table of output symbols (stored in the
+ * same order as the successor ids, and {@link #UNDEFINED} for undefined transitions).</li>
+ * </ol>
+ * The data is written in a streaming fashion, i.e., the snapshot is never materialized in memory as a whole. The
+ * writer does not close the underlying stream.
+ */
+public final class DAGSnapshotWriter implements Flushable {
+
+    /**
+     * The id written for undefined successors and outputs.
+     */
+    public static final int UNDEFINED = -1;
+
+    /**
+     * The acceptance value written for the sink of a prefix-closed DFA.
+     */
+    public static final int SINK = 3;
+
+    static final byte[] MAGIC = {'I', 'D', 'A', 'G'};
+    static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream out;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    public DAGSnapshotWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public void writeHeader(DAGSnapshotType type, int alphabetSize, int numStates) throws IOException {
+        for (byte b : MAGIC) {
+            writeByte(b);
+        }
+        writeByte(VERSION);
+        writeByte(type.ordinal());
+        writeInt(alphabetSize);
+        writeInt(numStates);
+    }
+
+    public void writeOutputSymbols(List<?> outputSymbols) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(new ArrayList<>(outputSymbols));
+        }
+
+        writeInt(bytes.size());
+        flush();
+        bytes.writeTo(out);
+    }
+
+    public void writeByte(int value) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flushBuffer();
+        }
+        buffer.put((byte) value);
+    }
+
+    public void writeInt(int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            flushBuffer();
+        }
+        buffer.putInt(value);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+}
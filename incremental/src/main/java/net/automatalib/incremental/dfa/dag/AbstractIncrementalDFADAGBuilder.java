@@ -15,23 +15,27 @@
  */
 package net.automatalib.incremental.dfa.dag;
 
-import java.util.ArrayDeque;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
-import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.UniversalDeterministicAutomaton.FullIntAbstraction;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.commons.util.IntDisjointSets;
 import net.automatalib.commons.util.UnionFind;
+import net.automatalib.incremental.DAGSnapshotReader;
+import net.automatalib.incremental.DAGSnapshotType;
+import net.automatalib.incremental.DAGSnapshotWriter;
 import net.automatalib.incremental.dfa.AbstractIncrementalDFABuilder;
 import net.automatalib.incremental.dfa.Acceptance;
 import net.automatalib.visualization.VisualizationHelper;
@@ -42,14 +46,21 @@ import net.automatalib.words.WordBuilder;
 
 public abstract class AbstractIncrementalDFADAGBuilder<I> extends AbstractIncrementalDFABuilder<I> {
 
+    private static final int INITIAL_CAPACITY = 16;
+
     protected final Map<StateSignature, State> register = new HashMap<>();
     protected final State init;
     protected State sink;
 
+    private int numStateIds;
+    private int[] freeStateIds = new int[INITIAL_CAPACITY];
+    private int numFreeStateIds;
+
     public AbstractIncrementalDFADAGBuilder(Alphabet<I> inputAlphabet) {
         super(inputAlphabet);
         StateSignature sig = new StateSignature(alphabetSize, Acceptance.DONT_KNOW);
         this.init = new State(sig);
+        assignId(init);
         register.put(null, init);
     }
 
@@ -58,131 +69,347 @@ public abstract class AbstractIncrementalDFADAGBuilder<I> extends AbstractIncrem
         return doFindSeparatingWord(target, inputs, omitUndefined);
     }
 
+    /**
+     * Computes a separating word by a breadth-first search over the product of this DAG and the integer abstraction of
+     * the target, merging equivalent pairs of states in a union-find structure. States of this DAG are identified by
+     * their {@link State#getId() ids}, target states by their integer representation. The queue of the search is
+     * stored in (growing) arrays, which also encode the search tree for reconstructing the separating word.
+     */
+    @SuppressWarnings("unchecked")
     private <S> Word<I> doFindSeparatingWord(DFA<S, I> target, Collection<? extends I> inputs, boolean omitUndefined) {
-        int thisStates = register.size();
-        Map<State, Integer> stateIds = new HashMap<>();
-        if (sink != null) {
-            stateIds.put(sink, 0);
-            thisStates++;
-        }
-        int targetStates = target.size();
-        if (!omitUndefined) {
-            targetStates++;
-        }
+        final List<I> symbols = new ArrayList<>(inputs);
+        final int numInputs = symbols.size();
+        final FullIntAbstraction<S, Boolean, Void> abs = (inputs instanceof Alphabet) ?
+                target.fullIntAbstraction((Alphabet<I>) inputs) :
+                target.fullIntAbstraction(numInputs, symbols::get);
 
-        S init2 = target.getInitialState();
+        final int init2 = abs.getIntInitialState();
 
-        if (init2 == null && omitUndefined) {
+        if (init2 < 0 && omitUndefined) {
             return null;
         }
 
-        State init1 = init;
-
-        boolean acc = init2 != null && target.isAccepting(init2);
-        if (init1.getAcceptance().conflicts(acc)) {
+        boolean acc = init2 >= 0 && abs.getStateProperty(init2);
+        if (init.getAcceptance().conflicts(acc)) {
             return Word.epsilon();
         }
 
-        IntDisjointSets uf = new UnionFind(thisStates + targetStates);
-        StateIDs<S> tgtIds = target.stateIDs();
-        int id1 = getStateId(init1, stateIds);
-        int id2 = ((init2 != null) ? tgtIds.getStateId(init2) : (targetStates - 1)) + thisStates;
-
-        uf.link(id1, id2);
-
-        Queue<Record<S, I>> queue = new ArrayDeque<>();
+        final int[] inputIndices = new int[numInputs];
+        for (int i = 0; i < numInputs; i++) {
+            inputIndices[i] = inputAlphabet.getSymbolIndex(symbols.get(i));
+        }
 
-        queue.add(new Record<>(init1, init2));
+        // target states are offset by the number of ids of this DAG, the last id represents undefined target states
+        final int thisStates = numStateIds;
+        final int targetStates = abs.size() + 1;
+        final IntDisjointSets uf = new UnionFind(thisStates + targetStates);
+        uf.link(init.getId(), targetId(init2, thisStates, targetStates));
 
-        I lastSym = null;
+        State[] queueStates1 = new State[INITIAL_CAPACITY];
+        int[] queueStates2 = new int[INITIAL_CAPACITY];
+        int[] queueParents = new int[INITIAL_CAPACITY];
+        int[] queueInputs = new int[INITIAL_CAPACITY];
+        int queueSize = 1;
 
-        Record<S, I> current;
+        queueStates1[0] = init;
+        queueStates2[0] = init2;
+        queueParents[0] = -1;
 
-        explore:
-        while ((current = queue.poll()) != null) {
-            State state1 = current.state1;
-            S state2 = current.state2;
+        for (int current = 0; current < queueSize; current++) {
+            final State state1 = queueStates1[current];
+            final int state2 = queueStates2[current];
 
-            for (I sym : inputs) {
-                S succ2 = (state2 != null) ? target.getSuccessor(state2, sym) : null;
-                if (succ2 == null && omitUndefined) {
+            for (int i = 0; i < numInputs; i++) {
+                final int succ2 = (state2 >= 0) ? abs.getSuccessor(state2, i) : -1;
+                if (succ2 < 0 && omitUndefined) {
                     continue;
                 }
 
-                int idx = inputAlphabet.getSymbolIndex(sym);
-                State succ1 = (state1 != sink) ? state1.getSuccessor(idx) : sink;
+                final State succ1 = (state1 != sink) ? state1.getSuccessor(inputIndices[i]) : sink;
 
                 if (succ1 == null) {
                     continue;
                 }
 
-                id1 = getStateId(succ1, stateIds);
-                id2 = ((succ2 != null) ? tgtIds.getStateId(succ2) : (targetStates - 1)) + thisStates;
-
-                int r1 = uf.find(id1), r2 = uf.find(id2);
+                final int r1 = uf.find(succ1.getId()), r2 = uf.find(targetId(succ2, thisStates, targetStates));
 
                 if (r1 == r2) {
                     continue;
                 }
 
                 if (succ1 == sink) {
-                    if (succ2 == null) {
+                    if (succ2 < 0) {
                         continue;
                     }
-                    if (target.isAccepting(succ2)) {
-                        lastSym = sym;
-                        break explore;
+                    if (abs.getStateProperty(succ2)) {
+                        return buildWord(symbols, queueParents, queueInputs, current, i);
                     }
                 } else {
-                    boolean succ2acc = (succ2 != null) && target.isAccepting(succ2);
+                    final boolean succ2acc = (succ2 >= 0) && abs.getStateProperty(succ2);
                     if (succ1.getAcceptance().conflicts(succ2acc)) {
-                        lastSym = sym;
-                        break explore;
+                        return buildWord(symbols, queueParents, queueInputs, current, i);
                     }
                 }
 
                 uf.link(r1, r2);
 
-                queue.add(new Record<>(succ1, succ2, sym, current));
+                if (queueSize == queueStates1.length) {
+                    final int newCapacity = 2 * queueSize;
+                    queueStates1 = Arrays.copyOf(queueStates1, newCapacity);
+                    queueStates2 = Arrays.copyOf(queueStates2, newCapacity);
+                    queueParents = Arrays.copyOf(queueParents, newCapacity);
+                    queueInputs = Arrays.copyOf(queueInputs, newCapacity);
+                }
+                queueStates1[queueSize] = succ1;
+                queueStates2[queueSize] = succ2;
+                queueParents[queueSize] = current;
+                queueInputs[queueSize] = i;
+                queueSize++;
             }
         }
 
-        if (current == null) {
-            return null;
+        return null;
+    }
+
+    private static int targetId(int state, int thisStates, int targetStates) {
+        return ((state >= 0) ? state : (targetStates - 1)) + thisStates;
+    }
+
+    /**
+     * Reconstructs the word leading to the given entry of the search queue, followed by the given last input.
+     */
+    private static <I> Word<I> buildWord(List<I> symbols, int[] parents, int[] inputs, int entry, int lastInput) {
+        int length = 1;
+        for (int curr = entry; parents[curr] >= 0; curr = parents[curr]) {
+            length++;
         }
 
-        int ceLength = current.depth;
-        if (lastSym != null) {
-            ceLength++;
+        final WordBuilder<I> wb = new WordBuilder<>(null, length);
+        int index = length;
+        wb.setSymbol(--index, symbols.get(lastInput));
+        for (int curr = entry; parents[curr] >= 0; curr = parents[curr]) {
+            wb.setSymbol(--index, symbols.get(inputs[curr]));
         }
 
-        WordBuilder<I> wb = new WordBuilder<>(null, ceLength);
+        return wb.toWord();
+    }
 
-        int index = ceLength;
+    /**
+     * Assigns an id to a newly registered state, preferring ids of states that have been removed from the DAG.
+     */
+    private void assignId(State state) {
+        state.setId((numFreeStateIds > 0) ? freeStateIds[--numFreeStateIds] : numStateIds++);
+    }
 
-        if (lastSym != null) {
-            wb.setSymbol(--index, lastSym);
+    /**
+     * Releases the id of a state that has been merged with an equivalent state, and hence is not part of the DAG
+     * anymore.
+     */
+    private void releaseId(State state) {
+        final int id = state.getId();
+        if (id == State.NO_ID) {
+            return;
+        }
+        if (numFreeStateIds == freeStateIds.length) {
+            freeStateIds = Arrays.copyOf(freeStateIds, 2 * freeStateIds.length);
         }
+        freeStateIds[numFreeStateIds++] = id;
+        state.setId(State.NO_ID);
+    }
 
-        while (current.reachedFrom != null) {
-            wb.setSymbol(--index, current.reachedVia);
-            current = current.reachedFrom;
+    /**
+     * Retrieves the sink, creating it if necessary.
+     *
+     * @return the sink
+     */
+    protected State getOrCreateSink() {
+        if (sink == null) {
+            sink = new State(null);
+            assignId(sink);
         }
+        return sink;
+    }
 
-        return wb.toWord();
+    protected abstract State getState(Word<? extends I> word);
+
+    /**
+     * Writes a binary snapshot of the current DAG to the given stream, see {@link DAGSnapshotWriter} for the format.
+     * The snapshot can be restored by the {@code readSnapshot} method of the concrete builder class. The stream is not
+     * closed by this method.
+     *
+     * @param out
+     *         the stream to write the snapshot to
+     *
+     * @throws IOException
+     *         if writing to the stream fails
+     */
+    public void writeSnapshot(OutputStream out) throws IOException {
+        final List<State> states = new ArrayList<>(register.size() + 1);
+        final Map<State, Integer> stateIds = new HashMap<>();
+
+        states.add(init);
+        stateIds.put(init, 0);
+        for (int i = 0; i < states.size(); i++) {
+            final State state = states.get(i);
+            if (state.isSink()) {
+                continue;
+            }
+            for (int j = 0; j < alphabetSize; j++) {
+                final State succ = state.getSuccessor(j);
+                if (succ != null && !stateIds.containsKey(succ)) {
+                    stateIds.put(succ, states.size());
+                    states.add(succ);
+                }
+            }
+        }
+
+        final DAGSnapshotWriter writer = new DAGSnapshotWriter(out);
+        writer.writeHeader(getSnapshotType(), alphabetSize, states.size());
+
+        for (State state : states) {
+            writer.writeByte(state.isSink() ? DAGSnapshotWriter.SINK : state.getAcceptance().ordinal());
+        }
+        for (State state : states) {
+            for (int i = 0; i < alphabetSize; i++) {
+                final State succ = state.isSink() ? null : state.getSuccessor(i);
+                writer.writeInt(succ == null ? DAGSnapshotWriter.UNDEFINED : stateIds.get(succ));
+            }
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Retrieves the type of snapshots written (and restored) by this builder.
+     *
+     * @return the snapshot type
+     */
+    protected DAGSnapshotType getSnapshotType() {
+        return DAGSnapshotType.DFA;
     }
 
-    private static int getStateId(State s, Map<State, Integer> idMap) {
-        Integer id = idMap.get(s);
-        if (id != null) {
-            return id.intValue();
+    /**
+     * Restores the DAG of a snapshot into this (empty) builder.
+     * <p>
+     * The states are registered bottom-up, i.e., every state after all of its successors. Equivalent states of the
+     * snapshot are merged in the process, hence the restored DAG is minimal even if the DAG of the original builder was
+     * not.
+     *
+     * @param reader
+     *         the reader for the snapshot
+     *
+     * @throws IOException
+     *         if reading the snapshot fails, or it is invalid
+     */
+    protected void restore(DAGSnapshotReader reader) throws IOException {
+        final int numStates = reader.readHeader(getSnapshotType(), alphabetSize);
+        final Acceptance[] acceptances = Acceptance.values();
+
+        final State[] states = new State[numStates];
+        for (int i = 0; i < numStates; i++) {
+            final int acc = reader.readByte();
+            if (acc == DAGSnapshotWriter.SINK && i > 0 && sink == null && getSnapshotType() == DAGSnapshotType.PC_DFA) {
+                states[i] = getOrCreateSink();
+            } else if (acc >= acceptances.length) {
+                throw new IOException("Invalid acceptance " + acc);
+            } else if (i == 0) {
+                updateInitSignature(acceptances[acc]);
+                states[i] = init;
+            } else {
+                states[i] = new State(new StateSignature(alphabetSize, acceptances[acc]));
+            }
+        }
+
+        if ((long) numStates * alphabetSize > Integer.MAX_VALUE - 8) {
+            throw new IOException("Snapshot with " + numStates + " states exceeds the capacity of this builder");
+        }
+
+        final int[] successors = new int[numStates * alphabetSize];
+        reader.readInts(successors, 0, successors.length);
+        reader.checkEnd();
+
+        for (int i = 0; i < successors.length; i++) {
+            final int succ = successors[i];
+            if (succ != DAGSnapshotWriter.UNDEFINED && (states[i / alphabetSize].isSink() || succ <= 0 ||
+                                                         succ >= numStates)) {
+                throw new IOException("Invalid successor " + succ);
+            }
+        }
+
+        final State[] canonical = new State[numStates];
+        for (int state : postOrder(successors, numStates)) {
+            final State original = states[state];
+            if (original.isSink()) {
+                canonical[state] = original;
+                continue;
+            }
+
+            final StateSignature sig = original.getSignature();
+            final int base = state * alphabetSize;
+            for (int i = 0; i < alphabetSize; i++) {
+                final int succ = successors[base + i];
+                sig.successors[i] = (succ == DAGSnapshotWriter.UNDEFINED) ? null : canonical[succ];
+            }
+
+            if (original == init) {
+                canonical[state] = init;
+                for (State succ : sig.successors) {
+                    if (succ != null) {
+                        succ.increaseIncoming();
+                    }
+                }
+            } else {
+                sig.updateHashCode();
+                canonical[state] = replaceOrRegister(sig);
+            }
         }
-        id = idMap.size();
-        idMap.put(s, id);
-        return id.intValue();
     }
 
-    protected abstract State getState(Word<? extends I> word);
+    /**
+     * Computes a post-order of the states of a snapshot, i.e., an order in which every state occurs after all of its
+     * successors.
+     *
+     * @throws IOException
+     *         if some state is not reachable from the initial state, or the transitions contain a cycle
+     */
+    private int[] postOrder(int[] successors, int numStates) throws IOException {
+        final int[] order = new int[numStates];
+        final int[] stack = new int[numStates];
+        final int[] nextInput = new int[numStates];
+        final boolean[] finished = new boolean[numStates];
+        final boolean[] visited = new boolean[numStates];
+        int numOrdered = 0;
+        int top = 0;
+
+        stack[top++] = 0;
+        visited[0] = true;
+
+        while (top > 0) {
+            final int state = stack[top - 1];
+            if (nextInput[state] == alphabetSize) {
+                finished[state] = true;
+                order[numOrdered++] = state;
+                top--;
+                continue;
+            }
+
+            final int succ = successors[state * alphabetSize + nextInput[state]++];
+            if (succ == DAGSnapshotWriter.UNDEFINED) {
+                continue;
+            }
+            if (!visited[succ]) {
+                visited[succ] = true;
+                stack[top++] = succ;
+            } else if (!finished[succ]) {
+                throw new IOException("Snapshot contains cycles");
+            }
+        }
+
+        if (numOrdered != numStates) {
+            throw new IOException("Snapshot contains unreachable states");
+        }
+        return order;
+    }
 
     protected void updateInitSignature(Acceptance acc) {
         StateSignature sig = init.getSignature();
@@ -302,11 +529,15 @@ public abstract class AbstractIncrementalDFADAGBuilder<I> extends AbstractIncrem
                         succ.decreaseIncoming();
                     }
                 }
+                releaseId(state);
             }
             return other;
         }
 
         register.put(sig, state);
+        if (state.getId() == State.NO_ID) {
+            assignId(state);
+        }
         return state;
     }
 
@@ -326,6 +557,7 @@ public abstract class AbstractIncrementalDFADAGBuilder<I> extends AbstractIncrem
 
         state = new State(sig);
         register.put(sig, state);
+        assignId(state);
         for (int i = 0; i < sig.successors.length; i++) {
             State succ = sig.successors[i];
             if (succ != null) {
@@ -461,31 +693,6 @@ public abstract class AbstractIncrementalDFADAGBuilder<I> extends AbstractIncrem
         return new TransitionSystemView();
     }
 
-    private static final class Record<S, I> {
-
-        public final State state1;
-        public final S state2;
-        public final I reachedVia;
-        public final Record<S, I> reachedFrom;
-        public final int depth;
-
-        Record(State state1, S state2) {
-            this.state1 = state1;
-            this.state2 = state2;
-            this.reachedVia = null;
-            this.reachedFrom = null;
-            this.depth = 0;
-        }
-
-        Record(State state1, S state2, I reachedVia, Record<S, I> reachedFrom) {
-            this.state1 = state1;
-            this.state2 = state2;
-            this.reachedVia = reachedVia;
-            this.reachedFrom = reachedFrom;
-            this.depth = reachedFrom.depth + 1;
-        }
-    }
-
     @ParametersAreNonnullByDefault
     public class GraphView extends AbstractGraphView<I, State, EdgeRecord> {
 
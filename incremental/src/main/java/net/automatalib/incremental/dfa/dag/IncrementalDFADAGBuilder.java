@@ -15,10 +15,13 @@
  */
 package net.automatalib.incremental.dfa.dag;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.Deque;
 
 import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.DAGSnapshotReader;
 import net.automatalib.incremental.dfa.Acceptance;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
@@ -47,6 +50,28 @@ public class IncrementalDFADAGBuilder<I> extends AbstractIncrementalDFADAGBuilde
         super(inputAlphabet);
     }
 
+    /**
+     * Restores a builder from a binary snapshot, as written by {@link #writeSnapshot(java.io.OutputStream)}.
+     *
+     * @param file
+     *         the snapshot file
+     * @param inputAlphabet
+     *         the input alphabet, which has to be the alphabet of the builder the snapshot was written by
+     *
+     * @return the restored builder
+     *
+     * @throws IOException
+     *         if reading the file fails, or it does not contain a valid snapshot over the given alphabet
+     */
+    public static <I> IncrementalDFADAGBuilder<I> readSnapshot(Path file, Alphabet<I> inputAlphabet)
+            throws IOException {
+        final IncrementalDFADAGBuilder<I> builder = new IncrementalDFADAGBuilder<>(inputAlphabet);
+        try (DAGSnapshotReader reader = new DAGSnapshotReader(file)) {
+            builder.restore(reader);
+        }
+        return builder;
+    }
+
     /**
      * Checks the ternary acceptance status for a given word.
      *
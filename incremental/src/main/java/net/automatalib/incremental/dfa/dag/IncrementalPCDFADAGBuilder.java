@@ -15,10 +15,14 @@
  */
 package net.automatalib.incremental.dfa.dag;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.Deque;
 
 import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.DAGSnapshotReader;
+import net.automatalib.incremental.DAGSnapshotType;
 import net.automatalib.incremental.dfa.Acceptance;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
@@ -29,6 +33,33 @@ public class IncrementalPCDFADAGBuilder<I> extends AbstractIncrementalDFADAGBuil
         super(inputAlphabet);
     }
 
+    /**
+     * Restores a builder from a binary snapshot, as written by {@link #writeSnapshot(java.io.OutputStream)}.
+     *
+     * @param file
+     *         the snapshot file
+     * @param inputAlphabet
+     *         the input alphabet, which has to be the alphabet of the builder the snapshot was written by
+     *
+     * @return the restored builder
+     *
+     * @throws IOException
+     *         if reading the file fails, or it does not contain a valid snapshot over the given alphabet
+     */
+    public static <I> IncrementalPCDFADAGBuilder<I> readSnapshot(Path file, Alphabet<I> inputAlphabet)
+            throws IOException {
+        final IncrementalPCDFADAGBuilder<I> builder = new IncrementalPCDFADAGBuilder<>(inputAlphabet);
+        try (DAGSnapshotReader reader = new DAGSnapshotReader(file)) {
+            builder.restore(reader);
+        }
+        return builder;
+    }
+
+    @Override
+    protected DAGSnapshotType getSnapshotType() {
+        return DAGSnapshotType.PC_DFA;
+    }
+
     @Override
     public Acceptance lookup(Word<? extends I> word) {
         State s = getState(word);
@@ -236,10 +267,7 @@ public class IncrementalPCDFADAGBuilder<I> extends AbstractIncrementalDFADAGBuil
         State last;
         Acceptance intermediate;
         if (!accepting) {
-            if (sink == null) {
-                sink = new State(null);
-            }
-            last = sink;
+            last = getOrCreateSink();
             intermediate = Acceptance.DONT_KNOW;
         } else {
             StateSignature sig = new StateSignature(alphabetSize, Acceptance.TRUE);
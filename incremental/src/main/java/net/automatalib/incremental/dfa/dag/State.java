@@ -25,8 +25,14 @@ import net.automatalib.incremental.dfa.Acceptance;
  */
 final class State {
 
+    /**
+     * The id of states that are not registered.
+     */
+    static final int NO_ID = -1;
+
     private final StateSignature signature;
     private int numIncoming;
+    private int id = NO_ID;
 
     /**
      * Constructor. Initializes the state with a given signature.
@@ -86,6 +92,20 @@ final class State {
         return signature.successors[idx];
     }
 
+    /**
+     * Retrieves the id of this state. Ids are assigned upon registration, remain stable as long as the state is part
+     * of the DAG, and are reused for other states afterwards.
+     *
+     * @return the id of this state, or {@link #NO_ID} if the state has not been registered yet
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Retrieves the signature of this state.
      *
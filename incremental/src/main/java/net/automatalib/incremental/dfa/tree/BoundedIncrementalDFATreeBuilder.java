@@ -0,0 +1,422 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import com.google.common.collect.Iterators;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.incremental.BoundedIncrementalConstruction;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.AbstractIncrementalDFABuilder;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.util.graphs.traversal.GraphTraversal;
+import net.automatalib.visualization.VisualizationHelper;
+import net.automatalib.visualization.helper.DelegateVisualizationHelper;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A variant of the {@link IncrementalDFATreeBuilder} with a bounded number of nodes, see {@link
+ * BoundedIncrementalConstruction}.
+ * <p>
+ * Every {@link #lookup(Word) lookup} and {@link #insert(Word, boolean) insertion} marks the nodes along the path of its
+ * input word as used. Whenever an insertion exceeds the maximum number of nodes, the least recently used subtrees are
+ * discarded, such that a quarter of the maximum number of nodes is available again. As nodes are always used along
+ * with all of their ancestors, the least recently used nodes form entire subtrees. The nodes of the most recently
+ * inserted word are never discarded.
+ *
+ * @param <I>
+ *         input symbol class
+ */
+public class BoundedIncrementalDFATreeBuilder<I> extends AbstractIncrementalDFABuilder<I>
+        implements BoundedIncrementalConstruction<DFA<?, I>, I> {
+
+    private static final int EVICTION_RATIO = 4;
+
+    private final int maxNodes;
+    private final BoundedNode root;
+
+    private int numNodes = 1;
+    private long clock;
+    private long numHits;
+    private long numMisses;
+    private long numEvictions;
+    private long numEvictedNodes;
+
+    /**
+     * Constructor.
+     *
+     * @param inputAlphabet
+     *         the input alphabet to use
+     * @param maxNodes
+     *         the maximum number of nodes (including the root)
+     */
+    public BoundedIncrementalDFATreeBuilder(Alphabet<I> inputAlphabet, int maxNodes) {
+        super(inputAlphabet);
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("The maximum number of nodes must be positive: " + maxNodes);
+        }
+        this.maxNodes = maxNodes;
+        this.root = new BoundedNode(-1, 0L);
+    }
+
+    @Override
+    public Acceptance lookup(Word<? extends I> inputWord) {
+        final long time = ++clock;
+        BoundedNode curr = root;
+
+        for (I sym : inputWord) {
+            int symIdx = inputAlphabet.getSymbolIndex(sym);
+            BoundedNode succ = curr.getChild(symIdx);
+            if (succ == null) {
+                numMisses++;
+                return Acceptance.DONT_KNOW;
+            }
+            succ.touch(time);
+            curr = succ;
+        }
+
+        final Acceptance acc = curr.getAcceptance();
+        if (acc == Acceptance.DONT_KNOW) {
+            numMisses++;
+        } else {
+            numHits++;
+        }
+        return acc;
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        BoundedNode curr = root;
+
+        Iterator<? extends I> symIt = word.iterator();
+        while (symIt.hasNext() && curr != null) {
+            int symIdx = inputAlphabet.getSymbolIndex(symIt.next());
+            curr = curr.getChild(symIdx);
+        }
+        return curr != null && curr.getAcceptance() != Acceptance.DONT_KNOW;
+    }
+
+    @Override
+    public void insert(Word<? extends I> word, boolean acceptance) {
+        final long time = ++clock;
+        BoundedNode curr = root;
+
+        for (I sym : word) {
+            int inputIdx = inputAlphabet.getSymbolIndex(sym);
+            BoundedNode succ = curr.getChild(inputIdx);
+            if (succ == null) {
+                succ = new BoundedNode(inputIdx, time);
+                curr.setChild(inputIdx, alphabetSize, succ);
+                numNodes++;
+            } else {
+                succ.touch(time);
+            }
+            curr = succ;
+        }
+
+        Acceptance acc = curr.getAcceptance();
+        Acceptance newWordAcc = Acceptance.fromBoolean(acceptance);
+        if (acc == Acceptance.DONT_KNOW) {
+            curr.setAcceptance(newWordAcc);
+        } else if (acc != newWordAcc) {
+            throw new ConflictException(
+                    "Conflicting acceptance values for word " + word + ": " + acc + " vs " + newWordAcc);
+        }
+
+        if (numNodes > maxNodes) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        // collect the access times of all nodes except for the root
+        final long[] accessTimes = new long[numNodes - 1];
+        int numAccessTimes = 0;
+
+        final Deque<BoundedNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            final BoundedNode node = stack.pop();
+            for (int i = 0; i < alphabetSize; i++) {
+                final BoundedNode child = node.getChild(i);
+                if (child != null) {
+                    accessTimes[numAccessTimes++] = child.getLastAccess();
+                    stack.push(child);
+                }
+            }
+        }
+        Arrays.sort(accessTimes);
+
+        // discard all nodes that have been used no later than the threshold, but retain the most recent word
+        final int numRetained = Math.max(1, maxNodes - maxNodes / EVICTION_RATIO);
+        final long threshold = Math.min(accessTimes[numNodes - numRetained - 1], clock - 1);
+
+        int numEvicted = 0;
+        while (numEvicted < accessTimes.length && accessTimes[numEvicted] <= threshold) {
+            numEvicted++;
+        }
+        if (numEvicted == 0) {
+            return;
+        }
+
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            final BoundedNode node = stack.pop();
+            for (int i = 0; i < alphabetSize; i++) {
+                final BoundedNode child = node.getChild(i);
+                if (child != null) {
+                    if (child.getLastAccess() <= threshold) {
+                        node.setChild(i, alphabetSize, null);
+                    } else {
+                        stack.push(child);
+                    }
+                }
+            }
+        }
+
+        numNodes -= numEvicted;
+        numEvictions++;
+        numEvictedNodes += numEvicted;
+    }
+
+    @Override
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    @Override
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    @Override
+    public long getNumHits() {
+        return numHits;
+    }
+
+    @Override
+    public long getNumMisses() {
+        return numMisses;
+    }
+
+    @Override
+    public long getNumEvictions() {
+        return numEvictions;
+    }
+
+    @Override
+    public long getNumEvictedNodes() {
+        return numEvictedNodes;
+    }
+
+    @Override
+    @Nullable
+    public Word<I> findSeparatingWord(DFA<?, I> target, Collection<? extends I> inputs, boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S> Word<I> doFindSeparatingWord(final DFA<S, I> target,
+                                             Collection<? extends I> inputs,
+                                             boolean omitUndefined) {
+        S automatonInit = target.getInitialState();
+        if (root.getAcceptance().conflicts(target.isAccepting(automatonInit))) {
+            return Word.epsilon();
+        }
+
+        Deque<Record<S, I>> dfsStack = new ArrayDeque<>();
+        dfsStack.push(new Record<>(automatonInit, root, null, inputs.iterator()));
+
+        while (!dfsStack.isEmpty()) {
+            Record<S, I> rec = dfsStack.peek();
+            if (!rec.inputIt.hasNext()) {
+                dfsStack.pop();
+                continue;
+            }
+            I input = rec.inputIt.next();
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+
+            BoundedNode succ = rec.treeNode.getChild(inputIdx);
+            if (succ == null) {
+                continue;
+            }
+
+            S automatonSucc = (rec.automatonState == null) ? null : target.getTransition(rec.automatonState, input);
+            if (automatonSucc == null && omitUndefined) {
+                continue;
+            }
+
+            boolean succAcc = (automatonSucc != null) && target.isAccepting(automatonSucc);
+
+            if (succ.getAcceptance().conflicts(succAcc)) {
+                WordBuilder<I> wb = new WordBuilder<>(dfsStack.size());
+                wb.append(input);
+
+                dfsStack.pop();
+                while (!dfsStack.isEmpty()) {
+                    wb.append(rec.incomingInput);
+                    rec = dfsStack.pop();
+                }
+                return wb.reverse().toWord();
+            }
+
+            dfsStack.push(new Record<>(automatonSucc, succ, input, inputs.iterator()));
+        }
+
+        return null;
+    }
+
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Override
+    public TransitionSystemView asTransitionSystem() {
+        return new TransitionSystemView();
+    }
+
+    private static final class Record<S, I> {
+
+        private final S automatonState;
+        private final BoundedNode treeNode;
+        private final I incomingInput;
+        private final Iterator<? extends I> inputIt;
+
+        Record(S automatonState, BoundedNode treeNode, I incomingInput, Iterator<? extends I> inputIt) {
+            this.automatonState = automatonState;
+            this.treeNode = treeNode;
+            this.incomingInput = incomingInput;
+            this.inputIt = inputIt;
+        }
+    }
+
+    /**
+     * The graph view. As every node has a unique incoming edge, edges are represented by their target nodes.
+     */
+    @ParametersAreNonnullByDefault
+    public class GraphView extends AbstractGraphView<I, BoundedNode, BoundedNode> {
+
+        @Override
+        public Collection<BoundedNode> getNodes() {
+            List<BoundedNode> result = new ArrayList<>(numNodes);
+            Iterators.addAll(result, GraphTraversal.dfIterator(this, Collections.singleton(root)));
+            return result;
+        }
+
+        @Override
+        public Collection<BoundedNode> getOutgoingEdges(BoundedNode node) {
+            List<BoundedNode> result = new ArrayList<>();
+            for (int i = 0; i < alphabetSize; i++) {
+                BoundedNode succ = node.getChild(i);
+                if (succ != null) {
+                    result.add(succ);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        @Nonnull
+        public BoundedNode getTarget(BoundedNode edge) {
+            return edge;
+        }
+
+        @Override
+        @Nullable
+        public I getInputSymbol(BoundedNode edge) {
+            return inputAlphabet.getSymbol(edge.getInput());
+        }
+
+        @Override
+        @Nonnull
+        public Acceptance getAcceptance(BoundedNode node) {
+            return node.getAcceptance();
+        }
+
+        @Override
+        @Nonnull
+        public BoundedNode getInitialNode() {
+            return root;
+        }
+
+        @Override
+        @Nonnull
+        public VisualizationHelper<BoundedNode, BoundedNode> getVisualizationHelper() {
+            return new DelegateVisualizationHelper<BoundedNode, BoundedNode>(super.getVisualizationHelper()) {
+
+                private int id;
+
+                @Override
+                public boolean getNodeProperties(BoundedNode node, Map<String, String> properties) {
+                    if (!super.getNodeProperties(node, properties)) {
+                        return false;
+                    }
+                    properties.put(NodeAttrs.LABEL, "n" + (id++));
+                    return true;
+                }
+            };
+        }
+    }
+
+    /**
+     * The transition system view. As every node has a unique incoming transition, transitions are represented by
+     * their target nodes.
+     */
+    @ParametersAreNonnullByDefault
+    public class TransitionSystemView extends AbstractTransitionSystemView<BoundedNode, I, BoundedNode> {
+
+        @Override
+        @Nonnull
+        public BoundedNode getSuccessor(BoundedNode transition) {
+            return transition;
+        }
+
+        @Override
+        @Nullable
+        public BoundedNode getTransition(BoundedNode state, I input) {
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+            return state.getChild(inputIdx);
+        }
+
+        @Nonnull
+        @Override
+        public BoundedNode getInitialState() {
+            return root;
+        }
+
+        @Override
+        @Nonnull
+        public Acceptance getAcceptance(BoundedNode state) {
+            return state.getAcceptance();
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa.tree;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.automatalib.incremental.dfa.Acceptance;
+
+/**
+ * A node of a {@link BoundedIncrementalDFATreeBuilder}. As every node (except for the root) has exactly one incoming
+ * edge, the input index of this edge is stored in the node itself. Additionally, each node stores the (logical) time
+ * of its last access.
+ */
+@ParametersAreNonnullByDefault
+final class BoundedNode {
+
+    private final int input;
+    private Acceptance acceptance = Acceptance.DONT_KNOW;
+    private long lastAccess;
+    private BoundedNode[] children;
+
+    BoundedNode(int input, long lastAccess) {
+        this.input = input;
+        this.lastAccess = lastAccess;
+    }
+
+    /**
+     * Retrieves the input index of the (unique) incoming edge of this node.
+     *
+     * @return the input index of the incoming edge
+     */
+    public int getInput() {
+        return input;
+    }
+
+    public Acceptance getAcceptance() {
+        return acceptance;
+    }
+
+    public void setAcceptance(Acceptance acceptance) {
+        this.acceptance = acceptance;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public void touch(long time) {
+        this.lastAccess = time;
+    }
+
+    @Nullable
+    public BoundedNode getChild(int idx) {
+        if (children == null) {
+            return null;
+        }
+        return children[idx];
+    }
+
+    public void setChild(int idx, int alphabetSize, @Nullable BoundedNode child) {
+        if (children == null) {
+            children = new BoundedNode[alphabetSize];
+        }
+        children[idx] = child;
+    }
+}
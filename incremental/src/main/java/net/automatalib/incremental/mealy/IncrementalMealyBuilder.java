@@ -15,6 +15,7 @@
  */
 package net.automatalib.incremental.mealy;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.annotation.Nonnull;
@@ -35,6 +36,55 @@ public interface IncrementalMealyBuilder<I, O> extends IncrementalConstruction<M
 
     void insert(Word<? extends I> inputWord, Word<? extends O> outputWord) throws ConflictException;
 
+    /**
+     * Retrieves the output words for a batch of input words. For each input word, the returned list contains (at the
+     * same position) the output word as returned by {@link #lookup(Word)}, i.e., the output word for the longest prefix
+     * of the input word for which information is present.
+     * <p>
+     * The default implementation looks up the words one after another. Implementations may process the words in a
+     * different order (e.g., for sharing the lookup of common prefixes).
+     *
+     * @param inputWords
+     *         the input words
+     *
+     * @return the output words
+     */
+    default List<Word<O>> lookupAll(List<? extends Word<? extends I>> inputWords) {
+        final List<Word<O>> result = new ArrayList<>(inputWords.size());
+        for (Word<? extends I> inputWord : inputWords) {
+            result.add(lookup(inputWord));
+        }
+        return result;
+    }
+
+    /**
+     * Incorporates a batch of pairs of input/output words into the stored information. This is equivalent to {@link
+     * #insert(Word, Word) inserting} the pairs one after another.
+     * <p>
+     * The default implementation inserts the pairs in the given order. Implementations may process the pairs in a
+     * different order (e.g., for sharing the insertion of common prefixes). Hence, if a {@link ConflictException} is
+     * thrown, an arbitrary subset of the non-conflicting pairs may have been incorporated.
+     *
+     * @param inputWords
+     *         the input words
+     * @param outputWords
+     *         the corresponding output words (at the same positions)
+     *
+     * @throws ConflictException
+     *         if this information conflicts with information already stored (or within the batch)
+     */
+    default void insertAll(List<? extends Word<? extends I>> inputWords, List<? extends Word<? extends O>> outputWords)
+            throws ConflictException {
+        if (inputWords.size() != outputWords.size()) {
+            throw new IllegalArgumentException(
+                    "Number of input words and output words differ: " + inputWords.size() + " vs " +
+                    outputWords.size());
+        }
+        for (int i = 0; i < inputWords.size(); i++) {
+            insert(inputWords.get(i), outputWords.get(i));
+        }
+    }
+
     @Override
     GraphView<I, O, ?, ?> asGraph();
 
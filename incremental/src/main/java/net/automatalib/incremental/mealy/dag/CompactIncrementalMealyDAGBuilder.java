@@ -0,0 +1,1146 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.dag;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.transout.MealyMachine;
+import net.automatalib.commons.util.IntDisjointSets;
+import net.automatalib.commons.util.UnionFind;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.DAGSnapshotReader;
+import net.automatalib.incremental.DAGSnapshotType;
+import net.automatalib.incremental.DAGSnapshotWriter;
+import net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder;
+import net.automatalib.ts.transout.MealyTransitionSystem;
+import net.automatalib.visualization.VisualizationHelper;
+import net.automatalib.visualization.helper.DelegateVisualizationHelper;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Incrementally builds an (acyclic) Mealy machine, from a set of input and corresponding output words.
+ * <p>
+ * This builder constructs the same (minimal) DAG as {@link IncrementalMealyDAGBuilder}, but does not represent states
+ * as objects. Instead, each state is identified by an integer id, which indexes into primitive arrays storing its
+ * successor ids, the ids of its (interned) output symbols, and its number of incoming transitions. Equivalent states
+ * are detected by means of an open-addressing hash table of state ids, and the ids of states that become unreachable
+ * are reused.
+ * <p>
+ * The nodes of the {@link #asGraph() graph view} and the states of the {@link #asTransitionSystem() transition system
+ * view} are state ids, whereas edges and transitions are indices into the transition table (i.e., {@code stateId *
+ * alphabetSize + inputIndex}). Both are only valid until the next insertion.
+ *
+ * @param <I>
+ *         input symbol class
+ * @param <O>
+ *         output symbol class
+ */
+public class CompactIncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBuilder<I, O> {
+
+    private static final int NO_STATE = -1;
+    private static final int INIT = 0;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int alphabetSize;
+
+    // state storage, indexed by state id (times alphabet size)
+    private int[] successors;
+    private int[] outputs;
+    private int[] numIncoming;
+    private int[] hashes;
+    private int capacity;
+    private int numIds;
+    private int[] freeIds;
+    private int numFreeIds;
+
+    // register of all states except the initial one, as an open-addressing (linear probing) hash table
+    private int[] register;
+    private int registerSize;
+
+    private final Map<O, Integer> outputIds = new HashMap<>();
+    private final List<O> outputSymbols = new ArrayList<>();
+
+    // scratch space
+    private final int[] sigSuccessors;
+    private final int[] sigOutputs;
+    private int[] pathStates;
+    private int[] pathInputs;
+    private int[] releaseStack;
+
+    /**
+     * Constructor.
+     *
+     * @param inputAlphabet
+     *         the input alphabet to use
+     */
+    public CompactIncrementalMealyDAGBuilder(Alphabet<I> inputAlphabet) {
+        super(inputAlphabet);
+        this.alphabetSize = inputAlphabet.size();
+
+        this.capacity = DEFAULT_CAPACITY;
+        this.successors = new int[capacity * alphabetSize];
+        this.outputs = new int[capacity * alphabetSize];
+        this.numIncoming = new int[capacity];
+        this.hashes = new int[capacity];
+        this.freeIds = new int[DEFAULT_CAPACITY];
+        this.releaseStack = new int[DEFAULT_CAPACITY];
+        Arrays.fill(successors, NO_STATE);
+
+        this.register = new int[2 * DEFAULT_CAPACITY];
+        Arrays.fill(register, NO_STATE);
+
+        this.sigSuccessors = new int[alphabetSize];
+        this.sigOutputs = new int[alphabetSize];
+        this.pathStates = new int[DEFAULT_CAPACITY];
+        this.pathInputs = new int[DEFAULT_CAPACITY];
+
+        final int init = allocate();
+        assert init == INIT;
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        int curr = INIT;
+        for (I sym : word) {
+            curr = successors[curr * alphabetSize + inputAlphabet.getSymbolIndex(sym)];
+            if (curr == NO_STATE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> word, List<? super O> output) {
+        int curr = INIT;
+        for (I sym : word) {
+            final int trans = curr * alphabetSize + inputAlphabet.getSymbolIndex(sym);
+            final int succ = successors[trans];
+            if (succ == NO_STATE) {
+                return false;
+            }
+            output.add(outputSymbols.get(outputs[trans]));
+            curr = succ;
+        }
+
+        return true;
+    }
+
+    /**
+     * Incorporates a pair of input/output words into the stored information.
+     *
+     * @param word
+     *         the input word
+     * @param outputWord
+     *         the corresponding output word
+     *
+     * @throws ConflictException
+     *         if this information conflicts with information already stored
+     */
+    @Override
+    public void insert(Word<? extends I> word, Word<? extends O> outputWord) {
+        final int len = word.length();
+        ensurePathCapacity(len + 1);
+
+        // Find the maximal prefix of the word for which information is present
+        int curr = INIT;
+        int prefixLen = 0;
+
+        for (; prefixLen < len; prefixLen++) {
+            final int idx = inputAlphabet.getSymbolIndex(word.getSymbol(prefixLen));
+            pathStates[prefixLen] = curr;
+            pathInputs[prefixLen] = idx;
+
+            final int trans = curr * alphabetSize + idx;
+            final int succ = successors[trans];
+            if (succ == NO_STATE) {
+                break;
+            }
+
+            final O outSym = outputWord.getSymbol(prefixLen);
+            final O storedOut = outputSymbols.get(outputs[trans]);
+            if (!Objects.equals(outSym, storedOut)) {
+                throw new ConflictException(
+                        "Error inserting " + word.prefix(prefixLen + 1) + " / " + outputWord.prefix(prefixLen + 1) +
+                        ": Incompatible output symbols: " + outSym + " vs " + storedOut);
+            }
+            curr = succ;
+        }
+
+        // The information was already present - we do not need to continue
+        if (prefixLen == len) {
+            return;
+        }
+
+        // Create the suffix path (minus its first transition, which glues it to the existing automaton)
+        int last = createSuffix(word, outputWord, prefixLen + 1);
+        final int outId = getOutputId(outputWord.getSymbol(prefixLen));
+
+        // Determine the first confluence state (i.e., state with multiple incoming edges) on the prefix path. This has
+        // to happen after creating the suffix path, as the latter may share states of the prefix path (including its
+        // first state, which does not have an incoming transition yet).
+        int conf = -1;
+        for (int i = 1; i <= prefixLen; i++) {
+            final int state = pathStates[i];
+            if (numIncoming[state] > 1 || state == last) {
+                conf = i;
+                break;
+            }
+        }
+
+        // Propagate the changes backwards along the prefix path. States at or behind the first confluence state are
+        // cloned, all other states are updated in place until the updating becomes stable.
+        for (int i = prefixLen; i > 0; i--) {
+            final int state = pathStates[i];
+            final int idx = pathInputs[i];
+            final int out = (i == prefixLen) ? outId : outputs[state * alphabetSize + idx];
+
+            if (conf >= 0 && i >= conf) {
+                last = clone(state, idx, last, out);
+            } else {
+                final int updated = updateSignature(state, idx, last, out);
+                if (updated == state) {
+                    return;
+                }
+                last = updated;
+            }
+        }
+
+        final int initIdx = pathInputs[0];
+        final int initOut = (prefixLen == 0) ? outId : outputs[INIT * alphabetSize + initIdx];
+        setTransition(INIT, initIdx, last, initOut);
+    }
+
+    /**
+     * Incorporates a batch of pairs of input/output words into the stored information.
+     * <p>
+     * The pairs are processed in lexicographic order of their input words. The states along the path of the current
+     * input word are kept <i>private</i>, i.e., they are not registered and only reachable via this path, so that
+     * subsequent words with a common prefix can be added to them directly. A private state is only registered (or
+     * merged with an equivalent state) once a subsequent word no longer shares its path, or at the end of the batch.
+     * Hence, each state is registered at most once per batch, independently of the number of words sharing it. If the
+     * batch is already sorted, the overall effort is linear in the size of the batch.
+     *
+     * @param inputWords
+     *         the input words
+     * @param outputWords
+     *         the corresponding output words (at the same positions)
+     *
+     * @throws ConflictException
+     *         if this information conflicts with information already stored (or within the batch). In this case, the
+     *         pairs preceding the conflicting one (in lexicographic order) have been incorporated.
+     */
+    @Override
+    public void insertAll(List<? extends Word<? extends I>> inputWords, List<? extends Word<? extends O>> outputWords) {
+        if (inputWords.size() != outputWords.size()) {
+            throw new IllegalArgumentException(
+                    "Number of input words and output words differ: " + inputWords.size() + " vs " +
+                    outputWords.size());
+        }
+
+        final int[] order = LexicographicOrder.sortedOrder(inputAlphabet, inputWords);
+        ensurePathCapacity(LexicographicOrder.maxLength(inputWords) + 1);
+
+        // the private path consists of pathStates[0..depth], where pathStates[0] is the initial state
+        int depth = 0;
+        pathStates[0] = INIT;
+
+        try {
+            for (int n : order) {
+                final Word<? extends I> word = inputWords.get(n);
+                final Word<? extends O> outputWord = outputWords.get(n);
+                final int len = word.length();
+
+                // Find the maximal prefix of the word for which information is present, and the common prefix with
+                // the private path
+                int curr = INIT;
+                int prefixLen = 0;
+                int commonLen = 0;
+
+                for (; prefixLen < len; prefixLen++) {
+                    final int idx = inputAlphabet.getSymbolIndex(word.getSymbol(prefixLen));
+                    if (commonLen == prefixLen && commonLen < depth && pathInputs[commonLen] == idx) {
+                        commonLen++;
+                    }
+
+                    final int trans = curr * alphabetSize + idx;
+                    final int succ = successors[trans];
+                    if (succ == NO_STATE) {
+                        break;
+                    }
+
+                    final O outSym = outputWord.getSymbol(prefixLen);
+                    final O storedOut = outputSymbols.get(outputs[trans]);
+                    if (!Objects.equals(outSym, storedOut)) {
+                        throw new ConflictException(
+                                "Error inserting " + word.prefix(prefixLen + 1) + " / " +
+                                outputWord.prefix(prefixLen + 1) + ": Incompatible output symbols: " + outSym +
+                                " vs " + storedOut);
+                    }
+                    curr = succ;
+                }
+
+                // The information was already present - we do not need to continue
+                if (prefixLen == len) {
+                    continue;
+                }
+
+                // Register the part of the private path that is not shared with the current word
+                registerPath(depth, commonLen);
+                depth = commonLen;
+
+                // Make the (registered) states along the existing path of the word private
+                for (; depth < prefixLen; depth++) {
+                    final int parent = pathStates[depth];
+                    final int idx = inputAlphabet.getSymbolIndex(word.getSymbol(depth));
+                    final int trans = parent * alphabetSize + idx;
+                    final int succ = successors[trans];
+
+                    final int privateSucc;
+                    if (numIncoming[succ] == 1) {
+                        unregister(succ);
+                        privateSucc = succ;
+                    } else {
+                        privateSucc = privateClone(succ);
+                        setTransition(parent, idx, privateSucc, outputs[trans]);
+                    }
+
+                    pathInputs[depth] = idx;
+                    pathStates[depth + 1] = privateSucc;
+                }
+
+                // Append (private) states for the remaining suffix
+                for (; depth < len; depth++) {
+                    final int idx = inputAlphabet.getSymbolIndex(word.getSymbol(depth));
+                    final int succ = allocate();
+                    setTransition(pathStates[depth], idx, succ, getOutputId(outputWord.getSymbol(depth)));
+
+                    pathInputs[depth] = idx;
+                    pathStates[depth + 1] = succ;
+                }
+            }
+        } finally {
+            registerPath(depth, 0);
+        }
+    }
+
+    /**
+     * Registers the private states {@code pathStates[from]}, ..., {@code pathStates[to + 1]} (in this order), merging
+     * them with equivalent registered states if possible.
+     */
+    private void registerPath(int from, int to) {
+        for (int i = from; i > to; i--) {
+            final int state = pathStates[i];
+            final int registered = replaceOrRegister(state);
+            if (registered != state) {
+                final int parent = pathStates[i - 1];
+                final int idx = pathInputs[i - 1];
+                setTransition(parent, idx, registered, outputs[parent * alphabetSize + idx]);
+            }
+        }
+    }
+
+    /**
+     * Creates an unregistered copy of the given state.
+     */
+    private int privateClone(int state) {
+        final int clone = allocate();
+        final int base = state * alphabetSize;
+        System.arraycopy(successors, base, successors, clone * alphabetSize, alphabetSize);
+        System.arraycopy(outputs, base, outputs, clone * alphabetSize, alphabetSize);
+        for (int i = 0; i < alphabetSize; i++) {
+            final int succ = successors[base + i];
+            if (succ != NO_STATE) {
+                numIncoming[succ]++;
+            }
+        }
+        return clone;
+    }
+
+    /**
+     * Retrieves the output words for a batch of input words.
+     * <p>
+     * The words are looked up in lexicographic order, such that the lookup of a word continues from the state reached
+     * by the longest common prefix with the previous word.
+     *
+     * @param inputWords
+     *         the input words
+     *
+     * @return the output words, at the positions of their respective input words
+     */
+    @Override
+    public List<Word<O>> lookupAll(List<? extends Word<? extends I>> inputWords) {
+        final int[] order = LexicographicOrder.sortedOrder(inputAlphabet, inputWords);
+        ensurePathCapacity(LexicographicOrder.maxLength(inputWords) + 1);
+
+        final List<Word<O>> result = new ArrayList<>(Collections.nCopies(inputWords.size(), null));
+        final WordBuilder<O> wb = new WordBuilder<>();
+
+        // the path of the previous word consists of pathStates[0..depth]
+        int depth = 0;
+        pathStates[0] = INIT;
+
+        for (int n : order) {
+            final Word<? extends I> word = inputWords.get(n);
+            final int len = word.length();
+
+            int commonLen = 0;
+            while (commonLen < depth && commonLen < len &&
+                   pathInputs[commonLen] == inputAlphabet.getSymbolIndex(word.getSymbol(commonLen))) {
+                commonLen++;
+            }
+
+            wb.truncate(commonLen);
+            depth = commonLen;
+            int curr = pathStates[depth];
+
+            for (; depth < len; depth++) {
+                final int idx = inputAlphabet.getSymbolIndex(word.getSymbol(depth));
+                final int trans = curr * alphabetSize + idx;
+                final int succ = successors[trans];
+                if (succ == NO_STATE) {
+                    break;
+                }
+                wb.append(outputSymbols.get(outputs[trans]));
+                pathInputs[depth] = idx;
+                pathStates[depth + 1] = succ;
+                curr = succ;
+            }
+
+            result.set(n, wb.toWord());
+        }
+
+        return result;
+    }
+
+    private int createSuffix(Word<? extends I> word, Word<? extends O> outputWord, int from) {
+        Arrays.fill(sigSuccessors, NO_STATE);
+        Arrays.fill(sigOutputs, 0);
+        int last = replaceOrRegisterSignature();
+
+        for (int i = word.length() - 1; i >= from; i--) {
+            final int idx = inputAlphabet.getSymbolIndex(word.getSymbol(i));
+            sigSuccessors[idx] = last;
+            sigOutputs[idx] = getOutputId(outputWord.getSymbol(i));
+            last = replaceOrRegisterSignature();
+            sigSuccessors[idx] = NO_STATE;
+            sigOutputs[idx] = 0;
+        }
+
+        return last;
+    }
+
+    /**
+     * Creates (or retrieves) a state with the signature of the given state, except for the transition of the given
+     * index, which points to the given successor and is labeled with the given output.
+     */
+    private int clone(int state, int idx, int succ, int out) {
+        final int base = state * alphabetSize;
+        System.arraycopy(successors, base, sigSuccessors, 0, alphabetSize);
+        System.arraycopy(outputs, base, sigOutputs, 0, alphabetSize);
+        sigSuccessors[idx] = succ;
+        sigOutputs[idx] = out;
+        return replaceOrRegisterSignature();
+    }
+
+    /**
+     * Updates the signature of a (non-confluence) state, changing only the transition of the given index.
+     *
+     * @return the resulting state, which can either be the same as the given state (if the new signature is unique),
+     * or an equivalent state, with which the given state is merged
+     */
+    private int updateSignature(int state, int idx, int succ, int out) {
+        final int trans = state * alphabetSize + idx;
+        if (successors[trans] == succ && outputs[trans] == out) {
+            return state;
+        }
+
+        unregister(state);
+        setTransition(state, idx, succ, out);
+        return replaceOrRegister(state);
+    }
+
+    private void setTransition(int state, int idx, int succ, int out) {
+        final int trans = state * alphabetSize + idx;
+        final int oldSucc = successors[trans];
+        successors[trans] = succ;
+        outputs[trans] = out;
+        if (oldSucc != succ) {
+            numIncoming[succ]++;
+            if (oldSucc != NO_STATE) {
+                release(oldSucc);
+            }
+        }
+    }
+
+    /**
+     * Registers the given (unregistered) state, or returns an equivalent registered state. In the latter case, the
+     * given state is released once its (single) predecessor is redirected to the equivalent state.
+     */
+    private int replaceOrRegister(int state) {
+        final int hash = hash(successors, outputs, state * alphabetSize);
+        hashes[state] = hash;
+
+        final int other = find(successors, outputs, state * alphabetSize, hash);
+        if (other != NO_STATE) {
+            return other;
+        }
+
+        insertIntoRegister(state);
+        return state;
+    }
+
+    /**
+     * Returns the registered state with the signature currently stored in the scratch arrays, creating and
+     * registering a new state if no such state exists.
+     */
+    private int replaceOrRegisterSignature() {
+        final int hash = hash(sigSuccessors, sigOutputs, 0);
+        final int other = find(sigSuccessors, sigOutputs, 0, hash);
+        if (other != NO_STATE) {
+            return other;
+        }
+
+        final int state = allocate();
+        final int base = state * alphabetSize;
+        System.arraycopy(sigSuccessors, 0, successors, base, alphabetSize);
+        System.arraycopy(sigOutputs, 0, outputs, base, alphabetSize);
+        for (int succ : sigSuccessors) {
+            if (succ != NO_STATE) {
+                numIncoming[succ]++;
+            }
+        }
+        hashes[state] = hash;
+        insertIntoRegister(state);
+        return state;
+    }
+
+    /**
+     * Decreases the number of incoming transitions of the given state, and frees the state (as well as all states
+     * that become unreachable by this) if it drops to zero.
+     */
+    private void release(int state) {
+        if (--numIncoming[state] > 0) {
+            return;
+        }
+
+        int top = 0;
+        releaseStack[top++] = state;
+
+        while (top > 0) {
+            final int curr = releaseStack[--top];
+            unregister(curr);
+
+            final int base = curr * alphabetSize;
+            for (int i = 0; i < alphabetSize; i++) {
+                final int succ = successors[base + i];
+                if (succ != NO_STATE && --numIncoming[succ] == 0) {
+                    releaseStack[top++] = succ;
+                }
+            }
+
+            if (numFreeIds == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, 2 * freeIds.length);
+            }
+            freeIds[numFreeIds++] = curr;
+        }
+    }
+
+    private int allocate() {
+        final int state;
+        if (numFreeIds > 0) {
+            state = freeIds[--numFreeIds];
+        } else {
+            if (numIds == capacity) {
+                grow();
+            }
+            state = numIds++;
+        }
+
+        final int base = state * alphabetSize;
+        Arrays.fill(successors, base, base + alphabetSize, NO_STATE);
+        Arrays.fill(outputs, base, base + alphabetSize, 0);
+        numIncoming[state] = 0;
+        return state;
+    }
+
+    private void grow() {
+        capacity *= 2;
+        successors = Arrays.copyOf(successors, capacity * alphabetSize);
+        outputs = Arrays.copyOf(outputs, capacity * alphabetSize);
+        numIncoming = Arrays.copyOf(numIncoming, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        // every live state except for the initial one may be on the release stack at most once
+        releaseStack = Arrays.copyOf(releaseStack, capacity);
+    }
+
+    private void ensurePathCapacity(int length) {
+        if (pathStates.length < length) {
+            final int newLength = Math.max(length, 2 * pathStates.length);
+            pathStates = new int[newLength];
+            pathInputs = new int[newLength];
+        }
+    }
+
+    private int getOutputId(O output) {
+        final Integer id = outputIds.get(output);
+        if (id != null) {
+            return id;
+        }
+
+        final int newId = outputSymbols.size();
+        outputIds.put(output, newId);
+        outputSymbols.add(output);
+        return newId;
+    }
+
+    // /////////////////////////////////////////////////////////////////////
+    // Snapshots //
+    // /////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes a binary snapshot of the current DAG to the given stream, see {@link DAGSnapshotWriter} for the format.
+     * The snapshot can be restored by {@link #readSnapshot(Path, Alphabet)}, as well as by {@link
+     * IncrementalMealyDAGBuilder#readSnapshot(Path, Alphabet)}. The stream is not closed by this method.
+     *
+     * @param out
+     *         the stream to write the snapshot to
+     *
+     * @throws IOException
+     *         if writing to the stream fails, or the output symbols cannot be serialized
+     */
+    public void writeSnapshot(OutputStream out) throws IOException {
+        final int numStates = registerSize + 1;
+        final int[] states = new int[numStates];
+        final int[] snapshotIds = new int[numIds];
+
+        // number the live states in the order of their ids, so that the tables are traversed sequentially
+        final boolean[] live = new boolean[numIds];
+        live[INIT] = true;
+        for (int state : register) {
+            if (state != NO_STATE) {
+                live[state] = true;
+            }
+        }
+
+        int numSnapshotIds = 0;
+        for (int state = 0; state < numIds; state++) {
+            if (live[state]) {
+                snapshotIds[state] = numSnapshotIds;
+                states[numSnapshotIds++] = state;
+            }
+        }
+
+        final DAGSnapshotWriter writer = new DAGSnapshotWriter(out);
+        writer.writeHeader(DAGSnapshotType.MEALY, alphabetSize, numStates);
+        writer.writeOutputSymbols(outputSymbols);
+
+        for (int state : states) {
+            final int base = state * alphabetSize;
+            for (int i = 0; i < alphabetSize; i++) {
+                final int succ = successors[base + i];
+                writer.writeInt(succ == NO_STATE ? DAGSnapshotWriter.UNDEFINED : snapshotIds[succ]);
+            }
+        }
+        for (int state : states) {
+            final int base = state * alphabetSize;
+            for (int i = 0; i < alphabetSize; i++) {
+                final int trans = base + i;
+                writer.writeInt(successors[trans] == NO_STATE ? DAGSnapshotWriter.UNDEFINED : outputs[trans]);
+            }
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Restores a builder from a binary snapshot, as written by {@link #writeSnapshot(OutputStream)} or {@link
+     * IncrementalMealyDAGBuilder#writeSnapshot(OutputStream)}. The transition table of the snapshot is copied directly
+     * from the memory-mapped file into the arrays of the builder, so restoring only takes time linear in the size of
+     * the snapshot.
+     *
+     * @param file
+     *         the snapshot file
+     * @param inputAlphabet
+     *         the input alphabet, which has to be the alphabet of the builder the snapshot was written by
+     *
+     * @return the restored builder
+     *
+     * @throws IOException
+     *         if reading the file fails, or it does not contain a valid snapshot over the given alphabet
+     *
+     * @see #readSnapshot(Path, Alphabet, Collection)
+     */
+    public static <I, O> CompactIncrementalMealyDAGBuilder<I, O> readSnapshot(Path file, Alphabet<I> inputAlphabet)
+            throws IOException {
+        return readSnapshot(file, inputAlphabet, Collections.emptySet());
+    }
+
+    /**
+     * Restores a builder from a binary snapshot, whose output symbols may also be instances of the given classes (see
+     * {@link DAGSnapshotReader#readOutputSymbols(Collection)}). Snapshots should only be read from trusted sources.
+     *
+     * @param file
+     *         the snapshot file
+     * @param inputAlphabet
+     *         the input alphabet, which has to be the alphabet of the builder the snapshot was written by
+     * @param outputClasses
+     *         the additional classes that may be deserialized as part of the output symbols
+     *
+     * @return the restored builder
+     *
+     * @throws IOException
+     *         if reading the file fails, or it does not contain a valid snapshot over the given alphabet
+     *
+     * @see #readSnapshot(Path, Alphabet)
+     */
+    public static <I, O> CompactIncrementalMealyDAGBuilder<I, O> readSnapshot(
+            Path file,
+            Alphabet<I> inputAlphabet,
+            Collection<? extends Class<?>> outputClasses) throws IOException {
+        final CompactIncrementalMealyDAGBuilder<I, O> builder = new CompactIncrementalMealyDAGBuilder<>(inputAlphabet);
+        try (DAGSnapshotReader reader = new DAGSnapshotReader(file)) {
+            builder.restore(reader, outputClasses);
+        }
+        return builder;
+    }
+
+    private void restore(DAGSnapshotReader reader, Collection<? extends Class<?>> outputClasses) throws IOException {
+        final int numStates = reader.readHeader(DAGSnapshotType.MEALY, alphabetSize);
+        final List<O> symbols = reader.readOutputSymbols(outputClasses);
+
+        final long numTransitions = (long) numStates * alphabetSize;
+        if (numTransitions > Integer.MAX_VALUE - 8) {
+            throw new IOException("Snapshot with " + numStates + " states exceeds the capacity of this builder");
+        }
+
+        capacity = Math.max(numStates, DEFAULT_CAPACITY);
+        successors = new int[capacity * alphabetSize];
+        outputs = new int[capacity * alphabetSize];
+        numIncoming = new int[capacity];
+        hashes = new int[capacity];
+        releaseStack = new int[capacity];
+        numIds = numStates;
+
+        reader.readInts(successors, 0, (int) numTransitions);
+        reader.readInts(outputs, 0, (int) numTransitions);
+        reader.checkEnd();
+
+        for (int i = 0; i < symbols.size(); i++) {
+            if (outputIds.put(symbols.get(i), i) != null) {
+                throw new IOException("Duplicate output symbol " + symbols.get(i));
+            }
+        }
+        outputSymbols.addAll(symbols);
+
+        for (int trans = 0; trans < numTransitions; trans++) {
+            final int succ = successors[trans];
+            if (succ == DAGSnapshotWriter.UNDEFINED) {
+                outputs[trans] = 0;
+                continue;
+            }
+            if (succ <= INIT || succ >= numStates) {
+                throw new IOException("Invalid successor " + succ);
+            }
+            if (outputs[trans] < 0 || outputs[trans] >= symbols.size()) {
+                throw new IOException("Invalid output " + outputs[trans]);
+            }
+            numIncoming[succ]++;
+        }
+
+        checkAcyclic(numStates);
+
+        register = new int[Math.max(2 * DEFAULT_CAPACITY, Integer.highestOneBit(numStates - 1) << 2)];
+        Arrays.fill(register, NO_STATE);
+        for (int state = INIT + 1; state < numStates; state++) {
+            final int base = state * alphabetSize;
+            final int hash = hash(successors, outputs, base);
+            if (find(successors, outputs, base, hash) != NO_STATE) {
+                throw new IOException("Snapshot is not minimal");
+            }
+            hashes[state] = hash;
+            insertIntoRegister(state);
+        }
+    }
+
+    /**
+     * Checks that all states are reachable from the initial state, and that the transition graph is acyclic, by
+     * successively removing states without incoming transitions.
+     */
+    private void checkAcyclic(int numStates) throws IOException {
+        final int[] remainingIncoming = Arrays.copyOf(numIncoming, numStates);
+        final int[] stack = releaseStack;
+        int top = 0;
+        int numRemoved = 0;
+
+        stack[top++] = INIT;
+        while (top > 0) {
+            final int state = stack[--top];
+            numRemoved++;
+
+            final int base = state * alphabetSize;
+            for (int i = 0; i < alphabetSize; i++) {
+                final int succ = successors[base + i];
+                if (succ != NO_STATE && --remainingIncoming[succ] == 0) {
+                    stack[top++] = succ;
+                }
+            }
+        }
+
+        if (numRemoved != numStates) {
+            throw new IOException("Snapshot contains unreachable states or cycles");
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////
+    // Register //
+    // /////////////////////////////////////////////////////////////////////
+
+    private int hash(int[] succs, int[] outs, int offset) {
+        int result = 1;
+        for (int i = offset; i < offset + alphabetSize; i++) {
+            result = 31 * result + succs[i];
+            result = 31 * result + outs[i];
+        }
+        return result;
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & (register.length - 1);
+    }
+
+    private int find(int[] succs, int[] outs, int offset, int hash) {
+        final int mask = register.length - 1;
+        for (int pos = slot(hash); ; pos = (pos + 1) & mask) {
+            final int state = register[pos];
+            if (state == NO_STATE) {
+                return NO_STATE;
+            }
+            if (hashes[state] == hash && signatureEquals(state, succs, outs, offset)) {
+                return state;
+            }
+        }
+    }
+
+    private boolean signatureEquals(int state, int[] succs, int[] outs, int offset) {
+        final int base = state * alphabetSize;
+        for (int i = 0; i < alphabetSize; i++) {
+            if (successors[base + i] != succs[offset + i] || outputs[base + i] != outs[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insertIntoRegister(int state) {
+        if (2 * (registerSize + 1) > register.length) {
+            final int[] oldRegister = register;
+            register = new int[2 * oldRegister.length];
+            Arrays.fill(register, NO_STATE);
+            for (int s : oldRegister) {
+                if (s != NO_STATE) {
+                    insertIntoSlot(s);
+                }
+            }
+        }
+        insertIntoSlot(state);
+        registerSize++;
+    }
+
+    private void insertIntoSlot(int state) {
+        final int mask = register.length - 1;
+        int pos = slot(hashes[state]);
+        while (register[pos] != NO_STATE) {
+            pos = (pos + 1) & mask;
+        }
+        register[pos] = state;
+    }
+
+    /**
+     * Removes the given state from the register, if it is registered. The remaining entries are shifted backwards, so
+     * that no deletion markers are required.
+     */
+    private void unregister(int state) {
+        final int mask = register.length - 1;
+        int hole = slot(hashes[state]);
+        while (register[hole] != state) {
+            if (register[hole] == NO_STATE) {
+                return;
+            }
+            hole = (hole + 1) & mask;
+        }
+
+        for (int next = (hole + 1) & mask; register[next] != NO_STATE; next = (next + 1) & mask) {
+            final int home = slot(hashes[register[next]]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                register[hole] = register[next];
+                hole = next;
+            }
+        }
+        register[hole] = NO_STATE;
+        registerSize--;
+    }
+
+    // /////////////////////////////////////////////////////////////////////
+    // Views //
+    // /////////////////////////////////////////////////////////////////////
+
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Override
+    public AutomatonView asTransitionSystem() {
+        return new AutomatonView();
+    }
+
+    // /////////////////////////////////////////////////////////////////////
+    // Equivalence test //
+    // /////////////////////////////////////////////////////////////////////
+
+    @Override
+    public Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+                                      Collection<? extends I> inputs,
+                                      boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S, T> Word<I> doFindSeparatingWord(MealyMachine<S, I, T, O> mealy,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        S init2 = mealy.getInitialState();
+
+        if (init2 == null) {
+            return omitUndefined ? null : Word.epsilon();
+        }
+
+        StateIDs<S> mealyIds = mealy.stateIDs();
+
+        IntDisjointSets uf = new UnionFind(numIds + mealy.size());
+        uf.link(INIT, mealyIds.getStateId(init2) + numIds);
+
+        Queue<Record<S, I>> queue = new ArrayDeque<>();
+
+        queue.offer(new Record<>(INIT, init2));
+
+        I lastSym = null;
+
+        Record<S, I> current;
+
+        explore:
+        while ((current = queue.poll()) != null) {
+            int state1 = current.state1;
+            S state2 = current.state2;
+
+            for (I sym : inputs) {
+                int trans1 = state1 * alphabetSize + inputAlphabet.getSymbolIndex(sym);
+                int succ1 = successors[trans1];
+                if (succ1 == NO_STATE) {
+                    continue;
+                }
+
+                T trans2 = mealy.getTransition(state2, sym);
+                if (trans2 == null) {
+                    if (omitUndefined) {
+                        continue;
+                    }
+                    lastSym = sym;
+                    break explore;
+                }
+
+                Object out1 = outputSymbols.get(outputs[trans1]);
+                Object out2 = mealy.getTransitionOutput(trans2);
+                if (!Objects.equals(out1, out2)) {
+                    lastSym = sym;
+                    break explore;
+                }
+
+                S succ2 = mealy.getSuccessor(trans2);
+
+                int r1 = uf.find(succ1), r2 = uf.find(mealyIds.getStateId(succ2) + numIds);
+
+                if (r1 == r2) {
+                    continue;
+                }
+
+                uf.link(r1, r2);
+
+                queue.offer(new Record<>(succ1, succ2, current, sym));
+            }
+        }
+
+        if (current == null) {
+            return null;
+        }
+
+        int ceLength = current.depth;
+        if (lastSym != null) {
+            ceLength++;
+        }
+
+        WordBuilder<I> wb = new WordBuilder<>(null, ceLength);
+
+        int index = ceLength;
+
+        if (lastSym != null) {
+            wb.setSymbol(--index, lastSym);
+        }
+
+        while (current.reachedFrom != null) {
+            wb.setSymbol(--index, current.reachedVia);
+            current = current.reachedFrom;
+        }
+
+        return wb.toWord();
+    }
+
+    private static final class Record<S, I> {
+
+        private final int state1;
+        private final S state2;
+        private final I reachedVia;
+        private final Record<S, I> reachedFrom;
+        private final int depth;
+
+        Record(int state1, S state2) {
+            this(state1, state2, null, null);
+        }
+
+        Record(int state1, S state2, Record<S, I> reachedFrom, I reachedVia) {
+            this.state1 = state1;
+            this.state2 = state2;
+            this.reachedFrom = reachedFrom;
+            this.reachedVia = reachedVia;
+            this.depth = (reachedFrom != null) ? reachedFrom.depth + 1 : 0;
+        }
+    }
+
+    public class GraphView extends AbstractGraphView<I, O, Integer, Integer> {
+
+        @Override
+        public Collection<Integer> getOutgoingEdges(Integer node) {
+            List<Integer> edges = new ArrayList<>();
+            int base = node * alphabetSize;
+            for (int i = 0; i < alphabetSize; i++) {
+                if (successors[base + i] != NO_STATE) {
+                    edges.add(base + i);
+                }
+            }
+            return edges;
+        }
+
+        @Override
+        public Integer getTarget(Integer edge) {
+            return successors[edge];
+        }
+
+        @Override
+        public Collection<Integer> getNodes() {
+            List<Integer> nodes = new ArrayList<>(registerSize + 1);
+            nodes.add(INIT);
+            for (int state : register) {
+                if (state != NO_STATE) {
+                    nodes.add(state);
+                }
+            }
+            return nodes;
+        }
+
+        @Override
+        @Nullable
+        public I getInputSymbol(Integer edge) {
+            return inputAlphabet.getSymbol(edge % alphabetSize);
+        }
+
+        @Override
+        @Nullable
+        public O getOutputSymbol(Integer edge) {
+            return outputSymbols.get(outputs[edge]);
+        }
+
+        @Override
+        @Nonnull
+        public Integer getInitialNode() {
+            return INIT;
+        }
+
+        @Override
+        public VisualizationHelper<Integer, Integer> getVisualizationHelper() {
+            return new DelegateVisualizationHelper<Integer, Integer>(super.getVisualizationHelper()) {
+
+                @Override
+                public boolean getNodeProperties(Integer node, Map<String, String> properties) {
+                    if (!super.getNodeProperties(node, properties)) {
+                        return false;
+                    }
+                    properties.put(NodeAttrs.LABEL, "n" + node);
+                    if (numIncoming[node] > 1) {
+                        properties.put(NodeAttrs.SHAPE, NodeShapes.OCTAGON);
+                    }
+                    return true;
+                }
+
+            };
+        }
+
+    }
+
+    public class AutomatonView implements MealyTransitionSystem<Integer, I, Integer, O> {
+
+        @Override
+        public Integer getSuccessor(Integer transition) {
+            return successors[transition];
+        }
+
+        @Override
+        public Integer getInitialState() {
+            return INIT;
+        }
+
+        @Override
+        public Integer getTransition(Integer state, I input) {
+            int trans = state * alphabetSize + inputAlphabet.getSymbolIndex(input);
+            if (successors[trans] == NO_STATE) {
+                return null;
+            }
+            return trans;
+        }
+
+        @Override
+        public O getTransitionOutput(Integer transition) {
+            return outputSymbols.get(outputs[transition]);
+        }
+    }
+}
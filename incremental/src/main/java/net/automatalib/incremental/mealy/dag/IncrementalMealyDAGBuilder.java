@@ -15,8 +15,12 @@
  */
 package net.automatalib.incremental.mealy.dag;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -25,16 +29,18 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.UniversalDeterministicAutomaton.FullIntAbstraction;
 import net.automatalib.automata.transout.MealyMachine;
 import net.automatalib.commons.util.IntDisjointSets;
 import net.automatalib.commons.util.UnionFind;
 import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.DAGSnapshotReader;
+import net.automatalib.incremental.DAGSnapshotType;
+import net.automatalib.incremental.DAGSnapshotWriter;
 import net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder;
 import net.automatalib.ts.transout.MealyTransitionSystem;
 import net.automatalib.visualization.VisualizationHelper;
@@ -55,10 +61,20 @@ import net.automatalib.words.WordBuilder;
  */
 public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBuilder<I, O> {
 
+    private static final int INITIAL_CAPACITY = 16;
+
     private final Map<StateSignature, State> register = new HashMap<>();
     private final int alphabetSize;
     private final State init;
 
+    private int numStateIds;
+    private int[] freeStateIds = new int[INITIAL_CAPACITY];
+    private int numFreeStateIds;
+
+    // scratch space for batch operations
+    private State[] pathStates = new State[INITIAL_CAPACITY];
+    private int[] pathInputs = new int[INITIAL_CAPACITY];
+
     /**
      * Constructor.
      *
@@ -70,6 +86,7 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
         this.alphabetSize = inputAlphabet.size();
         StateSignature initSig = new StateSignature(alphabetSize);
         this.init = new State(initSig);
+        assignId(init);
         register.put(null, init);
     }
 
@@ -281,6 +298,148 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
         updateInitSignature(finalIdx, last);
     }
 
+    /**
+     * Incorporates a batch of pairs of input/output words into the stored information.
+     * <p>
+     * The pairs are processed in lexicographic order of their input words. The states along the path of the current
+     * input word are kept <i>private</i>, i.e., they are not registered and only reachable via this path, so that
+     * subsequent words with a common prefix can be added to them directly. A private state is only registered (or
+     * merged with an equivalent state) once a subsequent word no longer shares its path, or at the end of the batch.
+     * Hence, each state is registered at most once per batch, independently of the number of words sharing it. If the
+     * batch is already sorted, the overall effort is linear in the size of the batch.
+     *
+     * @param inputWords
+     *         the input words
+     * @param outputWords
+     *         the corresponding output words (at the same positions)
+     *
+     * @throws ConflictException
+     *         if this information conflicts with information already stored (or within the batch). In this case, the
+     *         pairs preceding the conflicting one (in lexicographic order) have been incorporated.
+     */
+    @Override
+    public void insertAll(List<? extends Word<? extends I>> inputWords, List<? extends Word<? extends O>> outputWords) {
+        if (inputWords.size() != outputWords.size()) {
+            throw new IllegalArgumentException(
+                    "Number of input words and output words differ: " + inputWords.size() + " vs " +
+                    outputWords.size());
+        }
+
+        final int[] order = LexicographicOrder.sortedOrder(inputAlphabet, inputWords);
+        ensurePathCapacity(LexicographicOrder.maxLength(inputWords) + 1);
+
+        // the private path consists of pathStates[0..depth], where pathStates[0] is the initial state
+        int depth = 0;
+        pathStates[0] = init;
+
+        try {
+            for (int n : order) {
+                final Word<? extends I> word = inputWords.get(n);
+                final Word<? extends O> outputWord = outputWords.get(n);
+                final int len = word.length();
+
+                // Find the maximal prefix of the word for which information is present, and the common prefix with
+                // the private path
+                State curr = init;
+                int prefixLen = 0;
+                int commonLen = 0;
+
+                for (; prefixLen < len; prefixLen++) {
+                    final int idx = inputAlphabet.getSymbolIndex(word.getSymbol(prefixLen));
+                    if (commonLen == prefixLen && commonLen < depth && pathInputs[commonLen] == idx) {
+                        commonLen++;
+                    }
+
+                    final State succ = curr.getSuccessor(idx);
+                    if (succ == null) {
+                        break;
+                    }
+
+                    final O outSym = outputWord.getSymbol(prefixLen);
+                    if (!Objects.equals(outSym, curr.getOutput(idx))) {
+                        throw new ConflictException(
+                                "Error inserting " + word.prefix(prefixLen + 1) + " / " +
+                                outputWord.prefix(prefixLen + 1) + ": Incompatible output symbols: " + outSym +
+                                " vs " + curr.getOutput(idx));
+                    }
+                    curr = succ;
+                }
+
+                // The information was already present - we do not need to continue
+                if (prefixLen == len) {
+                    continue;
+                }
+
+                // Register the part of the private path that is not shared with the current word
+                registerPath(depth, commonLen);
+                depth = commonLen;
+
+                // Make the (registered) states along the existing path of the word private
+                for (; depth < prefixLen; depth++) {
+                    final StateSignature parentSig = pathStates[depth].getSignature();
+                    final int idx = inputAlphabet.getSymbolIndex(word.getSymbol(depth));
+                    final State succ = parentSig.successors[idx];
+
+                    final State privateSucc;
+                    if (succ.getNumIncoming() == 1) {
+                        hide(succ);
+                        privateSucc = succ;
+                    } else {
+                        privateSucc = hiddenClone(succ);
+                        succ.decreaseIncoming();
+                        parentSig.successors[idx] = privateSucc;
+                        privateSucc.increaseIncoming();
+                    }
+
+                    pathInputs[depth] = idx;
+                    pathStates[depth + 1] = privateSucc;
+                }
+
+                // Append (private) states for the remaining suffix
+                for (; depth < len; depth++) {
+                    final StateSignature parentSig = pathStates[depth].getSignature();
+                    final int idx = inputAlphabet.getSymbolIndex(word.getSymbol(depth));
+                    final State succ = new State(new StateSignature(alphabetSize));
+                    parentSig.successors[idx] = succ;
+                    parentSig.outputs[idx] = outputWord.getSymbol(depth);
+                    succ.increaseIncoming();
+
+                    pathInputs[depth] = idx;
+                    pathStates[depth + 1] = succ;
+                }
+            }
+        } finally {
+            registerPath(depth, 0);
+        }
+    }
+
+    /**
+     * Registers the private states {@code pathStates[from]}, ..., {@code pathStates[to + 1]} (in this order), merging
+     * them with equivalent registered states if possible.
+     */
+    private void registerPath(int from, int to) {
+        for (int i = from; i > to; i--) {
+            final State state = pathStates[i];
+            state.getSignature().updateHashCode();
+            final State registered = replaceOrRegister(state);
+            if (registered != state) {
+                // the private state has been merged, redirect its (single) predecessor
+                final StateSignature parentSig = pathStates[i - 1].getSignature();
+                parentSig.successors[pathInputs[i - 1]] = registered;
+                registered.increaseIncoming();
+            }
+            pathStates[i] = null;
+        }
+    }
+
+    private void ensurePathCapacity(int length) {
+        if (pathStates.length < length) {
+            final int newLength = Math.max(length, 2 * pathStates.length);
+            pathStates = new State[newLength];
+            pathInputs = new int[newLength];
+        }
+    }
+
     private State hiddenClone(State other) {
         StateSignature sig = other.getSignature().duplicate();
 
@@ -432,11 +591,15 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
                         succ.decreaseIncoming();
                     }
                 }
+                releaseId(state);
             }
             return other;
         }
 
         register.put(sig, state);
+        if (state.getId() == State.NO_ID) {
+            assignId(state);
+        }
         return state;
     }
 
@@ -448,6 +611,7 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
 
         state = new State(sig);
         register.put(sig, state);
+        assignId(state);
         for (int i = 0; i < sig.successors.length; i++) {
             State succ = sig.successors[i];
             if (succ != null) {
@@ -457,6 +621,187 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
         return state;
     }
 
+    /**
+     * Assigns an id to a newly registered state, preferring ids of states that have been removed from the DAG.
+     */
+    private void assignId(State state) {
+        state.setId((numFreeStateIds > 0) ? freeStateIds[--numFreeStateIds] : numStateIds++);
+    }
+
+    /**
+     * Releases the id of a state that has been merged with an equivalent state, and hence is not part of the DAG
+     * anymore.
+     */
+    private void releaseId(State state) {
+        final int id = state.getId();
+        if (id == State.NO_ID) {
+            return;
+        }
+        if (numFreeStateIds == freeStateIds.length) {
+            freeStateIds = Arrays.copyOf(freeStateIds, 2 * freeStateIds.length);
+        }
+        freeStateIds[numFreeStateIds++] = id;
+        state.setId(State.NO_ID);
+    }
+
+    /**
+     * Writes a binary snapshot of the current DAG to the given stream, see {@link DAGSnapshotWriter} for the format.
+     * The snapshot can be restored by {@link #readSnapshot(Path, Alphabet)}, as well as by {@link
+     * CompactIncrementalMealyDAGBuilder#readSnapshot(Path, Alphabet)}. The stream is not closed by this method.
+     *
+     * @param out
+     *         the stream to write the snapshot to
+     *
+     * @throws IOException
+     *         if writing to the stream fails, or the output symbols cannot be serialized
+     */
+    public void writeSnapshot(OutputStream out) throws IOException {
+        final List<State> states = new ArrayList<>(register.size());
+        final Map<State, Integer> stateIds = new HashMap<>();
+        final List<Object> outputSymbols = new ArrayList<>();
+        final Map<Object, Integer> outputIds = new HashMap<>();
+
+        states.add(init);
+        stateIds.put(init, 0);
+        for (State state : register.values()) {
+            if (state != init) {
+                stateIds.put(state, states.size());
+                states.add(state);
+            }
+        }
+
+        for (State state : states) {
+            for (int i = 0; i < alphabetSize; i++) {
+                if (state.getSuccessor(i) != null) {
+                    outputIds.computeIfAbsent(state.getOutput(i), o -> {
+                        outputSymbols.add(o);
+                        return outputSymbols.size() - 1;
+                    });
+                }
+            }
+        }
+
+        final DAGSnapshotWriter writer = new DAGSnapshotWriter(out);
+        writer.writeHeader(DAGSnapshotType.MEALY, alphabetSize, states.size());
+        writer.writeOutputSymbols(outputSymbols);
+
+        for (State state : states) {
+            for (int i = 0; i < alphabetSize; i++) {
+                final State succ = state.getSuccessor(i);
+                writer.writeInt(succ == null ? DAGSnapshotWriter.UNDEFINED : stateIds.get(succ));
+            }
+        }
+        for (State state : states) {
+            for (int i = 0; i < alphabetSize; i++) {
+                final boolean defined = state.getSuccessor(i) != null;
+                writer.writeInt(defined ? outputIds.get(state.getOutput(i)) : DAGSnapshotWriter.UNDEFINED);
+            }
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Restores a builder from a binary snapshot, as written by {@link #writeSnapshot(OutputStream)} or {@link
+     * CompactIncrementalMealyDAGBuilder#writeSnapshot(OutputStream)}.
+     *
+     * @param file
+     *         the snapshot file
+     * @param inputAlphabet
+     *         the input alphabet, which has to be the alphabet of the builder the snapshot was written by
+     *
+     * @return the restored builder
+     *
+     * @throws IOException
+     *         if reading the file fails, or it does not contain a valid snapshot over the given alphabet
+     *
+     * @see #readSnapshot(Path, Alphabet, Collection)
+     */
+    public static <I, O> IncrementalMealyDAGBuilder<I, O> readSnapshot(Path file, Alphabet<I> inputAlphabet)
+            throws IOException {
+        return readSnapshot(file, inputAlphabet, Collections.emptySet());
+    }
+
+    /**
+     * Restores a builder from a binary snapshot, whose output symbols may also be instances of the given classes (see
+     * {@link DAGSnapshotReader#readOutputSymbols(Collection)}). Snapshots should only be read from trusted sources.
+     *
+     * @param file
+     *         the snapshot file
+     * @param inputAlphabet
+     *         the input alphabet, which has to be the alphabet of the builder the snapshot was written by
+     * @param outputClasses
+     *         the additional classes that may be deserialized as part of the output symbols
+     *
+     * @return the restored builder
+     *
+     * @throws IOException
+     *         if reading the file fails, or it does not contain a valid snapshot over the given alphabet
+     *
+     * @see #readSnapshot(Path, Alphabet)
+     */
+    public static <I, O> IncrementalMealyDAGBuilder<I, O> readSnapshot(
+            Path file,
+            Alphabet<I> inputAlphabet,
+            Collection<? extends Class<?>> outputClasses) throws IOException {
+        final IncrementalMealyDAGBuilder<I, O> builder = new IncrementalMealyDAGBuilder<>(inputAlphabet);
+        try (DAGSnapshotReader reader = new DAGSnapshotReader(file)) {
+            builder.restore(reader, outputClasses);
+        }
+        return builder;
+    }
+
+    private void restore(DAGSnapshotReader reader, Collection<? extends Class<?>> outputClasses) throws IOException {
+        final int numStates = reader.readHeader(DAGSnapshotType.MEALY, alphabetSize);
+        final List<O> outputSymbols = reader.readOutputSymbols(outputClasses);
+
+        final State[] states = new State[numStates];
+        states[0] = init;
+        for (int i = 1; i < numStates; i++) {
+            states[i] = new State(new StateSignature(alphabetSize));
+        }
+
+        for (State state : states) {
+            final StateSignature sig = state.getSignature();
+            for (int i = 0; i < alphabetSize; i++) {
+                final int succ = reader.readInt();
+                if (succ != DAGSnapshotWriter.UNDEFINED) {
+                    if (succ <= 0 || succ >= numStates) {
+                        throw new IOException("Invalid successor " + succ);
+                    }
+                    sig.successors[i] = states[succ];
+                    states[succ].increaseIncoming();
+                }
+            }
+        }
+        for (State state : states) {
+            final StateSignature sig = state.getSignature();
+            for (int i = 0; i < alphabetSize; i++) {
+                final int out = reader.readInt();
+                if (sig.successors[i] != null) {
+                    if (out < 0 || out >= outputSymbols.size()) {
+                        throw new IOException("Invalid output " + out);
+                    }
+                    sig.outputs[i] = outputSymbols.get(out);
+                }
+            }
+        }
+        reader.checkEnd();
+
+        for (int i = 1; i < numStates; i++) {
+            final State state = states[i];
+            if (state.getNumIncoming() == 0) {
+                throw new IOException("Snapshot contains unreachable states");
+            }
+            final StateSignature sig = state.getSignature();
+            sig.updateHashCode();
+            if (register.put(sig, state) != null) {
+                throw new IOException("Snapshot is not minimal");
+            }
+            assignId(state);
+        }
+    }
+
     @Override
     public GraphView asGraph() {
         return new GraphView();
@@ -474,68 +819,83 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
         return doFindSeparatingWord(target, inputs, omitUndefined);
     }
 
+    /**
+     * Computes a separating word by a breadth-first search over the product of this DAG and the integer abstraction of
+     * the target, merging equivalent pairs of states in a union-find structure. States of this DAG are identified by
+     * their {@link State#getId() ids}, target states by their integer representation. The queue of the search is
+     * stored in (growing) arrays, which also encode the search tree for reconstructing the separating word.
+     */
+    @SuppressWarnings("unchecked")
     private <S, T> Word<I> doFindSeparatingWord(MealyMachine<S, I, T, O> mealy,
                                                 Collection<? extends I> inputs,
                                                 boolean omitUndefined) {
-        S init2 = mealy.getInitialState();
+        final List<I> symbols = new ArrayList<>(inputs);
+        final int numInputs = symbols.size();
+        final FullIntAbstraction<T, Void, O> abs = (inputs instanceof Alphabet) ?
+                mealy.fullIntAbstraction((Alphabet<I>) inputs) :
+                mealy.fullIntAbstraction(numInputs, symbols::get);
+        // compact implementations are their own abstraction, and provide transition outputs without transition objects
+        final boolean direct = abs == mealy;
+
+        final int init2 = abs.getIntInitialState();
 
-        if (init2 == null) {
+        if (init2 < 0) {
             return omitUndefined ? null : Word.epsilon();
         }
 
-        State init1 = init;
-
-        Map<State, Integer> ids = new HashMap<>();
-        StateIDs<S> mealyIds = mealy.stateIDs();
-
-        int thisStates = register.size();
-        int id1 = getStateId(init1, ids), id2 = mealyIds.getStateId(init2) + thisStates;
-
-        IntDisjointSets uf = new UnionFind(thisStates + mealy.size());
-        uf.link(id1, id2);
-
-        Queue<Record<S, I>> queue = new ArrayDeque<>();
+        final int[] inputIndices = new int[numInputs];
+        for (int i = 0; i < numInputs; i++) {
+            inputIndices[i] = inputAlphabet.getSymbolIndex(symbols.get(i));
+        }
 
-        queue.offer(new Record<>(init1, init2));
+        final int thisStates = numStateIds;
+        final IntDisjointSets uf = new UnionFind(thisStates + abs.size());
+        uf.link(init.getId(), init2 + thisStates);
 
-        I lastSym = null;
+        State[] queueStates1 = new State[INITIAL_CAPACITY];
+        int[] queueStates2 = new int[INITIAL_CAPACITY];
+        int[] queueParents = new int[INITIAL_CAPACITY];
+        int[] queueInputs = new int[INITIAL_CAPACITY];
+        int queueSize = 1;
 
-        Record<S, I> current;
+        queueStates1[0] = init;
+        queueStates2[0] = init2;
+        queueParents[0] = -1;
 
-        explore:
-        while ((current = queue.poll()) != null) {
-            State state1 = current.state1;
-            S state2 = current.state2;
+        for (int current = 0; current < queueSize; current++) {
+            final State state1 = queueStates1[current];
+            final int state2 = queueStates2[current];
 
-            for (I sym : inputs) {
-                int idx = inputAlphabet.getSymbolIndex(sym);
-                State succ1 = state1.getSuccessor(idx);
+            for (int i = 0; i < numInputs; i++) {
+                final int idx = inputIndices[i];
+                final State succ1 = state1.getSuccessor(idx);
                 if (succ1 == null) {
                     continue;
                 }
 
-                T trans2 = mealy.getTransition(state2, sym);
-                if (trans2 == null) {
+                final int succ2;
+                final Object out2;
+                if (direct) {
+                    succ2 = abs.getSuccessor(state2, i);
+                    out2 = (succ2 < 0) ? null : abs.getTransitionProperty(state2, i);
+                } else {
+                    final T trans2 = abs.getTransition(state2, i);
+                    succ2 = (trans2 == null) ? -1 : abs.getIntSuccessor(trans2);
+                    out2 = (trans2 == null) ? null : abs.getTransitionProperty(trans2);
+                }
+
+                if (succ2 < 0) {
                     if (omitUndefined) {
                         continue;
                     }
-                    lastSym = sym;
-                    break explore;
+                    return buildWord(symbols, queueParents, queueInputs, current, i);
                 }
 
-                Object out1 = state1.getOutput(idx);
-                Object out2 = mealy.getTransitionOutput(trans2);
-                if (!Objects.equals(out1, out2)) {
-                    lastSym = sym;
-                    break explore;
+                if (!Objects.equals(state1.getOutput(idx), out2)) {
+                    return buildWord(symbols, queueParents, queueInputs, current, i);
                 }
 
-                S succ2 = mealy.getSuccessor(trans2);
-
-                id1 = getStateId(succ1, ids);
-                id2 = mealyIds.getStateId(succ2) + thisStates;
-
-                int r1 = uf.find(id1), r2 = uf.find(id2);
+                final int r1 = uf.find(succ1.getId()), r2 = uf.find(succ2 + thisStates);
 
                 if (r1 == r2) {
                     continue;
@@ -543,64 +903,43 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
 
                 uf.link(r1, r2);
 
-                queue.offer(new Record<>(succ1, succ2, current, sym));
+                if (queueSize == queueStates1.length) {
+                    final int newCapacity = 2 * queueSize;
+                    queueStates1 = Arrays.copyOf(queueStates1, newCapacity);
+                    queueStates2 = Arrays.copyOf(queueStates2, newCapacity);
+                    queueParents = Arrays.copyOf(queueParents, newCapacity);
+                    queueInputs = Arrays.copyOf(queueInputs, newCapacity);
+                }
+                queueStates1[queueSize] = succ1;
+                queueStates2[queueSize] = succ2;
+                queueParents[queueSize] = current;
+                queueInputs[queueSize] = i;
+                queueSize++;
             }
         }
 
-        if (current == null) {
-            return null;
-        }
-
-        int ceLength = current.depth;
-        if (lastSym != null) {
-            ceLength++;
-        }
-
-        WordBuilder<I> wb = new WordBuilder<>(null, ceLength);
-
-        int index = ceLength;
+        return null;
+    }
 
-        if (lastSym != null) {
-            wb.setSymbol(--index, lastSym);
+    /**
+     * Reconstructs the word leading to the given entry of the search queue, followed by the given last input.
+     */
+    private static <I> Word<I> buildWord(List<I> symbols, int[] parents, int[] inputs, int entry, int lastInput) {
+        int length = 1;
+        for (int curr = entry; parents[curr] >= 0; curr = parents[curr]) {
+            length++;
         }
 
-        while (current.reachedFrom != null) {
-            wb.setSymbol(--index, current.reachedVia);
-            current = current.reachedFrom;
+        final WordBuilder<I> wb = new WordBuilder<>(null, length);
+        int index = length;
+        wb.setSymbol(--index, symbols.get(lastInput));
+        for (int curr = entry; parents[curr] >= 0; curr = parents[curr]) {
+            wb.setSymbol(--index, symbols.get(inputs[curr]));
         }
 
         return wb.toWord();
     }
 
-    private static int getStateId(State state, Map<State, Integer> ids) {
-        return ids.computeIfAbsent(state, k -> ids.size());
-    }
-
-    // /////////////////////////////////////////////////////////////////////
-    // Equivalence test //
-    // /////////////////////////////////////////////////////////////////////
-
-    private static final class Record<S, I> {
-
-        private final State state1;
-        private final S state2;
-        private final I reachedVia;
-        private final Record<S, I> reachedFrom;
-        private final int depth;
-
-        Record(State state1, S state2) {
-            this(state1, state2, null, null);
-        }
-
-        Record(State state1, S state2, Record<S, I> reachedFrom, I reachedVia) {
-            this.state1 = state1;
-            this.state2 = state2;
-            this.reachedFrom = reachedFrom;
-            this.reachedVia = reachedVia;
-            this.depth = (reachedFrom != null) ? reachedFrom.depth + 1 : 0;
-        }
-    }
-
     public class GraphView extends AbstractGraphView<I, O, State, TransitionRecord> {
 
         @Override
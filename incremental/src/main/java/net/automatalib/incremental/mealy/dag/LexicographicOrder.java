@@ -0,0 +1,168 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.dag;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+/**
+ * Utility methods for processing batches of words in lexicographic order (of their symbol indices), as done by the
+ * batch operations of the Mealy DAG builders.
+ */
+final class LexicographicOrder {
+
+    /**
+     * Ranges of at most this size are sorted by insertion sort instead of being distributed into buckets.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private LexicographicOrder() {
+        // prevent instantiation
+    }
+
+    /**
+     * Computes the positions of the given words in lexicographic order (of their symbol indices). Equal words keep
+     * their relative order. Already sorted input is detected upfront. Otherwise, the words are sorted by a most
+     * significant digit radix sort, which (unlike comparison-based sorting) does not repeatedly compare long common
+     * prefixes, but inspects each symbol of a word at most once (up to the position distinguishing it from all other
+     * words).
+     */
+    static <I> int[] sortedOrder(Alphabet<I> alphabet, List<? extends Word<? extends I>> words) {
+        final int size = words.size();
+        final int[] order = new int[size];
+        boolean sorted = true;
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            if (sorted && i > 0 && compare(alphabet, words.get(i - 1), words.get(i), 0) > 0) {
+                sorted = false;
+            }
+        }
+
+        if (!sorted) {
+            radixSort(alphabet, words, order);
+        }
+
+        return order;
+    }
+
+    static int maxLength(List<? extends Word<?>> words) {
+        int result = 0;
+        for (Word<?> word : words) {
+            result = Math.max(result, word.length());
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the given positions by distributing the words of a range into buckets according to their symbol at the
+     * current depth (where words ending at this depth precede all others), and continuing with each bucket at the next
+     * depth. Ranges are stored on an explicit stack, so that long words do not cause deep recursion.
+     */
+    private static <I> void radixSort(Alphabet<I> alphabet, List<? extends Word<? extends I>> words, int[] order) {
+        final int size = order.length;
+        final int numBuckets = alphabet.size() + 1;
+        final int[] keys = new int[size];
+        final int[] buffer = new int[size];
+        final int[] bucketStarts = new int[numBuckets + 1];
+
+        // each entry consists of the bounds of a range and its depth
+        int[] stack = new int[3 * INSERTION_SORT_THRESHOLD];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = size;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            final int depth = stack[--top];
+            final int hi = stack[--top];
+            final int lo = stack[--top];
+
+            if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(alphabet, words, order, lo, hi, depth);
+                continue;
+            }
+
+            Arrays.fill(bucketStarts, 0);
+            for (int i = lo; i < hi; i++) {
+                final Word<? extends I> word = words.get(order[i]);
+                final int key = (word.length() == depth) ? 0 : alphabet.getSymbolIndex(word.getSymbol(depth)) + 1;
+                keys[i] = key;
+                bucketStarts[key + 1]++;
+            }
+
+            bucketStarts[0] = lo;
+            for (int b = 0; b < numBuckets; b++) {
+                bucketStarts[b + 1] += bucketStarts[b];
+            }
+
+            // stable distribution, advancing the start of each bucket
+            for (int i = lo; i < hi; i++) {
+                buffer[bucketStarts[keys[i]]++] = order[i];
+            }
+            System.arraycopy(buffer, lo, order, lo, hi - lo);
+
+            // after the distribution, bucketStarts[b] is the end of bucket b; words ending at this depth are equal
+            for (int b = 1, start = bucketStarts[0]; b < numBuckets; start = bucketStarts[b++]) {
+                if (bucketStarts[b] - start > 1) {
+                    if (top + 3 > stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stack.length);
+                    }
+                    stack[top++] = start;
+                    stack[top++] = bucketStarts[b];
+                    stack[top++] = depth + 1;
+                }
+            }
+        }
+    }
+
+    private static <I> void insertionSort(Alphabet<I> alphabet,
+                                          List<? extends Word<? extends I>> words,
+                                          int[] order,
+                                          int lo,
+                                          int hi,
+                                          int depth) {
+        for (int i = lo + 1; i < hi; i++) {
+            final int pos = order[i];
+            final Word<? extends I> word = words.get(pos);
+            int j = i;
+            while (j > lo && compare(alphabet, words.get(order[j - 1]), word, depth) > 0) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = pos;
+        }
+    }
+
+    /**
+     * Compares two words, which are known to agree on their first {@code from} symbols.
+     */
+    private static <I> int compare(Alphabet<I> alphabet, Word<? extends I> w1, Word<? extends I> w2, int from) {
+        final int len1 = w1.length();
+        final int len2 = w2.length();
+        final int len = Math.min(len1, len2);
+        for (int i = from; i < len; i++) {
+            final int cmp = Integer.compare(alphabet.getSymbolIndex(w1.getSymbol(i)),
+                                            alphabet.getSymbolIndex(w2.getSymbol(i)));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(len1, len2);
+    }
+}
@@ -17,8 +17,14 @@ package net.automatalib.incremental.mealy.dag;
 
 public final class State {
 
+    /**
+     * The id of states that are not registered.
+     */
+    static final int NO_ID = -1;
+
     private final StateSignature signature;
     private int numIncoming;
+    private int id = NO_ID;
 
     public State(StateSignature signature) {
         this.signature = signature;
@@ -48,6 +54,20 @@ public final class State {
         return signature.outputs[idx];
     }
 
+    /**
+     * Retrieves the id of this state. Ids are assigned upon registration, remain stable as long as the state is part
+     * of the DAG, and are reused for other states afterwards.
+     *
+     * @return the id of this state, or {@code -1} if the state has not been registered yet
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
     public StateSignature getSignature() {
         return signature;
     }
@@ -0,0 +1,404 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Iterators;
+import net.automatalib.automata.transout.MealyMachine;
+import net.automatalib.incremental.BoundedIncrementalConstruction;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder;
+import net.automatalib.ts.transout.MealyTransitionSystem;
+import net.automatalib.util.graphs.traversal.GraphTraversal;
+import net.automatalib.visualization.VisualizationHelper;
+import net.automatalib.visualization.helper.DelegateVisualizationHelper;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A variant of the {@link IncrementalMealyTreeBuilder} with a bounded number of nodes, see {@link
+ * BoundedIncrementalConstruction}.
+ * <p>
+ * Every {@link #lookup(Word, List) lookup} and {@link #insert(Word, Word) insertion} marks the nodes along the path of
+ * its input word as used. Whenever an insertion exceeds the maximum number of nodes, the least recently used subtrees
+ * are discarded, such that a quarter of the maximum number of nodes is available again. As nodes are always used
+ * along with all of their ancestors, the least recently used nodes form entire subtrees. The nodes of the most recently
+ * inserted word are never discarded.
+ *
+ * @param <I>
+ *         input symbol class
+ * @param <O>
+ *         output symbol class
+ */
+public class BoundedIncrementalMealyTreeBuilder<I, O> extends AbstractIncrementalMealyBuilder<I, O>
+        implements BoundedIncrementalConstruction<MealyMachine<?, I, ?, O>, I> {
+
+    private static final int EVICTION_RATIO = 4;
+
+    private final int alphabetSize;
+    private final int maxNodes;
+    private final BoundedNode<O> root;
+
+    private int numNodes = 1;
+    private long clock;
+    private long numHits;
+    private long numMisses;
+    private long numEvictions;
+    private long numEvictedNodes;
+
+    /**
+     * Constructor.
+     *
+     * @param inputAlphabet
+     *         the input alphabet to use
+     * @param maxNodes
+     *         the maximum number of nodes (including the root)
+     */
+    public BoundedIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet, int maxNodes) {
+        super(inputAlphabet);
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("The maximum number of nodes must be positive: " + maxNodes);
+        }
+        this.alphabetSize = inputAlphabet.size();
+        this.maxNodes = maxNodes;
+        this.root = new BoundedNode<>(-1, null, 0L);
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> word, List<? super O> output) {
+        final long time = ++clock;
+        BoundedNode<O> curr = root;
+
+        for (I sym : word) {
+            int symIdx = inputAlphabet.getSymbolIndex(sym);
+            BoundedNode<O> succ = curr.getChild(symIdx);
+            if (succ == null) {
+                numMisses++;
+                return false;
+            }
+            succ.touch(time);
+            output.add(succ.getOutput());
+            curr = succ;
+        }
+
+        numHits++;
+        return true;
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        BoundedNode<O> curr = root;
+
+        Iterator<? extends I> symIt = word.iterator();
+        while (symIt.hasNext() && curr != null) {
+            int symIdx = inputAlphabet.getSymbolIndex(symIt.next());
+            curr = curr.getChild(symIdx);
+        }
+        return (curr != null);
+    }
+
+    @Override
+    public void insert(Word<? extends I> input, Word<? extends O> outputWord) throws ConflictException {
+        final long time = ++clock;
+        BoundedNode<O> curr = root;
+
+        Iterator<? extends O> outputIt = outputWord.iterator();
+        for (I sym : input) {
+            int symIdx = inputAlphabet.getSymbolIndex(sym);
+            O out = outputIt.next();
+            BoundedNode<O> succ = curr.getChild(symIdx);
+            if (succ == null) {
+                succ = new BoundedNode<>(symIdx, out, time);
+                curr.setChild(symIdx, alphabetSize, succ);
+                numNodes++;
+            } else if (!Objects.equal(out, succ.getOutput())) {
+                throw new ConflictException("Output mismatch: '" + out + "' vs '" + succ.getOutput() + "'");
+            } else {
+                succ.touch(time);
+            }
+            curr = succ;
+        }
+
+        if (numNodes > maxNodes) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        // collect the access times of all nodes except for the root
+        final long[] accessTimes = new long[numNodes - 1];
+        int numAccessTimes = 0;
+
+        final Deque<BoundedNode<O>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            final BoundedNode<O> node = stack.pop();
+            for (int i = 0; i < alphabetSize; i++) {
+                final BoundedNode<O> child = node.getChild(i);
+                if (child != null) {
+                    accessTimes[numAccessTimes++] = child.getLastAccess();
+                    stack.push(child);
+                }
+            }
+        }
+        Arrays.sort(accessTimes);
+
+        // discard all nodes that have been used no later than the threshold, but retain the most recent word
+        final int numRetained = Math.max(1, maxNodes - maxNodes / EVICTION_RATIO);
+        final long threshold = Math.min(accessTimes[numNodes - numRetained - 1], clock - 1);
+
+        int numEvicted = 0;
+        while (numEvicted < accessTimes.length && accessTimes[numEvicted] <= threshold) {
+            numEvicted++;
+        }
+        if (numEvicted == 0) {
+            return;
+        }
+
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            final BoundedNode<O> node = stack.pop();
+            for (int i = 0; i < alphabetSize; i++) {
+                final BoundedNode<O> child = node.getChild(i);
+                if (child != null) {
+                    if (child.getLastAccess() <= threshold) {
+                        node.setChild(i, alphabetSize, null);
+                    } else {
+                        stack.push(child);
+                    }
+                }
+            }
+        }
+
+        numNodes -= numEvicted;
+        numEvictions++;
+        numEvictedNodes += numEvicted;
+    }
+
+    @Override
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    @Override
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    @Override
+    public long getNumHits() {
+        return numHits;
+    }
+
+    @Override
+    public long getNumMisses() {
+        return numMisses;
+    }
+
+    @Override
+    public long getNumEvictions() {
+        return numEvictions;
+    }
+
+    @Override
+    public long getNumEvictedNodes() {
+        return numEvictedNodes;
+    }
+
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Override
+    public TransitionSystemView asTransitionSystem() {
+        return new TransitionSystemView();
+    }
+
+    @Override
+    public Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+                                      Collection<? extends I> inputs,
+                                      boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S, T> Word<I> doFindSeparatingWord(MealyMachine<S, I, T, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        Deque<Record<S, I, O>> dfsStack = new ArrayDeque<>();
+
+        dfsStack.push(new Record<>(target.getInitialState(), root, null, inputs.iterator()));
+
+        while (!dfsStack.isEmpty()) {
+            Record<S, I, O> rec = dfsStack.peek();
+            if (!rec.inputIt.hasNext()) {
+                dfsStack.pop();
+                continue;
+            }
+            I input = rec.inputIt.next();
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+
+            BoundedNode<O> succ = rec.treeNode.getChild(inputIdx);
+            if (succ == null) {
+                continue;
+            }
+
+            T trans = target.getTransition(rec.automatonState, input);
+            if (omitUndefined && trans == null) {
+                continue;
+            }
+            if (trans == null || !Objects.equal(target.getTransitionOutput(trans), succ.getOutput())) {
+
+                WordBuilder<I> wb = new WordBuilder<>(dfsStack.size());
+                wb.append(input);
+
+                dfsStack.pop();
+                while (!dfsStack.isEmpty()) {
+                    wb.append(rec.incomingInput);
+                    rec = dfsStack.pop();
+                }
+                return wb.reverse().toWord();
+            }
+
+            dfsStack.push(new Record<>(target.getSuccessor(trans), succ, input, inputs.iterator()));
+        }
+
+        return null;
+    }
+
+    private static final class Record<S, I, O> {
+
+        private final S automatonState;
+        private final BoundedNode<O> treeNode;
+        private final I incomingInput;
+        private final Iterator<? extends I> inputIt;
+
+        Record(S automatonState, BoundedNode<O> treeNode, I incomingInput, Iterator<? extends I> inputIt) {
+            this.automatonState = automatonState;
+            this.treeNode = treeNode;
+            this.inputIt = inputIt;
+            this.incomingInput = incomingInput;
+        }
+    }
+
+    /**
+     * The graph view. As every node has a unique incoming edge, edges are represented by their target nodes.
+     */
+    public class GraphView extends AbstractGraphView<I, O, BoundedNode<O>, BoundedNode<O>> {
+
+        @Override
+        public Collection<BoundedNode<O>> getNodes() {
+            List<BoundedNode<O>> result = new ArrayList<>(numNodes);
+            Iterators.addAll(result, GraphTraversal.dfIterator(this, Collections.singleton(root)));
+            return result;
+        }
+
+        @Override
+        public Collection<BoundedNode<O>> getOutgoingEdges(BoundedNode<O> node) {
+            List<BoundedNode<O>> result = new ArrayList<>();
+            for (int i = 0; i < alphabetSize; i++) {
+                BoundedNode<O> succ = node.getChild(i);
+                if (succ != null) {
+                    result.add(succ);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public BoundedNode<O> getTarget(BoundedNode<O> edge) {
+            return edge;
+        }
+
+        @Override
+        @Nullable
+        public I getInputSymbol(BoundedNode<O> edge) {
+            return inputAlphabet.getSymbol(edge.getInput());
+        }
+
+        @Override
+        @Nullable
+        public O getOutputSymbol(BoundedNode<O> edge) {
+            return edge.getOutput();
+        }
+
+        @Override
+        @Nonnull
+        public BoundedNode<O> getInitialNode() {
+            return root;
+        }
+
+        @Override
+        public VisualizationHelper<BoundedNode<O>, BoundedNode<O>> getVisualizationHelper() {
+            return new DelegateVisualizationHelper<BoundedNode<O>, BoundedNode<O>>(super.getVisualizationHelper()) {
+
+                private int id;
+
+                @Override
+                public boolean getNodeProperties(BoundedNode<O> node, Map<String, String> properties) {
+                    if (!super.getNodeProperties(node, properties)) {
+                        return false;
+                    }
+                    properties.put(NodeAttrs.LABEL, "n" + (id++));
+                    return true;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * The transition system view. As every node has a unique incoming transition, transitions are represented by
+     * their target nodes.
+     */
+    public class TransitionSystemView implements MealyTransitionSystem<BoundedNode<O>, I, BoundedNode<O>, O> {
+
+        @Override
+        public BoundedNode<O> getTransition(BoundedNode<O> state, I input) {
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+            return state.getChild(inputIdx);
+        }
+
+        @Override
+        public BoundedNode<O> getSuccessor(BoundedNode<O> transition) {
+            return transition;
+        }
+
+        @Override
+        public BoundedNode<O> getInitialState() {
+            return root;
+        }
+
+        @Override
+        public O getTransitionOutput(BoundedNode<O> transition) {
+            return transition.getOutput();
+        }
+    }
+}
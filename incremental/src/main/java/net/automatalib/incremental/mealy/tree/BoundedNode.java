@@ -0,0 +1,79 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree;
+
+/**
+ * A node of a {@link BoundedIncrementalMealyTreeBuilder}. As every node (except for the root) has exactly one incoming
+ * edge, the input index and output of this edge are stored in the node itself. Additionally, each node stores the
+ * (logical) time of its last access.
+ *
+ * @param <O>
+ *         output symbol class
+ */
+final class BoundedNode<O> {
+
+    private final int input;
+    private final O output;
+    private long lastAccess;
+    private BoundedNode<O>[] children;
+
+    BoundedNode(int input, O output, long lastAccess) {
+        this.input = input;
+        this.output = output;
+        this.lastAccess = lastAccess;
+    }
+
+    /**
+     * Retrieves the input index of the (unique) incoming edge of this node.
+     *
+     * @return the input index of the incoming edge
+     */
+    public int getInput() {
+        return input;
+    }
+
+    /**
+     * Retrieves the output of the (unique) incoming edge of this node.
+     *
+     * @return the output of the incoming edge
+     */
+    public O getOutput() {
+        return output;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public void touch(long time) {
+        this.lastAccess = time;
+    }
+
+    public BoundedNode<O> getChild(int idx) {
+        if (children == null) {
+            return null;
+        }
+        return children[idx];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setChild(int idx, int alphabetSize, BoundedNode<O> child) {
+        if (children == null) {
+            children = new BoundedNode[alphabetSize];
+        }
+        children[idx] = child;
+    }
+}
@@ -0,0 +1,282 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Iterators;
+import net.automatalib.automata.transout.MealyMachine;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder;
+import net.automatalib.ts.transout.MealyTransitionSystem;
+import net.automatalib.util.graphs.traversal.GraphTraversal;
+import net.automatalib.visualization.VisualizationHelper;
+import net.automatalib.visualization.helper.DelegateVisualizationHelper;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A thread-safe variant of the {@link IncrementalMealyTreeBuilder}, which may be queried and extended concurrently
+ * by multiple threads without external synchronization.
+ * <p>
+ * The tree only ever grows: the successors of a node are stored in an {@link
+ * java.util.concurrent.atomic.AtomicReferenceArray}, and new nodes are added by a compare-and-set on the respective
+ * (empty) slot. Hence, {@link #lookup(Word, List) lookups} never block and only observe fully initialized nodes, and
+ * concurrent {@link #insert(Word, Word) insertions} only contend if they add a successor for the same node and input
+ * at the same time. In this case, one of the insertions wins and the other one continues with the winner's node (or
+ * throws a {@link ConflictException}, if the outputs differ). Thus, conflicting information is detected regardless of
+ * the interleaving of insertions, and an insertion that throws a {@link ConflictException} may still have added a
+ * (consistent) prefix of its input word.
+ * <p>
+ * All other operations (e.g., {@link #findSeparatingWord(MealyMachine, Collection, boolean)} and the views) are
+ * weakly consistent: they are safe to use concurrently with insertions, and reflect all insertions that completed
+ * before their invocation, but may or may not reflect concurrent ones.
+ *
+ * @param <I>
+ *         input symbol class
+ * @param <O>
+ *         output symbol class
+ */
+public class ConcurrentIncrementalMealyTreeBuilder<I, O> extends AbstractIncrementalMealyBuilder<I, O> {
+
+    private final ConcurrentNode<O> root;
+
+    public ConcurrentIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet) {
+        super(inputAlphabet);
+        this.root = new ConcurrentNode<>(inputAlphabet.size(), null);
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> word, List<? super O> output) {
+        ConcurrentNode<O> curr = root;
+
+        for (I sym : word) {
+            int symIdx = inputAlphabet.getSymbolIndex(sym);
+            ConcurrentNode<O> succ = curr.getSuccessor(symIdx);
+            if (succ == null) {
+                return false;
+            }
+            output.add(succ.getOutput());
+            curr = succ;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        ConcurrentNode<O> curr = root;
+
+        Iterator<? extends I> symIt = word.iterator();
+        while (symIt.hasNext() && curr != null) {
+            int symIdx = inputAlphabet.getSymbolIndex(symIt.next());
+            curr = curr.getSuccessor(symIdx);
+        }
+        return (curr != null);
+    }
+
+    @Override
+    public void insert(Word<? extends I> input, Word<? extends O> outputWord) throws ConflictException {
+        ConcurrentNode<O> curr = root;
+
+        Iterator<? extends O> outputIt = outputWord.iterator();
+        for (I sym : input) {
+            int symIdx = inputAlphabet.getSymbolIndex(sym);
+            curr = curr.successor(symIdx, outputIt.next());
+        }
+    }
+
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Override
+    public TransitionSystemView asTransitionSystem() {
+        return new TransitionSystemView();
+    }
+
+    @Override
+    public Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+                                      Collection<? extends I> inputs,
+                                      boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S, T> Word<I> doFindSeparatingWord(MealyMachine<S, I, T, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        Deque<Record<S, I, O>> dfsStack = new ArrayDeque<>();
+
+        dfsStack.push(new Record<>(target.getInitialState(), root, null, inputs.iterator()));
+
+        while (!dfsStack.isEmpty()) {
+            Record<S, I, O> rec = dfsStack.peek();
+            if (!rec.inputIt.hasNext()) {
+                dfsStack.pop();
+                continue;
+            }
+            I input = rec.inputIt.next();
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+
+            ConcurrentNode<O> succ = rec.treeNode.getSuccessor(inputIdx);
+            if (succ == null) {
+                continue;
+            }
+
+            T trans = target.getTransition(rec.automatonState, input);
+            if (omitUndefined && trans == null) {
+                continue;
+            }
+            if (trans == null || !Objects.equal(target.getTransitionOutput(trans), succ.getOutput())) {
+
+                WordBuilder<I> wb = new WordBuilder<>(dfsStack.size());
+                wb.append(input);
+
+                dfsStack.pop();
+                while (!dfsStack.isEmpty()) {
+                    wb.append(rec.incomingInput);
+                    rec = dfsStack.pop();
+                }
+                return wb.reverse().toWord();
+            }
+
+            dfsStack.push(new Record<>(target.getSuccessor(trans), succ, input, inputs.iterator()));
+        }
+
+        return null;
+    }
+
+    private static final class Record<S, I, O> {
+
+        private final S automatonState;
+        private final ConcurrentNode<O> treeNode;
+        private final I incomingInput;
+        private final Iterator<? extends I> inputIt;
+
+        Record(S automatonState, ConcurrentNode<O> treeNode, I incomingInput, Iterator<? extends I> inputIt) {
+            this.automatonState = automatonState;
+            this.treeNode = treeNode;
+            this.inputIt = inputIt;
+            this.incomingInput = incomingInput;
+        }
+    }
+
+    public class GraphView extends AbstractGraphView<I, O, ConcurrentNode<O>, AnnotatedConcurrentEdge<I, O>> {
+
+        @Override
+        public Collection<ConcurrentNode<O>> getNodes() {
+            List<ConcurrentNode<O>> result = new ArrayList<>();
+            Iterators.addAll(result, GraphTraversal.dfIterator(this, Collections.singleton(root)));
+            return result;
+        }
+
+        @Override
+        public Collection<AnnotatedConcurrentEdge<I, O>> getOutgoingEdges(ConcurrentNode<O> node) {
+            List<AnnotatedConcurrentEdge<I, O>> result = new ArrayList<>();
+            for (int i = 0; i < inputAlphabet.size(); i++) {
+                ConcurrentNode<O> succ = node.getSuccessor(i);
+                if (succ != null) {
+                    result.add(new AnnotatedConcurrentEdge<>(succ, inputAlphabet.getSymbol(i)));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public ConcurrentNode<O> getTarget(AnnotatedConcurrentEdge<I, O> edge) {
+            return edge.getTarget();
+        }
+
+        @Override
+        @Nullable
+        public I getInputSymbol(AnnotatedConcurrentEdge<I, O> edge) {
+            return edge.getInput();
+        }
+
+        @Override
+        @Nullable
+        public O getOutputSymbol(AnnotatedConcurrentEdge<I, O> edge) {
+            return edge.getOutput();
+        }
+
+        @Override
+        @Nonnull
+        public ConcurrentNode<O> getInitialNode() {
+            return root;
+        }
+
+        @Override
+        public VisualizationHelper<ConcurrentNode<O>, AnnotatedConcurrentEdge<I, O>> getVisualizationHelper() {
+            return new DelegateVisualizationHelper<ConcurrentNode<O>, AnnotatedConcurrentEdge<I, O>>(
+                    super.getVisualizationHelper()) {
+
+                private int id;
+
+                @Override
+                public boolean getNodeProperties(ConcurrentNode<O> node, Map<String, String> properties) {
+                    if (!super.getNodeProperties(node, properties)) {
+                        return false;
+                    }
+                    properties.put(NodeAttrs.LABEL, "n" + (id++));
+                    return true;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * The transition system view. As every node has a unique incoming transition, transitions are represented by
+     * their target nodes.
+     */
+    public class TransitionSystemView
+            implements MealyTransitionSystem<ConcurrentNode<O>, I, ConcurrentNode<O>, O> {
+
+        @Override
+        public ConcurrentNode<O> getTransition(ConcurrentNode<O> state, I input) {
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+            return state.getSuccessor(inputIdx);
+        }
+
+        @Override
+        public ConcurrentNode<O> getSuccessor(ConcurrentNode<O> transition) {
+            return transition;
+        }
+
+        @Override
+        public ConcurrentNode<O> getInitialState() {
+            return root;
+        }
+
+        @Override
+        public O getTransitionOutput(ConcurrentNode<O> transition) {
+            return transition.getOutput();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import net.automatalib.incremental.ConflictException;
+
+/**
+ * A node of a {@link ConcurrentIncrementalMealyTreeBuilder}. As every node (except for the root) has exactly one
+ * incoming edge, the output of this edge is stored in the node itself. Successors are only ever added (via
+ * compare-and-set), but never replaced or removed.
+ *
+ * @param <O>
+ *         output symbol class
+ */
+final class ConcurrentNode<O> {
+
+    private final O output;
+    private final AtomicReferenceArray<ConcurrentNode<O>> successors;
+
+    ConcurrentNode(int alphabetSize, O output) {
+        this.output = output;
+        this.successors = new AtomicReferenceArray<>(alphabetSize);
+    }
+
+    /**
+     * Retrieves the output of the (unique) incoming edge of this node.
+     *
+     * @return the output of the incoming edge
+     */
+    public O getOutput() {
+        return output;
+    }
+
+    public ConcurrentNode<O> getSuccessor(int idx) {
+        return successors.get(idx);
+    }
+
+    /**
+     * Retrieves the successor for the given input index, creating it (with the given output) if it does not exist
+     * yet.
+     *
+     * @throws ConflictException
+     *         if the successor already exists, but its output differs from the given one
+     */
+    public ConcurrentNode<O> successor(int idx, O output) throws ConflictException {
+        ConcurrentNode<O> succ = successors.get(idx);
+        if (succ == null) {
+            final ConcurrentNode<O> newSucc = new ConcurrentNode<>(successors.length(), output);
+            if (successors.compareAndSet(idx, null, newSucc)) {
+                return newSucc;
+            }
+            // another thread was faster
+            succ = successors.get(idx);
+        }
+
+        if (!Objects.equals(output, succ.output)) {
+            throw new ConflictException("Output mismatch: '" + output + "' vs '" + succ.output + "'");
+        }
+        return succ;
+    }
+}
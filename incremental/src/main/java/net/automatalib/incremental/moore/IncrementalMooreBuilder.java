@@ -0,0 +1,90 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.automatalib.automata.transout.MooreMachine;
+import net.automatalib.graphs.Graph;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalConstruction;
+import net.automatalib.ts.transout.MooreTransitionSystem;
+import net.automatalib.words.Word;
+
+/**
+ * Incrementally builds an (acyclic) Moore machine, from a set of input and corresponding output words.
+ * <p>
+ * As for {@link MooreMachine}s, the output word for an input word of length {@code n} consists of the outputs of the
+ * {@code n} states reached by the non-empty prefixes of the input word. Hence, every state of the construction (except
+ * for the initial one, whose output is never observed) stores exactly one output symbol.
+ *
+ * @param <I>
+ *         input symbol class
+ * @param <O>
+ *         output symbol class
+ */
+public interface IncrementalMooreBuilder<I, O> extends IncrementalConstruction<MooreMachine<?, I, ?, O>, I> {
+
+    Word<O> lookup(Word<? extends I> inputWord);
+
+    /**
+     * Retrieves the output word for the given input word. If no definitive information for the input word exists, the
+     * output for the longest known prefix will be returned.
+     *
+     * @param inputWord
+     *         the input word
+     * @param output
+     *         a list for storing the output word
+     *
+     * @return <tt>true</tt> if the information contained was complete (in this case, <code>inputWord.length() ==
+     * output.size()</code> will hold), <tt>false</tt> otherwise.
+     */
+    boolean lookup(Word<? extends I> inputWord, List<? super O> output);
+
+    /**
+     * Incorporates a pair of input/output words into the stored information.
+     *
+     * @param inputWord
+     *         the input word
+     * @param outputWord
+     *         the corresponding output word
+     *
+     * @throws ConflictException
+     *         if this information conflicts with information already stored
+     */
+    void insert(Word<? extends I> inputWord, Word<? extends O> outputWord) throws ConflictException;
+
+    @Override
+    GraphView<I, O, ?, ?> asGraph();
+
+    @Override
+    MooreTransitionSystem<?, I, ?, O> asTransitionSystem();
+
+    interface GraphView<I, O, N, E> extends Graph<N, E> {
+
+        @Nullable
+        I getInputSymbol(@Nonnull E edge);
+
+        @Nullable
+        O getOutputSymbol(@Nonnull N node);
+
+        @Nonnull
+        N getInitialNode();
+    }
+}
@@ -0,0 +1,651 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore.dag;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton.FullIntAbstraction;
+import net.automatalib.automata.transout.MooreMachine;
+import net.automatalib.commons.util.IntDisjointSets;
+import net.automatalib.commons.util.UnionFind;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.moore.AbstractIncrementalMooreBuilder;
+import net.automatalib.ts.transout.MooreTransitionSystem;
+import net.automatalib.visualization.VisualizationHelper;
+import net.automatalib.visualization.helper.DelegateVisualizationHelper;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Incrementally builds an (acyclic) Moore machine, from a set of input and corresponding output words. Each state
+ * stores its own output, which is part of its signature. The output of the initial state is never observed (the
+ * output word of an input word consists of the outputs of the states reached by its non-empty prefixes), and hence
+ * is {@code null}.
+ *
+ * @param <I>
+ *         input symbol class
+ * @param <O>
+ *         output symbol class
+ */
+public class IncrementalMooreDAGBuilder<I, O> extends AbstractIncrementalMooreBuilder<I, O> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<StateSignature, State> register = new HashMap<>();
+    private final int alphabetSize;
+    private final State init;
+
+    private int numStateIds;
+    private int[] freeStateIds = new int[INITIAL_CAPACITY];
+    private int numFreeStateIds;
+
+    /**
+     * Constructor.
+     *
+     * @param inputAlphabet
+     *         the input alphabet to use
+     */
+    public IncrementalMooreDAGBuilder(Alphabet<I> inputAlphabet) {
+        super(inputAlphabet);
+        this.alphabetSize = inputAlphabet.size();
+        StateSignature initSig = new StateSignature(alphabetSize, null);
+        this.init = new State(initSig);
+        assignId(init);
+        register.put(null, init);
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        State s = getState(word);
+        return (s != null);
+    }
+
+    /**
+     * Retrieves the (internal) state reached by the given input word, or <tt>null</tt> if no information about the
+     * input word is present.
+     *
+     * @param word
+     *         the input word
+     *
+     * @return the corresponding state
+     */
+    private State getState(Word<? extends I> word) {
+        State s = init;
+
+        for (I sym : word) {
+            int idx = inputAlphabet.getSymbolIndex(sym);
+            s = s.getSuccessor(idx);
+            if (s == null) {
+                break;
+            }
+        }
+        return s;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean lookup(Word<? extends I> word, List<? super O> output) {
+        State curr = init;
+        for (I sym : word) {
+            int idx = inputAlphabet.getSymbolIndex(sym);
+            State succ = curr.getSuccessor(idx);
+            if (succ == null) {
+                return false;
+            }
+            output.add((O) succ.getOutput());
+            curr = succ;
+        }
+
+        return true;
+    }
+
+    @Override
+    public void insert(Word<? extends I> word, Word<? extends O> outputWord) {
+        State curr = init;
+        State conf = null;
+
+        Deque<PathElem> path = new ArrayDeque<>();
+
+        // Find the internal state in the automaton that can be reached by a
+        // maximal prefix of the word (i.e., a path of secured information)
+        Iterator<? extends O> outWordIterator = outputWord.iterator();
+        for (I sym : word) {
+            // During this, store the *first* confluence state (i.e., state with
+            // multiple incoming edges).
+            if (conf == null && curr.isConfluence()) {
+                conf = curr;
+            }
+
+            int idx = inputAlphabet.getSymbolIndex(sym);
+            State succ = curr.getSuccessor(idx);
+            if (succ == null) {
+                break;
+            }
+
+            // If a successor exists for the input symbol, it also has an
+            // output symbol. Check if this matches the provided one, otherwise
+            // there is a conflict
+            O outSym = outWordIterator.next();
+            if (!Objects.equals(outSym, succ.getOutput())) {
+                throw new ConflictException(
+                        "Error inserting " + word.prefix(path.size() + 1) + " / " + outputWord.prefix(path.size() + 1) +
+                        ": Incompatible output symbols: " + outSym + " vs " + succ.getOutput());
+            }
+            path.push(new PathElem(curr, idx));
+            curr = succ;
+        }
+
+        int len = word.length();
+        int prefixLen = path.size();
+
+        // The information was already present - we do not need to continue
+        if (prefixLen == len) {
+            return;
+        }
+
+        State last = curr;
+
+        if (conf != null) {
+            if (conf == last) {
+                conf = null;
+            }
+            last = hiddenClone(last);
+            if (conf == null) {
+                State prev = path.peek().state;
+                if (prev != init) {
+                    updateSignature(prev, path.peek().transIdx, last);
+                } else {
+                    updateInitSignature(path.peek().transIdx, last);
+                }
+            }
+        } else if (last != init) {
+            hide(last);
+        }
+
+        // We then create a suffix path, i.e., a linear sequence of states
+        // corresponding to the suffix (more precisely: the states reached by
+        // the suffix, the first of which is glued to the existing automaton).
+        Word<? extends I> suffix = word.subWord(prefixLen);
+        Word<? extends O> suffixOut = outputWord.subWord(prefixLen);
+
+        // Here we prepare the "gluing" transition
+        I sym = suffix.firstSymbol();
+        int suffTransIdx = inputAlphabet.getSymbolIndex(sym);
+
+        State suffixState = createSuffix(suffix.subWord(1), suffixOut);
+
+        if (last != init) {
+            last = unhide(last, suffTransIdx, suffixState);
+        } else {
+            updateInitSignature(suffTransIdx, suffixState);
+        }
+
+        if (path.isEmpty()) {
+            return;
+        }
+
+        if (conf != null) {
+            // If there was a confluence state, we have to clone all nodes on
+            // the prefix path up to this state, in order to separate it from
+            // other prefixes reaching the confluence state (we do not know
+            // anything about them plus the suffix).
+            PathElem next;
+            do {
+                next = path.pop();
+                State state = next.state;
+                int idx = next.transIdx;
+                state = clone(state, idx, last);
+                last = state;
+            } while (next.state != conf);
+        }
+
+        // Finally, we have to refresh all the signatures, iterating backwards
+        // until the updating becomes stable.
+        while (path.size() > 1) {
+            PathElem next = path.pop();
+            State state = next.state;
+            int idx = next.transIdx;
+            State updated = updateSignature(state, idx, last);
+            if (state == updated) {
+                return;
+            }
+            last = updated;
+        }
+
+        int finalIdx = path.pop().transIdx;
+
+        updateInitSignature(finalIdx, last);
+    }
+
+    private State hiddenClone(State other) {
+        StateSignature sig = other.getSignature().duplicate();
+
+        for (int i = 0; i < alphabetSize; i++) {
+            State succ = sig.successors[i];
+            if (succ != null) {
+                succ.increaseIncoming();
+            }
+        }
+        return new State(sig);
+    }
+
+    /**
+     * Update the signature of a state, changing only the successor state of a single transition index.
+     *
+     * @param state
+     *         the state which's signature to update
+     * @param idx
+     *         the transition index to modify
+     * @param succ
+     *         the new successor state
+     *
+     * @return the resulting state, which can either be the same as the input state (if the new signature is unique), or
+     * the result of merging with another state.
+     */
+    private State updateSignature(State state, int idx, State succ) {
+        StateSignature sig = state.getSignature();
+        if (sig.successors[idx] == succ) {
+            return state;
+        }
+
+        register.remove(sig);
+        if (sig.successors[idx] != null) {
+            sig.successors[idx].decreaseIncoming();
+        }
+        sig.successors[idx] = succ;
+        succ.increaseIncoming();
+        sig.updateHashCode();
+        return replaceOrRegister(state);
+    }
+
+    /**
+     * Update the signature of the initial state. This requires special handling, as the initial state is not stored in
+     * the register (since it can never legally act as a predecessor).
+     *
+     * @param idx
+     *         the transition index being changed
+     * @param succ
+     *         the new successor state
+     */
+    private void updateInitSignature(int idx, State succ) {
+        StateSignature sig = init.getSignature();
+        State oldSucc = sig.successors[idx];
+        if (oldSucc == succ) {
+            return;
+        }
+        if (oldSucc != null) {
+            oldSucc.decreaseIncoming();
+        }
+        sig.successors[idx] = succ;
+        succ.increaseIncoming();
+    }
+
+    private void hide(State state) {
+        assert state != init;
+        StateSignature sig = state.getSignature();
+
+        register.remove(sig);
+    }
+
+    /**
+     * Creates the linear sequence of states reached by the given suffix. The first state of this sequence (which is
+     * returned) is the one reached by the gluing transition, i.e., it is labeled with the first symbol of the output
+     * word, whereas the input word lacks the symbol of the gluing transition.
+     */
+    private State createSuffix(Word<? extends I> suffix, Word<? extends O> suffixOut) {
+        int len = suffix.length();
+        StateSignature sig = new StateSignature(alphabetSize, suffixOut.getSymbol(len));
+        sig.updateHashCode();
+        State last = replaceOrRegister(sig);
+
+        for (int i = len - 1; i >= 0; i--) {
+            sig = new StateSignature(alphabetSize, suffixOut.getSymbol(i));
+            I sym = suffix.getSymbol(i);
+            int idx = inputAlphabet.getSymbolIndex(sym);
+            sig.successors[idx] = last;
+            sig.updateHashCode();
+            last = replaceOrRegister(sig);
+        }
+
+        return last;
+    }
+
+    private State unhide(State state, int idx, State succ) {
+        StateSignature sig = state.getSignature();
+        State prevSucc = sig.successors[idx];
+        if (prevSucc != null) {
+            prevSucc.decreaseIncoming();
+        }
+        sig.successors[idx] = succ;
+        if (succ != null) {
+            succ.increaseIncoming();
+        }
+        sig.updateHashCode();
+        return replaceOrRegister(state);
+    }
+
+    private State clone(State other, int idx, State succ) {
+        StateSignature sig = other.getSignature();
+        if (sig.successors[idx] == succ) {
+            return other;
+        }
+        sig = sig.duplicate();
+        sig.successors[idx] = succ;
+        sig.updateHashCode();
+        return replaceOrRegister(sig);
+    }
+
+    private State replaceOrRegister(State state) {
+        StateSignature sig = state.getSignature();
+        State other = register.get(sig);
+        if (other != null) {
+            if (state != other) {
+                for (int i = 0; i < sig.successors.length; i++) {
+                    State succ = sig.successors[i];
+                    if (succ != null) {
+                        succ.decreaseIncoming();
+                    }
+                }
+                releaseId(state);
+            }
+            return other;
+        }
+
+        register.put(sig, state);
+        if (state.getId() == State.NO_ID) {
+            assignId(state);
+        }
+        return state;
+    }
+
+    private State replaceOrRegister(StateSignature sig) {
+        State state = register.get(sig);
+        if (state != null) {
+            return state;
+        }
+
+        state = new State(sig);
+        register.put(sig, state);
+        assignId(state);
+        for (int i = 0; i < sig.successors.length; i++) {
+            State succ = sig.successors[i];
+            if (succ != null) {
+                succ.increaseIncoming();
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Assigns an id to a newly registered state, preferring ids of states that have been removed from the DAG.
+     */
+    private void assignId(State state) {
+        state.setId((numFreeStateIds > 0) ? freeStateIds[--numFreeStateIds] : numStateIds++);
+    }
+
+    /**
+     * Releases the id of a state that has been merged with an equivalent state, and hence is not part of the DAG
+     * anymore.
+     */
+    private void releaseId(State state) {
+        final int id = state.getId();
+        if (id == State.NO_ID) {
+            return;
+        }
+        if (numFreeStateIds == freeStateIds.length) {
+            freeStateIds = Arrays.copyOf(freeStateIds, 2 * freeStateIds.length);
+        }
+        freeStateIds[numFreeStateIds++] = id;
+        state.setId(State.NO_ID);
+    }
+
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Override
+    public AutomatonView asTransitionSystem() {
+        return new AutomatonView();
+    }
+
+    @Override
+    public Word<I> findSeparatingWord(MooreMachine<?, I, ?, O> target,
+                                      Collection<? extends I> inputs,
+                                      boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    /**
+     * Computes a separating word by a breadth-first search over the product of this DAG and the integer abstraction of
+     * the target, merging equivalent pairs of states in a union-find structure. States of this DAG are identified by
+     * their {@link State#getId() ids}, target states by their integer representation. The queue of the search is
+     * stored in (growing) arrays, which also encode the search tree for reconstructing the separating word.
+     */
+    @SuppressWarnings("unchecked")
+    private <S, T> Word<I> doFindSeparatingWord(MooreMachine<S, I, T, O> moore,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        final List<I> symbols = new ArrayList<>(inputs);
+        final int numInputs = symbols.size();
+        final FullIntAbstraction<T, O, Void> abs = (inputs instanceof Alphabet) ?
+                moore.fullIntAbstraction((Alphabet<I>) inputs) :
+                moore.fullIntAbstraction(numInputs, symbols::get);
+
+        final int init2 = abs.getIntInitialState();
+
+        if (init2 < 0) {
+            return omitUndefined ? null : Word.epsilon();
+        }
+
+        final int[] inputIndices = new int[numInputs];
+        for (int i = 0; i < numInputs; i++) {
+            inputIndices[i] = inputAlphabet.getSymbolIndex(symbols.get(i));
+        }
+
+        final int thisStates = numStateIds;
+        final IntDisjointSets uf = new UnionFind(thisStates + abs.size());
+        uf.link(init.getId(), init2 + thisStates);
+
+        State[] queueStates1 = new State[INITIAL_CAPACITY];
+        int[] queueStates2 = new int[INITIAL_CAPACITY];
+        int[] queueParents = new int[INITIAL_CAPACITY];
+        int[] queueInputs = new int[INITIAL_CAPACITY];
+        int queueSize = 1;
+
+        queueStates1[0] = init;
+        queueStates2[0] = init2;
+        queueParents[0] = -1;
+
+        for (int current = 0; current < queueSize; current++) {
+            final State state1 = queueStates1[current];
+            final int state2 = queueStates2[current];
+
+            for (int i = 0; i < numInputs; i++) {
+                final State succ1 = state1.getSuccessor(inputIndices[i]);
+                if (succ1 == null) {
+                    continue;
+                }
+
+                final int succ2 = abs.getSuccessor(state2, i);
+                if (succ2 < 0) {
+                    if (omitUndefined) {
+                        continue;
+                    }
+                    return buildWord(symbols, queueParents, queueInputs, current, i);
+                }
+
+                if (!Objects.equals(succ1.getOutput(), abs.getStateProperty(succ2))) {
+                    return buildWord(symbols, queueParents, queueInputs, current, i);
+                }
+
+                final int r1 = uf.find(succ1.getId()), r2 = uf.find(succ2 + thisStates);
+
+                if (r1 == r2) {
+                    continue;
+                }
+
+                uf.link(r1, r2);
+
+                if (queueSize == queueStates1.length) {
+                    final int newCapacity = 2 * queueSize;
+                    queueStates1 = Arrays.copyOf(queueStates1, newCapacity);
+                    queueStates2 = Arrays.copyOf(queueStates2, newCapacity);
+                    queueParents = Arrays.copyOf(queueParents, newCapacity);
+                    queueInputs = Arrays.copyOf(queueInputs, newCapacity);
+                }
+                queueStates1[queueSize] = succ1;
+                queueStates2[queueSize] = succ2;
+                queueParents[queueSize] = current;
+                queueInputs[queueSize] = i;
+                queueSize++;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reconstructs the word leading to the given entry of the search queue, followed by the given last input.
+     */
+    private static <I> Word<I> buildWord(List<I> symbols, int[] parents, int[] inputs, int entry, int lastInput) {
+        int length = 1;
+        for (int curr = entry; parents[curr] >= 0; curr = parents[curr]) {
+            length++;
+        }
+
+        final WordBuilder<I> wb = new WordBuilder<>(null, length);
+        int index = length;
+        wb.setSymbol(--index, symbols.get(lastInput));
+        for (int curr = entry; parents[curr] >= 0; curr = parents[curr]) {
+            wb.setSymbol(--index, symbols.get(inputs[curr]));
+        }
+
+        return wb.toWord();
+    }
+
+    public class GraphView extends AbstractGraphView<I, O, State, TransitionRecord> {
+
+        @Override
+        public Collection<TransitionRecord> getOutgoingEdges(State node) {
+            List<TransitionRecord> edges = new ArrayList<>();
+            for (int i = 0; i < alphabetSize; i++) {
+                if (node.getSuccessor(i) != null) {
+                    edges.add(new TransitionRecord(node, i));
+                }
+            }
+            return edges;
+        }
+
+        @Override
+        public State getTarget(TransitionRecord edge) {
+            return edge.source.getSuccessor(edge.transIdx);
+        }
+
+        @Override
+        public Collection<State> getNodes() {
+            return Collections.unmodifiableCollection(register.values());
+        }
+
+        @Override
+        @Nullable
+        public I getInputSymbol(TransitionRecord edge) {
+            return inputAlphabet.getSymbol(edge.transIdx);
+        }
+
+        @Override
+        @Nullable
+        @SuppressWarnings("unchecked")
+        public O getOutputSymbol(State node) {
+            return (O) node.getOutput();
+        }
+
+        @Override
+        @Nonnull
+        public State getInitialNode() {
+            return init;
+        }
+
+        @Override
+        public VisualizationHelper<State, TransitionRecord> getVisualizationHelper() {
+            return new DelegateVisualizationHelper<State, TransitionRecord>(super.getVisualizationHelper()) {
+
+                private int id;
+
+                @Override
+                public boolean getNodeProperties(State node, Map<String, String> properties) {
+                    if (!super.getNodeProperties(node, properties)) {
+                        return false;
+                    }
+                    String label = "n" + (id++);
+                    if (node != init) {
+                        label += " / " + node.getOutput();
+                    }
+                    properties.put(NodeAttrs.LABEL, label);
+                    if (node.isConfluence()) {
+                        properties.put(NodeAttrs.SHAPE, NodeShapes.OCTAGON);
+                    }
+                    return true;
+                }
+
+            };
+        }
+
+    }
+
+    public class AutomatonView implements MooreTransitionSystem<State, I, TransitionRecord, O> {
+
+        @Override
+        public State getSuccessor(TransitionRecord transition) {
+            State src = transition.source;
+            return src.getSuccessor(transition.transIdx);
+        }
+
+        @Override
+        public State getInitialState() {
+            return init;
+        }
+
+        @Override
+        public TransitionRecord getTransition(State state, I input) {
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+            if (state.getSuccessor(inputIdx) == null) {
+                return null;
+            }
+            return new TransitionRecord(state, inputIdx);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public O getStateOutput(State state) {
+            return (O) state.getOutput();
+        }
+    }
+}
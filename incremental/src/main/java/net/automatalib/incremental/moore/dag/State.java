@@ -0,0 +1,74 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore.dag;
+
+public final class State {
+
+    /**
+     * The id of states that are not registered.
+     */
+    static final int NO_ID = -1;
+
+    private final StateSignature signature;
+    private int numIncoming;
+    private int id = NO_ID;
+
+    public State(StateSignature signature) {
+        this.signature = signature;
+    }
+
+    public void increaseIncoming() {
+        numIncoming++;
+    }
+
+    public void decreaseIncoming() {
+        numIncoming--;
+    }
+
+    public int getNumIncoming() {
+        return numIncoming;
+    }
+
+    public boolean isConfluence() {
+        return (numIncoming > 1);
+    }
+
+    public State getSuccessor(int idx) {
+        return signature.successors[idx];
+    }
+
+    public Object getOutput() {
+        return signature.output;
+    }
+
+    /**
+     * Retrieves the id of this state. Ids are assigned upon registration, remain stable as long as the state is part
+     * of the DAG, and are reused for other states afterwards.
+     *
+     * @return the id of this state, or {@code -1} if the state has not been registered yet
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
+    public StateSignature getSignature() {
+        return signature;
+    }
+}
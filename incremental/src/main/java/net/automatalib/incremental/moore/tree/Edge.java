@@ -0,0 +1,44 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore.tree;
+
+/**
+ * An edge of the {@link IncrementalMooreTreeBuilder.GraphView graph view}, i.e., a target node annotated with the
+ * input symbol leading to it.
+ *
+ * @param <I>
+ *         input symbol class
+ * @param <O>
+ *         output symbol class
+ */
+final class Edge<I, O> {
+
+    private final I input;
+    private final Node<O> target;
+
+    Edge(I input, Node<O> target) {
+        this.input = input;
+        this.target = target;
+    }
+
+    public I getInput() {
+        return input;
+    }
+
+    public Node<O> getTarget() {
+        return target;
+    }
+}
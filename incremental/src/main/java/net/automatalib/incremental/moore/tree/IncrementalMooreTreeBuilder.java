@@ -0,0 +1,284 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.collect.Iterators;
+import net.automatalib.automata.transout.MooreMachine;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.moore.AbstractIncrementalMooreBuilder;
+import net.automatalib.ts.transout.MooreTransitionSystem;
+import net.automatalib.util.graphs.traversal.GraphTraversal;
+import net.automatalib.visualization.VisualizationHelper;
+import net.automatalib.visualization.helper.DelegateVisualizationHelper;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Incrementally builds a tree-shaped Moore machine, from a set of input and corresponding output words. Each node of
+ * the tree stores the output of the state it represents.
+ *
+ * @param <I>
+ *         input symbol class
+ * @param <O>
+ *         output symbol class
+ */
+public class IncrementalMooreTreeBuilder<I, O> extends AbstractIncrementalMooreBuilder<I, O> {
+
+    private final Node<O> root;
+
+    public IncrementalMooreTreeBuilder(Alphabet<I> inputAlphabet) {
+        super(inputAlphabet);
+        this.root = new Node<>(null, inputAlphabet.size());
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> word, List<? super O> output) {
+        Node<O> curr = root;
+
+        for (I sym : word) {
+            int symIdx = inputAlphabet.getSymbolIndex(sym);
+            Node<O> succ = curr.getSuccessor(symIdx);
+            if (succ == null) {
+                return false;
+            }
+            output.add(succ.getOutput());
+            curr = succ;
+        }
+
+        return true;
+    }
+
+    @Override
+    public void insert(Word<? extends I> input, Word<? extends O> outputWord) throws ConflictException {
+        Node<O> curr = root;
+
+        Iterator<? extends O> outputIt = outputWord.iterator();
+        for (I sym : input) {
+            int symIdx = inputAlphabet.getSymbolIndex(sym);
+            O out = outputIt.next();
+            Node<O> succ = curr.getSuccessor(symIdx);
+            if (succ == null) {
+                succ = new Node<>(out, inputAlphabet.size());
+                curr.setSuccessor(symIdx, succ);
+            } else if (!Objects.equals(out, succ.getOutput())) {
+                throw new ConflictException(
+                        "Error inserting " + input + " / " + outputWord + ": Incompatible output symbols: " + out +
+                        " vs " + succ.getOutput());
+            }
+            curr = succ;
+        }
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        Node<O> curr = root;
+
+        Iterator<? extends I> symIt = word.iterator();
+        while (symIt.hasNext() && curr != null) {
+            int symIdx = inputAlphabet.getSymbolIndex(symIt.next());
+            curr = curr.getSuccessor(symIdx);
+        }
+        return (curr != null);
+    }
+
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Override
+    public TransitionSystemView asTransitionSystem() {
+        return new TransitionSystemView();
+    }
+
+    @Override
+    public Word<I> findSeparatingWord(MooreMachine<?, I, ?, O> target,
+                                      Collection<? extends I> inputs,
+                                      boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S, T> Word<I> doFindSeparatingWord(MooreMachine<S, I, T, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        S init = target.getInitialState();
+        if (init == null) {
+            return omitUndefined ? null : Word.epsilon();
+        }
+
+        Deque<Record<S, I, O>> dfsStack = new ArrayDeque<>();
+
+        dfsStack.push(new Record<>(init, root, null, inputs.iterator()));
+
+        while (!dfsStack.isEmpty()) {
+            Record<S, I, O> rec = dfsStack.peek();
+            if (!rec.inputIt.hasNext()) {
+                dfsStack.pop();
+                continue;
+            }
+            I input = rec.inputIt.next();
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+
+            Node<O> succ = rec.treeNode.getSuccessor(inputIdx);
+            if (succ == null) {
+                continue;
+            }
+
+            T trans = target.getTransition(rec.automatonState, input);
+            if (omitUndefined && trans == null) {
+                continue;
+            }
+
+            S targetSucc = (trans == null) ? null : target.getSuccessor(trans);
+            if (targetSucc == null || !Objects.equals(target.getStateOutput(targetSucc), succ.getOutput())) {
+
+                WordBuilder<I> wb = new WordBuilder<>(dfsStack.size());
+                wb.append(input);
+
+                dfsStack.pop();
+                while (rec.incomingInput != null || !dfsStack.isEmpty()) {
+                    wb.append(rec.incomingInput);
+                    rec = dfsStack.pop();
+                }
+                return wb.reverse().toWord();
+            }
+
+            dfsStack.push(new Record<>(targetSucc, succ, input, inputs.iterator()));
+        }
+
+        return null;
+    }
+
+    private static final class Record<S, I, O> {
+
+        private final S automatonState;
+        private final Node<O> treeNode;
+        private final I incomingInput;
+        private final Iterator<? extends I> inputIt;
+
+        Record(S automatonState, Node<O> treeNode, I incomingInput, Iterator<? extends I> inputIt) {
+            this.automatonState = automatonState;
+            this.treeNode = treeNode;
+            this.inputIt = inputIt;
+            this.incomingInput = incomingInput;
+        }
+    }
+
+    public class GraphView extends AbstractGraphView<I, O, Node<O>, Edge<I, O>> {
+
+        @Override
+        public Collection<Node<O>> getNodes() {
+            List<Node<O>> result = new ArrayList<>();
+            Iterators.addAll(result, GraphTraversal.dfIterator(this, Collections.singleton(root)));
+            return result;
+        }
+
+        @Override
+        public Collection<Edge<I, O>> getOutgoingEdges(Node<O> node) {
+            List<Edge<I, O>> result = new ArrayList<>();
+            for (int i = 0; i < inputAlphabet.size(); i++) {
+                Node<O> succ = node.getSuccessor(i);
+                if (succ != null) {
+                    result.add(new Edge<>(inputAlphabet.getSymbol(i), succ));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Node<O> getTarget(Edge<I, O> edge) {
+            return edge.getTarget();
+        }
+
+        @Override
+        @Nullable
+        public I getInputSymbol(Edge<I, O> edge) {
+            return edge.getInput();
+        }
+
+        @Override
+        @Nullable
+        public O getOutputSymbol(Node<O> node) {
+            return node.getOutput();
+        }
+
+        @Override
+        @Nonnull
+        public Node<O> getInitialNode() {
+            return root;
+        }
+
+        @Override
+        public VisualizationHelper<Node<O>, Edge<I, O>> getVisualizationHelper() {
+            return new DelegateVisualizationHelper<Node<O>, Edge<I, O>>(super.getVisualizationHelper()) {
+
+                @Override
+                public boolean getNodeProperties(Node<O> node, Map<String, String> properties) {
+                    if (!super.getNodeProperties(node, properties)) {
+                        return false;
+                    }
+                    if (node == root) {
+                        properties.put(NodeAttrs.LABEL, "");
+                    }
+                    return true;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * A transition system view of the tree. As every node has (at most) one incoming transition, transitions are
+     * represented by their target nodes.
+     */
+    public class TransitionSystemView implements MooreTransitionSystem<Node<O>, I, Node<O>, O> {
+
+        @Override
+        public Node<O> getTransition(Node<O> state, I input) {
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+            return state.getSuccessor(inputIdx);
+        }
+
+        @Override
+        public Node<O> getSuccessor(Node<O> transition) {
+            return transition;
+        }
+
+        @Override
+        public Node<O> getInitialState() {
+            return root;
+        }
+
+        @Override
+        public O getStateOutput(Node<O> state) {
+            return state.getOutput();
+        }
+    }
+}
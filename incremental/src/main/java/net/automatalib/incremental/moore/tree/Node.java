@@ -0,0 +1,46 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore.tree;
+
+/**
+ * A node of the tree, i.e., a state of the Moore machine along with its output.
+ *
+ * @param <O>
+ *         output symbol class
+ */
+final class Node<O> {
+
+    private final O output;
+    private final Node<O>[] successors;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Node(O output, int alphabetSize) {
+        this.output = output;
+        this.successors = new Node[alphabetSize];
+    }
+
+    public O getOutput() {
+        return output;
+    }
+
+    public Node<O> getSuccessor(int idx) {
+        return successors[idx];
+    }
+
+    public void setSuccessor(int idx, Node<O> succ) {
+        successors[idx] = succ;
+    }
+}
@@ -15,6 +15,8 @@
  */
 package net.automatalib.incremental.dfa;
 
+import java.util.Arrays;
+
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.incremental.ConflictException;
 import net.automatalib.words.Alphabet;
@@ -129,6 +131,11 @@ public abstract class AbstractIncrementalDFABuilderTest {
         Assert.assertNull(sepWord);
         sepWord = incDfa.findSeparatingWord(testDfa, TEST_ALPHABET, false);
         Assert.assertEquals(sepWord, Word.fromString("acb"));
+        // inputs other than the alphabet
+        sepWord = incDfa.findSeparatingWord(testDfa, Arrays.asList('c', 'b', 'a'), false);
+        Assert.assertEquals(sepWord, Word.fromString("acb"));
+        sepWord = incDfa.findSeparatingWord(testDfa, Arrays.asList('a', 'b'), false);
+        Assert.assertNull(sepWord);
 
         testDfa.setAccepting(s3, false);
         sepWord = incDfa.findSeparatingWord(testDfa, TEST_ALPHABET, true);
@@ -0,0 +1,83 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa;
+
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.incremental.dfa.tree.BoundedIncrementalDFATreeBuilder;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class BoundedIncrementalDFATreeBuilderTest extends AbstractIncrementalDFABuilderTest {
+
+    @Override
+    protected <I> IncrementalDFABuilder<I> createIncrementalDFABuilder(Alphabet<I> alphabet) {
+        return new BoundedIncrementalDFATreeBuilder<>(alphabet, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testEviction() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final CompactDFA<Integer> model = RandomAutomata.randomDFA(random, 10, alphabet);
+        final BoundedIncrementalDFATreeBuilder<Integer> builder = new BoundedIncrementalDFATreeBuilder<>(alphabet, 100);
+
+        final Word<Integer> hotWord = Word.fromSymbols(0, 1, 2, 0, 1, 2);
+        builder.insert(hotWord, model.accepts(hotWord));
+
+        int numLookups = 0;
+
+        for (int i = 0; i < 1000; i++) {
+            final Word<Integer> word = randomWord(random, alphabet, random.nextInt(10));
+
+            final Acceptance acc = builder.lookup(word);
+            if (acc != Acceptance.DONT_KNOW) {
+                Assert.assertEquals(acc, Acceptance.fromBoolean(model.accepts(word)));
+            }
+            numLookups++;
+
+            builder.insert(word, model.accepts(word));
+            Assert.assertTrue(builder.hasDefinitiveInformation(word));
+            Assert.assertTrue(builder.getNumNodes() <= builder.getMaxNodes());
+            Assert.assertEquals(builder.asGraph().size(), builder.getNumNodes());
+
+            // a frequently used word is never evicted
+            Assert.assertEquals(builder.lookup(hotWord), Acceptance.fromBoolean(model.accepts(hotWord)));
+            numLookups++;
+        }
+
+        Assert.assertTrue(builder.getNumEvictions() > 0);
+        Assert.assertTrue(builder.getNumEvictedNodes() >= builder.getNumEvictions());
+        Assert.assertEquals(builder.getNumHits() + builder.getNumMisses(), numLookups);
+        Assert.assertTrue(builder.getNumMisses() > 0);
+        Assert.assertNull(builder.findSeparatingWord(model, alphabet, true));
+    }
+
+    private static Word<Integer> randomWord(Random random, Alphabet<Integer> alphabet, int length) {
+        final WordBuilder<Integer> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+        }
+        return wb.toWord();
+    }
+}
@@ -15,8 +15,19 @@
  */
 package net.automatalib.incremental.dfa;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
 import net.automatalib.incremental.dfa.dag.IncrementalDFADAGBuilder;
+import net.automatalib.incremental.dfa.dag.IncrementalPCDFADAGBuilder;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 @Test
@@ -27,4 +38,64 @@ public class IncrementalDFADAGBuilderTest extends AbstractIncrementalDFABuilderT
         return new IncrementalDFADAGBuilder<>(alphabet);
     }
 
+    @Test
+    public void testSnapshot() throws IOException {
+        final Random random = new Random(42);
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final IncrementalDFADAGBuilder<Character> builder = new IncrementalDFADAGBuilder<>(alphabet);
+
+        for (int i = 0; i < 300; i++) {
+            final Word<Character> word = randomWord(random, alphabet);
+            builder.insert(word, accepts(word));
+        }
+
+        final Path file = Files.createTempFile("dfa", ".dag");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                builder.writeSnapshot(out);
+            }
+
+            final IncrementalDFADAGBuilder<Character> restored = IncrementalDFADAGBuilder.readSnapshot(file, alphabet);
+            Assert.assertEquals(restored.asGraph().size(), builder.asGraph().size());
+
+            for (int i = 0; i < 300; i++) {
+                final Word<Character> word = randomWord(random, alphabet);
+                Assert.assertEquals(restored.lookup(word), builder.lookup(word));
+            }
+
+            // the restored builder can be extended further
+            for (int i = 0; i < 100; i++) {
+                final Word<Character> word = randomWord(random, alphabet);
+                builder.insert(word, accepts(word));
+                restored.insert(word, accepts(word));
+                Assert.assertEquals(restored.asGraph().size(), builder.asGraph().size());
+            }
+
+            try {
+                IncrementalPCDFADAGBuilder.readSnapshot(file, alphabet);
+                Assert.fail("Expected a mismatching snapshot type");
+            } catch (IOException expected) {
+                // expected
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static boolean accepts(Word<Character> word) {
+        int balance = 0;
+        for (Character c : word) {
+            balance += (c == 'a') ? 1 : (c == 'b') ? -1 : 0;
+        }
+        return balance % 3 == 0;
+    }
+
+    private static Word<Character> randomWord(Random random, Alphabet<Character> alphabet) {
+        final int length = random.nextInt(10);
+        final WordBuilder<Character> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+        }
+        return wb.toWord();
+    }
 }
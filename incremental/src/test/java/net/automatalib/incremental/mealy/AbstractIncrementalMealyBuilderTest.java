@@ -16,9 +16,13 @@
 package net.automatalib.incremental.mealy;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 import net.automatalib.automata.transout.impl.compact.CompactMealy;
 import net.automatalib.incremental.ConflictException;
+import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
 import net.automatalib.words.WordBuilder;
@@ -132,6 +136,53 @@ public abstract class AbstractIncrementalMealyBuilderTest {
         incMealy.insert(W_1, W_3_O);
     }
 
+    @Test
+    public void testBatchOperations() {
+        final Random random = new Random(42);
+        final CompactMealy<Character, Character> model =
+                RandomAutomata.randomMealy(random, 10, TEST_ALPHABET, Alphabets.characters('x', 'z'));
+        final IncrementalMealyBuilder<Character, Character> builder = createIncrementalMealyBuilder(TEST_ALPHABET);
+
+        final List<Word<Character>> inputs = new ArrayList<>();
+        final List<Word<Character>> outputs = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final WordBuilder<Character> wb = new WordBuilder<>();
+            for (int j = random.nextInt(10); j > 0; j--) {
+                wb.append(TEST_ALPHABET.getSymbol(random.nextInt(TEST_ALPHABET.size())));
+            }
+            inputs.add(wb.toWord());
+            outputs.add(model.computeOutput(wb.toWord()));
+        }
+
+        builder.insertAll(inputs.subList(0, 100), outputs.subList(0, 100));
+        for (int i = 100; i < 150; i++) {
+            builder.insert(inputs.get(i), outputs.get(i));
+        }
+
+        // the batch lookup yields the same (possibly partial) outputs as individual lookups
+        final List<Word<Character>> looked = builder.lookupAll(inputs);
+        Assert.assertEquals(looked.size(), inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            Assert.assertEquals(looked.get(i), builder.lookup(inputs.get(i)));
+            Assert.assertEquals(builder.hasDefinitiveInformation(inputs.get(i)),
+                                looked.get(i).length() == inputs.get(i).length());
+        }
+
+        builder.insertAll(inputs.subList(150, 200), outputs.subList(150, 200));
+        Assert.assertEquals(builder.lookupAll(inputs), outputs);
+        Assert.assertNull(builder.findSeparatingWord(model, TEST_ALPHABET, true));
+
+        // conflicts within a batch are detected
+        final Word<Character> conflicting = Word.fromString("abc");
+        try {
+            builder.insertAll(Arrays.asList(conflicting, conflicting), Arrays.asList(W_1_O, W_3_O));
+            Assert.fail("Expected a conflict");
+        } catch (ConflictException expected) {
+            // the builder remains in a consistent state
+            Assert.assertEquals(builder.lookupAll(inputs), outputs);
+        }
+    }
+
     @Test(dependsOnMethods = "testLookup")
     public void testFindSeparatingWord() {
         CompactMealy<Character, Character> testMealy = new CompactMealy<>(TEST_ALPHABET);
@@ -154,6 +205,11 @@ public abstract class AbstractIncrementalMealyBuilderTest {
         Assert.assertNull(sepWord);
         sepWord = incMealy.findSeparatingWord(testMealy, TEST_ALPHABET, false);
         Assert.assertEquals(sepWord, Word.fromString("acb"));
+        // inputs other than the alphabet
+        sepWord = incMealy.findSeparatingWord(testMealy, Arrays.asList('c', 'b', 'a'), false);
+        Assert.assertEquals(sepWord, Word.fromString("acb"));
+        sepWord = incMealy.findSeparatingWord(testMealy, Arrays.asList('a', 'c'), false);
+        Assert.assertNull(sepWord);
 
         testMealy.addTransition(s5, 'b', s4, 'u');
         sepWord = incMealy.findSeparatingWord(testMealy, TEST_ALPHABET, true);
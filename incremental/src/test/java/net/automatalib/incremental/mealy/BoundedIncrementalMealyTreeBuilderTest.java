@@ -0,0 +1,101 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy;
+
+import java.util.Random;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.incremental.mealy.tree.BoundedIncrementalMealyTreeBuilder;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class BoundedIncrementalMealyTreeBuilderTest extends AbstractIncrementalMealyBuilderTest {
+
+    @Override
+    protected <I, O> IncrementalMealyBuilder<I, O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
+        return new BoundedIncrementalMealyTreeBuilder<>(alphabet, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testEviction() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final CompactMealy<Integer, Character> model =
+                RandomAutomata.randomMealy(random, 10, alphabet, Alphabets.characters('x', 'y'));
+        final BoundedIncrementalMealyTreeBuilder<Integer, Character> builder =
+                new BoundedIncrementalMealyTreeBuilder<>(alphabet, 100);
+
+        final Word<Integer> hotWord = Word.fromSymbols(0, 1, 2, 0, 1, 2);
+        builder.insert(hotWord, model.computeOutput(hotWord));
+
+        final WordBuilder<Character> output = new WordBuilder<>();
+        int numLookups = 0;
+
+        for (int i = 0; i < 1000; i++) {
+            final Word<Integer> word = randomWord(random, alphabet, random.nextInt(10));
+
+            if (builder.lookup(word, output)) {
+                Assert.assertEquals(output.toWord(), model.computeOutput(word));
+            }
+            output.clear();
+            numLookups++;
+
+            builder.insert(word, model.computeOutput(word));
+            Assert.assertTrue(builder.hasDefinitiveInformation(word));
+            Assert.assertTrue(builder.getNumNodes() <= builder.getMaxNodes());
+            Assert.assertEquals(builder.asGraph().size(), builder.getNumNodes());
+
+            // a frequently used word is never evicted
+            Assert.assertTrue(builder.lookup(hotWord, output));
+            output.clear();
+            numLookups++;
+        }
+
+        Assert.assertTrue(builder.getNumEvictions() > 0);
+        Assert.assertTrue(builder.getNumEvictedNodes() >= builder.getNumEvictions());
+        Assert.assertEquals(builder.getNumHits() + builder.getNumMisses(), numLookups);
+        Assert.assertTrue(builder.getNumMisses() > 0);
+        Assert.assertNull(builder.findSeparatingWord(model, alphabet, true));
+    }
+
+    @Test
+    public void testSeparatingWordOfLengthOne() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'a');
+        final IncrementalMealyBuilder<Character, Integer> builder =
+                new BoundedIncrementalMealyTreeBuilder<>(alphabet, 100);
+        builder.insert(Word.fromSymbols('a'), Word.fromSymbols(2));
+
+        final CompactMealy<Character, Integer> target = new CompactMealy<>(alphabet);
+        final Integer init = target.addInitialState();
+        target.addTransition(init, 'a', init, 1);
+
+        Assert.assertEquals(builder.findSeparatingWord(target, alphabet, false), Word.fromSymbols('a'));
+    }
+
+    private static Word<Integer> randomWord(Random random, Alphabet<Integer> alphabet, int length) {
+        final WordBuilder<Integer> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+        }
+        return wb.toWord();
+    }
+}
@@ -0,0 +1,275 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.dag.CompactIncrementalMealyDAGBuilder;
+import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class CompactIncrementalMealyDAGBuilderTest extends AbstractIncrementalMealyBuilderTest {
+
+    /**
+     * Magic bytes, version, type, alphabet size and number of states.
+     */
+    private static final int OUTPUT_TABLE_OFFSET = 14;
+
+    @Override
+    protected <I, O> IncrementalMealyBuilder<I, O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
+        return new CompactIncrementalMealyDAGBuilder<>(alphabet);
+    }
+
+    @Test
+    public void testAgainstDAGBuilder() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final CompactMealy<Integer, Character> model =
+                RandomAutomata.randomMealy(random, 10, alphabet, Alphabets.characters('x', 'y'));
+
+        final IncrementalMealyBuilder<Integer, Character> expected = new IncrementalMealyDAGBuilder<>(alphabet);
+        final IncrementalMealyBuilder<Integer, Character> actual = createIncrementalMealyBuilder(alphabet);
+
+        for (int i = 0; i < 500; i++) {
+            final Word<Integer> input = randomWord(random, alphabet, random.nextInt(12));
+            final Word<Character> output = model.computeOutput(input);
+            expected.insert(input, output);
+            actual.insert(input, output);
+
+            // both builders maintain the minimal DAG of the inserted words
+            Assert.assertEquals(actual.asGraph().size(), expected.asGraph().size());
+        }
+
+        final WordBuilder<Character> expectedOutput = new WordBuilder<>();
+        final WordBuilder<Character> actualOutput = new WordBuilder<>();
+
+        for (int i = 0; i < 500; i++) {
+            final Word<Integer> input = randomWord(random, alphabet, random.nextInt(12));
+            Assert.assertEquals(actual.lookup(input, actualOutput), expected.lookup(input, expectedOutput));
+            Assert.assertEquals(actualOutput.toWord(), expectedOutput.toWord());
+            expectedOutput.clear();
+            actualOutput.clear();
+        }
+
+        Assert.assertNull(actual.findSeparatingWord(model, alphabet, true));
+        Assert.assertEquals(actual.findSeparatingWord(model, alphabet, false),
+                            expected.findSeparatingWord(model, alphabet, false));
+    }
+
+    @Test
+    public void testInsertAllAgainstDAGBuilder() {
+        final Random random = new Random(1337);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+        final CompactMealy<Integer, Character> model =
+                RandomAutomata.randomMealy(random, 10, alphabet, Alphabets.characters('x', 'y'));
+
+        final IncrementalMealyBuilder<Integer, Character> expected = new IncrementalMealyDAGBuilder<>(alphabet);
+        final IncrementalMealyBuilder<Integer, Character> actual = createIncrementalMealyBuilder(alphabet);
+
+        for (int batch = 0; batch < 20; batch++) {
+            final List<Word<Integer>> inputs = new ArrayList<>();
+            final List<Word<Character>> outputs = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                final Word<Integer> input = randomWord(random, alphabet, random.nextInt(12));
+                inputs.add(input);
+                outputs.add(model.computeOutput(input));
+                expected.insert(input, model.computeOutput(input));
+            }
+
+            // interleave batches with single insertions
+            final Word<Integer> single = randomWord(random, alphabet, random.nextInt(12));
+            expected.insert(single, model.computeOutput(single));
+
+            actual.insertAll(inputs, outputs);
+            actual.insert(single, model.computeOutput(single));
+
+            // both builders maintain the minimal DAG of the inserted words
+            Assert.assertEquals(actual.asGraph().size(), expected.asGraph().size());
+            Assert.assertEquals(actual.lookupAll(inputs), outputs);
+        }
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        final Random random = new Random(7);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final CompactMealy<Integer, Character> model =
+                RandomAutomata.randomMealy(random, 10, alphabet, Alphabets.characters('x', 'z'));
+
+        final CompactIncrementalMealyDAGBuilder<Integer, Character> compact =
+                new CompactIncrementalMealyDAGBuilder<>(alphabet);
+        final IncrementalMealyDAGBuilder<Integer, Character> reference = new IncrementalMealyDAGBuilder<>(alphabet);
+
+        final List<Word<Integer>> inputs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            final Word<Integer> input = randomWord(random, alphabet, random.nextInt(12));
+            inputs.add(input);
+            compact.insert(input, model.computeOutput(input));
+            reference.insert(input, model.computeOutput(input));
+        }
+
+        final List<Word<Integer>> moreInputs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            moreInputs.add(randomWord(random, alphabet, random.nextInt(12)));
+        }
+
+        final Path compactFile = Files.createTempFile("compact", ".dag");
+        final Path referenceFile = Files.createTempFile("reference", ".dag");
+        try {
+            try (OutputStream out = Files.newOutputStream(compactFile)) {
+                compact.writeSnapshot(out);
+            }
+            try (OutputStream out = Files.newOutputStream(referenceFile)) {
+                reference.writeSnapshot(out);
+            }
+
+            // both builders can read the snapshots of each other
+            final List<IncrementalMealyBuilder<Integer, Character>> restored =
+                    Arrays.asList(CompactIncrementalMealyDAGBuilder.readSnapshot(compactFile, alphabet),
+                                  CompactIncrementalMealyDAGBuilder.readSnapshot(referenceFile, alphabet),
+                                  IncrementalMealyDAGBuilder.readSnapshot(compactFile, alphabet),
+                                  IncrementalMealyDAGBuilder.readSnapshot(referenceFile, alphabet));
+
+            for (IncrementalMealyBuilder<Integer, Character> builder : restored) {
+                Assert.assertEquals(builder.asGraph().size(), reference.asGraph().size());
+                Assert.assertEquals(builder.lookupAll(inputs), reference.lookupAll(inputs));
+                Assert.assertEquals(builder.findSeparatingWord(model, alphabet, false),
+                                    reference.findSeparatingWord(model, alphabet, false));
+            }
+
+            // restored builders can be extended further
+            for (Word<Integer> input : moreInputs) {
+                reference.insert(input, model.computeOutput(input));
+                for (IncrementalMealyBuilder<Integer, Character> builder : restored) {
+                    builder.insert(input, model.computeOutput(input));
+                    Assert.assertEquals(builder.asGraph().size(), reference.asGraph().size());
+                }
+            }
+
+            try {
+                CompactIncrementalMealyDAGBuilder.readSnapshot(compactFile, Alphabets.integers(0, 3));
+                Assert.fail("Expected a mismatching alphabet");
+            } catch (IOException expected) {
+                // expected
+            }
+
+            final byte[] bytes = Files.readAllBytes(compactFile);
+            Files.write(compactFile, Arrays.copyOf(bytes, bytes.length - 1));
+            try {
+                CompactIncrementalMealyDAGBuilder.readSnapshot(compactFile, alphabet);
+                Assert.fail("Expected a truncated snapshot");
+            } catch (IOException expected) {
+                // expected
+            }
+        } finally {
+            Files.delete(compactFile);
+            Files.delete(referenceFile);
+        }
+    }
+
+    @Test
+    public void testSnapshotOutputClasses() throws IOException {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'b');
+        final CompactIncrementalMealyDAGBuilder<Character, Date> builder =
+                new CompactIncrementalMealyDAGBuilder<>(alphabet);
+        builder.insert(Word.fromString("ab"), Word.fromSymbols(new Date(0), new Date(1)));
+
+        final Path file = Files.createTempFile("outputs", ".dag");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                builder.writeSnapshot(out);
+            }
+
+            // only explicitly allowed classes are deserialized
+            try {
+                IncrementalMealyDAGBuilder.readSnapshot(file, alphabet);
+                Assert.fail("Expected a rejected output class");
+            } catch (IOException expected) {
+                // expected
+            }
+
+            final IncrementalMealyBuilder<Character, Date> restored =
+                    IncrementalMealyDAGBuilder.readSnapshot(file, alphabet, Collections.singleton(Date.class));
+            Assert.assertEquals(restored.lookup(Word.fromString("ab")), Word.fromSymbols(new Date(0), new Date(1)));
+
+            // the length of the output table is validated before allocating it
+            final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+            bytes.putInt(OUTPUT_TABLE_OFFSET, Integer.MAX_VALUE);
+            Files.write(file, bytes.array());
+            try {
+                CompactIncrementalMealyDAGBuilder.readSnapshot(file, alphabet, Collections.singleton(Date.class));
+                Assert.fail("Expected an invalid output table");
+            } catch (IOException expected) {
+                // expected
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testInsertAllConflictOrder() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'd');
+        final IncrementalMealyBuilder<Character, Character> builder = createIncrementalMealyBuilder(alphabet);
+        builder.insert(Word.fromString("b"), Word.fromString("x"));
+
+        // adjacent pairs are ordered, but the batch as a whole is not
+        final List<Word<Character>> inputs = Arrays.asList(Word.fromString("b"),
+                                                           Word.fromString("c"),
+                                                           Word.fromString("a"),
+                                                           Word.fromString("d"));
+        final List<Word<Character>> outputs = Arrays.asList(Word.fromString("y"),
+                                                            Word.fromString("y"),
+                                                            Word.fromString("y"),
+                                                            Word.fromString("y"));
+        try {
+            builder.insertAll(inputs, outputs);
+            Assert.fail("Expected a conflict");
+        } catch (ConflictException expected) {
+            // only the pairs preceding the conflicting one in lexicographic order have been incorporated
+            Assert.assertTrue(builder.hasDefinitiveInformation(Word.fromString("a")));
+            Assert.assertFalse(builder.hasDefinitiveInformation(Word.fromString("c")));
+            Assert.assertFalse(builder.hasDefinitiveInformation(Word.fromString("d")));
+        }
+    }
+
+    private static Word<Integer> randomWord(Random random, Alphabet<Integer> alphabet, int length) {
+        final WordBuilder<Integer> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+        }
+        return wb.toWord();
+    }
+}
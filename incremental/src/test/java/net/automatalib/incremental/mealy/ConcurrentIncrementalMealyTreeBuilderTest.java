@@ -0,0 +1,159 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.tree.ConcurrentIncrementalMealyTreeBuilder;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class ConcurrentIncrementalMealyTreeBuilderTest extends AbstractIncrementalMealyBuilderTest {
+
+    private static final int NUM_THREADS = 4;
+
+    @Override
+    protected <I, O> IncrementalMealyBuilder<I, O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
+        return new ConcurrentIncrementalMealyTreeBuilder<>(alphabet);
+    }
+
+    @Test
+    public void testConcurrentInsertAndLookup() throws Exception {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final CompactMealy<Integer, Character> model =
+                RandomAutomata.randomMealy(random, 20, alphabet, Alphabets.characters('x', 'y'));
+        final IncrementalMealyBuilder<Integer, Character> builder = createIncrementalMealyBuilder(alphabet);
+
+        final List<Word<Integer>> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            words.add(randomWord(random, alphabet, random.nextInt(15)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            final List<Callable<Void>> tasks = new ArrayList<>(NUM_THREADS);
+            for (int t = 0; t < NUM_THREADS; t++) {
+                final int offset = t;
+                tasks.add(() -> {
+                    final WordBuilder<Character> output = new WordBuilder<>();
+                    for (int i = 0; i < words.size(); i++) {
+                        // every thread inserts all words, but starts at a different position
+                        final Word<Integer> word = words.get((i + offset * words.size() / NUM_THREADS) % words.size());
+                        final Word<Integer> other = words.get(i);
+
+                        builder.insert(word, model.computeOutput(word));
+                        Assert.assertTrue(builder.hasDefinitiveInformation(word));
+
+                        // concurrent lookups must only yield outputs that have been inserted
+                        if (builder.lookup(other, output)) {
+                            Assert.assertEquals(output.toWord(), model.computeOutput(other));
+                        }
+                        output.clear();
+                    }
+                    return null;
+                });
+            }
+
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (Word<Integer> word : words) {
+            Assert.assertEquals(builder.lookup(word), model.computeOutput(word));
+        }
+        Assert.assertNull(builder.findSeparatingWord(model, alphabet, true));
+    }
+
+    @Test
+    public void testConcurrentConflicts() throws Exception {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+        final Word<Integer> word = Word.fromSymbols(0, 1, 0, 1, 1, 0);
+        final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+
+        try {
+            for (int i = 0; i < 100; i++) {
+                final IncrementalMealyBuilder<Integer, Integer> builder = createIncrementalMealyBuilder(alphabet);
+                final List<Callable<Boolean>> tasks = new ArrayList<>(NUM_THREADS);
+
+                for (int t = 0; t < NUM_THREADS; t++) {
+                    // all outputs share a common prefix, but differ in the last symbol
+                    final Word<Integer> output = Word.fromSymbols(0, 0, 0, 0, 0, t);
+                    tasks.add(() -> {
+                        try {
+                            builder.insert(word, output);
+                            return true;
+                        } catch (ConflictException ce) {
+                            return false;
+                        }
+                    });
+                }
+
+                int successful = 0;
+                for (Future<Boolean> future : executor.invokeAll(tasks)) {
+                    if (future.get()) {
+                        successful++;
+                    }
+                }
+
+                // exactly one insertion succeeds, all others are rejected
+                Assert.assertEquals(successful, 1);
+                final Word<Integer> stored = builder.lookup(word);
+                Assert.assertEquals(stored.prefix(5), Word.fromSymbols(0, 0, 0, 0, 0));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSeparatingWordOfLengthOne() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'a');
+        final IncrementalMealyBuilder<Character, Integer> builder = createIncrementalMealyBuilder(alphabet);
+        builder.insert(Word.fromSymbols('a'), Word.fromSymbols(2));
+
+        final CompactMealy<Character, Integer> target = new CompactMealy<>(alphabet);
+        final Integer init = target.addInitialState();
+        target.addTransition(init, 'a', init, 1);
+
+        Assert.assertEquals(builder.findSeparatingWord(target, alphabet, false), Word.fromSymbols('a'));
+    }
+
+    private static Word<Integer> randomWord(Random random, Alphabet<Integer> alphabet, int length) {
+        final WordBuilder<Integer> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+        }
+        return wb.toWord();
+    }
+}
@@ -15,8 +15,23 @@
  */
 package net.automatalib.incremental.mealy;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.incremental.ConflictException;
 import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
+import net.automatalib.incremental.mealy.dag.State;
+import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 @Test
@@ -27,4 +42,77 @@ public class IncrementalMealyDAGBuilderTest extends AbstractIncrementalMealyBuil
         return new IncrementalMealyDAGBuilder<>(alphabet);
     }
 
+    @Test
+    public void testInsertAllAgainstInsert() {
+        final Random random = new Random(1337);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+        final CompactMealy<Integer, Character> model =
+                RandomAutomata.randomMealy(random, 10, alphabet, Alphabets.characters('x', 'y'));
+
+        final IncrementalMealyDAGBuilder<Integer, Character> expected = new IncrementalMealyDAGBuilder<>(alphabet);
+        final IncrementalMealyDAGBuilder<Integer, Character> actual = new IncrementalMealyDAGBuilder<>(alphabet);
+
+        for (int batch = 0; batch < 20; batch++) {
+            final List<Word<Integer>> inputs = new ArrayList<>();
+            final List<Word<Character>> outputs = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                final Word<Integer> input = randomWord(random, alphabet, random.nextInt(12));
+                inputs.add(input);
+                outputs.add(model.computeOutput(input));
+                expected.insert(input, model.computeOutput(input));
+            }
+
+            // interleave batches with single insertions
+            final Word<Integer> single = randomWord(random, alphabet, random.nextInt(12));
+            expected.insert(single, model.computeOutput(single));
+
+            actual.insertAll(inputs, outputs);
+            actual.insert(single, model.computeOutput(single));
+
+            // both builders maintain the minimal DAG of the inserted words, whose states have distinct ids
+            Assert.assertEquals(actual.asGraph().size(), expected.asGraph().size());
+            Assert.assertEquals(actual.lookupAll(inputs), outputs);
+
+            final Set<Integer> ids = new HashSet<>();
+            for (State state : actual.asGraph().getNodes()) {
+                Assert.assertTrue(ids.add(state.getId()));
+            }
+        }
+
+        Assert.assertNull(actual.findSeparatingWord(model, alphabet, true));
+    }
+
+    @Test
+    public void testInsertAllConflictOrder() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'd');
+        final IncrementalMealyBuilder<Character, Character> builder = createIncrementalMealyBuilder(alphabet);
+        builder.insert(Word.fromString("b"), Word.fromString("x"));
+
+        // adjacent pairs are ordered, but the batch as a whole is not
+        final List<Word<Character>> inputs = Arrays.asList(Word.fromString("b"),
+                                                           Word.fromString("c"),
+                                                           Word.fromString("a"),
+                                                           Word.fromString("d"));
+        final List<Word<Character>> outputs = Arrays.asList(Word.fromString("y"),
+                                                            Word.fromString("y"),
+                                                            Word.fromString("y"),
+                                                            Word.fromString("y"));
+        try {
+            builder.insertAll(inputs, outputs);
+            Assert.fail("Expected a conflict");
+        } catch (ConflictException expected) {
+            // only the pairs preceding the conflicting one in lexicographic order have been incorporated
+            Assert.assertTrue(builder.hasDefinitiveInformation(Word.fromString("a")));
+            Assert.assertFalse(builder.hasDefinitiveInformation(Word.fromString("c")));
+            Assert.assertFalse(builder.hasDefinitiveInformation(Word.fromString("d")));
+        }
+    }
+
+    private static Word<Integer> randomWord(Random random, Alphabet<Integer> alphabet, int length) {
+        final WordBuilder<Integer> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+        }
+        return wb.toWord();
+    }
 }
@@ -0,0 +1,239 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.automata.transout.impl.FastMoore;
+import net.automatalib.automata.transout.impl.FastMooreState;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.ts.transout.MooreTransitionSystem;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test
+public abstract class AbstractIncrementalMooreBuilderTest {
+
+    private static final Alphabet<Character> TEST_ALPHABET = Alphabets.characters('a', 'c');
+    private static final Alphabet<Character> TEST_OUTPUTS = Alphabets.characters('x', 'z');
+    private static final Word<Character> W_1 = Word.fromString("abc");
+    private static final Word<Character> W_1_O = Word.fromString("xyz");
+    private static final Word<Character> W_2 = Word.fromString("ac");
+    private static final Word<Character> W_2_O = Word.fromString("xw");
+    private static final Word<Character> W_3 = Word.fromString("acb");
+    private static final Word<Character> W_3_O = Word.fromString("xwu");
+
+    // Confluence Bug
+    private static final Word<Character> W_B_1 = Word.fromString("aaa");
+    private static final Word<Character> W_B_1_O = Word.fromString("xxx");
+    private static final Word<Character> W_B_2 = Word.fromString("bba");
+    private static final Word<Character> W_B_2_O = Word.fromString("xxx");
+    private static final Word<Character> W_B_3 = Word.fromString("aabaa");
+    private static final Word<Character> W_B_3_O = Word.fromString("xxxxx");
+
+    private IncrementalMooreBuilder<Character, Character> incMoore;
+
+    @BeforeClass
+    public void setUp() {
+        this.incMoore = createIncrementalMooreBuilder(TEST_ALPHABET);
+    }
+
+    protected abstract <I, O> IncrementalMooreBuilder<I, O> createIncrementalMooreBuilder(Alphabet<I> alphabet);
+
+    @Test
+    public void testConfluenceBug() {
+        incMoore.insert(W_B_1, W_B_1_O);
+        incMoore.insert(W_B_2, W_B_2_O);
+        incMoore.insert(W_B_3, W_B_3_O);
+
+        Assert.assertFalse(incMoore.lookup(Word.fromString("aababaa"), new ArrayList<>()));
+        Assert.assertEquals(incMoore.lookup(Word.fromString("bbaaa")), Word.fromString("xxx"));
+        // reset for further tests
+        this.incMoore = createIncrementalMooreBuilder(TEST_ALPHABET);
+    }
+
+    @Test(dependsOnMethods = "testConfluenceBug")
+    public void testLookup() {
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(Word.epsilon()));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_1));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_2));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_3));
+
+        incMoore.insert(W_1, W_1_O);
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_1));
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_1.prefix(2)));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_1.append('a')));
+
+        WordBuilder<Character> wb = new WordBuilder<>();
+
+        Assert.assertTrue(incMoore.lookup(W_1, wb));
+        Assert.assertEquals(wb.toWord(), W_1_O);
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_1.prefix(2), wb));
+        Assert.assertEquals(wb.toWord(), W_1_O.prefix(2));
+        wb.clear();
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_2));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_3));
+
+        incMoore.insert(W_2, W_2_O);
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_1));
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_2));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_3));
+
+        Assert.assertTrue(incMoore.lookup(W_2, wb));
+        Assert.assertEquals(wb.toWord(), W_2_O);
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_2.prefix(1), wb));
+        Assert.assertEquals(wb.toWord(), W_2_O.prefix(1));
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_1, wb));
+        Assert.assertEquals(wb.toWord(), W_1_O);
+        wb.clear();
+
+        incMoore.insert(W_3, W_3_O);
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_1));
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_2));
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_3));
+
+        Assert.assertTrue(incMoore.lookup(W_3, wb));
+        Assert.assertEquals(wb.toWord(), W_3_O);
+        wb.clear();
+        Assert.assertFalse(incMoore.lookup(W_3.append('a'), wb));
+        Assert.assertEquals(wb.toWord(), W_3_O);
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_1, wb));
+        Assert.assertEquals(wb.toWord(), W_1_O);
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_2, wb));
+        Assert.assertEquals(wb.toWord(), W_2_O);
+        wb.clear();
+    }
+
+    @Test(dependsOnMethods = "testLookup")
+    public void testInsertSame() {
+        incMoore.insert(W_1, W_1_O);
+        incMoore.insert(W_1.prefix(1), W_1_O.prefix(1));
+    }
+
+    @Test(expectedExceptions = ConflictException.class, dependsOnMethods = "testLookup")
+    public void testConflict() {
+        incMoore.insert(W_1, W_3_O);
+    }
+
+    @Test(dependsOnMethods = "testLookup")
+    public void testTransitionSystem() {
+        checkTransitionSystem(incMoore.asTransitionSystem());
+    }
+
+    private static <S, T> void checkTransitionSystem(MooreTransitionSystem<S, Character, T, Character> ts) {
+        final WordBuilder<Character> wb = new WordBuilder<>();
+
+        Assert.assertTrue(ts.trace(W_3, wb));
+        Assert.assertEquals(wb.toWord(), W_3_O);
+        Assert.assertNull(ts.getSuccessor(ts.getInitialState(), 'c'));
+
+        final S state = ts.getSuccessor(ts.getInitialState(), W_1.prefix(2));
+        Assert.assertEquals(ts.getStateOutput(state), W_1_O.getSymbol(1));
+        Assert.assertEquals(ts.getTransitionOutput(ts.getTransition(state, 'c')), W_1_O.getSymbol(2));
+    }
+
+    @Test(dependsOnMethods = "testLookup")
+    public void testFindSeparatingWord() {
+        FastMoore<Character, Character> testMoore = new FastMoore<>(TEST_ALPHABET);
+
+        FastMooreState<Character> s0 = testMoore.addInitialState('-');
+        FastMooreState<Character> s1 = testMoore.addState('x');
+        FastMooreState<Character> s2 = testMoore.addState('u');
+        FastMooreState<Character> s3 = testMoore.addState('y');
+        FastMooreState<Character> s4 = testMoore.addState('z');
+        FastMooreState<Character> s5 = testMoore.addState('w');
+
+        testMoore.addTransition(s0, 'a', s1, null);
+        testMoore.addTransition(s0, 'b', s2, null);
+        testMoore.addTransition(s1, 'b', s3, null);
+        testMoore.addTransition(s3, 'c', s4, null);
+        testMoore.addTransition(s1, 'c', s5, null);
+
+        Word<Character> sepWord;
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, true);
+        Assert.assertNull(sepWord);
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, false);
+        Assert.assertEquals(sepWord, Word.fromString("acb"));
+        // inputs other than the alphabet
+        sepWord = incMoore.findSeparatingWord(testMoore, Arrays.asList('c', 'b', 'a'), false);
+        Assert.assertEquals(sepWord, Word.fromString("acb"));
+        sepWord = incMoore.findSeparatingWord(testMoore, Arrays.asList('a', 'c'), false);
+        Assert.assertNull(sepWord);
+
+        FastMooreState<Character> s6 = testMoore.addState('u');
+        testMoore.addTransition(s5, 'b', s6, null);
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, true);
+        Assert.assertNull(sepWord);
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, false);
+        Assert.assertNull(sepWord);
+
+        testMoore.setStateOutput(s6, 'w');
+
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, true);
+        Assert.assertEquals(sepWord, Word.fromString("acb"));
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, false);
+        Assert.assertEquals(sepWord, Word.fromString("acb"));
+    }
+
+    @Test
+    public void testRandomMoore() {
+        final Random random = new Random(42);
+        final FastMoore<Character, Character> model = new FastMoore<>(TEST_ALPHABET);
+        RandomAutomata.randomDeterministic(random, 10, TEST_ALPHABET, TEST_OUTPUTS, null, model);
+        final IncrementalMooreBuilder<Character, Character> builder = createIncrementalMooreBuilder(TEST_ALPHABET);
+
+        final List<Word<Character>> inputs = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final WordBuilder<Character> wb = new WordBuilder<>();
+            for (int j = random.nextInt(10); j > 0; j--) {
+                wb.append(TEST_ALPHABET.getSymbol(random.nextInt(TEST_ALPHABET.size())));
+            }
+            final Word<Character> input = wb.toWord();
+            inputs.add(input);
+            builder.insert(input, model.computeOutput(input));
+        }
+
+        for (Word<Character> input : inputs) {
+            Assert.assertTrue(builder.hasDefinitiveInformation(input));
+            Assert.assertEquals(builder.lookup(input), model.computeOutput(input));
+        }
+        Assert.assertNull(builder.findSeparatingWord(model, TEST_ALPHABET, true));
+
+        // changing a single (reachable) state output of the model is detected
+        final FastMooreState<Character> state = model.getSuccessor(model.getInitialState(), inputs.get(0));
+        final Character oldOutput = model.getStateOutput(state);
+        model.setStateOutput(state, oldOutput == 'x' ? 'y' : 'x');
+
+        final Word<Character> sepWord = builder.findSeparatingWord(model, TEST_ALPHABET, true);
+        Assert.assertNotNull(sepWord);
+        Assert.assertNotEquals(builder.lookup(sepWord), model.computeOutput(sepWord));
+    }
+
+}
@@ -188,6 +188,26 @@ public class Automata extends TS {
         return DeterministicEquivalenceTest.findSeparatingWordLarge(reference, other, inputs);
     }
 
+    /**
+     * Computes a shortest separating word of two automata, exploring their product in parallel. See {@link
+     * DeterministicEquivalenceTest#findSeparatingWordParallel(UniversalDeterministicAutomaton,
+     * UniversalDeterministicAutomaton, Collection)}.
+     *
+     * @param reference
+     *         the first automaton
+     * @param other
+     *         the second automaton
+     * @param inputs
+     *         the inputs to consider
+     *
+     * @return a shortest separating word, or {@code null} if the automata are equivalent
+     */
+    public static <I> Word<I> findShortestSeparatingWordParallel(UniversalDeterministicAutomaton<?, I, ?, ?, ?> reference,
+                                                                 UniversalDeterministicAutomaton<?, I, ?, ?, ?> other,
+                                                                 Collection<? extends I> inputs) {
+        return DeterministicEquivalenceTest.findSeparatingWordParallel(reference, other, inputs);
+    }
+
     public static <I> boolean testEquivalence(UniversalDeterministicAutomaton<?, I, ?, ?, ?> reference,
                                               UniversalDeterministicAutomaton<?, I, ?, ?, ?> other,
                                               Collection<? extends I> inputs) {
@@ -0,0 +1,113 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import com.google.common.collect.AbstractIterator;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Base class for iterators over the tests of a {@link CoverTestSuite}.
+ * <p>
+ * The spanning tree of the automaton is traversed depth-first. The current test is assembled in a single {@link
+ * WordBuilder}: the access sequence of the current state, the middle part and the suffix are appended to (and
+ * truncated from) it, such that common prefixes are only built once and the memory consumption (apart from the
+ * suffixes) is linear in the size of the automaton, independent of the number of tests.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+abstract class AbstractStreamingTestsIterator<I> extends AbstractIterator<Word<I>> {
+
+    private final CoverTestSuite<I> suite;
+    private final TestEnumerator<I> enumerator;
+    private final WordBuilder<I> wordBuilder;
+
+    // depth-first traversal of the spanning tree
+    private final int[] stackStates;
+    private final int[] stackInputs;
+    private int top;
+
+    AbstractStreamingTestsIterator(CoverTestSuite<I> suite) {
+        this.suite = suite;
+        this.enumerator = new TestEnumerator<>(suite);
+        this.wordBuilder = enumerator.getWordBuilder();
+
+        final SpanningTree<?, I> tree = suite.tree;
+        this.stackStates = new int[tree.size()];
+        this.stackInputs = new int[tree.size()];
+
+        final int init = tree.getInitialState();
+        if (init >= 0) {
+            stackStates[0] = init;
+            stackInputs[0] = -1;
+            top = 0;
+        } else {
+            top = -1;
+        }
+    }
+
+    @Override
+    protected Word<I> computeNext() {
+        Word<I> test;
+        while ((test = enumerator.nextTest()) == null) {
+            if (!nextPrefix()) {
+                return endOfData();
+            }
+        }
+        return test;
+    }
+
+    private boolean nextPrefix() {
+        final SpanningTree<?, I> tree = suite.tree;
+
+        while (top >= 0) {
+            final int state = stackStates[top];
+            final int input = stackInputs[top];
+
+            // the access sequence of the current state
+            wordBuilder.truncate(top);
+
+            if (input < 0) {
+                stackInputs[top] = 0;
+                if (suite.isTestPrefix(false, state, false)) {
+                    enumerator.startPrefix(false, state);
+                    return true;
+                }
+            } else if (input < suite.inputs.size()) {
+                stackInputs[top] = input + 1;
+                wordBuilder.append(suite.inputs.get(input));
+
+                final int succ = tree.getSuccessor(state, input);
+                final boolean treeEdge = succ >= 0 && tree.isTreeEdge(state, input, succ);
+
+                if (treeEdge) {
+                    top++;
+                    stackStates[top] = succ;
+                    stackInputs[top] = -1;
+                }
+                if (suite.isTestPrefix(true, succ, treeEdge)) {
+                    enumerator.startPrefix(true, succ);
+                    return true;
+                }
+            } else {
+                top--;
+            }
+        }
+
+        return false;
+    }
+}
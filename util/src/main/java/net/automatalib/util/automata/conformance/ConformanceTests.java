@@ -0,0 +1,166 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.words.Word;
+
+/**
+ * Parallel and sharded generation of conformance tests.
+ * <p>
+ * The test suites are those of {@link WMethodTestsIterator} and {@link WpMethodTestsIterator}, generated in a streaming
+ * fashion (see {@link StreamingWMethodTestsIterator}). The generation is split by the states whose access sequences
+ * (or transitions) serve as test prefixes, in breadth-first order of the states. The (encounter) order of the tests is
+ * therefore fixed, and independent of the number of threads or shards: a {@link Stream#parallel() parallel} stream
+ * yields the tests in a deterministic order for order-preserving operations (such as {@link
+ * Stream#forEachOrdered(java.util.function.Consumer)} or {@link Stream#collect(java.util.stream.Collector)}), whereas
+ * {@link Stream#unordered() unordered} streams (or {@link Stream#forEach(java.util.function.Consumer)}) allow for a
+ * faster, non-deterministic generation.
+ * <p>
+ * The characterizing set is computed upon creation of a stream (or the shards), and shared by all threads. For the Wp
+ * method, local characterizing sets are computed on demand. The automaton is accessed concurrently (but read-only) by
+ * multiple threads.
+ */
+public final class ConformanceTests {
+
+    private ConformanceTests() {
+    }
+
+    /**
+     * Returns a (sequential) stream of the tests generated by the W method. Use {@link Stream#parallel()} for a
+     * parallel generation.
+     *
+     * @param automaton
+     *         the automaton for which the tests should be generated
+     * @param inputs
+     *         the inputs to consider
+     * @param maxDepth
+     *         the maximal length of the middle parts
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a stream of the tests
+     */
+    public static <I> Stream<Word<I>> wMethodTests(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                                   Collection<? extends I> inputs,
+                                                   int maxDepth) {
+        return stream(CoverTestSuite.wMethod(automaton, inputs, maxDepth));
+    }
+
+    /**
+     * Returns a (sequential) stream of the tests generated by the partial W method. Use {@link Stream#parallel()} for
+     * a parallel generation.
+     *
+     * @param automaton
+     *         the automaton for which the tests should be generated
+     * @param inputs
+     *         the inputs to consider
+     * @param maxDepth
+     *         the maximal length of the middle parts
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a stream of the tests
+     */
+    public static <I> Stream<Word<I>> wpMethodTests(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                                    Collection<? extends I> inputs,
+                                                    int maxDepth) {
+        return stream(CoverTestSuite.wpMethod(automaton, inputs, maxDepth));
+    }
+
+    /**
+     * Splits the tests generated by the W method into (at most) the given number of shards. The shards are
+     * independent of each other and may be consumed by different threads (or machines). The concatenation of all
+     * shards (in order) coincides with {@link #wMethodTests(UniversalDeterministicAutomaton, Collection, int)}.
+     *
+     * @param automaton
+     *         the automaton for which the tests should be generated
+     * @param inputs
+     *         the inputs to consider
+     * @param maxDepth
+     *         the maximal length of the middle parts
+     * @param numShards
+     *         the (maximal) number of shards
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the shards
+     */
+    public static <I> List<Iterator<Word<I>>> wMethodTestShards(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                                                Collection<? extends I> inputs,
+                                                                int maxDepth,
+                                                                int numShards) {
+        return shards(CoverTestSuite.wMethod(automaton, inputs, maxDepth), numShards);
+    }
+
+    /**
+     * Splits the tests generated by the partial W method into (at most) the given number of shards. The shards are
+     * independent of each other and may be consumed by different threads (or machines). The concatenation of all
+     * shards (in order) coincides with {@link #wpMethodTests(UniversalDeterministicAutomaton, Collection, int)}.
+     *
+     * @param automaton
+     *         the automaton for which the tests should be generated
+     * @param inputs
+     *         the inputs to consider
+     * @param maxDepth
+     *         the maximal length of the middle parts
+     * @param numShards
+     *         the (maximal) number of shards
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the shards
+     */
+    public static <I> List<Iterator<Word<I>>> wpMethodTestShards(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                                                 Collection<? extends I> inputs,
+                                                                 int maxDepth,
+                                                                 int numShards) {
+        return shards(CoverTestSuite.wpMethod(automaton, inputs, maxDepth), numShards);
+    }
+
+    private static <I> Stream<Word<I>> stream(CoverTestSuite<I> suite) {
+        final Spliterator<Word<I>> spliterator =
+                new CoverTestSpliterator<>(suite, 0, suite.tree.getNumReachableStates());
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private static <I> List<Iterator<Word<I>>> shards(CoverTestSuite<I> suite, int numShards) {
+        if (numShards <= 0) {
+            throw new IllegalArgumentException("The number of shards must be positive");
+        }
+
+        final int numStates = suite.tree.getNumReachableStates();
+        final int actualShards = Math.max(Math.min(numShards, numStates), 1);
+        final List<Iterator<Word<I>>> result = new ArrayList<>(actualShards);
+
+        for (int i = 0; i < actualShards; i++) {
+            final int lo = (int) ((long) numStates * i / actualShards);
+            final int hi = (int) ((long) numStates * (i + 1) / actualShards);
+            result.add(Spliterators.iterator(new CoverTestSpliterator<>(suite, lo, hi)));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,133 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A {@link Spliterator} over the tests of a {@link CoverTestSuite}, whose test prefixes originate from a range of the
+ * (breadth-first ordered) reachable states. Splitting divides the range of states, hence the encounter order does not
+ * depend on how (and whether) the spliterator is split.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+final class CoverTestSpliterator<I> implements Spliterator<Word<I>> {
+
+    private final CoverTestSuite<I> suite;
+    private final TestEnumerator<I> enumerator;
+
+    // the range of (indices of) states whose tests have not been started
+    private int stateIdx;
+    private final int stateEnd;
+
+    // the current state and the next input, or -1 for the state prefix itself
+    private int state = -1;
+    private int nextInput;
+    private int accessLength;
+
+    CoverTestSpliterator(CoverTestSuite<I> suite, int stateIdx, int stateEnd) {
+        this.suite = suite;
+        this.enumerator = new TestEnumerator<>(suite);
+        this.stateIdx = stateIdx;
+        this.stateEnd = stateEnd;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Word<I>> action) {
+        Word<I> test;
+        while ((test = enumerator.nextTest()) == null) {
+            if (!nextPrefix()) {
+                return false;
+            }
+        }
+        action.accept(test);
+        return true;
+    }
+
+    private boolean nextPrefix() {
+        final SpanningTree<?, I> tree = suite.tree;
+        final WordBuilder<I> wordBuilder = enumerator.getWordBuilder();
+
+        while (true) {
+            if (state < 0 || nextInput >= suite.inputs.size()) {
+                if (stateIdx >= stateEnd) {
+                    return false;
+                }
+                state = tree.getReachableState(stateIdx++);
+                nextInput = -1;
+                wordBuilder.clear();
+                tree.appendAccessSequence(state, wordBuilder);
+                accessLength = wordBuilder.size();
+            }
+
+            final int input = nextInput++;
+
+            if (input < 0) {
+                wordBuilder.truncate(accessLength);
+                if (suite.isTestPrefix(false, state, false)) {
+                    enumerator.startPrefix(false, state);
+                    return true;
+                }
+                continue;
+            }
+
+            wordBuilder.truncate(accessLength).append(suite.inputs.get(input));
+
+            final int succ = tree.getSuccessor(state, input);
+            final boolean treeEdge = succ >= 0 && tree.isTreeEdge(state, input, succ);
+            if (suite.isTestPrefix(true, succ, treeEdge)) {
+                enumerator.startPrefix(true, succ);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<Word<I>> trySplit() {
+        // only split before the first prefix has been started, such that the prefix part is self-contained
+        if (state >= 0 || stateEnd - stateIdx < 2) {
+            return null;
+        }
+        final int mid = (stateIdx + stateEnd) >>> 1;
+        final Spliterator<Word<I>> prefix = new CoverTestSpliterator<>(suite, stateIdx, mid);
+        stateIdx = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        final int remainingStates = stateEnd - stateIdx + (state >= 0 ? 1 : 0);
+        final int numInputs = suite.inputs.size();
+
+        long numMiddles = 1, tuples = 1;
+        for (int i = 0; i < suite.maxDepth && numInputs > 0 && numMiddles < Long.MAX_VALUE / numInputs; i++) {
+            tuples *= numInputs;
+            numMiddles += tuples;
+        }
+        final double estimate = (double) remainingStates * (numInputs + 1) * numMiddles;
+        return (estimate >= Long.MAX_VALUE) ? Long.MAX_VALUE : (long) estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
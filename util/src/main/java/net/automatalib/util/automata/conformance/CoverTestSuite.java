@@ -0,0 +1,171 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.util.automata.equivalence.CharacterizingSets;
+import net.automatalib.words.Word;
+
+/**
+ * A test suite that combines the prefixes of a (state or transition) cover, all middle parts up to a given length, and
+ * a set of suffixes. The cover is represented by the {@link SpanningTree spanning tree} of the automaton.
+ * <p>
+ * Instances are immutable (apart from caches that are safe for concurrent access), so multiple {@link TestEnumerator
+ * enumerators} may generate tests of the same suite concurrently.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+abstract class CoverTestSuite<I> {
+
+    private static final List<Word<?>> EPSILON = Collections.singletonList(Word.epsilon());
+
+    final SpanningTree<?, I> tree;
+    final List<I> inputs;
+    final int maxDepth;
+
+    CoverTestSuite(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                   Collection<? extends I> inputs,
+                   int maxDepth) {
+        this.inputs = new ArrayList<>(inputs);
+        this.tree = new SpanningTree<>(automaton, this.inputs);
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Returns the test suite of the W method.
+     */
+    static <I> CoverTestSuite<I> wMethod(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                         Collection<? extends I> inputs,
+                                         int maxDepth) {
+        return new WMethodSuite<>(automaton, inputs, maxDepth);
+    }
+
+    /**
+     * Returns the test suite of the partial W method.
+     */
+    static <I> CoverTestSuite<I> wpMethod(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                          Collection<? extends I> inputs,
+                                          int maxDepth) {
+        return new WpMethodSuite<>(automaton, inputs, maxDepth);
+    }
+
+    /**
+     * Returns whether the given cover sequence is used as a test prefix.
+     *
+     * @param transition
+     *         {@code false} for the access sequence of a state, {@code true} for the access sequence of a state
+     *         extended by an input symbol
+     * @param target
+     *         the state reached by the cover sequence, or {@code -1} if it is undefined (only possible if {@code
+     *         transition} is {@code true})
+     * @param treeEdge
+     *         whether the transition is an edge of the spanning tree, i.e., whether the sequence is also the access
+     *         sequence of a state (always {@code false} if {@code transition} is {@code false})
+     */
+    abstract boolean isTestPrefix(boolean transition, int target, boolean treeEdge);
+
+    /**
+     * Returns the suffixes for a test prefix and middle part.
+     *
+     * @param transition
+     *         see {@link #isTestPrefix(boolean, int, boolean)}
+     * @param target
+     *         the state reached by the test prefix and middle part, or {@code -1} if it is undefined
+     *
+     * @return the suffixes, which must not be empty
+     */
+    abstract List<Word<I>> getSuffixes(boolean transition, int target);
+
+    @SuppressWarnings("unchecked")
+    static <I> List<Word<I>> nonEmpty(List<Word<I>> suffixes) {
+        return suffixes.isEmpty() ? (List<Word<I>>) (List<?>) EPSILON : suffixes;
+    }
+
+    static <I> List<Word<I>> characterizingSet(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                               Collection<? extends I> inputs) {
+        final List<Word<I>> suffixes = new ArrayList<>();
+        CharacterizingSets.characterizingSetIterator(automaton, inputs).forEachRemaining(suffixes::add);
+        return nonEmpty(suffixes);
+    }
+
+    private static final class WMethodSuite<I> extends CoverTestSuite<I> {
+
+        private final List<Word<I>> characterizingSet;
+
+        WMethodSuite(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                     Collection<? extends I> inputs,
+                     int maxDepth) {
+            super(automaton, inputs, maxDepth);
+            this.characterizingSet = characterizingSet(automaton, inputs);
+        }
+
+        @Override
+        boolean isTestPrefix(boolean transition, int target, boolean treeEdge) {
+            // the transition cover includes undefined transitions (cf. Covers#transitionCoverIterator)
+            return transition;
+        }
+
+        @Override
+        List<Word<I>> getSuffixes(boolean transition, int target) {
+            return characterizingSet;
+        }
+    }
+
+    private static final class WpMethodSuite<I> extends CoverTestSuite<I> {
+
+        private final List<Word<I>> characterizingSet;
+        private final AtomicReferenceArray<List<Word<I>>> localSuffixSets;
+
+        WpMethodSuite(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                      Collection<? extends I> inputs,
+                      int maxDepth) {
+            super(automaton, inputs, maxDepth);
+            this.characterizingSet = characterizingSet(automaton, inputs);
+            this.localSuffixSets = new AtomicReferenceArray<>(tree.size());
+        }
+
+        @Override
+        boolean isTestPrefix(boolean transition, int target, boolean treeEdge) {
+            // Phase 1: state cover, Phase 2: defined transitions not in the state cover (cf. Covers#cover)
+            return !treeEdge && target >= 0;
+        }
+
+        @Override
+        List<Word<I>> getSuffixes(boolean transition, int target) {
+            if (!transition) {
+                return characterizingSet;
+            }
+            if (target < 0) {
+                return nonEmpty(Collections.emptyList());
+            }
+
+            List<Word<I>> localSuffixes = localSuffixSets.get(target);
+            if (localSuffixes == null) {
+                // concurrent computations yield the same set, so we do not need to synchronize
+                localSuffixes = nonEmpty(tree.stateCharacterizingSet(target));
+                localSuffixSets.set(target, localSuffixes);
+            }
+            return localSuffixes;
+        }
+    }
+}
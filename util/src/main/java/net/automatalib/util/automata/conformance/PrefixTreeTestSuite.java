@@ -0,0 +1,379 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import com.google.common.collect.AbstractIterator;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A test suite that organizes its tests in a prefix tree, in order to derive an execution plan that shares common
+ * prefixes of the tests.
+ * <p>
+ * The execution plan consists of the maximal tests, i.e., the tests (or rather, branches of the prefix tree) that are
+ * no prefix of another test. Each execution requires a single reset of the system under test and covers all tests that
+ * are a prefix of it, provided that the outputs of all prefixes can be observed in a single run (as it is the case,
+ * e.g., for Mealy machines). As a consequence, both the number of resets and the number of executed symbols are
+ * minimal among all plans that execute every test from the initial state. Duplicate tests are executed only once.
+ * <p>
+ * The prefix tree is stored in primitive arrays (using a first-child/next-sibling representation over the indices of
+ * the input symbols), hence the memory consumption is linear in the number of distinct prefixes of the tests.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class PrefixTreeTestSuite<I> implements Iterable<PrefixTreeTestSuite.Execution<I>> {
+
+    private static final int ROOT = 0;
+    private static final int NO_NODE = -1;
+
+    private final Alphabet<I> alphabet;
+
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] symbols;
+    private int[] depths;
+    private int[] testCounts;
+    private int numNodes;
+
+    private int numTests;
+    private int numDistinctTests;
+    private long numTestSymbols;
+    private int numLeaves;
+    private long numLeafSymbols;
+
+    public PrefixTreeTestSuite(Alphabet<I> alphabet) {
+        this.alphabet = alphabet;
+        this.firstChild = new int[16];
+        this.nextSibling = new int[16];
+        this.symbols = new int[16];
+        this.depths = new int[16];
+        this.testCounts = new int[16];
+        this.firstChild[ROOT] = NO_NODE;
+        this.nextSibling[ROOT] = NO_NODE;
+        this.numNodes = 1;
+    }
+
+    /**
+     * Adds a test to this test suite.
+     *
+     * @param test
+     *         the test
+     */
+    public void add(Word<? extends I> test) {
+        int node = ROOT;
+        for (I sym : test) {
+            node = getOrCreateChild(node, alphabet.getSymbolIndex(sym));
+        }
+
+        if (testCounts[node]++ == 0) {
+            numDistinctTests++;
+            if (node == ROOT && firstChild[ROOT] == NO_NODE) {
+                // the empty test is only executed (separately) if there are no other tests
+                numLeaves++;
+            }
+        }
+        numTests++;
+        numTestSymbols += test.length();
+    }
+
+    /**
+     * Adds all given tests to this test suite.
+     *
+     * @param tests
+     *         the tests
+     */
+    public void addAll(Iterator<? extends Word<? extends I>> tests) {
+        while (tests.hasNext()) {
+            add(tests.next());
+        }
+    }
+
+    /**
+     * Adds all given tests to this test suite.
+     *
+     * @param tests
+     *         the tests
+     */
+    public void addAll(Iterable<? extends Word<? extends I>> tests) {
+        addAll(tests.iterator());
+    }
+
+    private int getOrCreateChild(int node, int symbol) {
+        int prev = NO_NODE;
+        int child = firstChild[node];
+
+        // children are ordered by their symbol index
+        while (child != NO_NODE && symbols[child] < symbol) {
+            prev = child;
+            child = nextSibling[child];
+        }
+        if (child != NO_NODE && symbols[child] == symbol) {
+            return child;
+        }
+
+        ensureCapacity(numNodes + 1);
+        final int newNode = numNodes++;
+        firstChild[newNode] = NO_NODE;
+        nextSibling[newNode] = child;
+        symbols[newNode] = symbol;
+        depths[newNode] = depths[node] + 1;
+        testCounts[newNode] = 0;
+
+        final boolean wasLeaf = firstChild[node] == NO_NODE;
+        if (prev == NO_NODE) {
+            firstChild[node] = newNode;
+        } else {
+            nextSibling[prev] = newNode;
+        }
+
+        if (!wasLeaf) {
+            numLeaves++;
+            numLeafSymbols += depths[newNode];
+        } else if (node != ROOT) {
+            // the new node replaces its parent as a leaf
+            numLeafSymbols++;
+        } else if (testCounts[ROOT] == 0) {
+            numLeaves++;
+            numLeafSymbols++;
+        } else {
+            // the new node replaces the (separate) execution of the empty test
+            numLeafSymbols++;
+        }
+
+        return newNode;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > firstChild.length) {
+            final int newCapacity = Math.max(capacity, firstChild.length + (firstChild.length >> 1));
+            firstChild = Arrays.copyOf(firstChild, newCapacity);
+            nextSibling = Arrays.copyOf(nextSibling, newCapacity);
+            symbols = Arrays.copyOf(symbols, newCapacity);
+            depths = Arrays.copyOf(depths, newCapacity);
+            testCounts = Arrays.copyOf(testCounts, newCapacity);
+        }
+    }
+
+    /**
+     * Returns the execution plan of this test suite, i.e., an iterator over the maximal tests (in lexicographic order
+     * with respect to the alphabet). The iterator reflects the state of the test suite upon its creation and must not
+     * be used after further tests have been added.
+     *
+     * @return the execution plan
+     */
+    @Override
+    public Iterator<Execution<I>> iterator() {
+        return new ExecutionIterator();
+    }
+
+    /**
+     * Returns the number of tests added to this test suite (including duplicates).
+     *
+     * @return the number of tests
+     */
+    public int getNumTests() {
+        return numTests;
+    }
+
+    /**
+     * Returns the number of distinct tests added to this test suite.
+     *
+     * @return the number of distinct tests
+     */
+    public int getNumDistinctTests() {
+        return numDistinctTests;
+    }
+
+    /**
+     * Returns the total number of symbols of the tests added to this test suite (including duplicates), i.e., the
+     * number of symbols executed if every test is executed separately.
+     *
+     * @return the total number of symbols of the tests
+     */
+    public long getNumTestSymbols() {
+        return numTestSymbols;
+    }
+
+    /**
+     * Returns the number of executions of the execution plan, i.e., the number of required resets.
+     *
+     * @return the number of executions
+     */
+    public int getNumExecutions() {
+        return numLeaves;
+    }
+
+    /**
+     * Returns the total number of symbols of the executions of the execution plan.
+     *
+     * @return the total number of symbols of the executions
+     */
+    public long getNumExecutionSymbols() {
+        return numLeafSymbols;
+    }
+
+    /**
+     * Returns the number of distinct prefixes of the tests (excluding the empty word), i.e., the number of symbols
+     * that would need to be executed if the system under test could return to any previously visited state without a
+     * reset.
+     *
+     * @return the number of distinct non-empty prefixes of the tests
+     */
+    public int getNumPrefixes() {
+        return numNodes - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "tests: " + numTests + " (" + numDistinctTests + " distinct, " + numTestSymbols + " symbols), " +
+               "executions: " + numLeaves + " (" + numLeafSymbols + " symbols)";
+    }
+
+    /**
+     * A single execution of the execution plan.
+     *
+     * @param <I>
+     *         input symbol type
+     */
+    public static final class Execution<I> {
+
+        private final Word<I> word;
+        private final int[] testLengths;
+
+        Execution(Word<I> word, int[] testLengths) {
+            this.word = word;
+            this.testLengths = testLengths;
+        }
+
+        /**
+         * Returns the input word to execute.
+         *
+         * @return the input word
+         */
+        public Word<I> getWord() {
+            return word;
+        }
+
+        /**
+         * Returns the (ascending) lengths of the prefixes of {@link #getWord() the executed word} that are tests of
+         * the test suite. Tests that are a prefix of multiple executions are only listed for the first of these
+         * executions.
+         *
+         * @return the lengths of the covered tests
+         */
+        public int[] getTestLengths() {
+            return testLengths.clone();
+        }
+
+        /**
+         * Returns the number of tests covered by this execution.
+         *
+         * @return the number of covered tests
+         *
+         * @see #getTestLengths()
+         */
+        public int getNumTests() {
+            return testLengths.length;
+        }
+
+        /**
+         * Returns the {@code idx}-th test covered by this execution.
+         *
+         * @param idx
+         *         the index of the test
+         *
+         * @return the test
+         *
+         * @see #getTestLengths()
+         */
+        public Word<I> getTest(int idx) {
+            return word.prefix(testLengths[idx]);
+        }
+    }
+
+    /**
+     * Depth-first traversal of the prefix tree, reporting the leaves.
+     */
+    private final class ExecutionIterator extends AbstractIterator<Execution<I>> {
+
+        private final WordBuilder<I> wordBuilder = new WordBuilder<>();
+        private final int[] pathNodes;
+        private final int[] pendingTests;
+        private int pathLength;
+        private int numPendingTests;
+
+        ExecutionIterator() {
+            final int maxDepth = Arrays.stream(depths, 0, numNodes).max().orElse(0);
+            this.pathNodes = new int[maxDepth + 1];
+            this.pendingTests = new int[maxDepth + 1];
+
+            if (numLeaves > 0) {
+                pathNodes[0] = ROOT;
+                pathLength = 1;
+                if (testCounts[ROOT] > 0) {
+                    pendingTests[numPendingTests++] = 0;
+                }
+            }
+        }
+
+        @Override
+        protected Execution<I> computeNext() {
+            while (pathLength > 0) {
+                final int node = pathNodes[pathLength - 1];
+                final int child = firstChild[node];
+
+                if (child != NO_NODE) {
+                    descend(child);
+                    continue;
+                }
+
+                final Execution<I> execution =
+                        new Execution<>(wordBuilder.toWord(), Arrays.copyOf(pendingTests, numPendingTests));
+                numPendingTests = 0;
+
+                // backtrack to the next sibling
+                int current = node;
+                while (pathLength > 1 && nextSibling[current] == NO_NODE) {
+                    pathLength--;
+                    current = pathNodes[pathLength - 1];
+                }
+                if (pathLength > 1) {
+                    pathLength--;
+                    descend(nextSibling[current]);
+                } else {
+                    pathLength = 0;
+                }
+
+                return execution;
+            }
+
+            return endOfData();
+        }
+
+        private void descend(int node) {
+            pathNodes[pathLength++] = node;
+            wordBuilder.truncate(depths[node] - 1).append(alphabet.getSymbol(symbols[node]));
+            if (testCounts[node] > 0) {
+                pendingTests[numPendingTests++] = depths[node];
+            }
+        }
+    }
+}
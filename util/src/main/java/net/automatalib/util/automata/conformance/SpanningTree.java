@@ -0,0 +1,92 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.List;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.UniversalDeterministicAutomaton.StateIntAbstraction;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.cover.CompactCover;
+import net.automatalib.util.automata.cover.Covers;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * The breadth-first spanning tree of an automaton, i.e., the prefix tree of its (shortest) state cover, based on a
+ * {@link CompactCover}. The state cover sequences coincide with those computed by {@link Covers}, but are never
+ * materialized as words.
+ *
+ * @param <S>
+ *         state type
+ * @param <I>
+ *         input symbol type
+ */
+final class SpanningTree<S, I> {
+
+    private final UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton;
+    private final List<? extends I> inputs;
+    private final StateIntAbstraction<I, ?, ?, ?> abstraction;
+    private final StateIDs<S> stateIds;
+    private final CompactCover<I> cover;
+
+    SpanningTree(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton, List<? extends I> inputs) {
+        this.automaton = automaton;
+        this.inputs = inputs;
+        this.abstraction = automaton.stateIntAbstraction();
+        this.stateIds = automaton.stateIDs();
+        this.cover = Covers.stateIntCompactCover(abstraction, inputs);
+    }
+
+    int getInitialState() {
+        return (cover.getNumStates() > 0) ? cover.getState(0) : -1;
+    }
+
+    int size() {
+        return abstraction.size();
+    }
+
+    int getNumReachableStates() {
+        return cover.getNumStates();
+    }
+
+    /**
+     * Returns the {@code idx}-th reachable state in breadth-first order.
+     */
+    int getReachableState(int idx) {
+        return cover.getState(idx);
+    }
+
+    /**
+     * Appends the access sequence of the given (reachable) state to the given word builder.
+     */
+    void appendAccessSequence(int state, WordBuilder<I> wordBuilder) {
+        cover.appendAccessSequence(state, wordBuilder);
+    }
+
+    int getSuccessor(int state, int input) {
+        return abstraction.getSuccessor(state, inputs.get(input));
+    }
+
+    boolean isTreeEdge(int state, int input, int succ) {
+        return cover.isTreeEdge(state, input, succ);
+    }
+
+    List<Word<I>> stateCharacterizingSet(int state) {
+        return Automata.stateCharacterizingSet(automaton, inputs, stateIds.getState(state));
+    }
+}
@@ -0,0 +1,41 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.Collection;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+
+/**
+ * Iterator that returns test words generated by the W Method, in a streaming fashion.
+ * <p>
+ * The generated tests coincide with those of {@link WMethodTestsIterator}, but are enumerated in a different order:
+ * the transition cover is traversed depth-first along the spanning tree of the automaton, and each of its sequences is
+ * combined with all middle parts and characterizing suffixes before the traversal continues. Neither the transition
+ * cover nor the middle parts are materialized, hence the memory consumption is linear in the size of the automaton
+ * (plus the size of the characterizing set), regardless of {@code maxDepth}.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class StreamingWMethodTestsIterator<I> extends AbstractStreamingTestsIterator<I> {
+
+    public StreamingWMethodTestsIterator(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                         Collection<? extends I> inputs,
+                                         int maxDepth) {
+        super(CoverTestSuite.wMethod(automaton, inputs, maxDepth));
+    }
+}
@@ -0,0 +1,43 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.Collection;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+
+/**
+ * Iterator that returns test words generated by the partial W Method, in a streaming fashion.
+ * <p>
+ * The generated tests coincide with those of {@link WpMethodTestsIterator}, but are enumerated in a different order:
+ * the state and transition cover are traversed depth-first along the spanning tree of the automaton, and each of
+ * their sequences is combined with all middle parts and the respective (global or local) characterizing suffixes
+ * before the traversal continues. As for {@link WpMethodTestsIterator}, undefined transitions of partial automata are
+ * not used as test prefixes. Neither of the covers nor the middle parts are materialized, hence the memory
+ * consumption is linear in the size of the automaton (plus the size of the characterizing sets), regardless of {@code
+ * maxDepth}. Local characterizing sets are computed on demand, and are cached for the respective states.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class StreamingWpMethodTestsIterator<I> extends AbstractStreamingTestsIterator<I> {
+
+    public StreamingWpMethodTestsIterator(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                          Collection<? extends I> inputs,
+                                          int maxDepth) {
+        super(CoverTestSuite.wpMethod(automaton, inputs, maxDepth));
+    }
+}
@@ -0,0 +1,127 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.Collections;
+import java.util.List;
+
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Enumerates the tests of a {@link CoverTestSuite} for a single test prefix, i.e., all combinations of middle parts
+ * and suffixes. The test prefix is the current content of the {@link #getWordBuilder() word builder}, which is
+ * extended by the middle parts and suffixes (and truncated afterwards), such that the prefix is only built once.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+final class TestEnumerator<I> {
+
+    private final CoverTestSuite<I> suite;
+    private final WordBuilder<I> wordBuilder = new WordBuilder<>();
+
+    // the current (test) prefix
+    private boolean transitionPrefix;
+    private int prefixTarget;
+    private int prefixLength;
+
+    // the current middle part
+    private final int[] middle;
+    private int middleLength = Integer.MAX_VALUE;
+
+    private List<Word<I>> suffixes = Collections.emptyList();
+    private int suffixIdx;
+
+    TestEnumerator(CoverTestSuite<I> suite) {
+        this.suite = suite;
+        this.middle = new int[Math.max(suite.maxDepth, 0)];
+    }
+
+    WordBuilder<I> getWordBuilder() {
+        return wordBuilder;
+    }
+
+    /**
+     * Starts the enumeration of the tests for the current content of the word builder.
+     *
+     * @param transition
+     *         see {@link CoverTestSuite#isTestPrefix(boolean, int, boolean)}
+     * @param target
+     *         the state reached by the test prefix, or {@code -1} if it is undefined
+     */
+    void startPrefix(boolean transition, int target) {
+        this.transitionPrefix = transition;
+        this.prefixTarget = target;
+        this.prefixLength = wordBuilder.size();
+        this.middleLength = -1;
+        nextMiddle();
+    }
+
+    /**
+     * Returns the next test for the current prefix, or {@code null} if all tests have been returned.
+     */
+    Word<I> nextTest() {
+        while (suffixIdx >= suffixes.size()) {
+            if (!nextMiddle()) {
+                return null;
+            }
+        }
+
+        final Word<I> test = wordBuilder.append(suffixes.get(suffixIdx++)).toWord();
+        wordBuilder.truncate(prefixLength + middleLength);
+        return test;
+    }
+
+    private boolean nextMiddle() {
+        if (middleLength > suite.maxDepth) {
+            return false;
+        }
+
+        final List<I> inputs = suite.inputs;
+
+        if (middleLength < 0) {
+            middleLength = 0;
+        } else {
+            int pos = middleLength - 1;
+            while (pos >= 0 && middle[pos] == inputs.size() - 1) {
+                middle[pos--] = 0;
+            }
+            if (pos >= 0) {
+                middle[pos]++;
+            } else if (middleLength < suite.maxDepth && !inputs.isEmpty()) {
+                middle[middleLength++] = 0;
+            } else {
+                middleLength = Integer.MAX_VALUE;
+                suffixes = Collections.emptyList();
+                return false;
+            }
+        }
+
+        wordBuilder.truncate(prefixLength);
+        int target = prefixTarget;
+        for (int i = 0; i < middleLength; i++) {
+            wordBuilder.append(inputs.get(middle[i]));
+            if (target >= 0) {
+                target = suite.tree.getSuccessor(target, middle[i]);
+            }
+        }
+
+        suffixes = suite.getSuffixes(transitionPrefix, target);
+        suffixIdx = 0;
+        return true;
+    }
+}
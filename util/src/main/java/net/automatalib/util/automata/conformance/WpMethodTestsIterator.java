@@ -158,6 +158,11 @@ public class WpMethodTestsIterator<I> extends ConcatIterator<Word<I>> {
             final S tmp = automaton.getState(prefix);
             final S state = automaton.getSuccessor(tmp, middle);
 
+            if (state == null) {
+                // the middle part leaves the (partial) automaton
+                return Collections.singletonList(Word.<I>epsilon()).iterator();
+            }
+
             List<Word<I>> localSuffixes = localSuffixSets.get(state);
 
             if (localSuffixes == null) {
@@ -0,0 +1,317 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.cover;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton.IntAbstraction;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A state and transition cover of an automaton, represented by the breadth-first spanning tree of its (integer
+ * abstracted) states.
+ * <p>
+ * For every covered state, only its parent state and the index of the input symbol leading from the parent to the
+ * state are stored in primitive arrays. The access sequences are materialized as {@link Word}s only when requested,
+ * either explicitly via {@link #getAccessSequence(int)}, or via the (read-only, random access) list views {@link
+ * #getStateCover()} and {@link #getTransitionCover()}. The memory consumption is therefore linear in the number of
+ * states (rather than in the number of transitions times the length of the access sequences).
+ * <p>
+ * The sequences (and their order) coincide with those computed by {@link Covers#cover(net.automatalib.automata.DeterministicAutomaton,
+ * java.util.Collection, java.util.Collection, java.util.Collection)}.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @see Covers#fullIntCompactCover(net.automatalib.automata.simple.SimpleDeterministicAutomaton.FullIntAbstraction,
+ * IntFunction)
+ * @see Covers#stateIntCompactCover(net.automatalib.automata.simple.SimpleDeterministicAutomaton.StateIntAbstraction,
+ * java.util.Collection)
+ */
+public final class CompactCover<I> {
+
+    private final IntFunction<? extends I> symbols;
+    private final int numInputs;
+    private final Successors successors;
+
+    private final int init;
+    private final int[] parents;
+    private final int[] parentInputs;
+
+    // the covered states in breadth-first order
+    private final int[] order;
+    private final int numStates;
+
+    // the number of (defined) transitions of the states preceding the respective state in breadth-first order
+    private final int[] transitionOffsets;
+
+    CompactCover(int size, int init, int numInputs, IntFunction<? extends I> symbols, Successors successors) {
+        this.symbols = symbols;
+        this.numInputs = numInputs;
+        this.successors = successors;
+        this.init = init;
+        this.parents = new int[size];
+        this.parentInputs = new int[size];
+        this.order = new int[size];
+
+        Arrays.fill(parents, IntAbstraction.INVALID_STATE);
+
+        int numStates = 0;
+        long numTransitions = 0;
+        final int[] offsets = new int[size + 1];
+
+        if (init != IntAbstraction.INVALID_STATE) {
+            order[numStates++] = init;
+            // mark the initial state as covered
+            parents[init] = init;
+
+            for (int idx = 0; idx < numStates; idx++) {
+                final int state = order[idx];
+                offsets[idx] = (int) numTransitions;
+
+                for (int i = 0; i < numInputs; i++) {
+                    final int succ = successors.getSuccessor(state, i);
+                    if (succ == IntAbstraction.INVALID_STATE) {
+                        continue;
+                    }
+                    if (parents[succ] == IntAbstraction.INVALID_STATE) {
+                        parents[succ] = state;
+                        parentInputs[succ] = i;
+                        order[numStates++] = succ;
+                    }
+                    numTransitions++;
+                }
+
+                if (numTransitions > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("The transition cover must not exceed " + Integer.MAX_VALUE +
+                                                       " sequences");
+                }
+            }
+        }
+
+        offsets[numStates] = (int) numTransitions;
+
+        this.numStates = numStates;
+        this.transitionOffsets = offsets;
+    }
+
+    /**
+     * Returns the number of covered states, i.e., the size of the state cover.
+     *
+     * @return the number of covered states
+     */
+    public int getNumStates() {
+        return numStates;
+    }
+
+    /**
+     * Returns the number of covered (defined) transitions, i.e., the size of the transition cover.
+     *
+     * @return the number of covered transitions
+     */
+    public int getNumTransitions() {
+        return transitionOffsets[numStates];
+    }
+
+    /**
+     * Returns the {@code idx}-th covered state in breadth-first order, i.e., the state reached by the {@code idx}-th
+     * sequence of the {@link #getStateCover() state cover}.
+     *
+     * @param idx
+     *         the index of the state
+     *
+     * @return the (integer abstracted) state
+     */
+    public int getState(int idx) {
+        return order[idx];
+    }
+
+    /**
+     * Returns whether the given state is covered, i.e., reachable.
+     *
+     * @param state
+     *         the (integer abstracted) state
+     *
+     * @return {@code true} if the state is covered, {@code false} otherwise
+     */
+    public boolean isCovered(int state) {
+        return parents[state] != IntAbstraction.INVALID_STATE;
+    }
+
+    /**
+     * Returns the parent of the given covered state in the spanning tree, i.e., the state reached by the access
+     * sequence of the given state without its last symbol.
+     *
+     * @param state
+     *         the (integer abstracted) state
+     *
+     * @return the parent state, or {@link IntAbstraction#INVALID_STATE} for the initial state
+     */
+    public int getParent(int state) {
+        return (state == init) ? IntAbstraction.INVALID_STATE : parents[state];
+    }
+
+    /**
+     * Returns the index of the last input symbol of the access sequence of the given covered state.
+     *
+     * @param state
+     *         the (integer abstracted) state
+     *
+     * @return the index of the last input symbol, or {@code -1} for the initial state
+     */
+    public int getParentInput(int state) {
+        return (state == init) ? -1 : parentInputs[state];
+    }
+
+    /**
+     * Returns whether the transition of the given state for the given input is an edge of the spanning tree, i.e.,
+     * whether its access sequence (the access sequence of the state extended by the input) is also the access sequence
+     * of its target.
+     *
+     * @param state
+     *         the (integer abstracted) source state
+     * @param input
+     *         the index of the input symbol
+     * @param succ
+     *         the (integer abstracted) target state
+     *
+     * @return {@code true} if the transition is an edge of the spanning tree, {@code false} otherwise
+     */
+    public boolean isTreeEdge(int state, int input, int succ) {
+        return succ != init && parents[succ] == state && parentInputs[succ] == input;
+    }
+
+    /**
+     * Returns the access sequence of the given covered state.
+     *
+     * @param state
+     *         the (integer abstracted) state
+     *
+     * @return the access sequence of the state
+     */
+    public Word<I> getAccessSequence(int state) {
+        final WordBuilder<I> wb = new WordBuilder<>();
+        appendAccessSequence(state, wb);
+        return wb.toWord();
+    }
+
+    /**
+     * Appends the access sequence of the given covered state to the given word builder.
+     *
+     * @param state
+     *         the (integer abstracted) state
+     * @param wordBuilder
+     *         the word builder
+     */
+    public void appendAccessSequence(int state, WordBuilder<I> wordBuilder) {
+        final int offset = wordBuilder.size();
+        int curr = state;
+        while (curr != init) {
+            wordBuilder.append(symbols.apply(parentInputs[curr]));
+            curr = parents[curr];
+        }
+
+        // the sequence has been appended in reverse order
+        for (int lo = offset, hi = wordBuilder.size() - 1; lo < hi; lo++, hi--) {
+            wordBuilder.set(hi, wordBuilder.set(lo, wordBuilder.get(hi)));
+        }
+    }
+
+    /**
+     * Returns a view of the state cover. The sequences are materialized upon access.
+     *
+     * @return a view of the state cover
+     */
+    public List<Word<I>> getStateCover() {
+        return new StateCoverView();
+    }
+
+    /**
+     * Returns a view of the transition cover. The sequences are materialized upon access.
+     *
+     * @return a view of the transition cover
+     */
+    public List<Word<I>> getTransitionCover() {
+        return new TransitionCoverView();
+    }
+
+    /**
+     * Successor function of the covered automaton.
+     */
+    @FunctionalInterface
+    interface Successors {
+
+        int getSuccessor(int state, int input);
+    }
+
+    private final class StateCoverView extends AbstractList<Word<I>> implements RandomAccess {
+
+        @Override
+        public Word<I> get(int index) {
+            if (index < 0 || index >= numStates) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            return getAccessSequence(order[index]);
+        }
+
+        @Override
+        public int size() {
+            return numStates;
+        }
+    }
+
+    private final class TransitionCoverView extends AbstractList<Word<I>> implements RandomAccess {
+
+        @Override
+        public Word<I> get(int index) {
+            if (index < 0 || index >= getNumTransitions()) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+
+            // the (last) state whose transitions start at or before the index
+            int idx = Arrays.binarySearch(transitionOffsets, 0, numStates + 1, index);
+            if (idx < 0) {
+                idx = -idx - 2;
+            } else {
+                while (transitionOffsets[idx + 1] == index) {
+                    idx++;
+                }
+            }
+
+            final int state = order[idx];
+            int remaining = index - transitionOffsets[idx];
+            for (int i = 0; i < numInputs; i++) {
+                if (successors.getSuccessor(state, i) != IntAbstraction.INVALID_STATE && remaining-- == 0) {
+                    final WordBuilder<I> wb = new WordBuilder<>();
+                    appendAccessSequence(state, wb);
+                    return wb.append(symbols.apply(i)).toWord();
+                }
+            }
+
+            throw new IllegalStateException("The automaton has been modified");
+        }
+
+        @Override
+        public int size() {
+            return getNumTransitions();
+        }
+    }
+}
@@ -16,18 +16,23 @@
 package net.automatalib.util.automata.cover;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import com.google.common.collect.Sets;
 import net.automatalib.automata.DeterministicAutomaton;
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton;
 import net.automatalib.commons.util.mappings.MutableMapping;
+import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
 
 /**
@@ -214,6 +219,69 @@ public final class Covers {
         }
     }
 
+    /**
+     * Computes a {@link CompactCover compact} state and transition cover for a given automaton. The sequences of the
+     * covers coincide with those computed by {@link #cover(DeterministicAutomaton, Collection, Collection,
+     * Collection)}, but are only materialized on demand.
+     *
+     * @param automaton
+     *         the automaton for which the covers should be computed
+     * @param alphabet
+     *         the input symbols allowed in the cover sequences
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the compact cover
+     */
+    public static <I> CompactCover<I> compactCover(DeterministicAutomaton<?, I, ?> automaton, Alphabet<I> alphabet) {
+        return fullIntCompactCover(automaton.fullIntAbstraction(alphabet), alphabet);
+    }
+
+    /**
+     * Computes a {@link CompactCover compact} state and transition cover for a given (fully) integer abstracted
+     * automaton.
+     *
+     * @param abstraction
+     *         the integer abstraction of the automaton for which the covers should be computed
+     * @param symbols
+     *         the mapping of input indices to input symbols, used for materializing the cover sequences
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the compact cover
+     */
+    public static <I> CompactCover<I> fullIntCompactCover(SimpleDeterministicAutomaton.FullIntAbstraction abstraction,
+                                                          IntFunction<? extends I> symbols) {
+        return new CompactCover<>(abstraction.size(),
+                                  abstraction.getIntInitialState(),
+                                  abstraction.numInputs(),
+                                  symbols,
+                                  abstraction::getSuccessor);
+    }
+
+    /**
+     * Computes a {@link CompactCover compact} state and transition cover for a given (state) integer abstracted
+     * automaton.
+     *
+     * @param abstraction
+     *         the integer abstraction of the automaton for which the covers should be computed
+     * @param inputs
+     *         the set of input symbols allowed in the cover sequences
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the compact cover
+     */
+    public static <I> CompactCover<I> stateIntCompactCover(SimpleDeterministicAutomaton.StateIntAbstraction<I> abstraction,
+                                                           Collection<? extends I> inputs) {
+        final List<I> symbols = new ArrayList<>(inputs);
+        return new CompactCover<>(abstraction.size(),
+                                  abstraction.getIntInitialState(),
+                                  symbols.size(),
+                                  symbols::get,
+                                  (s, i) -> abstraction.getSuccessor(s, symbols.get(i)));
+    }
+
     /**
      * Computes an incremental state cover for a given automaton, i.e. a cover that only contains the missing sequences
      * for obtaining a complete state cover.
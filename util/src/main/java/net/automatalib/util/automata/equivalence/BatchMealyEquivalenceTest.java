@@ -0,0 +1,163 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import javax.annotation.Nullable;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton.FullIntAbstraction;
+import net.automatalib.automata.transout.MealyMachine;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.copy.AutomatonCopyMethod;
+import net.automatalib.util.automata.copy.AutomatonLowLevelCopy;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.IntWord;
+import net.automatalib.words.Word;
+
+/**
+ * An equivalence test of (many) hypotheses against a single reference Mealy machine.
+ * <p>
+ * The reference is prepared once upon construction: if it is complete, it is minimized (see {@link
+ * HopcroftMinimization}), otherwise it is copied, into a {@link CompactMealy} over the given alphabet, i.e., an
+ * integer-encoded transition table. Every check then computes a shortest separating word by a breadth-first search
+ * over the product of the prepared reference and a hypothesis (see {@link DeterministicEquivalenceTest}), which only
+ * queries the hypothesis on-the-fly. As the reference is minimal, the product is no larger than necessary.
+ * <p>
+ * Batches of hypotheses are checked concurrently, each by a separate task of a {@link ForkJoinPool}. The prepared
+ * reference is immutable and shared between these tasks, whereas the hypotheses must support concurrent reads if the
+ * same instance occurs multiple times in a batch.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class BatchMealyEquivalenceTest<I, O> {
+
+    private final Alphabet<I> alphabet;
+    private final CompactMealy<I, O> reference;
+
+    /**
+     * Constructor. Prepares the given reference for subsequent checks.
+     *
+     * @param reference
+     *         the reference Mealy machine
+     * @param alphabet
+     *         the inputs to consider
+     */
+    public BatchMealyEquivalenceTest(MealyMachine<?, I, ?, O> reference, Alphabet<I> alphabet) {
+        this.alphabet = alphabet;
+
+        if (isPartial(reference.fullIntAbstraction(alphabet), alphabet.size())) {
+            this.reference = new CompactMealy<>(alphabet);
+            AutomatonLowLevelCopy.copy(AutomatonCopyMethod.STATE_BY_STATE, reference, alphabet, this.reference);
+        } else {
+            this.reference = HopcroftMinimization.minimizeMealy(reference, alphabet);
+        }
+    }
+
+    private static boolean isPartial(FullIntAbstraction<?, ?, ?> abs, int numInputs) {
+        for (int s = 0; s < abs.size(); s++) {
+            for (int i = 0; i < numInputs; i++) {
+                if (abs.getTransition(s, i) == null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the number of states of the prepared reference, i.e., the number of states of the minimal Mealy
+     * machine equivalent to the reference (unless the reference is partial).
+     *
+     * @return the size of the prepared reference
+     */
+    public int getReferenceSize() {
+        return reference.size();
+    }
+
+    /**
+     * Computes a shortest word that separates the given hypothesis from the reference.
+     *
+     * @param hypothesis
+     *         the hypothesis
+     *
+     * @return a shortest separating word, or {@code null} if the hypothesis is equivalent to the reference
+     */
+    @Nullable
+    public Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> hypothesis) {
+        final int[] sepIndices = findSeparatingIndices(hypothesis);
+        return (sepIndices == null) ? null : IntWord.fromIndices(alphabet, sepIndices);
+    }
+
+    private <T> int[] findSeparatingIndices(MealyMachine<?, I, T, O> hypothesis) {
+        return DeterministicEquivalenceTest.findSeparatingWord(reference,
+                                                               reference,
+                                                               hypothesis,
+                                                               hypothesis.fullIntAbstraction(alphabet),
+                                                               alphabet.size(),
+                                                               null);
+    }
+
+    /**
+     * Computes shortest separating words for all given hypotheses, using the {@link ForkJoinPool#commonPool() common
+     * pool}.
+     *
+     * @param hypotheses
+     *         the hypotheses
+     *
+     * @return a list containing, for each hypothesis (in iteration order), a shortest separating word or {@code null}
+     * if the hypothesis is equivalent to the reference
+     *
+     * @see #findSeparatingWords(Collection, ForkJoinPool)
+     */
+    public List<Word<I>> findSeparatingWords(Collection<? extends MealyMachine<?, I, ?, O>> hypotheses) {
+        return findSeparatingWords(hypotheses, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes shortest separating words for all given hypotheses, checking the hypotheses concurrently on the given
+     * pool.
+     *
+     * @param hypotheses
+     *         the hypotheses
+     * @param pool
+     *         the pool for executing the individual checks
+     *
+     * @return a list containing, for each hypothesis (in iteration order), a shortest separating word or {@code null}
+     * if the hypothesis is equivalent to the reference
+     */
+    public List<Word<I>> findSeparatingWords(Collection<? extends MealyMachine<?, I, ?, O>> hypotheses,
+                                             ForkJoinPool pool) {
+        final List<ForkJoinTask<Word<I>>> tasks = new ArrayList<>(hypotheses.size());
+        for (MealyMachine<?, I, ?, O> hypothesis : hypotheses) {
+            tasks.add(pool.submit(() -> findSeparatingWord(hypothesis)));
+        }
+
+        final List<Word<I>> result = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<Word<I>> task : tasks) {
+            result.add(task.join());
+        }
+        return result;
+    }
+}
@@ -70,6 +70,30 @@ public final class CharacterizingSets {
         findIncrementalCharacterizingSet(automaton, inputs, Collections.emptyList(), result);
     }
 
+    /**
+     * Computes a characterizing set for the given automaton, based on a splitting tree of its states.
+     * <p>
+     * In contrast to {@link #findCharacterizingSet(UniversalDeterministicAutomaton, Collection, Collection)}, this
+     * method does not compute separating words for pairs of states individually, but records the separating word of
+     * every split while refining the partition of the states (cf. {@link net.automatalib.util.partitionrefinement.PaigeTarjan}).
+     * This makes it applicable to large automata. The computed set contains at most <i>n-1</i> words (where <i>n</i>
+     * denotes the size of the automaton), but is not necessarily the same as (or as small as) the one computed by
+     * {@link #findCharacterizingSet(UniversalDeterministicAutomaton, Collection, Collection)}. The words are not
+     * necessarily shortest.
+     *
+     * @param automaton
+     *         the automaton for which to determine the characterizing set.
+     * @param inputs
+     *         the input alphabets to consider
+     * @param result
+     *         the collection in which to store the characterizing words
+     */
+    public static <I> void findCharacterizingSetFromSplittingTree(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                                                  Collection<? extends I> inputs,
+                                                                  Collection<? super Word<I>> result) {
+        SplittingTree.findCharacterizingSet(automaton, toList(inputs), result);
+    }
+
     /**
      * Computes a characterizing set for a specified state in the given automaton.
      *
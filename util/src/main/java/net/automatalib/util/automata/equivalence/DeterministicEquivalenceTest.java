@@ -15,21 +15,37 @@
  */
 package net.automatalib.util.automata.equivalence;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Objects;
-import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.Nullable;
 
 import net.automatalib.automata.UniversalDeterministicAutomaton;
-import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.UniversalDeterministicAutomaton.FullIntAbstraction;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.IntWord;
 import net.automatalib.words.Word;
 import net.automatalib.words.WordBuilder;
 
+/**
+ * Equivalence test for deterministic automata, based on a breadth-first search over the product of two automata. As a
+ * consequence, the separating words computed by this class are shortest.
+ * <p>
+ * The search operates on the {@link FullIntAbstraction integer abstractions} of both automata, and stores the explored
+ * product states in primitive arrays (indexed by their discovery order, which also serves as the queue of the
+ * search) and a primitive open-addressing hash set. In particular, no objects are allocated per product state. If
+ * an automaton is its own integer abstraction for the given inputs (as it is the case for the compact automaton
+ * implementations and their input alphabet), successors and transition properties are retrieved without materializing
+ * transitions. Separating words for inputs given as an {@link Alphabet} are returned as {@link IntWord}s.
+ *
+ * @param <I>
+ *         input symbol type
+ */
 public class DeterministicEquivalenceTest<I> {
 
-    private static final int MAP_THRESHOLD = 10000;
     private final UniversalDeterministicAutomaton<?, I, ?, ?, ?> reference;
 
     public DeterministicEquivalenceTest(UniversalDeterministicAutomaton<?, I, ?, ?, ?> reference) {
@@ -44,235 +60,247 @@ public class DeterministicEquivalenceTest<I> {
     public static <I, S, T, S2, T2> Word<I> findSeparatingWord(UniversalDeterministicAutomaton<S, I, T, ?, ?> reference,
                                                                UniversalDeterministicAutomaton<S2, I, T2, ?, ?> other,
                                                                Collection<? extends I> inputs) {
-        int refSize = reference.size();
-        int totalStates = refSize * other.size();
-
-        if (totalStates < 0 || totalStates > MAP_THRESHOLD) {
-            return findSeparatingWordLarge(reference, other, inputs);
-        }
+        return findSeparatingWord(reference, other, inputs, null);
+    }
 
-        S refInit = reference.getInitialState();
-        S2 otherInit = other.getInitialState();
+    /**
+     * Computes a shortest separating word of two automata, exploring each breadth-first level of their product in
+     * parallel on the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @see #findSeparatingWordParallel(UniversalDeterministicAutomaton, UniversalDeterministicAutomaton, Collection,
+     * ForkJoinPool)
+     */
+    public static <I, S, T, S2, T2> Word<I> findSeparatingWordParallel(UniversalDeterministicAutomaton<S, I, T, ?, ?> reference,
+                                                                       UniversalDeterministicAutomaton<S2, I, T2, ?, ?> other,
+                                                                       Collection<? extends I> inputs) {
+        return findSeparatingWordParallel(reference, other, inputs, ForkJoinPool.commonPool());
+    }
 
-        Object refStateProp = reference.getStateProperty(refInit), otherStateProp = other.getStateProperty(otherInit);
+    /**
+     * Computes a shortest separating word of two automata, exploring each breadth-first level of their product in
+     * parallel on the given pool.
+     * <p>
+     * The successors of the current level are computed by concurrent tasks, and are merged into a visited set that is
+     * partitioned by the hash of the product states, such that each partition is updated by a single task. The
+     * returned word only depends on the automata and the inputs, but not on the number of threads. It may differ from
+     * the word returned by {@link #findSeparatingWord(UniversalDeterministicAutomaton, UniversalDeterministicAutomaton,
+     * Collection)}, but is of the same (minimal) length.
+     * <p>
+     * Both automata are accessed concurrently (but read-only) by multiple threads.
+     *
+     * @param reference
+     *         the reference automaton
+     * @param other
+     *         the other automaton
+     * @param inputs
+     *         the inputs to consider
+     * @param pool
+     *         the pool used for exploring the product
+     *
+     * @return a shortest separating word, or {@code null} if the automata are equivalent (with respect to the inputs)
+     */
+    public static <I, S, T, S2, T2> Word<I> findSeparatingWordParallel(UniversalDeterministicAutomaton<S, I, T, ?, ?> reference,
+                                                                       UniversalDeterministicAutomaton<S2, I, T2, ?, ?> other,
+                                                                       Collection<? extends I> inputs,
+                                                                       ForkJoinPool pool) {
+        return findSeparatingWord(reference, other, inputs, pool);
+    }
 
-        if (!Objects.equals(refStateProp, otherStateProp)) {
-            return Word.epsilon();
+    private static <I, S, T, S2, T2> Word<I> findSeparatingWord(UniversalDeterministicAutomaton<S, I, T, ?, ?> reference,
+                                                                UniversalDeterministicAutomaton<S2, I, T2, ?, ?> other,
+                                                                Collection<? extends I> inputs,
+                                                                @Nullable ForkJoinPool pool) {
+        if (inputs instanceof Alphabet) {
+            @SuppressWarnings("unchecked")
+            final Alphabet<I> alphabet = (Alphabet<I>) inputs;
+            final int[] sepIndices = findSeparatingWord(reference,
+                                                        reference.fullIntAbstraction(alphabet),
+                                                        other,
+                                                        other.fullIntAbstraction(alphabet),
+                                                        alphabet.size(),
+                                                        pool);
+            return (sepIndices == null) ? null : IntWord.fromIndices(alphabet, sepIndices);
         }
 
-        Queue<StatePair<S, S2>> bfsQueue = new ArrayDeque<>();
-        bfsQueue.add(new StatePair<>(refInit, otherInit));
-
-        StateIDs<S> refStateIds = reference.stateIDs();
-        StateIDs<S2> otherStateIds = other.stateIDs();
-
-        StatePair<S, S2> currPair;
-        int lastId = otherStateIds.getStateId(otherInit) * refSize + refStateIds.getStateId(refInit);
-
-        @SuppressWarnings("unchecked")
-        Pred<I>[] preds = new Pred[totalStates];
-        preds[lastId] = new Pred<>(-1, null);
-
-        int currDepth = 0;
-        int inCurrDepth = 1;
-        int inNextDepth = 0;
-
-        I lastSym = null;
-
-        bfs:
-        while ((currPair = bfsQueue.poll()) != null) {
-            S refState = currPair.ref;
-            S2 otherState = currPair.other;
-
-            int currId = otherStateIds.getStateId(otherState) * refSize + refStateIds.getStateId(refState);
-            lastId = currId;
-
-            for (I in : inputs) {
-                lastSym = in;
-                T refTrans = reference.getTransition(refState, in);
-                T2 otherTrans = other.getTransition(otherState, in);
-
-                if ((refTrans == null || otherTrans == null) && refTrans != otherTrans) {
-                    break bfs;
-                }
-
-                Object refProp = reference.getTransitionProperty(refTrans);
-                Object otherProp = other.getTransitionProperty(otherTrans);
-                if (!Objects.equals(refProp, otherProp)) {
-                    break bfs;
-                }
-
-                S refSucc = reference.getSuccessor(refTrans);
-                S2 otherSucc = other.getSuccessor(otherTrans);
-
-                int succId = otherStateIds.getStateId(otherSucc) * refSize + refStateIds.getStateId(refSucc);
-
-                if (preds[succId] == null) {
-                    refStateProp = reference.getStateProperty(refSucc);
-                    otherStateProp = other.getStateProperty(otherSucc);
-
-                    if (!Objects.equals(refStateProp, otherStateProp)) {
-                        break bfs;
-                    }
-
-                    preds[succId] = new Pred<>(currId, in);
-                    bfsQueue.add(new StatePair<>(refSucc, otherSucc));
-                    inNextDepth++;
-                }
-            }
-
-            lastSym = null;
-
-            // Next level in BFS reached
-            if (--inCurrDepth == 0) {
-                inCurrDepth = inNextDepth;
-                inNextDepth = 0;
-                currDepth++;
-            }
-        }
+        final List<I> symbols = new ArrayList<>(inputs);
+        final int numInputs = symbols.size();
+        final int[] sepIndices = findSeparatingWord(reference,
+                                                    reference.fullIntAbstraction(numInputs, symbols::get),
+                                                    other,
+                                                    other.fullIntAbstraction(numInputs, symbols::get),
+                                                    numInputs,
+                                                    pool);
 
-        if (lastSym == null) {
+        if (sepIndices == null) {
             return null;
         }
 
-        WordBuilder<I> sep = new WordBuilder<>(null, currDepth + 1);
-        int index = currDepth;
-        sep.setSymbol(index--, lastSym);
+        final WordBuilder<I> sep = new WordBuilder<>(sepIndices.length);
+        for (int idx : sepIndices) {
+            sep.append(symbols.get(idx));
+        }
+        return sep.toWord();
+    }
 
-        Pred<I> pred = preds[lastId];
-        I sym = pred.symbol;
-        while (sym != null) {
-            sep.setSymbol(index--, sym);
-            pred = preds[pred.id];
-            sym = pred.symbol;
+    /**
+     * Computes the input indices of a shortest separating word of two automata, given their integer abstractions.
+     *
+     * @param pool
+     *         the pool for exploring the product in parallel, or {@code null} for a sequential exploration
+     *
+     * @return the input indices of a shortest separating word, or {@code null} if the automata are equivalent
+     */
+    static <T, T2> int[] findSeparatingWord(UniversalDeterministicAutomaton<?, ?, T, ?, ?> reference,
+                                            FullIntAbstraction<T, ?, ?> refAbs,
+                                            UniversalDeterministicAutomaton<?, ?, T2, ?, ?> other,
+                                            FullIntAbstraction<T2, ?, ?> otherAbs,
+                                            int numInputs,
+                                            @Nullable ForkJoinPool pool) {
+        final IntTransitions ref = transitionsOf(reference, refAbs);
+        final IntTransitions otherTransitions = transitionsOf(other, otherAbs);
+        final int refInit = refAbs.getIntInitialState();
+        final int otherInit = otherAbs.getIntInitialState();
+
+        if (refInit < 0 || otherInit < 0) {
+            return (refInit == otherInit) ? null : new int[0];
+        }
+        if (!Objects.equals(refAbs.getStateProperty(refInit), otherAbs.getStateProperty(otherInit))) {
+            return new int[0];
         }
 
-        return sep.toWord();
+        if (pool == null) {
+            return findSeparatingWord(ref, otherTransitions, refInit, otherInit, numInputs);
+        }
+        return new ParallelProductSearch(() -> transitionsOf(reference, refAbs),
+                                         () -> transitionsOf(other, otherAbs),
+                                         numInputs,
+                                         pool).findSeparatingWord(refInit, otherInit);
     }
 
+    /**
+     * Computes a shortest separating word of two automata.
+     * <p>
+     * This method behaves exactly like {@link #findSeparatingWord(UniversalDeterministicAutomaton,
+     * UniversalDeterministicAutomaton, Collection)}, which does not impose a limit on the size of the product anymore.
+     * It is retained for compatibility.
+     */
     public static <I, S, T, S2, T2> Word<I> findSeparatingWordLarge(UniversalDeterministicAutomaton<S, I, T, ?, ?> reference,
                                                                     UniversalDeterministicAutomaton<S2, I, T2, ?, ?> other,
                                                                     Collection<? extends I> inputs) {
-        S refInit = reference.getInitialState();
-        S2 otherInit = other.getInitialState();
-
-        Object refStateProp = reference.getStateProperty(refInit), otherStateProp = other.getStateProperty(otherInit);
+        return findSeparatingWord(reference, other, inputs);
+    }
 
-        if (!Objects.equals(refStateProp, otherStateProp)) {
-            return Word.epsilon();
+    static <T> IntTransitions transitionsOf(UniversalDeterministicAutomaton<?, ?, T, ?, ?> automaton,
+                                                    FullIntAbstraction<T, ?, ?> abs) {
+        if (abs == automaton) {
+            return new DirectTransitions(abs);
         }
+        return new CachedTransitions<>(abs);
+    }
 
-        Queue<StatePair<S, S2>> bfsQueue = new ArrayDeque<>();
-        bfsQueue.add(new StatePair<>(refInit, otherInit));
-
-        int refSize = reference.size();
-
-        StateIDs<S> refStateIds = reference.stateIDs();
-        StateIDs<S2> otherStateIds = other.stateIDs();
-
-        StatePair<S, S2> currPair;
-        int lastId = otherStateIds.getStateId(otherInit) * refSize + refStateIds.getStateId(refInit);
-
-        //TIntObjectMap<Pred<I>> preds = new TIntObjectHashMap<>();
-        Map<Integer, Pred<I>> preds = new HashMap<>(); // TODO: replace by primitive specialization
-        preds.put(lastId, new Pred<>(-1, null));
-
-        int currDepth = 0;
-        int inCurrDepth = 1;
-        int inNextDepth = 0;
-
-        I lastSym = null;
-
-        bfs:
-        while ((currPair = bfsQueue.poll()) != null) {
-            S refState = currPair.ref;
-            S2 otherState = currPair.other;
-
-            int currId = otherStateIds.getStateId(otherState) * refSize + refStateIds.getStateId(refState);
-            lastId = currId;
-
-            for (I in : inputs) {
-                lastSym = in;
-                T refTrans = reference.getTransition(refState, in);
-                T2 otherTrans = other.getTransition(otherState, in);
+    /**
+     * Breadth-first search for a shortest separating word over input indices, starting in a pair of (equivalently
+     * labeled) initial states.
+     *
+     * @return the input indices of a shortest separating word, or {@code null} if the automata are equivalent
+     */
+    private static int[] findSeparatingWord(IntTransitions ref,
+                                            IntTransitions other,
+                                            int refInit,
+                                            int otherInit,
+                                            int numInputs) {
+        final ProductStates product = new ProductStates();
+        final PairSet visited = new PairSet(Math.max(ref.abs.size(), other.abs.size()));
+        product.add(refInit, otherInit, -1, -1);
+        visited.add(PairSet.key(refInit, otherInit));
+
+        for (int node = 0; node < product.size; node++) {
+            final int refState = product.refStates[node];
+            final int otherState = product.otherStates[node];
+
+            for (int i = 0; i < numInputs; i++) {
+                final int refSucc = ref.successor(refState, i);
+                final int otherSucc = other.successor(otherState, i);
+
+                if (refSucc < 0 || otherSucc < 0) {
+                    if (refSucc != otherSucc) {
+                        return product.word(node, i);
+                    }
+                    continue;
+                }
 
-                if ((refTrans == null || otherTrans == null) && refTrans != otherTrans) {
-                    break bfs;
+                if (!Objects.equals(ref.property(refState, i), other.property(otherState, i))) {
+                    return product.word(node, i);
                 }
 
-                Object refProp = reference.getTransitionProperty(refTrans);
-                Object otherProp = other.getTransitionProperty(otherTrans);
-                if (!Objects.equals(refProp, otherProp)) {
-                    break bfs;
+                if (visited.add(PairSet.key(refSucc, otherSucc))) {
+                    if (!Objects.equals(ref.abs.getStateProperty(refSucc), other.abs.getStateProperty(otherSucc))) {
+                        return product.word(node, i);
+                    }
+                    product.add(refSucc, otherSucc, node, i);
                 }
+            }
+        }
 
-                S refSucc = reference.getSuccessor(refTrans);
-                S2 otherSucc = other.getSuccessor(otherTrans);
+        return null;
+    }
 
-                int succId = otherStateIds.getStateId(otherSucc) * refSize + refStateIds.getStateId(refSucc);
+    /**
+     * Access to the (integer) transitions of an automaton. {@link #property(int, int)} may only be called for the
+     * state and input of the directly preceding call to {@link #successor(int, int)}.
+     */
+    abstract static class IntTransitions {
 
-                if (preds.get(succId) == null) {
-                    refStateProp = reference.getStateProperty(refSucc);
-                    otherStateProp = other.getStateProperty(otherSucc);
+        protected final FullIntAbstraction<?, ?, ?> abs;
 
-                    if (!Objects.equals(refStateProp, otherStateProp)) {
-                        break bfs;
-                    }
+        IntTransitions(FullIntAbstraction<?, ?, ?> abs) {
+            this.abs = abs;
+        }
 
-                    preds.put(succId, new Pred<>(currId, in));
-                    bfsQueue.add(new StatePair<>(refSucc, otherSucc));
-                    inNextDepth++;
-                }
-            }
+        abstract int successor(int state, int input);
 
-            lastSym = null;
+        abstract Object property(int state, int input);
+    }
 
-            // Next level in BFS reached
-            if (--inCurrDepth == 0) {
-                inCurrDepth = inNextDepth;
-                inNextDepth = 0;
-                currDepth++;
-            }
-        }
+    static final class DirectTransitions extends IntTransitions {
 
-        if (lastSym == null) {
-            return null;
+        DirectTransitions(FullIntAbstraction<?, ?, ?> abs) {
+            super(abs);
         }
 
-        WordBuilder<I> sep = new WordBuilder<>(null, currDepth + 1);
-        int index = currDepth;
-        sep.setSymbol(index--, lastSym);
-
-        Pred<I> pred = preds.get(lastId);
-        I sym = pred.symbol;
-        while (sym != null) {
-            sep.setSymbol(index--, sym);
-            pred = preds.get(pred.id);
-            sym = pred.symbol;
+        @Override
+        int successor(int state, int input) {
+            return abs.getSuccessor(state, input);
         }
 
-        return sep.toWord();
+        @Override
+        Object property(int state, int input) {
+            return abs.getTransitionProperty(state, input);
+        }
     }
 
-    private static final class StatePair<S, S2> {
+    /**
+     * Retrieves transitions only once for computing both the successor and the transition property.
+     */
+    static final class CachedTransitions<T> extends IntTransitions {
 
-        public final S ref;
-        public final S2 other;
+        private final FullIntAbstraction<T, ?, ?> typedAbs;
+        private T transition;
 
-        StatePair(S ref, S2 other) {
-            this.ref = ref;
-            this.other = other;
+        CachedTransitions(FullIntAbstraction<T, ?, ?> abs) {
+            super(abs);
+            this.typedAbs = abs;
         }
-    }
 
-    private static final class Pred<I> {
-
-        public final int id;
-        public final I symbol;
+        @Override
+        int successor(int state, int input) {
+            transition = typedAbs.getTransition(state, input);
+            return (transition != null) ? typedAbs.getIntSuccessor(transition) : -1;
+        }
 
-        Pred(int id, I input) {
-            this.id = id;
-            this.symbol = input;
+        @Override
+        Object property(int state, int input) {
+            return typedAbs.getTransitionProperty(transition);
         }
     }
 }
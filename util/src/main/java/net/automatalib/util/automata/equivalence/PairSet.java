@@ -0,0 +1,107 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash set of pairs of (non-negative) state ids, packed into {@code long}s.
+ */
+final class PairSet {
+
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int size;
+
+    PairSet(int expectedSize) {
+        this.keys = newTable(Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) * 2);
+    }
+
+    static long key(int state1, int state2) {
+        return ((long) state1 << 32) | (state2 & 0xFFFFFFFFL);
+    }
+
+    static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static long[] newTable(int capacity) {
+        final long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long key) {
+        final long[] table = keys;
+        final int mask = table.length - 1;
+        int idx = hash(key) & mask;
+        long k;
+        while ((k = table[idx]) != EMPTY) {
+            if (k == key) {
+                return true;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the given pair to this set.
+     *
+     * @param key
+     *         the pair, as returned by {@link #key(int, int)}
+     *
+     * @return {@code true} if the pair was added, {@code false} if it was already contained in this set
+     */
+    boolean add(long key) {
+        final int mask = keys.length - 1;
+        int idx = hash(key) & mask;
+        long k;
+        while ((k = keys[idx]) != EMPTY) {
+            if (k == key) {
+                return false;
+            }
+            idx = (idx + 1) & mask;
+        }
+        keys[idx] = key;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+        return true;
+    }
+
+    private void rehash() {
+        final long[] oldKeys = keys;
+        final long[] newKeys = newTable(oldKeys.length * 2);
+        final int mask = newKeys.length - 1;
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                int idx = hash(key) & mask;
+                while (newKeys[idx] != EMPTY) {
+                    idx = (idx + 1) & mask;
+                }
+                newKeys[idx] = key;
+            }
+        }
+        keys = newKeys;
+    }
+}
@@ -0,0 +1,344 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import net.automatalib.util.automata.equivalence.DeterministicEquivalenceTest.IntTransitions;
+
+/**
+ * A level-synchronous, parallel breadth-first search for a shortest separating word of two deterministic automata.
+ * <p>
+ * Each level of the search is processed in two phases: first, the current frontier is split into chunks of fixed size,
+ * whose successors are computed concurrently. Successors that have not been visited on previous levels are collected per
+ * chunk, grouped by the partition of the visited set they belong to. Second, each partition of the visited set is
+ * updated by a single task, which adds the new product states in the order of the chunks. The new states are appended
+ * to the {@link ProductStates} partition by partition, and form the frontier of the next level.
+ * <p>
+ * Since the chunks and partitions do not depend on the number of threads, neither does the explored product nor the
+ * returned word. If several separating words are found on the same level, the one of the earliest (state, input) pair
+ * of the frontier is returned.
+ */
+final class ParallelProductSearch {
+
+    /**
+     * The number of frontier states processed by a single task.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    private static final int PARTITION_BITS = 6;
+    private static final int NUM_PARTITIONS = 1 << PARTITION_BITS;
+
+    private static final int NO_CHUNK = Integer.MAX_VALUE;
+
+    private final Supplier<IntTransitions> refSupplier;
+    private final Supplier<IntTransitions> otherSupplier;
+    private final int numInputs;
+    private final ForkJoinPool pool;
+
+    private final ProductStates product = new ProductStates();
+    private final PairSet[] visited = new PairSet[NUM_PARTITIONS];
+    private final Partition[] partitions = new Partition[NUM_PARTITIONS];
+
+    // the first chunk (in frontier order) of the current level that found a separating word
+    private final AtomicInteger separatingChunk = new AtomicInteger(NO_CHUNK);
+
+    ParallelProductSearch(Supplier<IntTransitions> refSupplier,
+                          Supplier<IntTransitions> otherSupplier,
+                          int numInputs,
+                          ForkJoinPool pool) {
+        this.refSupplier = refSupplier;
+        this.otherSupplier = otherSupplier;
+        this.numInputs = numInputs;
+        this.pool = pool;
+
+        for (int i = 0; i < NUM_PARTITIONS; i++) {
+            visited[i] = new PairSet(CHUNK_SIZE);
+            partitions[i] = new Partition();
+        }
+    }
+
+    private static int partitionOf(long key) {
+        return PairSet.hash(key) >>> (Integer.SIZE - PARTITION_BITS);
+    }
+
+    /**
+     * Searches for a separating word, starting in a pair of (equivalently labeled) initial states.
+     *
+     * @return the input indices of a shortest separating word, or {@code null} if the automata are equivalent
+     */
+    int[] findSeparatingWord(int refInit, int otherInit) {
+        final long initKey = PairSet.key(refInit, otherInit);
+        visited[partitionOf(initKey)].add(initKey);
+        product.add(refInit, otherInit, -1, -1);
+
+        int levelLow = 0;
+        int levelHigh = product.size;
+
+        while (levelLow < levelHigh) {
+            final int numChunks = (levelHigh - levelLow + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            final Chunk[] chunks = new Chunk[numChunks];
+            for (int c = 0; c < numChunks; c++) {
+                final int low = levelLow + c * CHUNK_SIZE;
+                chunks[c] = new Chunk(c, low, Math.min(low + CHUNK_SIZE, levelHigh));
+            }
+
+            invoke(numChunks, c -> chunks[c].expand());
+
+            final int sepChunk = separatingChunk.get();
+            if (sepChunk != NO_CHUNK) {
+                final Chunk chunk = chunks[sepChunk];
+                return product.word(chunk.sepNode, chunk.sepInput);
+            }
+
+            int numCandidates = 0;
+            for (Chunk chunk : chunks) {
+                numCandidates += chunk.size;
+            }
+            if (numCandidates == 0) {
+                break;
+            }
+
+            if (numCandidates <= CHUNK_SIZE) {
+                for (int p = 0; p < NUM_PARTITIONS; p++) {
+                    partitions[p].merge(p, chunks);
+                }
+            } else {
+                invoke(NUM_PARTITIONS, p -> partitions[p].merge(p, chunks));
+            }
+
+            int newSize = product.size;
+            for (Partition partition : partitions) {
+                newSize += partition.size;
+            }
+            product.ensureCapacity(newSize);
+            for (Partition partition : partitions) {
+                partition.appendTo(product);
+            }
+
+            levelLow = levelHigh;
+            levelHigh = product.size;
+        }
+
+        return null;
+    }
+
+    private void invoke(int numTasks, IntConsumer action) {
+        if (numTasks == 1) {
+            action.accept(0);
+        } else {
+            pool.invoke(new RangeTask(action, 0, numTasks));
+        }
+    }
+
+    private static int[] grow(int[] array, int minCapacity) {
+        return (array.length >= minCapacity) ? array : Arrays.copyOf(array, Math.max(minCapacity, array.length * 2));
+    }
+
+    /**
+     * A chunk of the frontier, and the unvisited successors of its states, grouped by partition.
+     */
+    private final class Chunk {
+
+        private final int index;
+        private final int low, high;
+
+        private int sepNode = -1;
+        private int sepInput = -1;
+
+        private int size;
+        private int[] refSuccs;
+        private int[] otherSuccs;
+        private int[] preds;
+        private int[] predInputs;
+        private final int[] partitionOffsets = new int[NUM_PARTITIONS + 1];
+
+        Chunk(int index, int low, int high) {
+            this.index = index;
+            this.low = low;
+            this.high = high;
+        }
+
+        void expand() {
+            final IntTransitions ref = refSupplier.get();
+            final IntTransitions other = otherSupplier.get();
+
+            final int capacity = 16;
+            int[] candRefs = new int[capacity];
+            int[] candOthers = new int[capacity];
+            int[] candPreds = new int[capacity];
+            int[] candInputs = new int[capacity];
+            int[] candPartitions = new int[capacity];
+            int numCands = 0;
+
+            for (int node = low; node < high; node++) {
+                if (separatingChunk.get() < index) {
+                    // a preceding chunk determines the result
+                    return;
+                }
+
+                final int refState = product.refStates[node];
+                final int otherState = product.otherStates[node];
+
+                for (int i = 0; i < numInputs; i++) {
+                    final int refSucc = ref.successor(refState, i);
+                    final int otherSucc = other.successor(otherState, i);
+
+                    if (refSucc < 0 || otherSucc < 0) {
+                        if (refSucc != otherSucc) {
+                            separate(node, i);
+                            return;
+                        }
+                        continue;
+                    }
+
+                    if (!Objects.equals(ref.property(refState, i), other.property(otherState, i))) {
+                        separate(node, i);
+                        return;
+                    }
+
+                    final long key = PairSet.key(refSucc, otherSucc);
+                    final int partition = partitionOf(key);
+                    if (visited[partition].contains(key)) {
+                        continue;
+                    }
+
+                    if (!Objects.equals(ref.abs.getStateProperty(refSucc), other.abs.getStateProperty(otherSucc))) {
+                        separate(node, i);
+                        return;
+                    }
+
+                    if (numCands == candRefs.length) {
+                        candRefs = grow(candRefs, numCands + 1);
+                        candOthers = grow(candOthers, numCands + 1);
+                        candPreds = grow(candPreds, numCands + 1);
+                        candInputs = grow(candInputs, numCands + 1);
+                        candPartitions = grow(candPartitions, numCands + 1);
+                    }
+                    candRefs[numCands] = refSucc;
+                    candOthers[numCands] = otherSucc;
+                    candPreds[numCands] = node;
+                    candInputs[numCands] = i;
+                    candPartitions[numCands] = partition;
+                    numCands++;
+                }
+            }
+
+            // group the candidates by partition
+            for (int c = 0; c < numCands; c++) {
+                partitionOffsets[candPartitions[c] + 1]++;
+            }
+            for (int p = 0; p < NUM_PARTITIONS; p++) {
+                partitionOffsets[p + 1] += partitionOffsets[p];
+            }
+
+            this.size = numCands;
+            this.refSuccs = new int[numCands];
+            this.otherSuccs = new int[numCands];
+            this.preds = new int[numCands];
+            this.predInputs = new int[numCands];
+
+            final int[] next = Arrays.copyOf(partitionOffsets, NUM_PARTITIONS);
+            for (int c = 0; c < numCands; c++) {
+                final int pos = next[candPartitions[c]]++;
+                refSuccs[pos] = candRefs[c];
+                otherSuccs[pos] = candOthers[c];
+                preds[pos] = candPreds[c];
+                predInputs[pos] = candInputs[c];
+            }
+        }
+
+        private void separate(int node, int input) {
+            this.sepNode = node;
+            this.sepInput = input;
+            separatingChunk.accumulateAndGet(index, Math::min);
+        }
+    }
+
+    /**
+     * The product states of a single partition of the visited set that have been discovered on the current level.
+     */
+    private final class Partition {
+
+        private int size;
+        private int[] refStates = new int[0];
+        private int[] otherStates = new int[0];
+        private int[] preds = new int[0];
+        private int[] predInputs = new int[0];
+
+        void merge(int partition, Chunk[] chunks) {
+            final PairSet set = visited[partition];
+            size = 0;
+
+            for (Chunk chunk : chunks) {
+                final int low = chunk.partitionOffsets[partition], high = chunk.partitionOffsets[partition + 1];
+                for (int c = low; c < high; c++) {
+                    if (set.add(PairSet.key(chunk.refSuccs[c], chunk.otherSuccs[c]))) {
+                        if (size == refStates.length) {
+                            refStates = grow(refStates, size + 1);
+                            otherStates = grow(otherStates, size + 1);
+                            preds = grow(preds, size + 1);
+                            predInputs = grow(predInputs, size + 1);
+                        }
+                        refStates[size] = chunk.refSuccs[c];
+                        otherStates[size] = chunk.otherSuccs[c];
+                        preds[size] = chunk.preds[c];
+                        predInputs[size] = chunk.predInputs[c];
+                        size++;
+                    }
+                }
+            }
+        }
+
+        void appendTo(ProductStates states) {
+            final int offset = states.size;
+            System.arraycopy(refStates, 0, states.refStates, offset, size);
+            System.arraycopy(otherStates, 0, states.otherStates, offset, size);
+            System.arraycopy(preds, 0, states.preds, offset, size);
+            System.arraycopy(predInputs, 0, states.predInputs, offset, size);
+            states.size += size;
+            size = 0;
+        }
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private final IntConsumer action;
+        private final int low, high;
+
+        RangeTask(IntConsumer action, int low, int high) {
+            this.action = action;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low == 1) {
+                action.accept(low);
+            } else {
+                final int mid = (low + high) >>> 1;
+                invokeAll(new RangeTask(action, low, mid), new RangeTask(action, mid, high));
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.Arrays;
+
+/**
+ * The states of a product automaton explored by a breadth-first search, stored in the order of their discovery together
+ * with their breadth-first predecessors.
+ */
+final class ProductStates {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    int size;
+    int[] refStates = new int[INITIAL_CAPACITY];
+    int[] otherStates = new int[INITIAL_CAPACITY];
+    int[] preds = new int[INITIAL_CAPACITY];
+    int[] predInputs = new int[INITIAL_CAPACITY];
+
+    void ensureCapacity(int capacity) {
+        if (capacity > refStates.length) {
+            final int newCapacity = Math.max(capacity, refStates.length * 2);
+            refStates = Arrays.copyOf(refStates, newCapacity);
+            otherStates = Arrays.copyOf(otherStates, newCapacity);
+            preds = Arrays.copyOf(preds, newCapacity);
+            predInputs = Arrays.copyOf(predInputs, newCapacity);
+        }
+    }
+
+    void add(int refState, int otherState, int pred, int predInput) {
+        ensureCapacity(size + 1);
+        final int node = size++;
+        refStates[node] = refState;
+        otherStates[node] = otherState;
+        preds[node] = pred;
+        predInputs[node] = predInput;
+    }
+
+    /**
+     * Computes the input indices of the word that leads to the given state, followed by the given input.
+     *
+     * @param node
+     *         the index of the state
+     * @param lastInput
+     *         the last input (index) of the word
+     *
+     * @return the input indices of the word
+     */
+    int[] word(int node, int lastInput) {
+        int length = 1;
+        for (int n = node; preds[n] >= 0; n = preds[n]) {
+            length++;
+        }
+
+        final int[] result = new int[length];
+        result[length - 1] = lastInput;
+        int idx = length - 2;
+        for (int n = node; preds[n] >= 0; n = preds[n]) {
+            result[idx--] = predInputs[n];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,361 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.UniversalDeterministicAutomaton.FullIntAbstraction;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A splitting tree of the states of a deterministic automaton, in the spirit of Lee and Yannakakis ("Testing
+ * finite-state machines: state identification and verification").
+ * <p>
+ * The leaves of the tree are the blocks of the current partition. Whenever a block is split, it becomes an inner node
+ * that is labeled with a word separating all pairs of states in distinct children: either the empty word (differing
+ * state properties), a single input symbol (differing transition properties), or an input symbol <i>a</i> followed by
+ * the label of the lowest common ancestor of the leaves containing the <i>a</i>-successors of the block. Once the
+ * partition is stable, the labels of the inner nodes form a characterizing set of at most <i>n-1</i> words.
+ * <p>
+ * As in {@link net.automatalib.util.partitionrefinement.PaigeTarjan}, the states are stored in a single array that is
+ * permuted such that every node of the tree corresponds to a contiguous range. Blocks are only (re-)examined if they
+ * are new or if the block of one of their successors has been split. All data is stored in primitive arrays, and labels
+ * are stored as (input, node) pairs, i.e., words are only materialized for the final characterizing set.
+ */
+final class SplittingTree {
+
+    private static final int NO_NODE = -1;
+    private static final int NO_INPUT = -1;
+
+    private final int numStates;
+    private final int numInputs;
+
+    private final int[] successors;
+    private final int[] transitionProperties;
+    private final int[] stateProperties;
+    private final int[] predOffsets;
+    private final int[] predecessors;
+
+    private final int[] states;
+    private final int[] leafOf;
+
+    private final int[] nodeStart;
+    private final int[] nodeEnd;
+    private final int[] nodeParent;
+    private final int[] nodeDepth;
+    private final boolean[] isLeaf;
+    private final int[] labelInput;
+    private final int[] labelNext;
+    private int numNodes;
+
+    private final int[] queue;
+    private final boolean[] inQueue;
+    private int queueHead, queueTail;
+
+    // scratch arrays for splitting
+    private final int[] keys;
+    private final int[] buffer;
+    private final int[] groupOfKey;
+    private final int[] groupStamp;
+    private int stamp;
+
+    private <T> SplittingTree(FullIntAbstraction<T, ?, ?> abs, int numInputs) {
+        this.numStates = abs.size();
+        this.numInputs = numInputs;
+
+        this.successors = new int[numStates * numInputs];
+        this.transitionProperties = new int[numStates * numInputs];
+        this.stateProperties = new int[numStates];
+
+        final Map<Object, Integer> stateProps = new HashMap<>();
+        final Map<Object, Integer> transProps = new HashMap<>();
+        final int[] numPreds = new int[numStates + 1];
+
+        for (int s = 0; s < numStates; s++) {
+            stateProperties[s] = stateProps.computeIfAbsent(abs.getStateProperty(s), k -> stateProps.size());
+            for (int i = 0; i < numInputs; i++) {
+                final int idx = s * numInputs + i;
+                final T trans = abs.getTransition(s, i);
+                if (trans == null) {
+                    successors[idx] = NO_NODE;
+                    transitionProperties[idx] = 0;
+                } else {
+                    final int succ = abs.getIntSuccessor(trans);
+                    successors[idx] = succ;
+                    // 0 is reserved for undefined transitions
+                    transitionProperties[idx] =
+                            transProps.computeIfAbsent(abs.getTransitionProperty(trans), k -> transProps.size() + 1);
+                    numPreds[succ + 1]++;
+                }
+            }
+        }
+
+        // predecessors in compressed (CSR) format
+        for (int s = 0; s < numStates; s++) {
+            numPreds[s + 1] += numPreds[s];
+        }
+        this.predOffsets = numPreds;
+        this.predecessors = new int[numPreds[numStates]];
+        final int[] fill = Arrays.copyOf(numPreds, numStates);
+        for (int s = 0; s < numStates; s++) {
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = successors[s * numInputs + i];
+                if (succ != NO_NODE) {
+                    predecessors[fill[succ]++] = s;
+                }
+            }
+        }
+
+        final int maxNodes = Math.max(2 * numStates - 1, 1);
+        this.states = new int[numStates];
+        this.leafOf = new int[numStates];
+        this.nodeStart = new int[maxNodes];
+        this.nodeEnd = new int[maxNodes];
+        this.nodeParent = new int[maxNodes];
+        this.nodeDepth = new int[maxNodes];
+        this.isLeaf = new boolean[maxNodes];
+        this.labelInput = new int[maxNodes];
+        this.labelNext = new int[maxNodes];
+        this.queue = new int[maxNodes];
+        this.inQueue = new boolean[maxNodes];
+
+        this.keys = new int[numStates];
+        this.buffer = new int[numStates];
+        final int maxKey = Math.max(maxNodes, Math.max(stateProps.size(), transProps.size() + 1));
+        this.groupOfKey = new int[maxKey];
+        this.groupStamp = new int[maxKey];
+
+        for (int s = 0; s < numStates; s++) {
+            states[s] = s;
+        }
+        nodeStart[0] = 0;
+        nodeEnd[0] = numStates;
+        nodeParent[0] = NO_NODE;
+        isLeaf[0] = true;
+        numNodes = 1;
+    }
+
+    /**
+     * Computes a characterizing set for the given automaton, see {@link CharacterizingSets#findCharacterizingSetFromSplittingTree(UniversalDeterministicAutomaton,
+     * Collection, Collection)}.
+     */
+    static <I> void findCharacterizingSet(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                          List<? extends I> inputs,
+                                          Collection<? super Word<I>> result) {
+        if (automaton.size() == 0) {
+            return;
+        }
+
+        final SplittingTree tree = new SplittingTree(automaton.fullIntAbstraction(inputs.size(), inputs::get),
+                                                     inputs.size());
+        tree.refine();
+
+        final Set<Word<I>> seen = new HashSet<>();
+        final WordBuilder<I> wb = new WordBuilder<>();
+        for (int node = 0; node < tree.numNodes; node++) {
+            if (!tree.isLeaf[node]) {
+                wb.clear();
+                for (int n = node; n != NO_NODE && tree.labelInput[n] != NO_INPUT; n = tree.labelNext[n]) {
+                    wb.append(inputs.get(tree.labelInput[n]));
+                }
+                final Word<I> word = wb.toWord();
+                if (seen.add(word)) {
+                    result.add(word);
+                }
+            }
+        }
+    }
+
+    private void refine() {
+        // differing state properties
+        for (int i = 0; i < numStates; i++) {
+            keys[i] = stateProperties[states[i]];
+        }
+        split(0, NO_INPUT, NO_NODE);
+
+        // differing transition properties (or definedness)
+        for (int i = 0; i < numInputs; i++) {
+            final int currentNodes = numNodes;
+            for (int node = 0; node < currentNodes; node++) {
+                if (isLeaf[node] && size(node) > 1) {
+                    for (int j = nodeStart[node]; j < nodeEnd[node]; j++) {
+                        keys[j] = transitionProperties[states[j] * numInputs + i];
+                    }
+                    split(node, i, NO_NODE);
+                }
+            }
+        }
+
+        for (int node = 0; node < numNodes; node++) {
+            enqueue(node);
+        }
+
+        while (queueHead != queueTail) {
+            final int node = queue[queueHead];
+            queueHead = (queueHead + 1) % queue.length;
+            inQueue[node] = false;
+
+            if (!isLeaf[node] || size(node) < 2) {
+                continue;
+            }
+
+            for (int i = 0; i < numInputs; i++) {
+                if (splitBySuccessors(node, i)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean splitBySuccessors(int node, int input) {
+        final int start = nodeStart[node];
+        final int end = nodeEnd[node];
+
+        final int firstSucc = successors[states[start] * numInputs + input];
+        if (firstSucc == NO_NODE) {
+            // all states of this block have undefined transitions for this input
+            return false;
+        }
+
+        final int firstLeaf = leafOf[firstSucc];
+        int lca = firstLeaf;
+        for (int i = start + 1; i < end; i++) {
+            final int leaf = leafOf[successors[states[i] * numInputs + input]];
+            if (leaf != firstLeaf) {
+                lca = lca(lca, leaf);
+            }
+        }
+
+        if (lca == firstLeaf) {
+            return false;
+        }
+
+        // group by the child of the LCA that contains the successor
+        final int childDepth = nodeDepth[lca] + 1;
+        for (int i = start; i < end; i++) {
+            int n = leafOf[successors[states[i] * numInputs + input]];
+            while (nodeDepth[n] > childDepth) {
+                n = nodeParent[n];
+            }
+            keys[i] = n;
+        }
+
+        split(node, input, lca);
+        return true;
+    }
+
+    private int lca(int n1, int n2) {
+        int a = n1, b = n2;
+        while (nodeDepth[a] > nodeDepth[b]) {
+            a = nodeParent[a];
+        }
+        while (nodeDepth[b] > nodeDepth[a]) {
+            b = nodeParent[b];
+        }
+        while (a != b) {
+            a = nodeParent[a];
+            b = nodeParent[b];
+        }
+        return a;
+    }
+
+    /**
+     * Splits a leaf according to the {@link #keys} of its states (indexed by position), and labels it with the given
+     * input followed by the label of the given node.
+     */
+    private void split(int node, int input, int labelNode) {
+        final int start = nodeStart[node];
+        final int end = nodeEnd[node];
+
+        // assign group indices in order of first occurrence
+        stamp++;
+        int numGroups = 0;
+        for (int i = start; i < end; i++) {
+            final int key = keys[i];
+            if (groupStamp[key] != stamp) {
+                groupStamp[key] = stamp;
+                groupOfKey[key] = numGroups++;
+            }
+            buffer[i] = groupOfKey[key];
+        }
+
+        if (numGroups < 2) {
+            return;
+        }
+
+        // counting sort of the states by their group
+        final int[] offsets = new int[numGroups + 1];
+        for (int i = start; i < end; i++) {
+            offsets[buffer[i] + 1]++;
+        }
+        for (int g = 0; g < numGroups; g++) {
+            offsets[g + 1] += offsets[g];
+        }
+        // the keys are not needed anymore, so we can sort into them
+        for (int i = start; i < end; i++) {
+            keys[start + offsets[buffer[i]]++] = states[i];
+        }
+        System.arraycopy(keys, start, states, start, end - start);
+
+        isLeaf[node] = false;
+        labelInput[node] = input;
+        labelNext[node] = labelNode;
+
+        int childStart = start;
+        for (int g = 0; g < numGroups; g++) {
+            final int childEnd = start + offsets[g];
+            final int child = numNodes++;
+            nodeStart[child] = childStart;
+            nodeEnd[child] = childEnd;
+            nodeParent[child] = node;
+            nodeDepth[child] = nodeDepth[node] + 1;
+            isLeaf[child] = true;
+            for (int i = childStart; i < childEnd; i++) {
+                leafOf[states[i]] = child;
+            }
+            enqueue(child);
+            childStart = childEnd;
+        }
+
+        // the blocks of the predecessors need to be re-examined
+        for (int i = start; i < end; i++) {
+            final int state = states[i];
+            for (int p = predOffsets[state]; p < predOffsets[state + 1]; p++) {
+                enqueue(leafOf[predecessors[p]]);
+            }
+        }
+    }
+
+    private void enqueue(int node) {
+        if (!inQueue[node] && isLeaf[node] && size(node) > 1) {
+            inQueue[node] = true;
+            queue[queueTail] = node;
+            queueTail = (queueTail + 1) % queue.length;
+        }
+    }
+
+    private int size(int node) {
+        return nodeEnd[node] - nodeStart[node];
+    }
+}
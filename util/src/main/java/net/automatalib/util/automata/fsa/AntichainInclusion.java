@@ -0,0 +1,285 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import net.automatalib.automata.fsa.NFA;
+import net.automatalib.commons.util.collections.IntSubsetStore;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Antichain-based language inclusion check for NFAs (De Wulf, Doyen, Henzinger, Raskin: "Antichains: A New Algorithm
+ * for Checking Universality of Finite Automata", CAV 2006).
+ * <p>
+ * To decide whether {@code L(A)} is included in {@code L(B)}, pairs {@code (p, S)} of a state {@code p} of {@code A}
+ * and a set {@code S} of states of {@code B} are explored breadth-first, starting with the initial states of {@code A}
+ * paired with the initial states of {@code B}. A pair is rejecting, if {@code p} accepts but no state of {@code S}
+ * does. If a pair {@code (p, S')} with {@code S'} being a subset of {@code S} has already been explored, the pair
+ * {@code (p, S)} need not be explored, as every word that leads from {@code (p, S)} to a rejecting pair also does so
+ * from {@code (p, S')}. Hence, only the subset-minimal pairs (which form an antichain) are kept, and the subset
+ * automaton of {@code B} is never constructed. As exploration is breadth-first, the returned counterexamples are of
+ * minimal length.
+ */
+final class AntichainInclusion {
+
+    private final IntNFA a;
+    private final IntNFA b;
+    private final IntSubsetStore subsets = new IntSubsetStore();
+
+    // explored pairs, indexed by node id in breadth-first order
+    private int[] nodeState = new int[16];
+    private int[] nodeSubset = new int[16];
+    private int[] nodeParent = new int[16];
+    private int[] nodeInput = new int[16];
+    private int[] nodeDepth = new int[16];
+    private int numNodes;
+
+    // per state of A, the node ids of the subset-minimal pairs (the antichain)
+    private final int[][] antichains;
+    private final int[] antichainSizes;
+
+    // mark[q] == stamp iff q is contained in the subset currently checked for subsumption
+    private final int[] mark;
+    private int stamp;
+    private final int[] scratch;
+
+    // the counterexample is the word of node cexParent, followed by the input cexInput (if non-negative)
+    private int cexParent;
+    private int cexInput;
+
+    private AntichainInclusion(IntNFA a, IntNFA b) {
+        this.a = a;
+        this.b = b;
+        this.antichains = new int[a.numStates][];
+        this.antichainSizes = new int[a.numStates];
+        this.mark = new int[b.numStates];
+        this.scratch = new int[b.numStates];
+    }
+
+    /**
+     * Finds a shortest word that is accepted by {@code nfa1}, but not by {@code nfa2}.
+     *
+     * @return a shortest word in {@code L(nfa1) \ L(nfa2)}, or {@code null} if no such word exists
+     */
+    static <I> Word<I> findCounterexample(NFA<?, I> nfa1, NFA<?, I> nfa2, Collection<? extends I> inputs) {
+        final List<I> symbols = new ArrayList<>(inputs);
+        return findCounterexample(IntNFA.of(nfa1, symbols), IntNFA.of(nfa2, symbols), symbols, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds a shortest word that is accepted by exactly one of the given NFAs.
+     *
+     * @return a shortest word in the symmetric difference of the languages, or {@code null} if no such word exists
+     */
+    static <I> Word<I> findSeparatingWord(NFA<?, I> nfa1, NFA<?, I> nfa2, Collection<? extends I> inputs) {
+        final List<I> symbols = new ArrayList<>(inputs);
+        final IntNFA a = IntNFA.of(nfa1, symbols);
+        final IntNFA b = IntNFA.of(nfa2, symbols);
+
+        final Word<I> sep1 = findCounterexample(a, b, symbols, Integer.MAX_VALUE);
+        if (sep1 != null && sep1.isEmpty()) {
+            return sep1;
+        }
+
+        // only strictly shorter counterexamples of the converse inclusion are of interest
+        final int maxLength = (sep1 == null) ? Integer.MAX_VALUE : sep1.length() - 1;
+        final Word<I> sep2 = findCounterexample(b, a, symbols, maxLength);
+
+        return (sep2 != null) ? sep2 : sep1;
+    }
+
+    private static <I> Word<I> findCounterexample(IntNFA a, IntNFA b, List<I> symbols, int maxLength) {
+        final AntichainInclusion inclusion = new AntichainInclusion(a, b);
+        if (!inclusion.explore(maxLength)) {
+            return null;
+        }
+
+        final WordBuilder<I> wb = new WordBuilder<>();
+        if (inclusion.cexInput >= 0) {
+            wb.append(symbols.get(inclusion.cexInput));
+        }
+        for (int node = inclusion.cexParent; node >= 0; node = inclusion.nodeParent[node]) {
+            if (inclusion.nodeInput[node] >= 0) {
+                wb.append(symbols.get(inclusion.nodeInput[node]));
+            }
+        }
+
+        return wb.reverse().toWord();
+    }
+
+    /**
+     * Explores the pairs breadth-first, until a rejecting pair is found or all pairs reachable via words of length at
+     * most {@code maxLength} have been explored.
+     *
+     * @return {@code true} if a rejecting pair has been found, {@code false} otherwise
+     */
+    private boolean explore(int maxLength) {
+        final int initSubset = subsets.intern(b.initial, b.initial.length);
+        final boolean initAccepting = b.isAccepting(b.initial, b.initial.length);
+
+        for (int p : a.initial) {
+            if (a.accepting.get(p) && !initAccepting) {
+                cexParent = -1;
+                cexInput = -1;
+                return true;
+            }
+            if (!isSubsumed(p, b.initial, b.initial.length)) {
+                addNode(p, initSubset, -1, -1, 0);
+            }
+        }
+
+        final int numInputs = a.numInputs;
+        final int[] current = new int[b.numStates];
+        final int[] buffer = new int[b.numStates];
+
+        for (int node = 0; node < numNodes; node++) {
+            final int depth = nodeDepth[node];
+            if (depth >= maxLength) {
+                // nodes are explored in order of their depth
+                return false;
+            }
+
+            final int p = nodeState[node];
+            final int subset = nodeSubset[node];
+            final int size = subsets.getSubsetSize(subset);
+            subsets.writeElements(subset, current, 0);
+
+            for (int i = 0; i < numInputs; i++) {
+                final int[] succsA = a.successors[p * numInputs + i];
+                if (succsA.length == 0) {
+                    continue;
+                }
+
+                final int len = b.post(current, size, i, buffer);
+                final boolean accepting = b.isAccepting(buffer, len);
+                int succSubset = IntSubsetStore.NO_SUBSET;
+
+                for (int q : succsA) {
+                    if (a.accepting.get(q) && !accepting) {
+                        cexParent = node;
+                        cexInput = i;
+                        return true;
+                    }
+                    if (!isSubsumed(q, buffer, len)) {
+                        if (succSubset == IntSubsetStore.NO_SUBSET) {
+                            succSubset = subsets.intern(buffer, len);
+                        }
+                        addNode(q, succSubset, node, i, depth + 1);
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether the antichain of the given state contains a subset of the given set.
+     */
+    private boolean isSubsumed(int state, int[] set, int length) {
+        final int[] antichain = antichains[state];
+        final int antichainSize = antichainSizes[state];
+        if (antichainSize == 0) {
+            return false;
+        }
+
+        final int stamp = ++this.stamp;
+        for (int i = 0; i < length; i++) {
+            mark[set[i]] = stamp;
+        }
+
+        for (int j = 0; j < antichainSize; j++) {
+            final int subset = nodeSubset[antichain[j]];
+            if (subsets.getSubsetSize(subset) <= length && isMarked(subset, stamp)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isMarked(int subset, int stamp) {
+        final int size = subsets.getSubsetSize(subset);
+        subsets.writeElements(subset, scratch, 0);
+        for (int i = 0; i < size; i++) {
+            if (mark[scratch[i]] != stamp) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addNode(int state, int subset, int parent, int input, int depth) {
+        final int node = numNodes++;
+        if (node == nodeState.length) {
+            final int newCapacity = node * 3 / 2 + 1;
+            nodeState = Arrays.copyOf(nodeState, newCapacity);
+            nodeSubset = Arrays.copyOf(nodeSubset, newCapacity);
+            nodeParent = Arrays.copyOf(nodeParent, newCapacity);
+            nodeInput = Arrays.copyOf(nodeInput, newCapacity);
+            nodeDepth = Arrays.copyOf(nodeDepth, newCapacity);
+        }
+
+        nodeState[node] = state;
+        nodeSubset[node] = subset;
+        nodeParent[node] = parent;
+        nodeInput[node] = input;
+        nodeDepth[node] = depth;
+
+        // Remove all supersets of the new subset from the antichain. Note that the respective nodes are still explored:
+        // they have been discovered earlier (i.e., via shorter words) than the new one, which is required for finding
+        // shortest counterexamples.
+        int[] antichain = antichains[state];
+        int size = antichainSizes[state];
+        int newSize = 0;
+        for (int j = 0; j < size; j++) {
+            final int other = antichain[j];
+            if (!isSuperset(nodeSubset[other], subset)) {
+                antichain[newSize++] = other;
+            }
+        }
+
+        if (antichain == null) {
+            antichain = new int[4];
+        } else if (newSize == antichain.length) {
+            antichain = Arrays.copyOf(antichain, newSize * 2);
+        }
+        antichain[newSize++] = node;
+
+        antichains[state] = antichain;
+        antichainSizes[state] = newSize;
+    }
+
+    private boolean isSuperset(int superset, int subset) {
+        if (subsets.getSubsetSize(superset) < subsets.getSubsetSize(subset)) {
+            return false;
+        }
+
+        final int size = subsets.getSubsetSize(subset);
+        subsets.writeElements(subset, scratch, 0);
+        for (int i = 0; i < size; i++) {
+            if (!subsets.contains(superset, scratch[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
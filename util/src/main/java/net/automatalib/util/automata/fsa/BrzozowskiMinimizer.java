@@ -0,0 +1,145 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import net.automatalib.automata.fsa.NFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.commons.util.collections.IntSubsetStore;
+import net.automatalib.words.Alphabet;
+
+/**
+ * Computes the minimal DFA of an NFA via Brzozowski's double reversal, i.e., as {@code det(rev(det(rev(nfa))))}.
+ * <p>
+ * Determinizing the reversal of an accessible DFA directly yields a minimal DFA, hence the (potentially huge)
+ * unminimized subset automaton of the given NFA is never constructed. Instead, the intermediate automaton is the
+ * subset automaton of the reversed NFA, which is itself minimal for the reversed language. Both intermediate steps
+ * operate on primitive transition tables and store subsets in an {@link IntSubsetStore}.
+ */
+final class BrzozowskiMinimizer {
+
+    private BrzozowskiMinimizer() {
+    }
+
+    static <I> CompactDFA<I> minimize(NFA<?, I> nfa, Alphabet<I> inputs, boolean partial) {
+        final int numInputs = inputs.size();
+        final IntNFA forward = IntNFA.of(nfa, inputs);
+
+        final IntDFA reverseDFA = determinize(forward.reverse(), numInputs, true);
+        final IntDFA minimal = determinize(reverseDFA.reverse(), numInputs, partial);
+
+        final CompactDFA<I> result = new CompactDFA<>(inputs, minimal.size);
+        for (int s = 0; s < minimal.size; s++) {
+            result.addIntState(minimal.accepting.get(s));
+        }
+        result.setInitialState(0);
+
+        for (int s = 0; s < minimal.size; s++) {
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = minimal.transitions[s * numInputs + i];
+                if (succ >= 0) {
+                    result.setTransition(s, i, succ);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Breadth-first subset construction on primitive transition tables. The initial subset receives id 0.
+     */
+    private static IntDFA determinize(IntNFA nfa, int numInputs, boolean partial) {
+        final IntSubsetStore subsets = new IntSubsetStore();
+        final int[] buffer = new int[nfa.numStates];
+
+        final BitSet accepting = new BitSet();
+        int[] transitions = new int[Math.max(1, nfa.numStates) * numInputs];
+
+        subsets.intern(nfa.initial, nfa.initial.length);
+        accepting.set(0, nfa.isAccepting(nfa.initial, nfa.initial.length));
+
+        int[] current = IntNFA.EMPTY;
+        for (int id = 0; id < subsets.size(); id++) {
+            final int size = subsets.getSubsetSize(id);
+            if (current.length < size) {
+                current = new int[Math.max(size, current.length * 2)];
+            }
+            subsets.writeElements(id, current, 0);
+
+            for (int i = 0; i < numInputs; i++) {
+                final int len = nfa.post(current, size, i, buffer);
+
+                final int transId = id * numInputs + i;
+                if (len == 0 && partial) {
+                    transitions = ensureCapacity(transitions, transId);
+                    transitions[transId] = -1;
+                    continue;
+                }
+
+                final int numSubsets = subsets.size();
+                final int succId = subsets.intern(buffer, len);
+                if (succId == numSubsets) {
+                    accepting.set(succId, nfa.isAccepting(buffer, len));
+                }
+
+                transitions = ensureCapacity(transitions, transId);
+                transitions[transId] = succId;
+            }
+        }
+
+        final int size = subsets.size();
+        return new IntDFA(size, numInputs, Arrays.copyOf(transitions, size * numInputs), accepting);
+    }
+
+    private static int[] ensureCapacity(int[] array, int index) {
+        if (index < array.length) {
+            return array;
+        }
+        return Arrays.copyOf(array, Math.max(index + 1, array.length * 3 / 2 + 1));
+    }
+
+    /**
+     * A (partial) DFA over state ids {@code 0, ..., size - 1} with initial state 0. Undefined transitions are marked by
+     * {@code -1}.
+     */
+    private static final class IntDFA {
+
+        private final int size;
+        private final int numInputs;
+        private final int[] transitions;
+        private final BitSet accepting;
+
+        IntDFA(int size, int numInputs, int[] transitions, BitSet accepting) {
+            this.size = size;
+            this.numInputs = numInputs;
+            this.transitions = transitions;
+            this.accepting = accepting;
+        }
+
+        IntNFA reverse() {
+            final int[][] successors = new int[size * numInputs][];
+            for (int t = 0; t < successors.length; t++) {
+                final int succ = transitions[t];
+                successors[t] = (succ < 0) ? IntNFA.EMPTY : new int[] {succ};
+            }
+
+            return new IntNFA(size, numInputs, successors, accepting, new int[] {0}).reverse();
+        }
+    }
+}
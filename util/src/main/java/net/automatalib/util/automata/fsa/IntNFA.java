@@ -0,0 +1,184 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.NFA;
+import net.automatalib.commons.util.collections.IntSubsetStore;
+
+/**
+ * An NFA over state ids {@code 0, ..., numStates - 1} and input indices {@code 0, ..., numInputs - 1}, used internally
+ * by the subset-based algorithms of this package. Successors are stored as sorted arrays of distinct ids, indexed by
+ * {@code state * numInputs + input}.
+ * <p>
+ * Instances hold scratch space for {@link #post(int[], int, int, int[])} and must therefore not be shared between
+ * threads.
+ */
+final class IntNFA {
+
+    static final int[] EMPTY = new int[0];
+
+    final int numStates;
+    final int numInputs;
+    final int[][] successors;
+    final BitSet accepting;
+    final int[] initial;
+
+    // mark[s] == stamp iff s has already been collected in the current post computation
+    private final int[] mark;
+    private int stamp;
+
+    IntNFA(int numStates, int numInputs, int[][] successors, BitSet accepting, int[] initial) {
+        this.numStates = numStates;
+        this.numInputs = numInputs;
+        this.successors = successors;
+        this.accepting = accepting;
+        this.initial = initial;
+        this.mark = new int[numStates];
+    }
+
+    /**
+     * Encodes the given NFA. Input indices correspond to the iteration order of the given inputs.
+     */
+    static <S, I> IntNFA of(NFA<S, I> nfa, Collection<? extends I> inputs) {
+        final StateIDs<S> stateIds = nfa.stateIDs();
+        final int numStates = nfa.size();
+        final int numInputs = inputs.size();
+        final int[][] successors = new int[numStates * numInputs][];
+        final BitSet accepting = new BitSet(numStates);
+
+        for (S s : nfa.getStates()) {
+            final int id = stateIds.getStateId(s);
+            accepting.set(id, nfa.isAccepting(s));
+
+            int i = 0;
+            for (I sym : inputs) {
+                successors[id * numInputs + i++] = encode(stateIds, nfa.getSuccessors(s, sym));
+            }
+        }
+
+        return new IntNFA(numStates, numInputs, successors, accepting, encode(stateIds, nfa.getInitialStates()));
+    }
+
+    private static <S> int[] encode(StateIDs<S> stateIds, Collection<? extends S> states) {
+        if (states.isEmpty()) {
+            return EMPTY;
+        }
+
+        final int[] result = new int[states.size()];
+        int len = 0;
+        for (S s : states) {
+            result[len++] = stateIds.getStateId(s);
+        }
+
+        len = IntSubsetStore.sortDistinct(result, len);
+        return (len == result.length) ? result : Arrays.copyOf(result, len);
+    }
+
+    boolean isAccepting(int[] states, int length) {
+        for (int i = 0; i < length; i++) {
+            if (accepting.get(states[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the successors of a set of states.
+     *
+     * @param states
+     *         the (sorted, distinct) source states
+     * @param length
+     *         the number of source states
+     * @param input
+     *         the input index
+     * @param buffer
+     *         the array to which the successors are written, must have a length of at least {@link #numStates}
+     *
+     * @return the number of successors, which are written in ascending order to the beginning of the buffer
+     */
+    int post(int[] states, int length, int input, int[] buffer) {
+        final int stamp = ++this.stamp;
+        final int[] mark = this.mark;
+
+        int len = 0;
+        for (int j = 0; j < length; j++) {
+            for (int succ : successors[states[j] * numInputs + input]) {
+                if (mark[succ] != stamp) {
+                    mark[succ] = stamp;
+                    buffer[len++] = succ;
+                }
+            }
+        }
+
+        if (len > numStates >>> 4) {
+            // for large subsets, collecting the marked states in order is cheaper than sorting
+            len = 0;
+            for (int q = 0; q < numStates; q++) {
+                if (mark[q] == stamp) {
+                    buffer[len++] = q;
+                }
+            }
+        } else {
+            Arrays.sort(buffer, 0, len);
+        }
+
+        return len;
+    }
+
+    /**
+     * Returns the NFA accepting the reversed language, i.e., with reversed transitions and swapped initial and
+     * accepting states.
+     */
+    IntNFA reverse() {
+        final int[] counts = new int[numStates * numInputs];
+        for (int s = 0; s < numStates; s++) {
+            for (int i = 0; i < numInputs; i++) {
+                for (int succ : successors[s * numInputs + i]) {
+                    counts[succ * numInputs + i]++;
+                }
+            }
+        }
+
+        final int[][] predecessors = new int[numStates * numInputs][];
+        for (int t = 0; t < predecessors.length; t++) {
+            predecessors[t] = (counts[t] == 0) ? EMPTY : new int[counts[t]];
+            counts[t] = 0;
+        }
+
+        // sources are visited in ascending order, hence the predecessor arrays are sorted
+        for (int s = 0; s < numStates; s++) {
+            for (int i = 0; i < numInputs; i++) {
+                for (int succ : successors[s * numInputs + i]) {
+                    final int t = succ * numInputs + i;
+                    predecessors[t][counts[t]++] = s;
+                }
+            }
+        }
+
+        final BitSet revAccepting = new BitSet(numStates);
+        for (int init : initial) {
+            revAccepting.set(init);
+        }
+
+        return new IntNFA(numStates, numInputs, predecessors, revAccepting, accepting.stream().toArray());
+    }
+}
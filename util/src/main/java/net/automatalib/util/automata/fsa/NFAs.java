@@ -17,20 +17,22 @@ package net.automatalib.util.automata.fsa;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import net.automatalib.automata.concepts.InputAlphabetHolder;
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.fsa.MutableDFA;
 import net.automatalib.automata.fsa.NFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.commons.util.collections.IntSubsetStore;
 import net.automatalib.util.automata.Automata;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
 
 public final class NFAs {
 
@@ -75,55 +77,230 @@ public final class NFAs {
         determinize(nfa, inputs, out, false, true);
     }
 
+    /**
+     * Checks whether the language of {@code nfa1} is included in the language of {@code nfa2}, without determinizing
+     * either of them.
+     *
+     * @param nfa1
+     *         the NFA whose language should be included
+     * @param nfa2
+     *         the NFA whose language should include the other one
+     * @param inputs
+     *         the input symbols to consider
+     *
+     * @return {@code true} if every word (over {@code inputs}) accepted by {@code nfa1} is also accepted by {@code
+     * nfa2}, {@code false} otherwise
+     *
+     * @see #findInclusionCounterexample(NFA, NFA, Collection)
+     */
+    public static <I> boolean isIncluded(NFA<?, I> nfa1, NFA<?, I> nfa2, Collection<? extends I> inputs) {
+        return findInclusionCounterexample(nfa1, nfa2, inputs) == null;
+    }
+
+    /**
+     * Finds a shortest word that is accepted by {@code nfa1}, but not by {@code nfa2}. The check is based on antichains
+     * of (state, subset) pairs, explored on the fly, i.e., neither NFA is determinized.
+     *
+     * @param nfa1
+     *         the NFA that should accept the word
+     * @param nfa2
+     *         the NFA that should reject the word
+     * @param inputs
+     *         the input symbols to consider
+     *
+     * @return a shortest word accepted by {@code nfa1} but not by {@code nfa2}, or {@code null} if the language of
+     * {@code nfa1} is included in the language of {@code nfa2}
+     */
+    public static <I> Word<I> findInclusionCounterexample(NFA<?, I> nfa1,
+                                                          NFA<?, I> nfa2,
+                                                          Collection<? extends I> inputs) {
+        return AntichainInclusion.findCounterexample(nfa1, nfa2, inputs);
+    }
+
+    /**
+     * Finds a shortest word that is accepted by exactly one of the given NFAs, without determinizing either of them.
+     *
+     * @param nfa1
+     *         the one NFA
+     * @param nfa2
+     *         the other NFA
+     * @param inputs
+     *         the input symbols to consider
+     *
+     * @return a shortest separating word, or {@code null} if both NFAs accept the same language
+     *
+     * @see #findInclusionCounterexample(NFA, NFA, Collection)
+     */
+    public static <I> Word<I> findSeparatingWord(NFA<?, I> nfa1, NFA<?, I> nfa2, Collection<? extends I> inputs) {
+        return AntichainInclusion.findSeparatingWord(nfa1, nfa2, inputs);
+    }
+
+    /**
+     * Checks whether the given NFAs accept the same language, without determinizing either of them.
+     *
+     * @param nfa1
+     *         the one NFA
+     * @param nfa2
+     *         the other NFA
+     * @param inputs
+     *         the input symbols to consider
+     *
+     * @return {@code true} if both NFAs accept the same language, {@code false} otherwise
+     *
+     * @see #findSeparatingWord(NFA, NFA, Collection)
+     */
+    public static <I> boolean testEquivalence(NFA<?, I> nfa1, NFA<?, I> nfa2, Collection<? extends I> inputs) {
+        return findSeparatingWord(nfa1, nfa2, inputs) == null;
+    }
+
+    /**
+     * Computes the minimal DFA accepting the language of the given NFA.
+     *
+     * @see #determinizeMinimal(NFA, Alphabet, boolean)
+     */
+    public static <I, A extends NFA<?, I> & InputAlphabetHolder<I>> CompactDFA<I> determinizeMinimal(A nfa) {
+        return determinizeMinimal(nfa, nfa.getInputAlphabet(), false);
+    }
+
+    /**
+     * Computes the minimal DFA accepting the language of the given NFA, without constructing its (unminimized) subset
+     * automaton. The result is computed via Brzozowski's double reversal, i.e., as the subset automaton of the reversal
+     * of the subset automaton of the reversed NFA. The intermediate automaton is minimal for the reversed language,
+     * which is typically much smaller than the unminimized subset automaton of the NFA (although, in the worst case, it
+     * may still be exponential in the size of the NFA).
+     * <p>
+     * Note that this method trades time for memory: the second subset construction operates on subsets of the states
+     * of the intermediate automaton, which may be large. If memory is not a concern, {@link #determinize(NFA, Alphabet,
+     * boolean, boolean)} followed by a minimization is often faster.
+     * <p>
+     * If {@code partial} is {@code false}, the result is complete and has the same size as the one of {@link
+     * #determinize(NFA, Alphabet, boolean, boolean) determinize(nfa, inputAlphabet, false, true)}. Otherwise, the result
+     * is trim, i.e., apart from the initial state, it does not contain any state that cannot reach an accepting state
+     * (such as a sink).
+     *
+     * @param nfa
+     *         the NFA to determinize
+     * @param inputAlphabet
+     *         the input symbols to consider
+     * @param partial
+     *         whether to omit states from which no accepting state is reachable, leaving the respective transitions
+     *         undefined
+     *
+     * @return the minimal DFA accepting the language of the given NFA
+     */
+    public static <I> CompactDFA<I> determinizeMinimal(NFA<?, I> nfa, Alphabet<I> inputAlphabet, boolean partial) {
+        return BrzozowskiMinimizer.minimize(nfa, inputAlphabet, partial);
+    }
+
+    /**
+     * Determinizes the given NFA using a parallel subset construction on the {@link ForkJoinPool#commonPool() common
+     * pool}.
+     *
+     * @see #determinizeParallel(NFA, Alphabet, boolean, boolean, ForkJoinPool)
+     */
+    public static <I, A extends NFA<?, I> & InputAlphabetHolder<I>> CompactDFA<I> determinizeParallel(A nfa) {
+        return determinizeParallel(nfa, nfa.getInputAlphabet(), false, true);
+    }
+
+    /**
+     * Determinizes the given NFA using a parallel subset construction on the {@link ForkJoinPool#commonPool() common
+     * pool}.
+     *
+     * @see #determinizeParallel(NFA, Alphabet, boolean, boolean, ForkJoinPool)
+     */
+    public static <I> CompactDFA<I> determinizeParallel(NFA<?, I> nfa,
+                                                        Alphabet<I> inputAlphabet,
+                                                        boolean partial,
+                                                        boolean minimize) {
+        return determinizeParallel(nfa, inputAlphabet, partial, minimize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Determinizes the given NFA using a subset construction whose successor computations are distributed among the
+     * workers of the given pool. The resulting DFA accepts the same language as the one returned by {@link
+     * #determinize(NFA, Alphabet, boolean, boolean)}. Its states are numbered in breadth-first order (successors ordered
+     * by their input index), so the result does not depend on the parallelism of the pool.
+     * <p>
+     * The NFA is only read during the (sequential) setup phase and must not be modified concurrently.
+     *
+     * @param nfa
+     *         the NFA to determinize
+     * @param inputAlphabet
+     *         the input symbols to consider
+     * @param partial
+     *         whether to omit transitions to the empty subset (if {@code false}, an explicit sink is created)
+     * @param minimize
+     *         whether to minimize the resulting DFA
+     * @param pool
+     *         the pool used for computing successor subsets
+     *
+     * @return a DFA accepting the language of the given NFA
+     */
+    public static <I> CompactDFA<I> determinizeParallel(NFA<?, I> nfa,
+                                                        Alphabet<I> inputAlphabet,
+                                                        boolean partial,
+                                                        boolean minimize,
+                                                        ForkJoinPool pool) {
+        final CompactDFA<I> result = new CompactDFA<>(inputAlphabet);
+        new ParallelDeterminizer<>(nfa, inputAlphabet, partial, pool).determinize(result);
+        if (minimize) {
+            Automata.invasiveMinimize(result, inputAlphabet);
+        }
+        return result;
+    }
+
     private static <I, SI, SO> void doDeterminize(NFA<SI, I> nfa,
                                                   Collection<? extends I> inputs,
                                                   MutableDFA<SO, I> out,
                                                   boolean partial) {
 
-        Map<BitSet, SO> outStateMap = new HashMap<>();
+        // subset ids are assigned in insertion order, hence they index the list of output states
+        IntSubsetStore subsets = new IntSubsetStore();
+        List<SO> outStates = new ArrayList<>();
         StateIDs<SI> stateIds = nfa.stateIDs();
 
-        Deque<DeterminizeRecord<SI, SO>> stack = new ArrayDeque<>();
+        Deque<DeterminizeRecord<SO>> stack = new ArrayDeque<>();
 
-        List<SI> initList = new ArrayList<>(nfa.getInitialStates());
-        BitSet initBs = new BitSet();
-        for (SI init : initList) {
-            initBs.set(stateIds.getStateId(init));
-        }
+        int[] buffer = new int[nfa.size()];
+        BitSet seen = new BitSet();
 
-        boolean initAcc = nfa.isAccepting(initList);
-        SO initOut = out.addInitialState(initAcc);
+        int len = collectIds(nfa.getInitialStates(), stateIds, buffer, 0, seen);
+        clearIds(buffer, len, seen);
+        Arrays.sort(buffer, 0, len);
 
-        outStateMap.put(initBs, initOut);
+        boolean initAcc = isAccepting(nfa, stateIds, buffer, len);
+        SO initOut = out.addInitialState(initAcc);
 
-        stack.push(new DeterminizeRecord<>(initList, initOut));
+        outStates.add(initOut);
+        stack.push(new DeterminizeRecord<>(subsets.intern(buffer, len), initOut));
 
         while (!stack.isEmpty()) {
-            DeterminizeRecord<SI, SO> curr = stack.pop();
+            DeterminizeRecord<SO> curr = stack.pop();
 
-            List<SI> inStates = curr.inputStates;
+            List<SI> inStates = new ArrayList<>(subsets.getSubsetSize(curr.subsetId));
+            subsets.forEachElement(curr.subsetId, id -> inStates.add(stateIds.getState(id)));
             SO outState = curr.outputState;
 
             for (I sym : inputs) {
-                BitSet succBs = new BitSet();
-                List<SI> succList = new ArrayList<>();
-
+                len = 0;
                 for (SI inState : inStates) {
-                    for (SI succState : nfa.getSuccessors(inState, sym)) {
-                        int succId = stateIds.getStateId(succState);
-                        if (!succBs.get(succId)) {
-                            succBs.set(succId);
-                            succList.add(succState);
-                        }
-                    }
+                    len = collectIds(nfa.getSuccessors(inState, sym), stateIds, buffer, len, seen);
                 }
+                clearIds(buffer, len, seen);
+
+                if (!partial || len > 0) {
+                    Arrays.sort(buffer, 0, len);
+
+                    int numSubsets = subsets.size();
+                    int succId = subsets.intern(buffer, len);
 
-                if (!partial || !succList.isEmpty()) {
-                    SO outSucc = outStateMap.get(succBs);
-                    if (outSucc == null) {
-                        outSucc = out.addState(nfa.isAccepting(succList));
-                        outStateMap.put(succBs, outSucc);
-                        stack.push(new DeterminizeRecord<>(succList, outSucc));
+                    SO outSucc;
+                    if (succId == numSubsets) {
+                        outSucc = out.addState(isAccepting(nfa, stateIds, buffer, len));
+                        outStates.add(outSucc);
+                        stack.push(new DeterminizeRecord<>(succId, outSucc));
+                    } else {
+                        outSucc = outStates.get(succId);
                     }
                     out.setTransition(outState, sym, outSucc);
                 }
@@ -132,13 +309,44 @@ public final class NFAs {
 
     }
 
-    private static final class DeterminizeRecord<SI, SO> {
+    private static <S> int collectIds(Collection<? extends S> states,
+                                      StateIDs<S> stateIds,
+                                      int[] buffer,
+                                      int offset,
+                                      BitSet seen) {
+        int len = offset;
+        for (S s : states) {
+            int id = stateIds.getStateId(s);
+            if (!seen.get(id)) {
+                seen.set(id);
+                buffer[len++] = id;
+            }
+        }
+        return len;
+    }
+
+    private static void clearIds(int[] buffer, int len, BitSet seen) {
+        for (int i = 0; i < len; i++) {
+            seen.clear(buffer[i]);
+        }
+    }
+
+    private static <S> boolean isAccepting(NFA<S, ?> nfa, StateIDs<S> stateIds, int[] ids, int len) {
+        for (int i = 0; i < len; i++) {
+            if (nfa.isAccepting(stateIds.getState(ids[i]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class DeterminizeRecord<SO> {
 
-        private final List<SI> inputStates;
+        private final int subsetId;
         private final SO outputState;
 
-        DeterminizeRecord(List<SI> inputStates, SO outputState) {
-            this.inputStates = inputStates;
+        DeterminizeRecord(int subsetId, SO outputState) {
+            this.subsetId = subsetId;
             this.outputState = outputState;
         }
     }
@@ -0,0 +1,259 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.NFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.commons.util.collections.IntSubsetStore;
+import net.automatalib.words.Alphabet;
+
+/**
+ * A subset construction that computes the successor subsets of a whole breadth-first level of the resulting DFA in
+ * parallel.
+ * <p>
+ * Each level is processed in two phases: first, the successor subsets of all (state, input) pairs of the current
+ * frontier are computed by the tasks of a (work-stealing) {@link ForkJoinPool}, and are looked up in the {@link
+ * IntSubsetStore} of subsets discovered on previous levels. Second, the pairs are visited sequentially in (state,
+ * input) order and unknown subsets are interned. As a consequence, the numbering of the resulting states is the
+ * breadth-first order of their subsets, independent of the number of threads and their scheduling.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+final class ParallelDeterminizer<I> {
+
+    /**
+     * The number of (state, input) pairs below which a task is not split any further.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int numInputs;
+    private final boolean partial;
+    private final ForkJoinPool pool;
+
+    // successor ids of each NFA transition (indexed by stateId * numInputs + inputIdx), sorted and free of duplicates
+    private final int[][] nfaSuccessors;
+    private final boolean[] nfaAccepting;
+    private final int[] nfaInitial;
+
+    /**
+     * Subsets of all previous levels. Only read during the parallel phase, only written during the sequential phase.
+     * As both subsets and states are numbered in order of their discovery, subset ids coincide with state ids.
+     */
+    private final IntSubsetStore registry = new IntSubsetStore();
+
+    ParallelDeterminizer(NFA<?, I> nfa, Alphabet<I> inputs, boolean partial, ForkJoinPool pool) {
+        this.numInputs = inputs.size();
+        this.partial = partial;
+        this.pool = pool;
+
+        final int numStates = nfa.size();
+        this.nfaSuccessors = new int[numStates * numInputs][];
+        this.nfaAccepting = new boolean[numStates];
+        this.nfaInitial = encode(nfa, nfa.getInitialStates());
+
+        fillTables(nfa, inputs);
+    }
+
+    private <S> void fillTables(NFA<S, I> nfa, Alphabet<I> inputs) {
+        final StateIDs<S> stateIds = nfa.stateIDs();
+
+        for (S s : nfa.getStates()) {
+            final int id = stateIds.getStateId(s);
+            nfaAccepting[id] = nfa.isAccepting(s);
+
+            for (int i = 0; i < numInputs; i++) {
+                nfaSuccessors[id * numInputs + i] = encode(nfa, nfa.getSuccessors(s, inputs.getSymbol(i)));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S> int[] encode(NFA<S, ?> nfa, Collection<?> states) {
+        if (states.isEmpty()) {
+            return EMPTY;
+        }
+
+        final StateIDs<S> stateIds = nfa.stateIDs();
+        final int[] result = new int[states.size()];
+        int i = 0;
+        for (Object s : states) {
+            result[i++] = stateIds.getStateId((S) s);
+        }
+
+        return sortedDistinct(result, result.length);
+    }
+
+    private static int[] sortedDistinct(int[] buffer, int length) {
+        final int size = IntSubsetStore.sortDistinct(buffer, length);
+        return (size == buffer.length) ? buffer : Arrays.copyOf(buffer, size);
+    }
+
+    void determinize(CompactDFA<I> out) {
+        final Subset init = new Subset(nfaInitial, isAccepting(nfaInitial));
+        final int initId = out.addIntInitialState(init.accepting);
+        registry.intern(init.states, init.states.length, init.hash);
+
+        List<Subset> frontier = new ArrayList<>();
+        int[] frontierIds = new int[] {initId};
+        frontier.add(init);
+
+        while (!frontier.isEmpty()) {
+            final int numPairs = frontier.size() * numInputs;
+            final Subset[] succs = new Subset[numPairs];
+            final int[] succIds = new int[numPairs];
+
+            final SuccessorTask task = new SuccessorTask(frontier, succs, succIds, 0, numPairs);
+            if (numPairs <= SEQUENTIAL_THRESHOLD) {
+                task.compute();
+            } else {
+                pool.invoke(task);
+            }
+
+            final List<Subset> nextFrontier = new ArrayList<>();
+            final int[] nextFrontierIds = new int[numPairs];
+
+            for (int idx = 0; idx < numPairs; idx++) {
+                final Subset succ = succs[idx];
+                if (succ == null) {
+                    continue;
+                }
+
+                int succId = succIds[idx];
+                if (succId == IntSubsetStore.NO_SUBSET) {
+                    // may have been discovered by a preceding pair of the same level
+                    final int numSubsets = registry.size();
+                    succId = registry.intern(succ.states, succ.states.length, succ.hash);
+                    if (succId == numSubsets) {
+                        out.addIntState(succ.accepting);
+                        nextFrontierIds[nextFrontier.size()] = succId;
+                        nextFrontier.add(succ);
+                    }
+                }
+
+                out.setTransition(frontierIds[idx / numInputs], idx % numInputs, succId);
+            }
+
+            frontier = nextFrontier;
+            frontierIds = nextFrontierIds;
+        }
+    }
+
+    private Subset computeSuccessor(Subset source, int inputIdx) {
+        final int[] states = source.states;
+
+        int total = 0;
+        int[] single = EMPTY;
+        int numNonEmpty = 0;
+        for (int s : states) {
+            final int[] succs = nfaSuccessors[s * numInputs + inputIdx];
+            if (succs.length > 0) {
+                total += succs.length;
+                single = succs;
+                numNonEmpty++;
+            }
+        }
+
+        if (total == 0 && partial) {
+            return null;
+        }
+
+        final int[] result;
+        if (numNonEmpty <= 1) {
+            // successor arrays are immutable, hence they can be shared
+            result = single;
+        } else {
+            final int[] buffer = new int[total];
+            int pos = 0;
+            for (int s : states) {
+                final int[] succs = nfaSuccessors[s * numInputs + inputIdx];
+                System.arraycopy(succs, 0, buffer, pos, succs.length);
+                pos += succs.length;
+            }
+            result = sortedDistinct(buffer, total);
+        }
+
+        return new Subset(result, isAccepting(result));
+    }
+
+    private boolean isAccepting(int[] states) {
+        for (int s : states) {
+            if (nfaAccepting[s]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class SuccessorTask extends RecursiveAction {
+
+        private final List<Subset> frontier;
+        private final Subset[] succs;
+        private final int[] succIds;
+        private final int low, high;
+
+        SuccessorTask(List<Subset> frontier, Subset[] succs, int[] succIds, int low, int high) {
+            this.frontier = frontier;
+            this.succs = succs;
+            this.succIds = succIds;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= SEQUENTIAL_THRESHOLD) {
+                for (int idx = low; idx < high; idx++) {
+                    final Subset succ = computeSuccessor(frontier.get(idx / numInputs), idx % numInputs);
+                    succs[idx] = succ;
+                    if (succ != null) {
+                        succIds[idx] = registry.lookup(succ.states, succ.states.length, succ.hash);
+                    }
+                }
+            } else {
+                final int mid = (low + high) >>> 1;
+                invokeAll(new SuccessorTask(frontier, succs, succIds, low, mid),
+                          new SuccessorTask(frontier, succs, succIds, mid, high));
+            }
+        }
+    }
+
+    /**
+     * A set of NFA states, represented by a sorted array of their ids.
+     */
+    private static final class Subset {
+
+        private final int[] states;
+        private final int hash;
+        private final boolean accepting;
+
+        Subset(int[] states, boolean accepting) {
+            this.states = states;
+            this.hash = IntSubsetStore.hash(states, states.length);
+            this.accepting = accepting;
+        }
+    }
+}
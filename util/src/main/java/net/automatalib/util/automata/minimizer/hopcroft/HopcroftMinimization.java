@@ -15,6 +15,10 @@
  */
 package net.automatalib.util.automata.minimizer.hopcroft;
 
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.Nullable;
+
 import net.automatalib.automata.AutomatonCreator;
 import net.automatalib.automata.MutableDeterministic;
 import net.automatalib.automata.UniversalDeterministicAutomaton;
@@ -49,6 +53,13 @@ import net.automatalib.words.Alphabet;
  * Otherwise, pruning can be chosen to be performed on the automaton to be minimized ({@link PruningMode#PRUNE_BEFORE}),
  * or on the calculated state partition ({@link PruningMode#PRUNE_AFTER}). For methods that do not provide a {@code
  * pruningMode} parameter, the default is {@link PruningMode#PRUNE_AFTER}.
+ * <p>
+ * The {@code minimize...Parallel} methods compute the same state equivalences by a signature-based refinement whose
+ * rounds are distributed over the threads of a {@link ForkJoinPool} (see {@link
+ * PaigeTarjan#computeCoarsestStablePartitionParallel(ForkJoinPool)}). With {@link PruningMode#PRUNE_AFTER}, their
+ * results are identical to the results of the sequential methods, otherwise they only coincide up to the numbering of
+ * states. The number of rounds is bounded by the length of the longest shortest distinguishing suffix, hence the
+ * sequential methods remain the better choice for automata whose states are only distinguished by very long words.
  *
  * @author Malte Isberner
  */
@@ -87,7 +98,7 @@ public final class HopcroftMinimization {
     public static <I, O> CompactMealy<I, O> minimizeMealy(MealyMachine<?, I, ?, O> mealy,
                                                           Alphabet<I> alphabet,
                                                           PruningMode pruningMode) {
-        return doMinimizeMealy(mealy, alphabet, new CompactMealy.Creator<>(), pruningMode);
+        return doMinimizeMealy(mealy, alphabet, new CompactMealy.Creator<>(), pruningMode, null);
     }
 
     /**
@@ -120,13 +131,56 @@ public final class HopcroftMinimization {
         return doMinimizeMealy((MealyMachine<?, I, ?, O>) mealy,
                                mealy.getInputAlphabet(),
                                new CompactMealy.Creator<>(),
-                               pruningMode);
+                               pruningMode,
+                               null);
+    }
+
+    /**
+     * Minimizes the given Mealy machine, computing the state equivalences in parallel on the {@link
+     * ForkJoinPool#commonPool() common pool}. The result is returned in the form of a {@link CompactMealy}.
+     *
+     * @param mealy
+     *         the Mealy machine to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the resulting Mealy machine)
+     * @param pruningMode
+     *         the pruning mode (see above)
+     *
+     * @return a minimized version of the specified Mealy machine
+     */
+    public static <I, O> CompactMealy<I, O> minimizeMealyParallel(MealyMachine<?, I, ?, O> mealy,
+                                                                  Alphabet<I> alphabet,
+                                                                  PruningMode pruningMode) {
+        return minimizeMealyParallel(mealy, alphabet, pruningMode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Minimizes the given Mealy machine, computing the state equivalences in parallel on the given pool. The result is
+     * returned in the form of a {@link CompactMealy}.
+     *
+     * @param mealy
+     *         the Mealy machine to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the resulting Mealy machine)
+     * @param pruningMode
+     *         the pruning mode (see above)
+     * @param pool
+     *         the pool used for the refinement
+     *
+     * @return a minimized version of the specified Mealy machine
+     */
+    public static <I, O> CompactMealy<I, O> minimizeMealyParallel(MealyMachine<?, I, ?, O> mealy,
+                                                                  Alphabet<I> alphabet,
+                                                                  PruningMode pruningMode,
+                                                                  ForkJoinPool pool) {
+        return doMinimizeMealy(mealy, alphabet, new CompactMealy.Creator<>(), pruningMode, pool);
     }
 
     private static <S, I, T, O, A extends MutableDeterministic<?, I, ?, Void, O>> A doMinimizeMealy(MealyMachine<S, I, T, O> mealy,
                                                                                                     Alphabet<I> alphabet,
                                                                                                     AutomatonCreator<? extends A, I> creator,
-                                                                                                    PruningMode pruning) {
+                                                                                                    PruningMode pruning,
+                                                                                                    @Nullable ForkJoinPool pool) {
 
         PaigeTarjan pt = new PaigeTarjan();
 
@@ -136,8 +190,7 @@ public final class HopcroftMinimization {
                                                           AutomatonInitialPartitioning.BY_TRANSITION_PROPERTIES,
                                                           pruning == PruningMode.PRUNE_BEFORE);
 
-        pt.initWorklist(false);
-        pt.computeCoarsestStablePartition();
+        refine(pt, pool);
 
         return PaigeTarjanExtractors.toDeterministic(pt,
                                                      creator,
@@ -176,7 +229,7 @@ public final class HopcroftMinimization {
      * @return a minimized version of the specified DFA
      */
     public static <I> CompactDFA<I> minimizeDFA(DFA<?, I> dfa, Alphabet<I> alphabet, PruningMode pruningMode) {
-        return doMinimizeDFA(dfa, alphabet, new CompactDFA.Creator<>(), pruningMode);
+        return doMinimizeDFA(dfa, alphabet, new CompactDFA.Creator<>(), pruningMode, null);
     }
 
     /**
@@ -206,13 +259,53 @@ public final class HopcroftMinimization {
      */
     public static <I, A extends DFA<?, I> & InputAlphabetHolder<I>> CompactDFA<I> minimizeDFA(A dfa,
                                                                                               PruningMode pruningMode) {
-        return doMinimizeDFA((DFA<?, I>) dfa, dfa.getInputAlphabet(), new CompactDFA.Creator<>(), pruningMode);
+        return doMinimizeDFA((DFA<?, I>) dfa, dfa.getInputAlphabet(), new CompactDFA.Creator<>(), pruningMode, null);
+    }
+
+    /**
+     * Minimizes the given DFA, computing the state equivalences in parallel on the {@link ForkJoinPool#commonPool()
+     * common pool}. The result is returned in the form of a {@link CompactDFA}.
+     *
+     * @param dfa
+     *         the DFA to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the returned DFA)
+     * @param pruningMode
+     *         the pruning mode (see above)
+     *
+     * @return a minimized version of the specified DFA
+     */
+    public static <I> CompactDFA<I> minimizeDFAParallel(DFA<?, I> dfa, Alphabet<I> alphabet, PruningMode pruningMode) {
+        return minimizeDFAParallel(dfa, alphabet, pruningMode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Minimizes the given DFA, computing the state equivalences in parallel on the given pool. The result is returned
+     * in the form of a {@link CompactDFA}.
+     *
+     * @param dfa
+     *         the DFA to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the returned DFA)
+     * @param pruningMode
+     *         the pruning mode (see above)
+     * @param pool
+     *         the pool used for the refinement
+     *
+     * @return a minimized version of the specified DFA
+     */
+    public static <I> CompactDFA<I> minimizeDFAParallel(DFA<?, I> dfa,
+                                                        Alphabet<I> alphabet,
+                                                        PruningMode pruningMode,
+                                                        ForkJoinPool pool) {
+        return doMinimizeDFA(dfa, alphabet, new CompactDFA.Creator<>(), pruningMode, pool);
     }
 
     private static <S, I, A extends MutableDeterministic<?, I, ?, Boolean, Void>> A doMinimizeDFA(DFA<S, I> dfa,
                                                                                                   Alphabet<I> alphabet,
                                                                                                   AutomatonCreator<A, I> creator,
-                                                                                                  PruningMode pruning) {
+                                                                                                  PruningMode pruning,
+                                                                                                  @Nullable ForkJoinPool pool) {
 
         PaigeTarjan pt = new PaigeTarjan();
         UniversalDeterministicAutomaton.FullIntAbstraction<?, Boolean, Void> absDfa = dfa.fullIntAbstraction(alphabet);
@@ -221,8 +314,7 @@ public final class HopcroftMinimization {
                                                           AutomatonInitialPartitioning.BY_STATE_PROPERTY,
                                                           pruning == PruningMode.PRUNE_BEFORE);
 
-        pt.initWorklist(false);
-        pt.computeCoarsestStablePartition();
+        refine(pt, pool);
 
         return PaigeTarjanExtractors.toDeterministic(pt,
                                                      creator,
@@ -233,6 +325,15 @@ public final class HopcroftMinimization {
                                                      pruning == PruningMode.PRUNE_AFTER);
     }
 
+    private static void refine(PaigeTarjan pt, @Nullable ForkJoinPool pool) {
+        if (pool == null) {
+            pt.initWorklist(false);
+            pt.computeCoarsestStablePartition();
+        } else {
+            pt.computeCoarsestStablePartitionParallel(pool);
+        }
+    }
+
     /**
      * Allows for controlling how automata are pruned during minimization.
      *
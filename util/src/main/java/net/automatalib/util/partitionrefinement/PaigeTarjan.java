@@ -20,6 +20,7 @@ import java.util.Iterator;
 import java.util.PrimitiveIterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.annotation.Nullable;
 
@@ -266,6 +267,34 @@ public class PaigeTarjan {
         }
     }
 
+    /**
+     * Refines the partition until it stabilizes, using the threads of the given {@link ForkJoinPool}.
+     * <p>
+     * In contrast to {@link #computeCoarsestStablePartition()}, this method does not process splitters from the
+     * worklist, but repeatedly splits blocks according to the blocks of the successors of their states (see {@link
+     * ParallelRefinement}). The worklist (if initialized) is discarded. The resulting partition is the same as the one
+     * computed by {@link #computeCoarsestStablePartition()}, however the {@link Block#id IDs} of the blocks and the
+     * order of the states within the blocks may differ.
+     * <p>
+     * This method requires the predecessor data to describe a complete, deterministic transition function, as it is the
+     * case for the initializations of {@link PaigeTarjanInitializers}.
+     *
+     * @param pool
+     *         the pool used for executing the refinement tasks
+     */
+    public void computeCoarsestStablePartitionParallel(ForkJoinPool pool) {
+        new ParallelRefinement(this, pool).computeCoarsestStablePartition();
+    }
+
+    void setBlocks(@Nullable Block blocklistHead, int numBlocks, Block[] blockForState) {
+        this.blocklistHead = blocklistHead;
+        this.numBlocks = numBlocks;
+        this.blockForState = blockForState;
+        this.worklistHead = null;
+        this.worklistTail = null;
+        this.touchedHead = null;
+    }
+
     @Nullable
     private Block poll() {
         if (worklistHead == null) {
@@ -0,0 +1,539 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.partitionrefinement;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A signature-based refinement of a {@link PaigeTarjan} partition, whose rounds are processed in parallel.
+ * <p>
+ * In each round, the states of every block that may be split are sorted by their <i>signature</i>, i.e., the blocks of
+ * their successors for every input symbol, and each block is split into the classes of states with equal signatures.
+ * All states of a block that is not refined further keep their block; a split block keeps its largest class, and the
+ * remaining classes get fresh IDs. Only blocks containing a predecessor of a state that changed its block are
+ * re-examined in the next round. Refinement terminates once no block splits, which yields the coarsest stable
+ * partition, i.e., the same partition as {@link PaigeTarjan#computeCoarsestStablePartition()}.
+ * <p>
+ * Sorting, splitting and collecting the blocks for the next round are distributed over the tasks of a {@link
+ * ForkJoinPool}, but the resulting block IDs depend only on the sorted order of the states, and hence are independent
+ * of the number of threads and their scheduling.
+ * <p>
+ * The states are re-arranged in place in the {@link PaigeTarjan#blockData} and {@link PaigeTarjan#posData} arrays. The
+ * predecessor data is required to describe a complete, deterministic transition function on the states contained in
+ * the blocks.
+ */
+final class ParallelRefinement {
+
+    /**
+     * The number of states (or positions) below which a task is not split any further.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    /**
+     * The size of a block above which its states are sorted by a {@link SortTask} in the pool of the refinement.
+     */
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+
+    private final PaigeTarjan pt;
+    private final ForkJoinPool pool;
+
+    private final int numStates;
+    private final int numInputs;
+    private final int[] blockData;
+    private final int[] posData;
+    private final int posDataLow;
+
+    // j-successor of each state (indexed by j * numStates + state)
+    private final int[] successors;
+    // current block of each state
+    private final int[] blockOf;
+    private final int[] blockLow;
+    private final int[] blockHigh;
+    private int numBlocks;
+
+    // sort keys (signature hash and state) and group delimiters, indexed by position - keyBase
+    private final long[] keys;
+    private final boolean[] groupStart;
+    private final int keyBase;
+
+    // blocks that need to be re-examined in the next round
+    private final AtomicIntegerArray marked;
+    private final int[] nextWork;
+    private final AtomicInteger nextWorkSize = new AtomicInteger();
+
+    // data of the current round, indexed by the position of a block in the work list
+    private int[] work;
+    private int workSize;
+    private int[] workOffset;
+    private int[] workLow;
+    private int[] workHigh;
+    private int[] numGroups;
+    private int[] keptLow;
+    private int[] keptHigh;
+    private int[] newBase;
+
+    ParallelRefinement(PaigeTarjan pt, ForkJoinPool pool) {
+        this.pt = pt;
+        this.pool = pool;
+
+        this.numStates = pt.numStates;
+        this.numInputs = pt.numInputs;
+        this.blockData = pt.blockData;
+        this.posData = pt.posData;
+        this.posDataLow = pt.posDataLow;
+
+        this.successors = new int[numInputs * numStates];
+        this.blockOf = new int[numStates];
+        this.blockLow = new int[numStates];
+        this.blockHigh = new int[numStates];
+        this.marked = new AtomicIntegerArray(numStates);
+        this.nextWork = new int[numStates];
+
+        int minLow = Integer.MAX_VALUE, maxHigh = 0;
+        for (Block b : pt.blockList()) {
+            if (!b.isEmpty()) {
+                minLow = Math.min(minLow, b.low);
+                maxHigh = Math.max(maxHigh, b.high);
+            }
+        }
+        this.keyBase = Math.min(minLow, maxHigh);
+        this.keys = new long[maxHigh - keyBase];
+        this.groupStart = new boolean[maxHigh - keyBase];
+    }
+
+    void computeCoarsestStablePartition() {
+        initBlocks();
+        initSuccessors();
+
+        int[] initialWork = new int[numBlocks];
+        int initialWorkSize = 0;
+        for (int b = 0; b < numBlocks; b++) {
+            if (blockHigh[b] - blockLow[b] > 1) {
+                initialWork[initialWorkSize++] = b;
+            }
+        }
+        initRound(initialWork, initialWorkSize);
+
+        while (workSize > 0) {
+            refineRound();
+        }
+
+        updateBlocks();
+    }
+
+    private void initBlocks() {
+        for (Block b : pt.blockList()) {
+            if (b.isEmpty()) {
+                continue;
+            }
+            final int id = numBlocks++;
+            blockLow[id] = b.low;
+            blockHigh[id] = b.high;
+            for (int pos = b.low; pos < b.high; pos++) {
+                blockOf[blockData[pos]] = id;
+            }
+        }
+    }
+
+    private void initSuccessors() {
+        Arrays.fill(successors, -1);
+        final int[] predOfsData = pt.predOfsData;
+        final int[] predData = pt.predData;
+        final int predOfsDataLow = pt.predOfsDataLow;
+
+        invoke(numStates, (low, high) -> {
+            for (int j = 0; j < numInputs; j++) {
+                final int base = j * numStates;
+                for (int state = low; state < high; state++) {
+                    final int predOfsIdx = predOfsDataLow + base + state;
+                    final int predLow = predOfsData[predOfsIdx], predHigh = predOfsData[predOfsIdx + 1];
+                    for (int k = predLow; k < predHigh; k++) {
+                        successors[base + predData[k]] = state;
+                    }
+                }
+            }
+        });
+    }
+
+    private void initRound(int[] blocks, int size) {
+        this.work = blocks;
+        this.workSize = size;
+        this.workOffset = new int[size + 1];
+        this.workLow = new int[size];
+        this.workHigh = new int[size];
+        this.numGroups = new int[size];
+        this.keptLow = new int[size];
+        this.keptHigh = new int[size];
+        this.newBase = new int[size];
+
+        for (int w = 0; w < size; w++) {
+            final int b = blocks[w];
+            workLow[w] = blockLow[b];
+            workHigh[w] = blockHigh[b];
+            workOffset[w + 1] = workOffset[w] + blockHigh[b] - blockLow[b];
+        }
+    }
+
+    private void refineRound() {
+        final int total = workOffset[workSize];
+
+        // compute the signature hashes of all states to be examined
+        invoke(total, (low, high) -> {
+            int w = upperBound(low) - 1;
+            for (int offset = low; offset < high; offset++) {
+                while (workOffset[w + 1] <= offset) {
+                    w++;
+                }
+                final int pos = workLow[w] + offset - workOffset[w];
+                final int state = blockData[pos];
+                keys[pos - keyBase] = ((long) signatureHash(state) << 32) | state;
+            }
+        });
+
+        // sort each block by signature and determine its classes
+        invoke(total, (low, high) -> {
+            for (int w = lowerBound(low); w < workSize && workOffset[w] < high; w++) {
+                sortAndGroup(w);
+            }
+        });
+
+        // assign the IDs of new blocks in work list order
+        for (int w = 0; w < workSize; w++) {
+            newBase[w] = numBlocks;
+            numBlocks += numGroups[w] - 1;
+        }
+
+        invoke(total, (low, high) -> {
+            for (int w = lowerBound(low); w < workSize && workOffset[w] < high; w++) {
+                if (numGroups[w] > 1) {
+                    split(w);
+                }
+            }
+        });
+
+        nextWorkSize.set(0);
+        invoke(total, (low, high) -> {
+            for (int w = lowerBound(low); w < workSize && workOffset[w] < high; w++) {
+                if (numGroups[w] > 1) {
+                    markPredecessors(workLow[w], keptLow[w]);
+                    markPredecessors(keptHigh[w], workHigh[w]);
+                }
+            }
+        });
+
+        final int size = nextWorkSize.get();
+        final int[] blocks = Arrays.copyOf(nextWork, size);
+        Arrays.sort(blocks);
+        int filtered = 0;
+        for (int b : blocks) {
+            marked.set(b, 0);
+            if (blockHigh[b] - blockLow[b] > 1) {
+                blocks[filtered++] = b;
+            }
+        }
+        initRound(blocks, filtered);
+    }
+
+    private int signatureHash(int state) {
+        int h = 0;
+        for (int idx = state, j = 0; j < numInputs; j++, idx += numStates) {
+            final int succ = successors[idx];
+            if (succ < 0) {
+                throw new IllegalStateException("State " + state + " has no successor for input " + j +
+                                                 ", parallel refinement requires a complete deterministic automaton");
+            }
+            h = (h + blockOf[succ]) * 0x9E3779B9;
+            h ^= h >>> 15;
+        }
+        return h;
+    }
+
+    private boolean sameSignature(int state1, int state2) {
+        for (int j = 0; j < numInputs; j++) {
+            final int base = j * numStates;
+            if (blockOf[successors[base + state1]] != blockOf[successors[base + state2]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int compareSignatures(int state1, int state2) {
+        for (int j = 0; j < numInputs; j++) {
+            final int base = j * numStates;
+            final int cmp = Integer.compare(blockOf[successors[base + state1]], blockOf[successors[base + state2]]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(state1, state2);
+    }
+
+    private void sortAndGroup(int w) {
+        final int low = workLow[w], high = workHigh[w];
+
+        if (high - low >= PARALLEL_SORT_THRESHOLD) {
+            // Arrays.parallelSort would size its tasks for the common pool, so we sort in our own pool instead
+            final int from = low - keyBase;
+            final SortTask task = new SortTask(keys, new long[high - low], from, high - keyBase, from);
+            if (ForkJoinTask.getPool() == pool) {
+                task.invoke();
+            } else {
+                pool.invoke(task);
+            }
+        } else {
+            Arrays.sort(keys, low - keyBase, high - keyBase);
+        }
+
+        for (int pos = low; pos < high; pos++) {
+            final int state = (int) keys[pos - keyBase];
+            blockData[pos] = state;
+            posData[posDataLow + state] = pos;
+        }
+
+        int groups = 0;
+        int largestLow = low, largestHigh = low;
+        int pos = low;
+        while (pos < high) {
+            final int hash = (int) (keys[pos - keyBase] >>> 32);
+            int runEnd = pos + 1;
+            while (runEnd < high && (int) (keys[runEnd - keyBase] >>> 32) == hash) {
+                runEnd++;
+            }
+
+            final int head = blockData[pos];
+            int check = pos + 1;
+            while (check < runEnd && sameSignature(head, blockData[check])) {
+                check++;
+            }
+            if (check < runEnd) {
+                // hash collision, resolve by a comparison of the actual signatures
+                sortBySignature(pos, runEnd);
+            }
+
+            int groupLow = pos;
+            for (int p = pos + 1; p <= runEnd; p++) {
+                if (p == runEnd || (check < runEnd && !sameSignature(blockData[groupLow], blockData[p]))) {
+                    groupStart[groupLow - keyBase] = true;
+                    groups++;
+                    if (p - groupLow > largestHigh - largestLow) {
+                        largestLow = groupLow;
+                        largestHigh = p;
+                    }
+                    groupLow = p;
+                }
+            }
+
+            pos = runEnd;
+        }
+
+        if (groups == 1) {
+            groupStart[low - keyBase] = false;
+        }
+
+        numGroups[w] = groups;
+        keptLow[w] = largestLow;
+        keptHigh[w] = largestHigh;
+    }
+
+    private void sortBySignature(int low, int high) {
+        final Integer[] states = new Integer[high - low];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = blockData[low + i];
+        }
+        Arrays.sort(states, this::compareSignatures);
+        for (int i = 0; i < states.length; i++) {
+            final int state = states[i];
+            blockData[low + i] = state;
+            posData[posDataLow + state] = low + i;
+        }
+    }
+
+    private void split(int w) {
+        final int block = work[w];
+        final int low = workLow[w], high = workHigh[w];
+
+        int nextId = newBase[w];
+        int id = -1;
+        for (int pos = low; pos < high; pos++) {
+            if (groupStart[pos - keyBase]) {
+                groupStart[pos - keyBase] = false;
+                if (pos == keptLow[w]) {
+                    id = block;
+                    blockLow[block] = pos;
+                    blockHigh[block] = keptHigh[w];
+                } else {
+                    id = nextId++;
+                    blockLow[id] = pos;
+                }
+            }
+            if (id != block) {
+                blockOf[blockData[pos]] = id;
+                blockHigh[id] = pos + 1;
+            }
+        }
+    }
+
+    private void markPredecessors(int low, int high) {
+        final int[] predOfsData = pt.predOfsData;
+        final int[] predData = pt.predData;
+
+        for (int pos = low; pos < high; pos++) {
+            int predOfsIdx = pt.predOfsDataLow + blockData[pos];
+            for (int j = 0; j < numInputs; j++) {
+                final int predLow = predOfsData[predOfsIdx], predHigh = predOfsData[predOfsIdx + 1];
+                for (int k = predLow; k < predHigh; k++) {
+                    final int block = blockOf[predData[k]];
+                    if (marked.get(block) == 0 && marked.compareAndSet(block, 0, 1)) {
+                        nextWork[nextWorkSize.getAndIncrement()] = block;
+                    }
+                }
+                predOfsIdx += numStates;
+            }
+        }
+    }
+
+    private void updateBlocks() {
+        final Block[] blocks = new Block[numBlocks];
+        Block next = null;
+        for (int b = numBlocks - 1; b >= 0; b--) {
+            next = new Block(blockLow[b], blockHigh[b], b, next);
+            blocks[b] = next;
+        }
+
+        final Block[] blockForState = new Block[numStates];
+        invoke(numStates, (low, high) -> {
+            for (int state = low; state < high; state++) {
+                blockForState[state] = blocks[blockOf[state]];
+            }
+        });
+
+        pt.setBlocks(next, numBlocks, blockForState);
+    }
+
+    // first work list index w with workOffset[w] >= offset
+    private int lowerBound(int offset) {
+        int low = 0, high = workSize;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (workOffset[mid] < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // first work list index w with workOffset[w] > offset
+    private int upperBound(int offset) {
+        int low = 0, high = workSize;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (workOffset[mid] <= offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void invoke(int total, RangeAction action) {
+        if (total <= SEQUENTIAL_THRESHOLD) {
+            action.apply(0, total);
+        } else {
+            pool.invoke(new RangeTask(action, 0, total));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeAction {
+
+        void apply(int low, int high);
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private final RangeAction action;
+        private final int low, high;
+
+        RangeTask(RangeAction action, int low, int high) {
+            this.action = action;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= SEQUENTIAL_THRESHOLD) {
+                action.apply(low, high);
+            } else {
+                final int mid = (low + high) >>> 1;
+                invokeAll(new RangeTask(action, low, mid), new RangeTask(action, mid, high));
+            }
+        }
+    }
+
+    /**
+     * A merge sort of a range of keys, whose halves are sorted in parallel. The buffer covers the range, starting at
+     * {@code bufferBase}.
+     */
+    private static final class SortTask extends RecursiveAction {
+
+        private final long[] keys;
+        private final long[] buffer;
+        private final int low, high;
+        private final int bufferBase;
+
+        SortTask(long[] keys, long[] buffer, int low, int high, int bufferBase) {
+            this.keys = keys;
+            this.buffer = buffer;
+            this.low = low;
+            this.high = high;
+            this.bufferBase = bufferBase;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= SEQUENTIAL_THRESHOLD) {
+                Arrays.sort(keys, low, high);
+                return;
+            }
+
+            final int mid = (low + high) >>> 1;
+            invokeAll(new SortTask(keys, buffer, low, mid, bufferBase),
+                      new SortTask(keys, buffer, mid, high, bufferBase));
+
+            if (keys[mid - 1] <= keys[mid]) {
+                return;
+            }
+
+            System.arraycopy(keys, low, buffer, low - bufferBase, mid - low);
+            int i = low - bufferBase, j = mid, k = low;
+            final int iEnd = mid - bufferBase;
+            while (i < iEnd && j < high) {
+                keys[k++] = (buffer[i] <= keys[j]) ? buffer[i++] : keys[j++];
+            }
+            System.arraycopy(buffer, i, keys, k, iEnd - i);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Iterators;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class ConformanceTestsTest {
+
+    private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 3);
+
+    private final CompactMealy<Integer, Character> mealy =
+            RandomAutomata.randomMealy(new Random(42), 30, ALPHABET, Arrays.asList('a', 'b'), false);
+
+    public void testWMethod() {
+        for (int maxDepth = 0; maxDepth <= 2; maxDepth++) {
+            final List<Word<Integer>> sequential =
+                    ConformanceTests.wMethodTests(mealy, ALPHABET, maxDepth).collect(Collectors.toList());
+
+            assertSameTests(sequential, new WMethodTestsIterator<>(mealy, ALPHABET, maxDepth));
+            Assert.assertEquals(ConformanceTests.wMethodTests(mealy, ALPHABET, maxDepth)
+                                                .parallel()
+                                                .collect(Collectors.toList()), sequential);
+            for (int numShards : new int[] {1, 3, 100}) {
+                Assert.assertEquals(concat(ConformanceTests.wMethodTestShards(mealy, ALPHABET, maxDepth, numShards)),
+                                    sequential);
+            }
+        }
+    }
+
+    public void testWpMethod() {
+        for (int maxDepth = 0; maxDepth <= 2; maxDepth++) {
+            final List<Word<Integer>> sequential =
+                    ConformanceTests.wpMethodTests(mealy, ALPHABET, maxDepth).collect(Collectors.toList());
+
+            assertSameTests(sequential, new WpMethodTestsIterator<>(mealy, ALPHABET, maxDepth));
+            Assert.assertEquals(ConformanceTests.wpMethodTests(mealy, ALPHABET, maxDepth)
+                                                .parallel()
+                                                .collect(Collectors.toList()), sequential);
+            for (int numShards : new int[] {1, 3, 100}) {
+                Assert.assertEquals(concat(ConformanceTests.wpMethodTestShards(mealy, ALPHABET, maxDepth, numShards)),
+                                    sequential);
+            }
+        }
+    }
+
+    public void testEmpty() {
+        final CompactMealy<Integer, Character> empty = new CompactMealy<>(ALPHABET);
+        Assert.assertEquals(ConformanceTests.wMethodTests(empty, ALPHABET, 2).count(), 0);
+        Assert.assertEquals(concat(ConformanceTests.wpMethodTestShards(empty, ALPHABET, 2, 4)).size(), 0);
+    }
+
+    private static List<Word<Integer>> concat(List<Iterator<Word<Integer>>> shards) {
+        final List<Word<Integer>> result = new ArrayList<>();
+        for (Iterator<Word<Integer>> shard : shards) {
+            Iterators.addAll(result, shard);
+        }
+        return result;
+    }
+
+    private static void assertSameTests(List<Word<Integer>> actual, Iterator<Word<Integer>> expected) {
+        final List<Word<Integer>> expectedTests = new ArrayList<>();
+        final List<Word<Integer>> actualTests = new ArrayList<>(actual);
+        Iterators.addAll(expectedTests, expected);
+
+        // Order may be different, but that is ok
+        expectedTests.sort(Word.canonicalComparator(Integer::compare));
+        actualTests.sort(Word.canonicalComparator(Integer::compare));
+
+        Assert.assertEquals(actualTests, expectedTests);
+    }
+}
@@ -0,0 +1,117 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.google.common.collect.Iterators;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class PrefixTreeTestSuiteTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'c');
+
+    public void testExecutionPlan() {
+        final PrefixTreeTestSuite<Character> suite = new PrefixTreeTestSuite<>(ALPHABET);
+        Assert.assertFalse(suite.iterator().hasNext());
+
+        suite.add(Word.epsilon());
+        assertExecutions(suite, Collections.singletonList(Word.epsilon()));
+        Assert.assertEquals(suite.getNumExecutions(), 1);
+        Assert.assertEquals(suite.getNumExecutionSymbols(), 0);
+
+        suite.add(Word.fromString("ab"));
+        suite.add(Word.fromString("abc"));
+        suite.add(Word.fromString("b"));
+        suite.add(Word.fromString("aa"));
+        suite.add(Word.fromString("ab"));
+
+        assertExecutions(suite, Arrays.asList(Word.fromString("aa"), Word.fromString("abc"), Word.fromString("b")));
+        Assert.assertEquals(suite.getNumTests(), 6);
+        Assert.assertEquals(suite.getNumDistinctTests(), 5);
+        Assert.assertEquals(suite.getNumTestSymbols(), 10);
+        Assert.assertEquals(suite.getNumExecutions(), 3);
+        Assert.assertEquals(suite.getNumExecutionSymbols(), 6);
+        Assert.assertEquals(suite.getNumPrefixes(), 5);
+
+        final List<PrefixTreeTestSuite.Execution<Character>> executions = new ArrayList<>();
+        suite.forEach(executions::add);
+        Assert.assertEquals(executions.get(0).getTestLengths(), new int[] {0, 2});
+        Assert.assertEquals(executions.get(1).getTestLengths(), new int[] {2, 3});
+        Assert.assertEquals(executions.get(2).getTestLengths(), new int[] {1});
+        Assert.assertEquals(executions.get(1).getTest(0), Word.fromString("ab"));
+    }
+
+    public void testWMethodSuite() {
+        final CompactMealy<Character, Integer> mealy =
+                RandomAutomata.randomMealy(new Random(42), 20, ALPHABET, Arrays.asList(0, 1));
+
+        final List<Word<Character>> tests = new ArrayList<>();
+        Iterators.addAll(tests, new WMethodTestsIterator<>(mealy, ALPHABET, 2));
+
+        final PrefixTreeTestSuite<Character> suite = new PrefixTreeTestSuite<>(ALPHABET);
+        suite.addAll(tests);
+
+        final Set<Word<Character>> distinctTests = new HashSet<>(tests);
+        final List<Word<Character>> coveredTests = new ArrayList<>();
+        final List<Word<Character>> executedWords = new ArrayList<>();
+        long executedSymbols = 0;
+
+        for (PrefixTreeTestSuite.Execution<Character> execution : suite) {
+            executedWords.add(execution.getWord());
+            executedSymbols += execution.getWord().length();
+            for (int i = 0; i < execution.getNumTests(); i++) {
+                coveredTests.add(execution.getTest(i));
+            }
+        }
+
+        // every test is covered exactly once
+        Assert.assertEquals(coveredTests.size(), distinctTests.size());
+        Assert.assertEquals(new HashSet<>(coveredTests), distinctTests);
+
+        // executions are exactly the maximal tests
+        for (Word<Character> w : executedWords) {
+            Assert.assertTrue(distinctTests.contains(w));
+            Assert.assertTrue(distinctTests.stream().noneMatch(t -> t.length() > w.length() && w.isPrefixOf(t)));
+        }
+
+        Assert.assertEquals(suite.getNumTests(), tests.size());
+        Assert.assertEquals(suite.getNumDistinctTests(), distinctTests.size());
+        Assert.assertEquals(suite.getNumTestSymbols(), tests.stream().mapToLong(Word::length).sum());
+        Assert.assertEquals(suite.getNumExecutions(), executedWords.size());
+        Assert.assertEquals(suite.getNumExecutionSymbols(), executedSymbols);
+        Assert.assertTrue(suite.getNumExecutionSymbols() < suite.getNumTestSymbols());
+    }
+
+    private static void assertExecutions(PrefixTreeTestSuite<Character> suite, List<Word<Character>> expected) {
+        final List<Word<Character>> actual = new ArrayList<>();
+        suite.forEach(e -> actual.add(e.getWord()));
+        Assert.assertEquals(actual, expected);
+    }
+}
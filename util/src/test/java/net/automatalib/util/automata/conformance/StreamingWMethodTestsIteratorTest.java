@@ -0,0 +1,103 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Iterators;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class StreamingWMethodTestsIteratorTest {
+
+    private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 3);
+
+    public void testWMethod() {
+        final DFA<?, Integer> dfa = RandomAutomata.randomDFA(new Random(42), 10, ALPHABET);
+        final CompactMealy<Integer, Character> mealy =
+                RandomAutomata.randomMealy(new Random(42), 10, ALPHABET, Arrays.asList('a', 'b'), false);
+
+        for (int maxDepth = 0; maxDepth <= 2; maxDepth++) {
+            assertSameTests(new WMethodTestsIterator<>(dfa, ALPHABET, maxDepth),
+                            new StreamingWMethodTestsIterator<>(dfa, ALPHABET, maxDepth));
+            assertSameTests(new WMethodTestsIterator<>(mealy, ALPHABET, maxDepth),
+                            new StreamingWMethodTestsIterator<>(mealy, ALPHABET, maxDepth));
+        }
+    }
+
+    public void testWpMethod() {
+        final DFA<?, Integer> dfa = RandomAutomata.randomDFA(new Random(42), 10, ALPHABET);
+        final CompactMealy<Integer, Character> mealy =
+                RandomAutomata.randomMealy(new Random(42), 10, ALPHABET, Arrays.asList('a', 'b'), false);
+
+        for (int maxDepth = 0; maxDepth <= 2; maxDepth++) {
+            assertSameTests(new WpMethodTestsIterator<>(dfa, ALPHABET, maxDepth),
+                            new StreamingWpMethodTestsIterator<>(dfa, ALPHABET, maxDepth));
+            assertSameTests(new WpMethodTestsIterator<>(mealy, ALPHABET, maxDepth),
+                            new StreamingWpMethodTestsIterator<>(mealy, ALPHABET, maxDepth));
+        }
+    }
+
+    public void testPartial() {
+        final CompactMealy<Integer, Character> mealy = new CompactMealy<>(ALPHABET);
+        final Character out = 'x';
+        final int q0 = mealy.addInitialState();
+        final int q1 = mealy.addState();
+        mealy.addTransition(q0, 0, q1, out);
+        mealy.addTransition(q1, 1, q0, out);
+
+        for (int maxDepth = 0; maxDepth <= 2; maxDepth++) {
+            assertSameTests(new WMethodTestsIterator<>(mealy, ALPHABET, maxDepth),
+                            new StreamingWMethodTestsIterator<>(mealy, ALPHABET, maxDepth));
+            assertSameTests(new WpMethodTestsIterator<>(mealy, ALPHABET, maxDepth),
+                            new StreamingWpMethodTestsIterator<>(mealy, ALPHABET, maxDepth));
+        }
+    }
+
+    public void testEmpty() {
+        final CompactMealy<Integer, Character> mealy = new CompactMealy<>(ALPHABET);
+        Assert.assertFalse(new StreamingWMethodTestsIterator<>(mealy, ALPHABET, 2).hasNext());
+        Assert.assertFalse(new StreamingWpMethodTestsIterator<>(mealy, ALPHABET, 2).hasNext());
+
+        final DFA<?, Integer> single = RandomAutomata.randomDFA(new Random(42), 1, ALPHABET);
+        assertSameTests(new WMethodTestsIterator<>(single, ALPHABET, 1),
+                        new StreamingWMethodTestsIterator<>(single, ALPHABET, 1));
+    }
+
+    private static void assertSameTests(Iterator<Word<Integer>> expected, Iterator<Word<Integer>> actual) {
+        final List<Word<Integer>> expectedTests = new ArrayList<>();
+        final List<Word<Integer>> actualTests = new ArrayList<>();
+        Iterators.addAll(expectedTests, expected);
+        Iterators.addAll(actualTests, actual);
+
+        // Order may be different, but that is ok
+        expectedTests.sort(Word.canonicalComparator(Integer::compare));
+        actualTests.sort(Word.canonicalComparator(Integer::compare));
+
+        Assert.assertEquals(actualTests, expectedTests);
+    }
+}
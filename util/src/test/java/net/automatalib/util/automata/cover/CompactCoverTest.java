@@ -0,0 +1,101 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.cover;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.automata.DeterministicAutomaton;
+import net.automatalib.automata.fsa.impl.FastDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class CompactCoverTest {
+
+    private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 3);
+
+    public void testCompleteAutomaton() {
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(new Random(42), 100, ALPHABET, false);
+        checkCover(dfa, Covers.compactCover(dfa, ALPHABET));
+        checkCover(dfa, Covers.fullIntCompactCover(dfa.fullIntAbstraction(ALPHABET), ALPHABET));
+        checkCover(dfa, Covers.stateIntCompactCover(dfa.stateIntAbstraction(), ALPHABET));
+    }
+
+    public void testPartialAutomaton() {
+        final Random random = new Random(42);
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, 100, ALPHABET, false);
+        for (int i = 0; i < 150; i++) {
+            dfa.removeAllTransitions(random.nextInt(dfa.size()), ALPHABET.getSymbol(random.nextInt(ALPHABET.size())));
+        }
+
+        final CompactCover<Integer> cover = Covers.compactCover(dfa, ALPHABET);
+        checkCover(dfa, cover);
+        Assert.assertTrue(cover.getNumStates() < dfa.size());
+        Assert.assertTrue(cover.getNumTransitions() < cover.getNumStates() * ALPHABET.size());
+
+        for (int s = 0; s < dfa.size(); s++) {
+            if (cover.isCovered(s)) {
+                Assert.assertEquals(dfa.getState(cover.getAccessSequence(s)), Integer.valueOf(s));
+                if (s != dfa.getIntInitialState()) {
+                    final int parent = cover.getParent(s);
+                    final int input = cover.getParentInput(s);
+                    Assert.assertEquals(dfa.getSuccessor(parent, input), s);
+                    Assert.assertTrue(cover.isTreeEdge(parent, input, s));
+                }
+            }
+        }
+    }
+
+    public void testGenericAutomaton() {
+        final FastDFA<Integer> dfa = new FastDFA<>(ALPHABET);
+        RandomAutomata.randomDeterministic(new Random(42), 50, ALPHABET, null, null, dfa);
+        dfa.removeAllTransitions(dfa.getInitialState(), 0);
+
+        checkCover(dfa, Covers.compactCover(dfa, ALPHABET));
+        checkCover(dfa, Covers.stateIntCompactCover(dfa.stateIntAbstraction(), ALPHABET));
+    }
+
+    public void testEmptyAutomaton() {
+        final CompactDFA<Integer> dfa = new CompactDFA<>(ALPHABET);
+        dfa.addState();
+
+        final CompactCover<Integer> cover = Covers.compactCover(dfa, ALPHABET);
+        Assert.assertEquals(cover.getNumStates(), 0);
+        Assert.assertTrue(cover.getStateCover().isEmpty());
+        Assert.assertTrue(cover.getTransitionCover().isEmpty());
+        Assert.assertFalse(cover.isCovered(0));
+    }
+
+    private static void checkCover(DeterministicAutomaton<?, Integer, ?> automaton,
+                                   CompactCover<Integer> cover) {
+        final List<Word<Integer>> stateCover = new ArrayList<>();
+        final List<Word<Integer>> transitionCover = new ArrayList<>();
+        Covers.cover(automaton, ALPHABET, stateCover, transitionCover);
+
+        Assert.assertEquals(cover.getNumStates(), stateCover.size());
+        Assert.assertEquals(cover.getNumTransitions(), transitionCover.size());
+        Assert.assertEquals(cover.getStateCover(), stateCover);
+        Assert.assertEquals(cover.getTransitionCover(), transitionCover);
+        Assert.assertEquals(new ArrayList<>(cover.getTransitionCover()), transitionCover);
+    }
+}
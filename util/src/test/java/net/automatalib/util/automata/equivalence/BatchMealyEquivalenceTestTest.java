@@ -0,0 +1,104 @@
+/* Copyright (C) 2013-2018 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BatchMealyEquivalenceTestTest {
+
+    private static final Alphabet<Integer> INPUTS = Alphabets.integers(0, 2);
+    private static final Alphabet<Character> OUTPUTS = Alphabets.characters('a', 'b');
+
+    @Test
+    public void testBatch() {
+        final Random random = new Random(42);
+        final long seed = random.nextLong();
+        final CompactMealy<Integer, Character> reference =
+                RandomAutomata.randomMealy(new Random(seed), 500, INPUTS, OUTPUTS, false);
+
+        final BatchMealyEquivalenceTest<Integer, Character> test = new BatchMealyEquivalenceTest<>(reference, INPUTS);
+        Assert.assertEquals(test.getReferenceSize(), HopcroftMinimization.minimizeMealy(reference, INPUTS).size());
+
+        final List<CompactMealy<Integer, Character>> hypotheses = new ArrayList<>();
+        hypotheses.add(reference);
+        hypotheses.add(HopcroftMinimization.minimizeMealy(reference, INPUTS));
+        for (int i = 0; i < 20; i++) {
+            final CompactMealy<Integer, Character> hyp;
+            if (i % 2 == 0) {
+                hyp = RandomAutomata.randomMealy(new Random(seed), 500, INPUTS, OUTPUTS, false);
+                final int state = random.nextInt(hyp.size());
+                final Character output = hyp.getOutput(state, 1) == 'a' ? 'b' : 'a';
+                hyp.setTransition(state, 1, hyp.getSuccessor(state, 1), output);
+            } else {
+                hyp = RandomAutomata.randomMealy(random, 1 + random.nextInt(50), INPUTS, OUTPUTS, false);
+            }
+            hypotheses.add(hyp);
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final List<Word<Integer>> words = test.findSeparatingWords(hypotheses, pool);
+            Assert.assertEquals(words, test.findSeparatingWords(hypotheses));
+            Assert.assertEquals(words.size(), hypotheses.size());
+
+            for (int i = 0; i < hypotheses.size(); i++) {
+                final CompactMealy<Integer, Character> hyp = hypotheses.get(i);
+                final Word<Integer> expected = Automata.findShortestSeparatingWord(reference, hyp, INPUTS);
+                final Word<Integer> actual = words.get(i);
+
+                Assert.assertEquals(actual, test.findSeparatingWord(hyp));
+                if (expected == null) {
+                    Assert.assertNull(actual);
+                } else {
+                    Assert.assertEquals(actual.length(), expected.length());
+                    Assert.assertNotEquals(hyp.computeOutput(actual), reference.computeOutput(actual));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPartialReference() {
+        final CompactMealy<Integer, Character> reference = new CompactMealy<>(INPUTS);
+        final int q0 = reference.addIntInitialState();
+        final int q1 = reference.addIntState();
+        reference.setTransition(q0, 0, q1, (Character) 'a');
+        reference.setTransition(q1, 1, q0, (Character) 'b');
+
+        final BatchMealyEquivalenceTest<Integer, Character> test = new BatchMealyEquivalenceTest<>(reference, INPUTS);
+        Assert.assertNull(test.findSeparatingWord(reference));
+
+        final CompactMealy<Integer, Character> hyp = new CompactMealy<>(INPUTS);
+        hyp.addIntInitialState();
+        hyp.setTransition(0, 0, 0, (Character) 'a');
+        Assert.assertEquals(test.findSeparatingWord(hyp), Word.fromSymbols(0, 0));
+    }
+}
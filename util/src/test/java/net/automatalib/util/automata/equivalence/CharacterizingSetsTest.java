@@ -15,16 +15,22 @@
  */
 package net.automatalib.util.automata.equivalence;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
 
 import net.automatalib.automata.UniversalDeterministicAutomaton;
 import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.automata.transout.MealyMachine;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
 import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization.PruningMode;
 import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
@@ -39,6 +45,7 @@ public class CharacterizingSetsTest {
 
     private static final Random RANDOM = new Random(0);
     private static final int AUTOMATON_SIZE = 20;
+    private static final Object UNDEFINED = new Object();
 
     @Test
     public void characterizingDFATest() {
@@ -62,6 +69,100 @@ public class CharacterizingSetsTest {
         checkCharacterizingSet(mealy, characterizingSet);
     }
 
+    @Test
+    public void splittingTreeTest() {
+        final Alphabet<Integer> inputAlphabet = Alphabets.integers(0, 2);
+        final Alphabet<Character> outputAlphabet = Alphabets.characters('a', 'b');
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 10; i++) {
+            // non-minimal automata contain equivalent states
+            final CompactMealy<Integer, Character> mealy =
+                    RandomAutomata.randomMealy(random, 40, inputAlphabet, outputAlphabet, false);
+            final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, 40, inputAlphabet, false);
+
+            checkSplittingTreeCharacterizingSet(mealy, inputAlphabet);
+            checkSplittingTreeCharacterizingSet(dfa, inputAlphabet);
+
+            // partial automata
+            for (int j = 0; j < 10; j++) {
+                mealy.removeAllTransitions(random.nextInt(mealy.size()), random.nextInt(inputAlphabet.size()));
+            }
+            checkSplittingTreeCharacterizingSet(mealy, inputAlphabet);
+        }
+
+        final CompactDFA<Integer> single = new CompactDFA<>(inputAlphabet);
+        single.addInitialState(true);
+        final List<Word<Integer>> empty = new ArrayList<>();
+        CharacterizingSets.findCharacterizingSetFromSplittingTree(single, inputAlphabet, empty);
+        Assert.assertTrue(empty.isEmpty());
+    }
+
+    @Test
+    public void splittingTreeLargeTest() {
+        final Alphabet<Integer> inputAlphabet = Alphabets.integers(0, 3);
+        final Alphabet<Character> outputAlphabet = Alphabets.characters('a', 'b');
+
+        final CompactMealy<Integer, Character> mealy =
+                RandomAutomata.randomMealy(new Random(42), 20000, inputAlphabet, outputAlphabet, false);
+        final List<Word<Integer>> characterizingSet = new ArrayList<>();
+        CharacterizingSets.findCharacterizingSetFromSplittingTree(mealy, inputAlphabet, characterizingSet);
+
+        // the characterizing set induces exactly the partition into equivalence classes
+        final int numClasses =
+                HopcroftMinimization.minimizeMealy(mealy, inputAlphabet, PruningMode.DONT_PRUNE).size();
+        final Set<List<Word<Character>>> signatures = new HashSet<>();
+        for (Integer s : mealy) {
+            final List<Word<Character>> signature = new ArrayList<>(characterizingSet.size());
+            for (Word<Integer> w : characterizingSet) {
+                signature.add(mealy.computeStateOutput(s, w));
+            }
+            signatures.add(signature);
+        }
+
+        Assert.assertEquals(signatures.size(), numClasses);
+        Assert.assertTrue(characterizingSet.size() < numClasses);
+    }
+
+    private <S, I> void checkSplittingTreeCharacterizingSet(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,
+                                                            Alphabet<I> alphabet) {
+        final List<Word<I>> characterizingSet = new ArrayList<>();
+        CharacterizingSets.findCharacterizingSetFromSplittingTree(automaton, alphabet, characterizingSet);
+
+        Assert.assertEquals(new HashSet<>(characterizingSet).size(), characterizingSet.size());
+        Assert.assertTrue(characterizingSet.size() < automaton.size());
+
+        for (final S s : automaton) {
+            for (final S t : automaton) {
+                final Word<I> sep = Automata.findSeparatingWord(automaton, s, t, alphabet);
+                final boolean separated = characterizingSet.stream()
+                                                           .anyMatch(w -> !Objects.equals(trace(automaton, s, w),
+                                                                                          trace(automaton, t, w)));
+                Assert.assertEquals(separated, sep != null, "States " + s + ',' + t);
+            }
+        }
+    }
+
+    private static <S, I, T> List<Object> trace(UniversalDeterministicAutomaton<S, I, T, ?, ?> automaton,
+                                                S state,
+                                                Word<I> word) {
+        final List<Object> trace = new ArrayList<>();
+        trace.add(automaton.getStateProperty(state));
+
+        S curr = state;
+        for (I sym : word) {
+            final T trans = automaton.getTransition(curr, sym);
+            if (trans == null) {
+                trace.add(UNDEFINED);
+                break;
+            }
+            curr = automaton.getSuccessor(trans);
+            trace.add(automaton.getTransitionProperty(trans));
+            trace.add(automaton.getStateProperty(curr));
+        }
+        return trace;
+    }
+
     private <S, I, T, SP, TP> void checkCharacterizingSet(UniversalDeterministicAutomaton<S, I, T, SP, TP> automaton,
                                                           Collection<Word<I>> characterizingSet) {
 
@@ -15,14 +15,21 @@
  */
 package net.automatalib.util.automata.equivalence;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import net.automatalib.automata.UniversalDeterministicAutomaton;
 import net.automatalib.automata.concepts.Output;
 import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.automata.transout.MealyMachine;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
 import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.IntWord;
 import net.automatalib.words.Word;
 import net.automatalib.words.impl.Alphabets;
 import org.testng.Assert;
@@ -36,9 +43,11 @@ public class DeterministicEquivalenceTestTest {
     private static final Random RANDOM = new Random(0);
     private static final int AUTOMATON_SIZE_SMALL = 20;
 
-    // Equivalence check switches implementation when stateSize**2 is > 10000
     private static final int AUTOMATON_SIZE_LARGE = 200;
 
+    // the product of two automata of this size has more states than an int can address
+    private static final int AUTOMATON_SIZE_HUGE = 70000;
+
     @Test
     public void testEquivalenceDFA() throws Exception {
         final Alphabet<Integer> alphabet = Alphabets.integers(0, 5);
@@ -72,6 +81,97 @@ public class DeterministicEquivalenceTestTest {
         testEquivalenceInternal(a1, a2, inputAlphabet, false);
     }
 
+    @Test
+    public void testEquivalenceMealyHuge() throws Exception {
+        final Alphabet<Integer> inputAlphabet = Alphabets.integers(0, 2);
+        final Alphabet<Character> outputAlphabet = Alphabets.characters('a', 'b');
+        final CompactMealy<Integer, Character> a1 =
+                RandomAutomata.randomMealy(RANDOM, AUTOMATON_SIZE_HUGE, inputAlphabet, outputAlphabet, false);
+        final CompactMealy<Integer, Character> a2 = HopcroftMinimization.minimizeMealy(a1, inputAlphabet);
+
+        testEquivalenceInternal(a1, a2, inputAlphabet, true);
+        Assert.assertNull(DeterministicEquivalenceTest.findSeparatingWordParallel(a1, a2, inputAlphabet));
+
+        final int state = a2.size() - 1;
+        final Character output = a2.getOutput(state, 0) == 'a' ? 'b' : 'a';
+        a2.setTransition(state, 0, a2.getSuccessor(state, 0), output);
+        testEquivalenceInternal(a1, a2, inputAlphabet, false);
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        final Alphabet<Integer> inputAlphabet = Alphabets.integers(0, 3);
+        final Alphabet<Character> outputAlphabet = Alphabets.characters('a', 'b');
+        final Random random = new Random(42);
+
+        final ForkJoinPool singleThreaded = new ForkJoinPool(1);
+        final ForkJoinPool multiThreaded = new ForkJoinPool(4);
+        try {
+            for (int i = 0; i < 10; i++) {
+                // copies of the same automaton, such that large parts of the product need to be explored
+                final long seed = random.nextLong();
+                final CompactMealy<Integer, Character> a1 =
+                        RandomAutomata.randomMealy(new Random(seed), 20000, inputAlphabet, outputAlphabet, false);
+                final CompactMealy<Integer, Character> a2 =
+                        RandomAutomata.randomMealy(new Random(seed), 20000, inputAlphabet, outputAlphabet, false);
+                if (i % 3 != 0) {
+                    final int state = random.nextInt(a2.size());
+                    final Character output = a2.getOutput(state, 0) == 'a' ? 'b' : 'a';
+                    a2.setTransition(state, 0, a2.getSuccessor(state, 0), output);
+                }
+
+                final Word<Integer> expected = DeterministicEquivalenceTest.findSeparatingWord(a1, a2, inputAlphabet);
+                final Word<Integer> single =
+                        DeterministicEquivalenceTest.findSeparatingWordParallel(a1, a2, inputAlphabet, singleThreaded);
+                final Word<Integer> multi =
+                        DeterministicEquivalenceTest.findSeparatingWordParallel(a1, a2, inputAlphabet, multiThreaded);
+
+                Assert.assertEquals(single, multi);
+                if (expected == null) {
+                    Assert.assertNull(multi);
+                } else {
+                    Assert.assertEquals(multi.length(), expected.length());
+                    Assert.assertNotEquals(a1.computeOutput(multi), a2.computeOutput(multi));
+                }
+            }
+        } finally {
+            singleThreaded.shutdown();
+            multiThreaded.shutdown();
+        }
+    }
+
+    @Test
+    public void testPartialAutomata() throws Exception {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+        final CompactDFA<Integer> a1 = new CompactDFA<>(alphabet);
+        final CompactDFA<Integer> a2 = new CompactDFA<>(alphabet);
+
+        for (CompactDFA<Integer> dfa : Arrays.asList(a1, a2)) {
+            final int q0 = dfa.addIntInitialState(false);
+            final int q1 = dfa.addIntState(true);
+            dfa.setTransition(q0, 0, q1);
+            dfa.setTransition(q1, 1, q0);
+        }
+        a2.setTransition(0, 1, 0);
+
+        Assert.assertNull(DeterministicEquivalenceTest.findSeparatingWord(a1, a1, alphabet));
+
+        final Word<Integer> sep = DeterministicEquivalenceTest.findSeparatingWord(a1, a2, alphabet);
+        Assert.assertEquals(sep, Word.fromSymbols(1));
+        Assert.assertTrue(sep instanceof IntWord);
+
+        // inputs that are not an alphabet
+        final List<Integer> inputs = Arrays.asList(1, 0);
+        Assert.assertEquals(DeterministicEquivalenceTest.findSeparatingWord(a1, a2, inputs), Word.fromSymbols(1));
+        Assert.assertEquals(new DeterministicEquivalenceTest<>(a1).findSeparatingWord(a2, Arrays.asList(0)), null);
+
+        Assert.assertEquals(DeterministicEquivalenceTest.findSeparatingWordParallel(a1, a2, inputs), Word.fromSymbols(1));
+
+        a2.setAccepting(1, false);
+        Assert.assertEquals(DeterministicEquivalenceTest.findSeparatingWord(a1, a2, Arrays.asList(0)),
+                            Word.fromSymbols(0));
+    }
+
     private <I, M extends UniversalDeterministicAutomaton<?, I, ?, ?, ?> & Output<I, ?>> void testEquivalenceInternal(M a1,
                                                                                                                       M a2,
                                                                                                                       Alphabet<I> alphabet,
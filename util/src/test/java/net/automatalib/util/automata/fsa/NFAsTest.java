@@ -15,8 +15,14 @@
  */
 package net.automatalib.util.automata.fsa;
 
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.commons.util.collections.CollectionsUtil;
+import net.automatalib.util.automata.Automata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
 import net.automatalib.words.impl.Alphabets;
@@ -45,4 +51,152 @@ public class NFAsTest {
 
         Assert.assertEquals(dfa.size(), 2);
     }
+
+    public void testDeterminizeParallel() throws Exception {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 9);
+        final CompactNFA<Integer> nfa = randomNFA(new Random(42), 12, alphabet);
+
+        final CompactDFA<Integer> sequential = NFAs.determinize(nfa, alphabet, false, false);
+        final CompactDFA<Integer> parallel = NFAs.determinizeParallel(nfa, alphabet, false, false);
+
+        Assert.assertEquals(parallel.size(), sequential.size());
+        Assert.assertTrue(Automata.testEquivalence(sequential, parallel, alphabet));
+
+        final ForkJoinPool singleThreaded = new ForkJoinPool(1);
+        final ForkJoinPool multiThreaded = new ForkJoinPool(4);
+        try {
+            final CompactDFA<Integer> parallel1 = NFAs.determinizeParallel(nfa, alphabet, false, false, singleThreaded);
+            final CompactDFA<Integer> parallel4 = NFAs.determinizeParallel(nfa, alphabet, false, false, multiThreaded);
+
+            // state numbering must not depend on the number of threads
+            Assert.assertEquals(parallel4.size(), parallel1.size());
+            for (int s = 0; s < parallel1.size(); s++) {
+                Assert.assertEquals(parallel4.isAccepting(s), parallel1.isAccepting(s));
+                for (int i = 0; i < alphabet.size(); i++) {
+                    Assert.assertEquals(parallel4.getSuccessor(s, i), parallel1.getSuccessor(s, i));
+                }
+            }
+        } finally {
+            singleThreaded.shutdown();
+            multiThreaded.shutdown();
+        }
+
+        final CompactDFA<Integer> minimal = NFAs.determinize(nfa, alphabet, false, true);
+        final CompactDFA<Integer> parallelMinimal = NFAs.determinizeParallel(nfa, alphabet, false, true);
+        Assert.assertEquals(parallelMinimal.size(), minimal.size());
+
+        final CompactDFA<Integer> partial = NFAs.determinize(nfa, alphabet, true, false);
+        final CompactDFA<Integer> parallelPartial = NFAs.determinizeParallel(nfa, alphabet, true, false);
+        Assert.assertEquals(parallelPartial.size(), partial.size());
+        Assert.assertTrue(Automata.testEquivalence(partial, parallelPartial, alphabet));
+    }
+
+    public void testDeterminizeMinimal() throws Exception {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 20; i++) {
+            final CompactNFA<Integer> nfa = randomNFA(random, 2 + random.nextInt(10), alphabet);
+
+            final CompactDFA<Integer> expected = NFAs.determinize(nfa, alphabet, false, true);
+            final CompactDFA<Integer> actual = NFAs.determinizeMinimal(nfa, alphabet, false);
+            Assert.assertEquals(actual.size(), expected.size());
+            Assert.assertTrue(Automata.testEquivalence(expected, actual, alphabet));
+
+            // the trim variant only lacks the sink (if any), but always retains an initial state
+            final CompactDFA<Integer> trim = NFAs.determinizeMinimal(nfa, alphabet, true);
+            Assert.assertEquals(trim.size(), Math.max(1, expected.size() - (hasSink(expected, alphabet) ? 1 : 0)));
+            for (List<Integer> word : CollectionsUtil.allTuples(alphabet, 0, 5)) {
+                Assert.assertEquals(trim.accepts(word), expected.accepts(word));
+            }
+        }
+
+        // empty language
+        final CompactNFA<Integer> empty = new CompactNFA<>(alphabet);
+        empty.addInitialState(false);
+        final CompactDFA<Integer> emptyDFA = NFAs.determinizeMinimal(empty);
+        Assert.assertEquals(emptyDFA.size(), 1);
+        Assert.assertFalse(emptyDFA.accepts(Word.fromSymbols(0, 1)));
+        Assert.assertEquals(emptyDFA.getSuccessor(0, 1), 0);
+    }
+
+    public void testInclusionAndEquivalence() throws Exception {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final Random random = new Random(1337);
+
+        for (int i = 0; i < 200; i++) {
+            final int size = 2 + random.nextInt(6);
+            final long seed = random.nextLong();
+            final CompactNFA<Integer> nfa1 = randomNFA(new Random(seed), size, alphabet);
+            final CompactNFA<Integer> nfa2;
+            if (i % 2 == 0) {
+                nfa2 = randomNFA(random, 2 + random.nextInt(6), alphabet);
+            } else {
+                // a superset of the language of nfa1
+                nfa2 = randomNFA(new Random(seed), size, alphabet);
+                nfa2.addTransition(random.nextInt(nfa2.size()), random.nextInt(3), random.nextInt(nfa2.size()));
+                nfa2.setAccepting(random.nextInt(nfa2.size()), true);
+            }
+
+            final CompactDFA<Integer> dfa1 = NFAs.determinize(nfa1, alphabet);
+            final CompactDFA<Integer> dfa2 = NFAs.determinize(nfa2, alphabet);
+
+            final boolean included = Automata.testEquivalence(DFAs.or(dfa1, dfa2, alphabet), dfa2, alphabet);
+            final Word<Integer> cex = NFAs.findInclusionCounterexample(nfa1, nfa2, alphabet);
+            Assert.assertEquals(NFAs.isIncluded(nfa1, nfa2, alphabet), included);
+            Assert.assertEquals(cex == null, included);
+            if (cex != null) {
+                Assert.assertTrue(nfa1.accepts(cex));
+                Assert.assertFalse(nfa2.accepts(cex));
+            }
+            if (i % 2 == 1) {
+                Assert.assertTrue(included);
+            }
+
+            final Word<Integer> expectedSep = Automata.findShortestSeparatingWord(dfa1, dfa2, alphabet);
+            final Word<Integer> sep = NFAs.findSeparatingWord(nfa1, nfa2, alphabet);
+            Assert.assertEquals(NFAs.testEquivalence(nfa1, nfa2, alphabet), expectedSep == null);
+            if (expectedSep == null) {
+                Assert.assertNull(sep);
+            } else {
+                Assert.assertNotNull(sep);
+                Assert.assertNotEquals(nfa1.accepts(sep), nfa2.accepts(sep));
+                Assert.assertEquals(sep.length(), expectedSep.length());
+            }
+        }
+
+        final CompactNFA<Integer> nfa = randomNFA(random, 5, alphabet);
+        Assert.assertTrue(NFAs.testEquivalence(nfa, NFAs.determinize(nfa, alphabet), alphabet));
+    }
+
+    private static boolean hasSink(CompactDFA<Integer> dfa, Alphabet<Integer> alphabet) {
+        for (int s = 0; s < dfa.size(); s++) {
+            boolean sink = !dfa.isAccepting(s);
+            for (int i = 0; sink && i < alphabet.size(); i++) {
+                sink = dfa.getSuccessor(s, i) == s;
+            }
+            if (sink) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static CompactNFA<Integer> randomNFA(Random random, int size, Alphabet<Integer> alphabet) {
+        final CompactNFA<Integer> nfa = new CompactNFA<>(alphabet);
+
+        nfa.addInitialState(false);
+        for (int i = 1; i < size; i++) {
+            nfa.addState(random.nextBoolean());
+        }
+        for (int s = 0; s < size; s++) {
+            for (int i = 0; i < alphabet.size(); i++) {
+                for (int j = random.nextInt(4); j > 0; j--) {
+                    nfa.addTransition(s, i, random.nextInt(size));
+                }
+            }
+        }
+
+        return nfa;
+    }
 }
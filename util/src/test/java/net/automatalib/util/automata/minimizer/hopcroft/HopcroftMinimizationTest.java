@@ -18,6 +18,8 @@ package net.automatalib.util.automata.minimizer.hopcroft;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import com.google.common.collect.Iterators;
 import net.automatalib.automata.Automaton;
@@ -26,9 +28,11 @@ import net.automatalib.automata.concepts.InputAlphabetHolder;
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
 import net.automatalib.util.automata.Automata;
 import net.automatalib.util.automata.builders.AutomatonBuilders;
 import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization.PruningMode;
+import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.impl.Alphabets;
 import org.testng.Assert;
@@ -136,6 +140,98 @@ public class HopcroftMinimizationTest {
         } else {
             assertAllInequivalent(resultUnpruned, alphabet);
         }
+
+        for (PruningMode pruningMode : PruningMode.values()) {
+            CompactDFA<I> expected = HopcroftMinimization.minimizeDFA(dfa, alphabet, pruningMode);
+            CompactDFA<I> parallel = HopcroftMinimization.minimizeDFAParallel(dfa, alphabet, pruningMode);
+            Assert.assertEquals(parallel.size(), expected.size());
+            Assert.assertTrue(Automata.testEquivalence(expected, parallel, alphabet));
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+        Random random = new Random(42);
+
+        ForkJoinPool singleThreaded = new ForkJoinPool(1);
+        ForkJoinPool multiThreaded = new ForkJoinPool(4);
+        try {
+            for (int size : new int[] {1, 100, 20000}) {
+                CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, size, alphabet, false);
+                CompactMealy<Integer, Integer> mealy =
+                        RandomAutomata.randomMealy(random, size, alphabet, Alphabets.integers(0, 1), false);
+
+                // pruning after the refinement numbers the states in breadth-first order
+                CompactDFA<Integer> expectedDFA =
+                        HopcroftMinimization.minimizeDFA(dfa, alphabet, PruningMode.PRUNE_AFTER);
+                assertIdentical(HopcroftMinimization.minimizeDFAParallel(dfa,
+                                                                        alphabet,
+                                                                        PruningMode.PRUNE_AFTER,
+                                                                        singleThreaded), expectedDFA, alphabet);
+                assertIdentical(HopcroftMinimization.minimizeDFAParallel(dfa,
+                                                                        alphabet,
+                                                                        PruningMode.PRUNE_AFTER,
+                                                                        multiThreaded), expectedDFA, alphabet);
+
+                CompactMealy<Integer, Integer> expectedMealy =
+                        HopcroftMinimization.minimizeMealy(mealy, alphabet, PruningMode.PRUNE_AFTER);
+                assertIdentical(HopcroftMinimization.minimizeMealyParallel(mealy,
+                                                                          alphabet,
+                                                                          PruningMode.PRUNE_AFTER,
+                                                                          multiThreaded), expectedMealy, alphabet);
+
+                // otherwise, only the partitions coincide
+                for (PruningMode pruningMode : new PruningMode[] {PruningMode.PRUNE_BEFORE, PruningMode.DONT_PRUNE}) {
+                    CompactMealy<Integer, Integer> parallel =
+                            HopcroftMinimization.minimizeMealyParallel(mealy, alphabet, pruningMode, multiThreaded);
+                    Assert.assertEquals(parallel.size(),
+                                        HopcroftMinimization.minimizeMealy(mealy, alphabet, pruningMode).size());
+                    Assert.assertTrue(Automata.testEquivalence(parallel, mealy, alphabet));
+                }
+            }
+        } finally {
+            singleThreaded.shutdown();
+            multiThreaded.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelLargeBlock() {
+        Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+        // with a single output, all states form one initial block, which is large enough to be sorted in parallel
+        CompactMealy<Integer, Integer> mealy =
+                RandomAutomata.randomMealy(new Random(42), 70000, alphabet, Alphabets.integers(0, 0), false);
+        // a second output for a single transition splits the large block by sorting
+        final int succ = mealy.getSuccessor((Integer) 0, (Integer) 0);
+        mealy.setTransition(0, 0, succ, (Integer) 1);
+
+        ForkJoinPool multiThreaded = new ForkJoinPool(4);
+        try {
+            CompactMealy<Integer, Integer> expected =
+                    HopcroftMinimization.minimizeMealy(mealy, alphabet, PruningMode.PRUNE_AFTER);
+            assertIdentical(HopcroftMinimization.minimizeMealyParallel(mealy,
+                                                                      alphabet,
+                                                                      PruningMode.PRUNE_AFTER,
+                                                                      multiThreaded), expected, alphabet);
+        } finally {
+            multiThreaded.shutdown();
+        }
+    }
+
+    private static <I, T1, T2> void assertIdentical(UniversalDeterministicAutomaton<Integer, I, T1, ?, ?> actual,
+                                                    UniversalDeterministicAutomaton<Integer, I, T2, ?, ?> expected,
+                                                    Alphabet<I> alphabet) {
+        Assert.assertEquals(actual.size(), expected.size());
+        Assert.assertEquals(actual.getInitialState(), expected.getInitialState());
+        for (int s = 0; s < expected.size(); s++) {
+            Assert.assertEquals(actual.getStateProperty(s), expected.getStateProperty(s));
+            for (I i : alphabet) {
+                Assert.assertEquals(actual.getSuccessor(s, i), expected.getSuccessor(s, i));
+                Assert.assertEquals(actual.getTransitionProperty(actual.getTransition(s, i)),
+                                    expected.getTransitionProperty(expected.getTransition(s, i)));
+            }
+        }
     }
 
     protected static <S, I> void assertAllInequivalent(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,